@@ -1,12 +1,25 @@
 package net.ssehub.teaching.exercise_submitter.lib;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import net.ssehub.teaching.exercise_submitter.lib.data.Assignment;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.InMemoryMetrics;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricsSink;
+import net.ssehub.teaching.exercise_submitter.lib.network.RateLimiter;
+import net.ssehub.teaching.exercise_submitter.lib.network.RequestExecutor;
+import net.ssehub.teaching.exercise_submitter.lib.network.RequestScheduler;
+import net.ssehub.teaching.exercise_submitter.lib.network.ResiliencePolicy;
 import net.ssehub.teaching.exercise_submitter.lib.student_management_system.ApiConnection;
 import net.ssehub.teaching.exercise_submitter.lib.student_management_system.ApiException;
 import net.ssehub.teaching.exercise_submitter.lib.student_management_system.AuthenticationException;
 import net.ssehub.teaching.exercise_submitter.lib.student_management_system.DummyApiConnection;
 import net.ssehub.teaching.exercise_submitter.lib.student_management_system.IApiConnection;
 import net.ssehub.teaching.exercise_submitter.lib.student_management_system.NetworkException;
+import net.ssehub.teaching.exercise_submitter.lib.student_management_system.SyntheticApiConnection;
+import net.ssehub.teaching.exercise_submitter.lib.student_management_system.SyntheticDataset;
 import net.ssehub.teaching.exercise_submitter.lib.student_management_system.UserNotInCourseException;
+import net.ssehub.teaching.exercise_submitter.lib.submission.Submitter;
 
 /**
  * Factory for creating instances of {@link ExerciseSubmitterManager}.
@@ -29,6 +42,22 @@ public class ExerciseSubmitterFactory {
     
     private boolean dummyApiConnection;
     
+    private ResiliencePolicy resiliencePolicy = new ResiliencePolicy();
+    
+    private double rateLimit;
+    
+    private int rateLimitBurst;
+    
+    private Map<String, RateLimiter> endpointRateLimiters = new HashMap<>();
+    
+    private MetricsSink metricsSink;
+    
+    private RequestScheduler requestScheduler;
+    
+    private SyntheticDataset syntheticDataset;
+    
+    private boolean skipUnchangedSubmissions;
+    
     /**
      * Sets the username to use. This will be used to log into the student management system and homework submission
      * server.
@@ -102,6 +131,103 @@ public class ExerciseSubmitterFactory {
         this.exerciseSubmitterServerUrl = url;
         return this;
     }
+    
+    /**
+     * Sets the {@link ResiliencePolicy} for all requests to the student management system, the authentication system
+     * and the exercise-submitter-server. If this is not called, the default policy is used.
+     * 
+     * @param policy The policy to use.
+     * 
+     * @return This.
+     */
+    public ExerciseSubmitterFactory withResiliencePolicy(ResiliencePolicy policy) {
+        this.resiliencePolicy = policy;
+        return this;
+    }
+    
+    /**
+     * Limits the rate of requests that are sent to each endpoint of the student management system, the authentication
+     * system and the exercise-submitter-server. Each endpoint gets its own token bucket. By default, the request rate
+     * is not limited.
+     * 
+     * @param requestsPerSecond The number of requests per second per endpoint in the long run.
+     * @param burst The number of requests per endpoint that may be sent at once after an idle period.
+     * 
+     * @return This.
+     * 
+     * @throws IllegalArgumentException If requestsPerSecond is not positive or burst is less than 1.
+     * 
+     * @see #withRateLimit(String, double, int)
+     */
+    public ExerciseSubmitterFactory withRateLimit(double requestsPerSecond, int burst)
+            throws IllegalArgumentException {
+        new RateLimiter(requestsPerSecond, burst); // validate arguments
+        this.rateLimit = requestsPerSecond;
+        this.rateLimitBurst = burst;
+        return this;
+    }
+    
+    /**
+     * Limits the rate of requests that are sent to a single endpoint. Overrides the limit set by
+     * {@link #withRateLimit(double, int)} for this endpoint.
+     * 
+     * @param endpoint The name of the endpoint, e.g. <code>submission.submit</code> or
+     *      <code>submission.listVersions</code>.
+     * @param requestsPerSecond The number of requests per second in the long run.
+     * @param burst The number of requests that may be sent at once after an idle period.
+     * 
+     * @return This.
+     * 
+     * @throws IllegalArgumentException If requestsPerSecond is not positive or burst is less than 1.
+     */
+    public ExerciseSubmitterFactory withRateLimit(String endpoint, double requestsPerSecond, int burst)
+            throws IllegalArgumentException {
+        this.endpointRateLimiters.put(endpoint, new RateLimiter(requestsPerSecond, burst));
+        return this;
+    }
+    
+    /**
+     * Sets the {@link MetricsSink} that the latencies, request and error counts, and transferred bytes of all
+     * operations are recorded in. If this is not called, a new {@link InMemoryMetrics} is used for each built
+     * {@link ExerciseSubmitterManager}, see {@link ExerciseSubmitterManager#getMetrics()}.
+     * 
+     * @param metricsSink The sink to record metrics in. Use {@link MetricsSink#NONE} to disable recording.
+     * 
+     * @return This.
+     */
+    public ExerciseSubmitterFactory withMetricsSink(MetricsSink metricsSink) {
+        this.metricsSink = metricsSink;
+        return this;
+    }
+    
+    /**
+     * Sends all requests to the student management system, the authentication system and the
+     * exercise-submitter-server through the given {@link RequestScheduler}, so that interactive requests are preferred
+     * over background traffic (e.g. polling or bulk exports). By default, requests are not scheduled.
+     * 
+     * @param requestScheduler The scheduler of the requests.
+     * 
+     * @return This.
+     */
+    public ExerciseSubmitterFactory withRequestScheduler(RequestScheduler requestScheduler) {
+        this.requestScheduler = requestScheduler;
+        return this;
+    }
+    
+    /**
+     * Sets whether a submission is skipped if its content equals the last submission of the same assignment and group,
+     * see {@link ExerciseSubmitterManager#getSubmitter(Assignment)} and {@link Submitter#withSkipUnchanged(boolean)}.
+     * By default, every submission is uploaded.
+     * 
+     * @param skipUnchangedSubmissions Whether unchanged submissions are skipped.
+     * 
+     * @return This.
+     */
+    public ExerciseSubmitterFactory withSkipUnchangedSubmissions(boolean skipUnchangedSubmissions) {
+        this.skipUnchangedSubmissions = skipUnchangedSubmissions;
+        return this;
+    }
+    
     /**
      * Uses the {@link DummyApiConnection} instead of a real one. Useful only for test cases.
      * 
@@ -112,6 +238,19 @@ public class ExerciseSubmitterFactory {
         return this;
     }
     
+    /**
+     * Uses a {@link SyntheticApiConnection} with the given generated dataset instead of a real connection. Useful for
+     * profiling with courses of realistic size, without a student management system.
+     * 
+     * @param dataset The dataset to serve.
+     * 
+     * @return This.
+     */
+    public ExerciseSubmitterFactory withSyntheticApiConnection(SyntheticDataset dataset) {
+        this.syntheticDataset = dataset;
+        return this;
+    }
+    
     /**
      * Creates a new {@link ExerciseSubmitterManager} and logs into student management the system.
      * <p>
@@ -127,14 +266,31 @@ public class ExerciseSubmitterFactory {
     public ExerciseSubmitterManager build()
             throws UserNotInCourseException, NetworkException, AuthenticationException, ApiException {
         
+        RequestExecutor executor = new RequestExecutor(resiliencePolicy);
+        if (rateLimit > 0) {
+            executor.withRateLimit(rateLimit, rateLimitBurst);
+        }
+        endpointRateLimiters.forEach(executor::withRateLimiter);
+        if (metricsSink != null) {
+            executor.withMetricsSink(metricsSink);
+        }
+        if (requestScheduler != null) {
+            executor.withRequestScheduler(requestScheduler);
+        }
+        
         IApiConnection apiConnection;
-        if (!dummyApiConnection) {
-            apiConnection = new ApiConnection(authUrl, mgmtUrl);
+        if (syntheticDataset != null) {
+            apiConnection = new SyntheticApiConnection(syntheticDataset);
+        } else if (!dummyApiConnection) {
+            apiConnection = new ApiConnection(authUrl, mgmtUrl, executor);
         } else {
             apiConnection = new DummyApiConnection();
         }
         
-        return new ExerciseSubmitterManager(username, password, courseId, apiConnection, exerciseSubmitterServerUrl);
+        ExerciseSubmitterManager manager = new ExerciseSubmitterManager(username, password, courseId, apiConnection,
+                exerciseSubmitterServerUrl, executor);
+        manager.setSkipUnchanged(skipUnchangedSubmissions);
+        return manager;
     }
     
 
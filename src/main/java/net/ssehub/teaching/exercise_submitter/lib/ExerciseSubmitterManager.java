@@ -1,12 +1,18 @@
 package net.ssehub.teaching.exercise_submitter.lib;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import net.ssehub.teaching.exercise_submitter.lib.data.Assignment;
 import net.ssehub.teaching.exercise_submitter.lib.data.Assignment.State;
 import net.ssehub.teaching.exercise_submitter.lib.data.Course;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.InMemoryMetrics;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricsSink;
+import net.ssehub.teaching.exercise_submitter.lib.network.RequestExecutor;
+import net.ssehub.teaching.exercise_submitter.lib.replay.BulkExporter;
 import net.ssehub.teaching.exercise_submitter.lib.replay.Replayer;
 import net.ssehub.teaching.exercise_submitter.lib.student_management_system.ApiException;
 import net.ssehub.teaching.exercise_submitter.lib.student_management_system.AuthenticationException;
@@ -14,6 +20,7 @@ import net.ssehub.teaching.exercise_submitter.lib.student_management_system.Grou
 import net.ssehub.teaching.exercise_submitter.lib.student_management_system.IApiConnection;
 import net.ssehub.teaching.exercise_submitter.lib.student_management_system.NetworkException;
 import net.ssehub.teaching.exercise_submitter.lib.student_management_system.UserNotInCourseException;
+import net.ssehub.teaching.exercise_submitter.lib.submission.SubmissionCache;
 import net.ssehub.teaching.exercise_submitter.lib.submission.Submitter;
 
 
@@ -33,10 +40,18 @@ public class ExerciseSubmitterManager {
     
     private String exerciseSubmitterServerUrl;
     
+    private RequestExecutor executor;
+    
     private Optional<Replayer> cachedReplayer;
     
     private Optional<Assignment> cachedReplayerAssignment;
     
+    private boolean skipUnchanged;
+    
+    private Map<List<String>, SubmissionCache> submissionCaches = new ConcurrentHashMap<>();
+    
+    // checkstyle: stop parameter number check
+    
     /**
      * Creates a new connection to the student management system with the given username and password.
      *
@@ -45,24 +60,41 @@ public class ExerciseSubmitterManager {
      * @param courseId The ID of the course, e.g. <code>java-wise2021</code>.
      * @param apiConnection The {@link IApiConnection} to use.
      * @param exerciseSubmitterServerUrl The URL to the API of the exercise-submitter-server.
+     * @param executor The {@link RequestExecutor} for the requests to the exercise-submitter-server.
      * @throws NetworkException If the network communication fails.
      * @throws AuthenticationException If the authentication fails.
      * @throws UserNotInCourseException If the user is not enrolled in the course or the course does not exist.
      * @throws ApiException If a generic API exception occurs.
      */
     ExerciseSubmitterManager(String username, String password, String courseId, IApiConnection apiConnection,
-                String exerciseSubmitterServerUrl)
+                String exerciseSubmitterServerUrl, RequestExecutor executor)
             throws NetworkException, AuthenticationException, UserNotInCourseException, ApiException {
         
         this.mgmtConnection = apiConnection;
         this.mgmtConnection.login(username, password);
         this.course = mgmtConnection.getCourse(courseId);
         this.exerciseSubmitterServerUrl = exerciseSubmitterServerUrl;
+        this.executor = executor;
         
         this.cachedReplayer = Optional.empty();
         this.cachedReplayerAssignment = Optional.empty();
     }
     
+    // checkstyle: resume parameter number check
+    
+    /**
+     * Sets whether the {@link Submitter}s created by {@link #getSubmitter(Assignment)} skip a submission that equals
+     * the last submission of the same assignment and group, see {@link Submitter#withSkipUnchanged(boolean)}. The
+     * last submission is remembered by this manager, so this works across all {@link Submitter}s it creates.
+     * <p>
+     * Package visibility for the {@link ExerciseSubmitterFactory}.
+     * 
+     * @param skipUnchanged Whether unchanged submissions are skipped.
+     */
+    void setSkipUnchanged(boolean skipUnchanged) {
+        this.skipUnchanged = skipUnchanged;
+    }
+    
     /**
      * Returns the API connection to the student management system.
      * 
@@ -72,6 +104,17 @@ public class ExerciseSubmitterManager {
         return mgmtConnection;
     }
     
+    /**
+     * Returns the {@link MetricsSink} that the operations of this manager and of the {@link Submitter}s and
+     * {@link Replayer}s created by it are recorded in. Unless a different sink was set in the
+     * {@link ExerciseSubmitterFactory}, this is an {@link InMemoryMetrics}.
+     * 
+     * @return The {@link MetricsSink}.
+     */
+    public MetricsSink getMetrics() {
+        return executor.getMetrics();
+    }
+    
     /**
      * Returns the {@link Course} that this manager is connected to.
      * 
@@ -151,8 +194,14 @@ public class ExerciseSubmitterManager {
             throw new IllegalArgumentException("Assignment " + assignment.getName() + " is not in submittable");
         }
         
-        return new Submitter(exerciseSubmitterServerUrl, course.getId(), assignment.getName(),
-                getGroupName(assignment), mgmtConnection.getToken());
+        String groupName = getGroupName(assignment);
+        Submitter submitter = new Submitter(exerciseSubmitterServerUrl, course.getId(), assignment.getName(),
+                groupName, mgmtConnection.getToken(), executor);
+        if (skipUnchanged) {
+            submitter.withSubmissionCache(submissionCaches.computeIfAbsent(List.of(assignment.getName(), groupName),
+                key -> new SubmissionCache()));
+        }
+        return submitter;
     }
     
     /**
@@ -185,7 +234,7 @@ public class ExerciseSubmitterManager {
             
         } else {
             result = new Replayer(exerciseSubmitterServerUrl, course.getId(), assignment.getName(),
-                    getGroupName(assignment), mgmtConnection.getToken());
+                    getGroupName(assignment), mgmtConnection.getToken(), executor);
             
             cachedReplayer = Optional.of(result);
             cachedReplayerAssignment = Optional.of(assignment);
@@ -205,7 +254,21 @@ public class ExerciseSubmitterManager {
      */
     public Replayer getReplayer(Assignment assignment, String groupName) {
         return new Replayer(exerciseSubmitterServerUrl, course.getId(), assignment.getName(), groupName,
-                mgmtConnection.getToken());
+                mgmtConnection.getToken(), executor);
+    }
+    
+    /**
+     * Creates a {@link BulkExporter} that exports the latest submissions of many groups of the given assignment at
+     * once. Only tutors have access to the submissions of other groups. The names of all groups can be retrieved with
+     * {@link IApiConnection#getAllGroups(Course, Assignment)}.
+     * 
+     * @param assignment The assignment to export.
+     * 
+     * @return A {@link BulkExporter} for the given {@link Assignment}.
+     */
+    public BulkExporter getBulkExporter(Assignment assignment) {
+        return new BulkExporter(exerciseSubmitterServerUrl, course.getId(), assignment.getName(),
+                mgmtConnection.getToken(), executor);
     }
     
     /**
@@ -1,11 +1,15 @@
 package net.ssehub.teaching.exercise_submitter.lib.data;
 
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
+import net.ssehub.teaching.exercise_submitter.lib.submission.LazyProblemList;
 import net.ssehub.teaching.exercise_submitter.lib.submission.Problem;
+import net.ssehub.teaching.exercise_submitter.lib.submission.Problem.Severity;
+import net.ssehub.teaching.exercise_submitter.lib.submission.ProblemIndex;
 
 /**
  * An assessment of the submission of a group.
@@ -25,6 +29,8 @@ public class Assessment {
     
     private List<Problem> problems;
     
+    private ProblemIndex index;
+    
     /**
      * Creates a new assessment in draft status.
      */
@@ -114,12 +120,13 @@ public class Assessment {
     }
     
     /**
-     * Returns an unmodifiable view on the {@link Problem}s associated with this assessment.
+     * Returns an unmodifiable view on the {@link Problem}s associated with this assessment. Use
+     * {@link #addProblem(Problem)} or {@link #setProblems(List)} to change the problems.
      *
      * @return The list of problems for this assessment.
      */
-    public List<Problem> getProblems() {
-        return problems;
+    public synchronized List<Problem> getProblems() {
+        return Collections.unmodifiableList(problems);
     }
 
     /**
@@ -127,8 +134,58 @@ public class Assessment {
      * 
      * @param problem The problem to add.
      */
-    public void addProblem(Problem problem) {
+    public synchronized void addProblem(Problem problem) {
+        if (this.problems instanceof LazyProblemList) {
+            this.problems = new LinkedList<>(this.problems);
+        }
         this.problems.add(problem);
+        this.index = null;
+    }
+    
+    /**
+     * Replaces all {@link Problem}s of this assessment. Use a {@link LazyProblemList} to create the problems only when
+     * they are accessed; other lists are copied, so later changes of the given list do not affect this assessment.
+     * 
+     * @param problems The new problems.
+     */
+    public synchronized void setProblems(List<Problem> problems) {
+        if (problems instanceof LazyProblemList) {
+            this.problems = problems;
+        } else {
+            this.problems = new LinkedList<>(problems);
+        }
+        this.index = null;
+    }
+    
+    /**
+     * Returns the number of {@link Problem}s with severity {@link Severity#ERROR}.
+     * 
+     * @return The number of errors.
+     */
+    public int getErrorCount() {
+        return LazyProblemList.count(problems, Severity.ERROR);
+    }
+    
+    /**
+     * Returns the number of {@link Problem}s with severity {@link Severity#WARNING}.
+     * 
+     * @return The number of warnings.
+     */
+    public int getWarningCount() {
+        return LazyProblemList.count(problems, Severity.WARNING);
+    }
+    
+    /**
+     * Returns an index of the {@link Problem}s by file, line, check name and severity. The index is built on the first
+     * call and rebuilt after the problems change.
+     * 
+     * @return The index of {@link #getProblems()}.
+     */
+    public synchronized ProblemIndex getProblemIndex() {
+        if (index == null) {
+            index = new ProblemIndex(problems);
+        }
+        return index;
     }
     
     @Override
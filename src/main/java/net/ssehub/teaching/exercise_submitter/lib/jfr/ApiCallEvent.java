@@ -0,0 +1,85 @@
+package net.ssehub.teaching.exercise_submitter.lib.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event for a single REST call to one of the servers, including all of its retries. Emitted by
+ * the {@link net.ssehub.teaching.exercise_submitter.lib.network.RequestExecutor}.
+ */
+@Name("net.ssehub.teaching.exercise_submitter.ApiCall")
+@Label("API Call")
+@Category({"Exercise Submitter", "Network"})
+@Description("A REST call to the student management system, authentication system or exercise-submitter-server")
+public class ApiCallEvent extends Event {
+
+    @Label("Endpoint")
+    private String endpoint;
+
+    @Label("Course")
+    private String course;
+
+    @Label("Assignment")
+    private String assignment;
+
+    @Label("Idempotent")
+    private boolean idempotent;
+
+    @Label("Attempts")
+    @Description("Number of requests sent, including retries")
+    private int attempts;
+
+    @Label("Status Code")
+    @Description("HTTP status code of the last failed attempt; 0 if it succeeded or received no response")
+    private int statusCode;
+
+    @Label("Failure")
+    @Description("Type of the last failure, e.g. the network exception or http503; null if the call succeeded")
+    private String failure;
+
+    /**
+     * Creates a new event for a call.
+     *
+     * @param endpoint The name of the endpoint, e.g. <code>mgmt.getAssignments</code>.
+     * @param course The ID of the course that the call refers to; may be <code>null</code>.
+     * @param assignment The name of the assignment that the call refers to; may be <code>null</code>.
+     * @param idempotent Whether the call can safely be sent more than once.
+     */
+    public ApiCallEvent(String endpoint, String course, String assignment, boolean idempotent) {
+        this.endpoint = endpoint;
+        this.course = course;
+        this.assignment = assignment;
+        this.idempotent = idempotent;
+    }
+
+    /**
+     * Sets the number of requests that were sent.
+     *
+     * @param attempts The number of attempts.
+     */
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    /**
+     * Records a failed attempt.
+     *
+     * @param failure The type of the failure.
+     * @param statusCode The HTTP status code of the failure; 0 if no response was received.
+     */
+    public void setFailure(String failure, int statusCode) {
+        this.failure = failure;
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Clears the failure of a previous attempt, as a later attempt succeeded.
+     */
+    public void clearFailure() {
+        setFailure(null, 0);
+    }
+
+}
@@ -0,0 +1,57 @@
+package net.ssehub.teaching.exercise_submitter.lib.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timestamp;
+
+/**
+ * Java Flight Recorder event for replaying a version of a submission. Emitted by the
+ * {@link net.ssehub.teaching.exercise_submitter.lib.replay.Replayer}.
+ */
+@Name("net.ssehub.teaching.exercise_submitter.Replay")
+@Label("Replay")
+@Category({"Exercise Submitter", "Replay"})
+@Description("Replaying a version of a submission to a temporary directory")
+public class ReplayEvent extends Event {
+
+    @Label("Course")
+    private String course;
+
+    @Label("Assignment")
+    private String assignment;
+
+    @Label("Version")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    @Description("Timestamp of the replayed version; 0 for the latest version")
+    private long version;
+
+    @Label("Cache Hit")
+    @Description("Whether the version was already replayed before")
+    private boolean cacheHit;
+
+    /**
+     * Creates a new event for replaying a version.
+     *
+     * @param course The ID of the course.
+     * @param assignment The name of the assignment.
+     * @param versionMillis The timestamp of the version, in milliseconds since the epoch; 0 for the latest version.
+     */
+    public ReplayEvent(String course, String assignment, long versionMillis) {
+        this.course = course;
+        this.assignment = assignment;
+        this.version = versionMillis;
+    }
+
+    /**
+     * Sets whether the replayed version was taken from the cache.
+     *
+     * @param cacheHit Whether the version was cached.
+     */
+    public void setCacheHit(boolean cacheHit) {
+        this.cacheHit = cacheHit;
+    }
+
+}
@@ -0,0 +1,54 @@
+package net.ssehub.teaching.exercise_submitter.lib.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event for writing the files of a replayed version to a temporary directory. Emitted by the
+ * {@link net.ssehub.teaching.exercise_submitter.lib.replay.Replayer}.
+ */
+@Name("net.ssehub.teaching.exercise_submitter.ReplayWrite")
+@Label("Replay Write")
+@Category({"Exercise Submitter", "Replay"})
+@Description("Decoding and writing the files of a replayed version to disk")
+public class ReplayWriteEvent extends Event {
+
+    @Label("Course")
+    private String course;
+
+    @Label("Assignment")
+    private String assignment;
+
+    @Label("Files")
+    private int files;
+
+    @Label("Bytes Written")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * Creates a new event for writing a replayed version.
+     *
+     * @param course The ID of the course.
+     * @param assignment The name of the assignment.
+     */
+    public ReplayWriteEvent(String course, String assignment) {
+        this.course = course;
+        this.assignment = assignment;
+    }
+
+    /**
+     * Adds a written file.
+     *
+     * @param bytes The size of the file.
+     */
+    public void addFile(long bytes) {
+        this.files++;
+        this.bytes += bytes;
+    }
+
+}
@@ -0,0 +1,90 @@
+package net.ssehub.teaching.exercise_submitter.lib.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event for one phase of a submission, see {@link Phase}. Emitted by the
+ * {@link net.ssehub.teaching.exercise_submitter.lib.submission.Submitter}.
+ */
+@Name("net.ssehub.teaching.exercise_submitter.SubmissionPhase")
+@Label("Submission Phase")
+@Category({"Exercise Submitter", "Submission"})
+@Description("A phase of submitting a solution")
+public class SubmissionPhaseEvent extends Event {
+
+    /**
+     * The phases of a submission.
+     */
+    public enum Phase {
+
+        /**
+         * Listing the files in the submission directory.
+         */
+        WALK,
+
+        /**
+         * Reading and Base64-encoding the files.
+         */
+        ENCODE,
+
+        /**
+         * Uploading the files and waiting for the checks of the server.
+         */
+        UPLOAD,
+
+        /**
+         * Converting the result of the server. The problems are only created when they are accessed, see
+         * {@link net.ssehub.teaching.exercise_submitter.lib.submission.LazyProblemList}. So this phase covers counting
+         * the errors and warnings, not mapping the messages of the server.
+         */
+        MAP_RESULT;
+
+    }
+
+    @Label("Course")
+    private String course;
+
+    @Label("Assignment")
+    private String assignment;
+
+    @Label("Phase")
+    private String phase;
+
+    @Label("Files")
+    private int files;
+
+    @Label("Bytes")
+    @DataAmount
+    @Description("Number of bytes processed in this phase, if applicable")
+    private long bytes;
+
+    /**
+     * Creates a new event for a phase of a submission.
+     *
+     * @param course The ID of the course.
+     * @param assignment The name of the assignment.
+     * @param phase The phase.
+     */
+    public SubmissionPhaseEvent(String course, String assignment, Phase phase) {
+        this.course = course;
+        this.assignment = assignment;
+        this.phase = phase.name();
+    }
+
+    /**
+     * Sets the number of files and bytes processed in this phase.
+     *
+     * @param files The number of files.
+     * @param bytes The number of bytes.
+     */
+    public void setSize(int files, long bytes) {
+        this.files = files;
+        this.bytes = bytes;
+    }
+
+}
@@ -0,0 +1,100 @@
+package net.ssehub.teaching.exercise_submitter.lib.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link MetricsSink} that keeps all metrics in memory. Latencies are kept in a {@link LatencyHistogram} per
+ * operation, so the memory needed does not grow with the number of recorded values. This class is thread-safe.
+ */
+public class InMemoryMetrics implements MetricsSink {
+
+    private Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+    private Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordLatency(String name, long durationNanos) {
+        latencies.computeIfAbsent(name, n -> new LatencyHistogram()).record(durationNanos);
+    }
+
+    @Override
+    public void increment(String name, long amount) {
+        counters.computeIfAbsent(name, n -> new LongAdder()).add(amount);
+    }
+
+    /**
+     * Returns the latency histogram of the given operation.
+     *
+     * @param name The name of the operation.
+     *
+     * @return The {@link LatencyHistogram}; {@link Optional#empty()} if no latency was recorded for the operation.
+     */
+    public Optional<LatencyHistogram> getLatency(String name) {
+        return Optional.ofNullable(latencies.get(name));
+    }
+
+    /**
+     * Returns the latency histograms of all operations.
+     *
+     * @return An unmodifiable map of operation names to histograms, sorted by name.
+     */
+    public Map<String, LatencyHistogram> getLatencies() {
+        return Collections.unmodifiableMap(new TreeMap<>(latencies));
+    }
+
+    /**
+     * Returns the current value of the given counter.
+     *
+     * @param name The name of the counter.
+     *
+     * @return The value of the counter; 0 if it was never incremented.
+     */
+    public long getCounter(String name) {
+        LongAdder counter = counters.get(name);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * Returns a snapshot of all counters.
+     *
+     * @return An unmodifiable map of counter names to values, sorted by name.
+     */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> result = new TreeMap<>();
+        counters.forEach((name, counter) -> result.put(name, counter.sum()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Returns the ratio of hits to all lookups of the given cache.
+     *
+     * @param cache The name of the cache, e.g. {@link MetricNames#REPLAY_CACHE}.
+     *
+     * @return The hit ratio, between 0 and 1; {@link OptionalDouble#empty()} if the cache was never used.
+     */
+    public OptionalDouble getCacheHitRatio(String cache) {
+        long hits = getCounter(MetricNames.cacheHits(cache));
+        long lookups = hits + getCounter(MetricNames.cacheMisses(cache));
+        return lookups > 0 ? OptionalDouble.of((double) hits / lookups) : OptionalDouble.empty();
+    }
+
+    /**
+     * Removes all recorded metrics.
+     */
+    public void reset() {
+        latencies.clear();
+        counters.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "InMemoryMetrics [latencies=" + getLatencies() + ", counters=" + getCounters() + "]";
+    }
+
+}
@@ -0,0 +1,119 @@
+package net.ssehub.teaching.exercise_submitter.lib.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies with exponential buckets: bucket <code>i</code> holds all durations below
+ * <code>2^i</code> nanoseconds that do not fit into a lower bucket. Thus, percentiles are accurate up to a factor of
+ * two, while the memory needed is constant. This class is thread-safe and lock-free.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = Long.SIZE + 1;
+
+    private AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private AtomicLong count = new AtomicLong();
+
+    private AtomicLong totalNanos = new AtomicLong();
+
+    private AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records a single duration.
+     *
+     * @param durationNanos The duration, in nanoseconds. Negative values are treated as 0.
+     */
+    public void record(long durationNanos) {
+        long duration = Math.max(0, durationNanos);
+
+        buckets.incrementAndGet(bucketOf(duration));
+        count.incrementAndGet();
+        totalNanos.addAndGet(duration);
+        maxNanos.accumulateAndGet(duration, Math::max);
+    }
+
+    /**
+     * Returns the bucket that the given duration belongs to.
+     *
+     * @param durationNanos The duration, in nanoseconds. Not negative.
+     *
+     * @return The index of the bucket.
+     */
+    private static int bucketOf(long durationNanos) {
+        return Long.SIZE - Long.numberOfLeadingZeros(durationNanos);
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     *
+     * @return The number of durations.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the sum of all recorded durations.
+     *
+     * @return The total duration, in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    /**
+     * Returns the average of all recorded durations.
+     *
+     * @return The mean duration, in nanoseconds. 0 if nothing was recorded.
+     */
+    public long getMeanNanos() {
+        long n = count.get();
+        return n > 0 ? totalNanos.get() / n : 0;
+    }
+
+    /**
+     * Returns the longest recorded duration.
+     *
+     * @return The maximum duration, in nanoseconds. 0 if nothing was recorded.
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns an upper bound of the given percentile of the recorded durations. The result is at most twice the
+     * exact percentile, and never more than {@link #getMaxNanos()}.
+     *
+     * @param percentile The percentile, between 0 and 1 (e.g. 0.99).
+     *
+     * @return The percentile, in nanoseconds. 0 if nothing was recorded.
+     *
+     * @throws IllegalArgumentException If percentile is not between 0 and 1.
+     */
+    public long getPercentileNanos(double percentile) throws IllegalArgumentException {
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1");
+        }
+
+        long rank = (long) Math.ceil(percentile * count.get());
+        long seen = buckets.get(0);
+        int bucket = 0;
+        while (seen < rank && bucket < BUCKETS - 1) {
+            bucket++;
+            seen += buckets.get(bucket);
+        }
+
+        long upperBound = bucket >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+        return Math.min(upperBound, maxNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram [count=" + getCount() + ", meanNanos=" + getMeanNanos()
+                + ", p50Nanos=" + getPercentileNanos(0.5) + ", p99Nanos=" + getPercentileNanos(0.99)
+                + ", maxNanos=" + getMaxNanos() + "]";
+    }
+
+}
@@ -0,0 +1,140 @@
+package net.ssehub.teaching.exercise_submitter.lib.metrics;
+
+/**
+ * The names of the metrics recorded by this library.
+ * <p>
+ * Each request to a server is recorded under the name of its endpoint (e.g. <code>submission.submit</code> or
+ * <code>mgmt.getAssignments</code>): a latency for the whole request including retries, a counter of sent requests
+ * (see {@link #requests(String)}) and a counter per type of failure (see {@link #errors(String, String)}).
+ */
+public class MetricNames {
+
+    /**
+     * Latency of preparing a submission on the client, i.e. listing, reading and encoding the files. Compare this
+     * with the latency of <code>submission.submit</code> to see whether a slow submission is caused by the client or
+     * by the checks on the server.
+     */
+    public static final String SUBMISSION_PREPARE = "submission.prepare";
+
+    /**
+     * Counter of the bytes read from the files of submissions.
+     */
+    public static final String SUBMISSION_BYTES_READ = "submission.bytesRead";
+
+    /**
+     * Counter of the Base64-encoded bytes of submissions.
+     */
+    public static final String SUBMISSION_BYTES_ENCODED = "submission.bytesEncoded";
+
+    /**
+     * Counter of the encoded file bytes sent to the server. Counted once per attempt, i.e. retries count again.
+     */
+    public static final String SUBMISSION_BYTES_UPLOADED = "submission.bytesUploaded";
+
+    /**
+     * Latency of writing a replayed version to the disk.
+     */
+    public static final String REPLAY_WRITE = "replay.write";
+
+    /**
+     * Counter of the Base64-encoded file bytes received for replayed versions.
+     */
+    public static final String REPLAY_BYTES_DOWNLOADED = "replay.bytesDownloaded";
+
+    /**
+     * Counter of the decoded bytes written to disk for replayed versions.
+     */
+    public static final String REPLAY_BYTES_WRITTEN = "replay.bytesWritten";
+
+    /**
+     * Counter of the decoded bytes of replayed files that were hard-linked to an equal file instead of being written,
+     * see {@code Replayer#withHardLinks(boolean)}.
+     */
+    public static final String REPLAY_BYTES_LINKED = "replay.bytesLinked";
+
+    /**
+     * Name of the cache of the last submission, see {@code Submitter#withSkipUnchanged(boolean)}. See
+     * {@link #cacheHits(String)} and {@link #cacheMisses(String)}.
+     */
+    public static final String SUBMISSION_CACHE = "submission.unchanged";
+
+    /**
+     * Name of the cache of replayed versions. See {@link #cacheHits(String)} and {@link #cacheMisses(String)}.
+     */
+    public static final String REPLAY_CACHE = "replay.cache";
+
+    /**
+     * Counter of the hedged requests sent, see {@code Hedger}.
+     */
+    public static final String HEDGES_SENT = "hedge.sent";
+
+    /**
+     * Counter of the hedged requests that completed before the original request, see {@code Hedger}.
+     */
+    public static final String HEDGES_WON = "hedge.won";
+
+    /**
+     * No instances.
+     */
+    private MetricNames() {
+    }
+
+    /**
+     * Returns the name of the counter of requests sent to the given endpoint. Each attempt is counted, i.e. retries
+     * count again.
+     *
+     * @param endpoint The name of the endpoint.
+     *
+     * @return The name of the counter.
+     */
+    public static String requests(String endpoint) {
+        return endpoint + ".requests";
+    }
+
+    /**
+     * Returns the name of the counter of failures of the given type for the given endpoint.
+     *
+     * @param endpoint The name of the endpoint.
+     * @param type The type of the failure, e.g. <code>SocketTimeoutException</code> or <code>http503</code>.
+     *
+     * @return The name of the counter.
+     */
+    public static String errors(String endpoint, String type) {
+        return endpoint + ".errors." + type;
+    }
+
+    /**
+     * Returns the name of the latency of waiting for a free slot of the {@code RequestScheduler}, for requests of the
+     * given priority.
+     *
+     * @param priority The name of the priority, e.g. <code>interactive</code>.
+     *
+     * @return The name of the latency.
+     */
+    public static String schedulerWait(String priority) {
+        return "scheduler." + priority + ".wait";
+    }
+
+    /**
+     * Returns the name of the counter of hits of the given cache.
+     *
+     * @param cache The name of the cache, e.g. {@link #REPLAY_CACHE}.
+     *
+     * @return The name of the counter.
+     */
+    public static String cacheHits(String cache) {
+        return cache + ".hits";
+    }
+
+    /**
+     * Returns the name of the counter of misses of the given cache.
+     *
+     * @param cache The name of the cache, e.g. {@link #REPLAY_CACHE}.
+     *
+     * @return The name of the counter.
+     */
+    public static String cacheMisses(String cache) {
+        return cache + ".misses";
+    }
+
+}
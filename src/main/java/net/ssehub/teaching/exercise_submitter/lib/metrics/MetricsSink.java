@@ -0,0 +1,52 @@
+package net.ssehub.teaching.exercise_submitter.lib.metrics;
+
+/**
+ * Receives the metrics recorded by this library: latencies of operations and counters (e.g. number of requests or
+ * transferred bytes). See {@link MetricNames} for the names that are used.
+ * <p>
+ * Implementations must be thread-safe and should return quickly, as they are called on the hot path of each request.
+ * The default implementation is {@link InMemoryMetrics}.
+ */
+public interface MetricsSink {
+
+    /**
+     * A sink that discards all metrics.
+     */
+    public static final MetricsSink NONE = new MetricsSink() {
+
+        @Override
+        public void recordLatency(String name, long durationNanos) {
+        }
+
+        @Override
+        public void increment(String name, long amount) {
+        }
+
+    };
+
+    /**
+     * Records the duration of a single execution of an operation.
+     *
+     * @param name The name of the operation, e.g. <code>submission.submit</code>.
+     * @param durationNanos The duration of the operation, in nanoseconds.
+     */
+    public void recordLatency(String name, long durationNanos);
+
+    /**
+     * Increments a counter by the given amount.
+     *
+     * @param name The name of the counter, e.g. <code>submission.bytesUploaded</code>.
+     * @param amount The amount to add.
+     */
+    public void increment(String name, long amount);
+
+    /**
+     * Increments a counter by one.
+     *
+     * @param name The name of the counter, e.g. <code>submission.submit.requests</code>.
+     */
+    public default void increment(String name) {
+        increment(name, 1);
+    }
+
+}
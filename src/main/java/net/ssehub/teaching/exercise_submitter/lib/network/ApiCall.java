@@ -0,0 +1,21 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+/**
+ * A single call to a generated API client, e.g. <code>() -&gt; api.getLatest(course, assignment, group)</code>.
+ *
+ * @param <T> The result type of the call.
+ * @param <E> The exception type of the generated API client.
+ */
+@FunctionalInterface
+public interface ApiCall<T, E extends Exception> {
+
+    /**
+     * Executes the call.
+     *
+     * @return The result of the call.
+     *
+     * @throws E If the call fails.
+     */
+    public T call() throws E;
+
+}
@@ -0,0 +1,80 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+import java.io.IOException;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Describes the exception type of a generated API client, so that the {@link RequestExecutor} can classify failures
+ * independently of the concrete client.
+ *
+ * @param <E> The exception type of the generated API client.
+ */
+public class ApiExceptionAdapter<E extends Exception> {
+
+    private Class<E> exceptionType;
+
+    private ToIntFunction<E> statusCode;
+
+    private Function<IOException, E> wrapper;
+
+    /**
+     * Creates a new adapter.
+     *
+     * @param exceptionType The exception class of the generated API client.
+     * @param statusCode Returns the HTTP status code of an exception; 0 if no response was received.
+     * @param wrapper Creates a new exception with the given {@link IOException} as cause. Used to report requests that
+     *      the {@link RequestExecutor} rejects itself, e.g. because a {@link CircuitBreaker} is open.
+     */
+    public ApiExceptionAdapter(Class<E> exceptionType, ToIntFunction<E> statusCode,
+            Function<IOException, E> wrapper) {
+        this.exceptionType = exceptionType;
+        this.statusCode = statusCode;
+        this.wrapper = wrapper;
+    }
+
+    /**
+     * Checks if the given exception is of the exception type of the API client.
+     *
+     * @param exception The exception to check.
+     *
+     * @return Whether the exception is an instance of the API exception type.
+     */
+    boolean isApiException(Exception exception) {
+        return exceptionType.isInstance(exception);
+    }
+
+    /**
+     * Casts the given exception to the exception type of the API client.
+     *
+     * @param exception The exception, see {@link #isApiException(Exception)}.
+     *
+     * @return The exception.
+     */
+    E cast(Exception exception) {
+        return exceptionType.cast(exception);
+    }
+
+    /**
+     * Returns the HTTP status code of the given exception.
+     *
+     * @param exception The exception.
+     *
+     * @return The status code; 0 if no response was received.
+     */
+    int getStatusCode(E exception) {
+        return statusCode.applyAsInt(exception);
+    }
+
+    /**
+     * Wraps the given {@link IOException} into an exception of the API client.
+     *
+     * @param cause The cause.
+     *
+     * @return An API exception with the given cause.
+     */
+    E wrap(IOException cause) {
+        return wrapper.apply(cause);
+    }
+
+}
@@ -0,0 +1,141 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * A circuit breaker for a single endpoint. After a number of consecutive failures, the breaker opens and rejects all
+ * requests for a while. After that time, a single trial request is let through (half-open); depending on its outcome
+ * the breaker closes again or stays open for another period.
+ * <p>
+ * This class is thread-safe.
+ */
+public class CircuitBreaker {
+
+    /**
+     * The state of a {@link CircuitBreaker}.
+     */
+    public enum State {
+
+        CLOSED,
+
+        OPEN,
+
+        HALF_OPEN;
+    }
+
+    private int threshold;
+
+    private long openDurationNanos;
+
+    private LongSupplier clock;
+
+    private State state;
+
+    private int consecutiveFailures;
+
+    private long openedAt;
+
+    private boolean trialRunning;
+
+    /**
+     * Creates a new circuit breaker in closed state.
+     *
+     * @param threshold The number of consecutive failures after which the breaker opens. 0 disables the breaker.
+     * @param openDuration How long the breaker stays open before a trial request is let through.
+     */
+    public CircuitBreaker(int threshold, Duration openDuration) {
+        this(threshold, openDuration, System::nanoTime);
+    }
+
+    /**
+     * Creates a new circuit breaker in closed state with the given clock.
+     * <p>
+     * Package visibility for test cases.
+     *
+     * @param threshold The number of consecutive failures after which the breaker opens. 0 disables the breaker.
+     * @param openDuration How long the breaker stays open before a trial request is let through.
+     * @param clock The clock to use, in nanoseconds.
+     */
+    CircuitBreaker(int threshold, Duration openDuration, LongSupplier clock) {
+        this.threshold = threshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.clock = clock;
+        this.state = State.CLOSED;
+    }
+
+    /**
+     * Checks whether a request may be sent. If this returns <code>true</code>, the caller must report the outcome
+     * with either {@link #onSuccess()}, {@link #onFailure()} or {@link #onCancelled()}.
+     *
+     * @return Whether the request may be sent.
+     */
+    public synchronized boolean tryAcquire() {
+        boolean allowed;
+
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openDurationNanos) {
+            state = State.HALF_OPEN;
+            trialRunning = false;
+        }
+
+        switch (state) {
+        case CLOSED:
+            allowed = true;
+            break;
+
+        case HALF_OPEN:
+            allowed = !trialRunning;
+            trialRunning = true;
+            break;
+
+        default:
+            allowed = false;
+            break;
+        }
+
+        return allowed;
+    }
+
+    /**
+     * Reports a successful request. Closes the breaker.
+     */
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialRunning = false;
+    }
+
+    /**
+     * Reports a failed request. Opens the breaker if the threshold is reached or if the trial request of a half-open
+     * breaker failed.
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        trialRunning = false;
+
+        if (threshold > 0 && (state == State.HALF_OPEN || consecutiveFailures >= threshold)) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    /**
+     * Reports a request that was cancelled by the caller before it completed, e.g. the losing request of a
+     * {@link Hedger}, or whose outcome is otherwise unknown, e.g. because the client failed to parse the response. It
+     * says nothing about the health of the server: the state and the failure count are unchanged, only the trial of a
+     * half-open breaker may be sent again.
+     */
+    public synchronized void onCancelled() {
+        trialRunning = false;
+    }
+
+    /**
+     * Returns the current state of this breaker.
+     *
+     * @return The current state.
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+}
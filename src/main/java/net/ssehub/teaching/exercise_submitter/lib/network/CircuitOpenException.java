@@ -0,0 +1,22 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+import java.io.IOException;
+
+/**
+ * Thrown (as the cause of an API exception) if a request is rejected because the {@link CircuitBreaker} of its
+ * endpoint is open. This is an {@link IOException}, so that the API clients treat it like any other network failure.
+ */
+public class CircuitOpenException extends IOException {
+
+    private static final long serialVersionUID = 2460712539174920528L;
+
+    /**
+     * Creates a new exception.
+     *
+     * @param endpoint The name of the endpoint that is currently unavailable.
+     */
+    public CircuitOpenException(String endpoint) {
+        super("Endpoint " + endpoint + " is temporarily unavailable after repeated failures");
+    }
+
+}
@@ -0,0 +1,281 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import net.ssehub.teaching.exercise_submitter.lib.metrics.LatencyHistogram;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricNames;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricsSink;
+
+/**
+ * Sends hedged requests to cut the tail latency of slow but idempotent calls: if a call did not complete after a
+ * delay, a second, identical call is started, and the result of whichever completes first is used. The other call is
+ * cancelled by interrupting its thread. The calls must abort their request when interrupted, e.g. by sending it
+ * asynchronously and cancelling the HTTP call, as a synchronous HTTP call that is blocked in a socket read does not
+ * react to the interrupt; a losing call that keeps running still occupies its slot in the {@link RequestScheduler}.
+ * <p>
+ * The delay is either fixed or a percentile (e.g. the 95th) of the latencies observed by this hedger, so that only the
+ * slowest requests are hedged. To keep hedging from doubling the load on an overloaded server, hedges are limited by a
+ * budget: each call earns a fraction of a hedge (e.g. 0.1 for at most 10% additional requests), and a hedge is only
+ * sent if a whole one was earned.
+ * <p>
+ * The calls run on daemon threads of this hedger; the calling thread only waits. The threads are stopped by
+ * {@link #close()}. A single instance can be shared by several clients of the same endpoint. This class is
+ * thread-safe.
+ */
+public class Hedger implements Closeable {
+
+    /**
+     * The number of latencies that must be observed before an adaptive delay is used. Before that, no hedges are
+     * sent.
+     */
+    static final int MIN_SAMPLES = 20;
+
+    /**
+     * The maximum number of hedges that can be saved up, so that a long quiet period does not allow a burst of hedges.
+     */
+    private static final double MAX_CREDIT = 10;
+
+    private long fixedDelayNanos;
+
+    private double percentile;
+
+    private double budget;
+
+    private double credit;
+
+    private LatencyHistogram latencies = new LatencyHistogram();
+
+    private ExecutorService threads = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "Hedger");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates a hedger with a fixed delay.
+     *
+     * @param delay The time to wait for a call before a hedge is sent.
+     * @param budget The maximum number of hedges per call, between 0 and 1 (e.g. 0.1).
+     *
+     * @throws IllegalArgumentException If delay is negative or budget is not between 0 and 1.
+     */
+    public Hedger(Duration delay, double budget) throws IllegalArgumentException {
+        this(delay.toNanos(), 0, budget);
+        if (delay.isNegative()) {
+            throw new IllegalArgumentException("Delay must not be negative, got " + delay);
+        }
+    }
+
+    /**
+     * Creates a hedger that waits for the given percentile of the observed latencies of successful calls before a
+     * hedge is sent. Until {@value #MIN_SAMPLES} latencies were observed, no hedges are sent.
+     *
+     * @param percentile The percentile of the latencies to use as delay, between 0 and 1 (e.g. 0.95).
+     * @param budget The maximum number of hedges per call, between 0 and 1 (e.g. 0.1).
+     *
+     * @throws IllegalArgumentException If percentile or budget is not between 0 and 1.
+     */
+    public Hedger(double percentile, double budget) throws IllegalArgumentException {
+        this(-1, percentile, budget);
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1, got " + percentile);
+        }
+    }
+
+    /**
+     * Creates a hedger.
+     *
+     * @param fixedDelayNanos The fixed delay, or -1 if the delay is adaptive.
+     * @param percentile The percentile of an adaptive delay.
+     * @param budget The maximum number of hedges per call.
+     *
+     * @throws IllegalArgumentException If budget is not between 0 and 1.
+     */
+    private Hedger(long fixedDelayNanos, double percentile, double budget) throws IllegalArgumentException {
+        if (budget <= 0 || budget > 1) {
+            throw new IllegalArgumentException("Budget must be between 0 and 1, got " + budget);
+        }
+        this.fixedDelayNanos = fixedDelayNanos;
+        this.percentile = percentile;
+        this.budget = budget;
+    }
+
+    /**
+     * Returns the current delay after which a hedge is sent.
+     *
+     * @return The delay; {@link Optional#empty()} if not enough latencies were observed yet for an adaptive delay.
+     */
+    public Optional<Duration> getDelay() {
+        Optional<Duration> delay;
+        if (fixedDelayNanos >= 0) {
+            delay = Optional.of(Duration.ofNanos(fixedDelayNanos));
+        } else if (latencies.getCount() < MIN_SAMPLES) {
+            delay = Optional.empty();
+        } else {
+            delay = Optional.of(Duration.ofNanos(latencies.getPercentileNanos(percentile)));
+        }
+        return delay;
+    }
+
+    /**
+     * Executes the given call, and a hedge of it if it is slow and the budget allows it. The call must be idempotent.
+     * Usually, the call is a {@link RequestExecutor#execute(String, boolean, ApiCall, ApiExceptionAdapter)}, so that
+     * both requests are subject to its retries and rate limits.
+     * <p>
+     * Hedges are counted as {@link MetricNames#HEDGES_SENT} and, if they completed first, as
+     * {@link MetricNames#HEDGES_WON}.
+     *
+     * @param <T> The result type of the call.
+     * @param <E> The exception type of the API client.
+     * @param call The call to execute.
+     * @param adapter The {@link ApiExceptionAdapter} for the exception type of the API client.
+     * @param metrics The sink to record the hedges in.
+     *
+     * @return The result of the call that completed successfully first.
+     *
+     * @throws E If all sent calls fail; the exception of the last one is thrown. If the thread is interrupted while
+     *      waiting, the exception has an {@link InterruptedIOException} as its cause.
+     */
+    public <T, E extends Exception> T execute(ApiCall<T, E> call, ApiExceptionAdapter<E> adapter,
+            MetricsSink metrics) throws E {
+        earnCredit();
+        CompletionService<T> attempts = new ExecutorCompletionService<>(threads);
+        List<Future<T>> sent = new ArrayList<>(2);
+        sent.add(attempts.submit(timed(call)));
+
+        T result = null;
+        try {
+            Future<T> completed = null;
+            Optional<Duration> delay = getDelay();
+            if (delay.isPresent()) {
+                completed = attempts.poll(delay.get().toNanos(), TimeUnit.NANOSECONDS);
+                if (completed == null && trySpendCredit()) {
+                    sent.add(attempts.submit(timed(call)));
+                    metrics.increment(MetricNames.HEDGES_SENT);
+                }
+            }
+
+            int pending = sent.size();
+            boolean done = false;
+            while (!done) {
+                if (completed == null) {
+                    completed = attempts.take();
+                }
+                pending--;
+                try {
+                    result = completed.get();
+                    done = true;
+                    if (completed != sent.get(0)) {
+                        metrics.increment(MetricNames.HEDGES_WON);
+                    }
+                } catch (ExecutionException e) {
+                    if (pending == 0) {
+                        throw unwrap(e.getCause(), adapter);
+                    }
+                }
+                completed = null;
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException cause = new InterruptedIOException("Interrupted while waiting for hedged call");
+            cause.initCause(e);
+            throw adapter.wrap(cause);
+
+        } finally {
+            sent.forEach(attempt -> attempt.cancel(true));
+        }
+
+        return result;
+    }
+
+    /**
+     * Stops the threads of this hedger. Calls that are still running are cancelled by interrupting their threads.
+     * Afterwards, this hedger must not be used anymore.
+     */
+    @Override
+    public void close() {
+        threads.shutdownNow();
+    }
+
+    /**
+     * Wraps the given call so that its latency is recorded if it succeeds. The call keeps the
+     * {@link RequestPriority} of the calling thread.
+     *
+     * @param <T> The result type of the call.
+     * @param <E> The exception type of the API client.
+     * @param call The call.
+     *
+     * @return The wrapped call.
+     */
+    private <T, E extends Exception> Callable<T> timed(ApiCall<T, E> call) {
+        RequestPriority priority = RequestScheduler.getCurrentPriority();
+        return () -> {
+            long start = System.nanoTime();
+            T result = RequestScheduler.runWithPriority(priority, call);
+            latencies.record(System.nanoTime() - start);
+            return result;
+        };
+    }
+
+    /**
+     * Adds the budget of a single call to the saved up hedges.
+     */
+    private synchronized void earnCredit() {
+        credit = Math.min(MAX_CREDIT, credit + budget);
+    }
+
+    /**
+     * Spends a hedge, if one is saved up.
+     *
+     * @return Whether a hedge may be sent.
+     */
+    private synchronized boolean trySpendCredit() {
+        boolean allowed = credit >= 1;
+        if (allowed) {
+            credit -= 1;
+        }
+        return allowed;
+    }
+
+    /**
+     * Converts the failure of a call into the exception that is thrown to the caller. Unchecked exceptions and errors
+     * are re-thrown directly.
+     *
+     * @param <E> The exception type of the API client.
+     * @param cause The exception thrown by the call.
+     * @param adapter The {@link ApiExceptionAdapter} for the exception type of the API client.
+     *
+     * @return The exception to throw.
+     */
+    private static <E extends Exception> E unwrap(Throwable cause, ApiExceptionAdapter<E> adapter) {
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        E result;
+        if (adapter.isApiException((Exception) cause)) {
+            result = adapter.cast((Exception) cause);
+        } else {
+            result = adapter.wrap(new IOException(cause));
+        }
+        return result;
+    }
+
+}
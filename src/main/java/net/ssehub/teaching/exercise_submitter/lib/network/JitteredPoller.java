@@ -0,0 +1,99 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically runs a background task, e.g. refreshing the version list. The delay between two runs is randomly
+ * varied around the interval, and the first run happens at a random point within the first interval. This prevents
+ * many clients that were started at the same time (e.g. a whole lab) from polling the server in lockstep.
+ * <p>
+ * The task runs on a daemon thread of this poller. Runs never overlap; the next delay starts after a run has
+ * finished. The task sends its requests as {@link RequestPriority#BACKGROUND}, see {@link RequestScheduler}.
+ */
+public class JitteredPoller implements Closeable {
+
+    private ScheduledExecutorService scheduler;
+
+    private long intervalNanos;
+
+    private double jitter;
+
+    private Runnable task;
+
+    /**
+     * Creates and starts a new poller.
+     *
+     * @param interval The average time between two runs.
+     * @param jitter The maximum relative deviation of the delay from the interval, between 0 and 1. E.g. 0.2 means
+     *      that the delay is randomly chosen between 80% and 120% of the interval.
+     * @param task The task to run.
+     *
+     * @throws IllegalArgumentException If the interval is not positive or jitter is not between 0 and 1.
+     */
+    public JitteredPoller(Duration interval, double jitter, Runnable task) throws IllegalArgumentException {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        if (jitter < 0 || jitter > 1) {
+            throw new IllegalArgumentException("jitter must be between 0 and 1");
+        }
+
+        this.intervalNanos = interval.toNanos();
+        this.jitter = jitter;
+        this.task = RequestScheduler.withPriority(RequestPriority.BACKGROUND, task);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "JitteredPoller");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long initialDelay = ThreadLocalRandom.current().nextLong(intervalNanos);
+        scheduler.schedule(this::runAndReschedule, initialDelay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs the task and schedules the next run.
+     */
+    private void runAndReschedule() {
+        try {
+            task.run();
+        } finally {
+            if (!scheduler.isShutdown()) {
+                scheduler.schedule(this::runAndReschedule,
+                        nextDelay(intervalNanos, jitter, ThreadLocalRandom.current()), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Calculates a random delay around the given interval.
+     * <p>
+     * Package visibility for test cases.
+     *
+     * @param intervalNanos The interval, in nanoseconds.
+     * @param jitter The maximum relative deviation from the interval.
+     * @param random The source of randomness.
+     *
+     * @return The delay, in nanoseconds.
+     */
+    static long nextDelay(long intervalNanos, double jitter, Random random) {
+        double factor = 1 + jitter * (2 * random.nextDouble() - 1);
+        return (long) (intervalNanos * factor);
+    }
+
+    /**
+     * Stops this poller. A run that is currently in progress is completed.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+    }
+
+}
@@ -0,0 +1,94 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket rate limiter. The bucket holds up to <code>burst</code> tokens and is refilled with
+ * <code>permitsPerSecond</code> tokens per second. Each request takes one token; if the bucket is empty, the request
+ * waits until a token becomes available.
+ * <p>
+ * Waiting requests reserve their token in advance, so that they are served in the order they arrived. This class is
+ * thread-safe.
+ */
+public class RateLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private long nanosPerPermit;
+
+    private long burstNanos;
+
+    private LongSupplier clock;
+
+    /**
+     * The point in time at which the bucket will be full again. A value in the past means the bucket is full; each
+     * acquired token moves this point {@link #nanosPerPermit} further into the future.
+     */
+    private long fullAt;
+
+    /**
+     * Creates a new rate limiter with a full bucket.
+     *
+     * @param permitsPerSecond The number of requests per second in the long run.
+     * @param burst The maximum number of requests that may be sent at once after an idle period.
+     *
+     * @throws IllegalArgumentException If permitsPerSecond is not positive or burst is less than 1.
+     */
+    public RateLimiter(double permitsPerSecond, int burst) throws IllegalArgumentException {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    /**
+     * Creates a new rate limiter with a full bucket and the given clock.
+     * <p>
+     * Package visibility for test cases.
+     *
+     * @param permitsPerSecond The number of requests per second in the long run.
+     * @param burst The maximum number of requests that may be sent at once after an idle period.
+     * @param clock The clock to use, in nanoseconds.
+     *
+     * @throws IllegalArgumentException If permitsPerSecond is not positive or burst is less than 1.
+     */
+    RateLimiter(double permitsPerSecond, int burst, LongSupplier clock) throws IllegalArgumentException {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1");
+        }
+
+        this.nanosPerPermit = Math.max(1, (long) (NANOS_PER_SECOND / permitsPerSecond));
+        this.burstNanos = nanosPerPermit * burst;
+        this.clock = clock;
+        this.fullAt = clock.getAsLong();
+    }
+
+    /**
+     * Takes a token from the bucket and returns how long the caller has to wait before it may send its request.
+     *
+     * @return The time to wait, in nanoseconds. 0 if a token was available immediately.
+     */
+    synchronized long reserve() {
+        long now = clock.getAsLong();
+
+        fullAt = Math.max(fullAt, now) + nanosPerPermit;
+
+        return Math.max(0, fullAt - burstNanos - now);
+    }
+
+    /**
+     * Takes a token from the bucket, waiting until one is available.
+     *
+     * @return The time spent waiting, in nanoseconds.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting. The token is lost in this case.
+     */
+    public long acquire() throws InterruptedException {
+        long wait = reserve();
+        if (wait > 0) {
+            Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+        }
+        return wait;
+    }
+
+}
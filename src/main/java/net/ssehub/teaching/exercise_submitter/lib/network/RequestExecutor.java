@@ -0,0 +1,538 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import net.ssehub.teaching.exercise_submitter.lib.jfr.ApiCallEvent;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.InMemoryMetrics;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricNames;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricsSink;
+
+/**
+ * Executes the calls of the API clients (student management system, authentication system and
+ * exercise-submitter-server) according to a {@link ResiliencePolicy}. Transient failures are retried with exponential
+ * backoff and jitter, each endpoint has its own {@link CircuitBreaker}, and all attempts of a request share an overall
+ * deadline. Optionally, the rate of requests can be limited per endpoint with a {@link RateLimiter}, so that many
+ * clients do not overwhelm the servers at the same time (e.g. shortly before a submission deadline). A
+ * {@link RequestScheduler} can limit the number of concurrent requests and prefer interactive requests over
+ * background traffic.
+ * <p>
+ * The latency, number of requests and failures of each endpoint are recorded in a {@link MetricsSink}; see
+ * {@link MetricNames}. Additionally, each call is reported to the Java Flight Recorder as an {@link ApiCallEvent}.
+ * <p>
+ * Requests that are not idempotent (e.g. uploading a submission) are only retried if the server certainly did not
+ * process them, i.e. if no connection could be established or if the server answered with 429 or 503.
+ * <p>
+ * A call that fails because its thread was interrupted (e.g. the losing request of a {@link Hedger}, or a cancelled
+ * submission) is treated as cancelled, not as a failure: it is neither retried nor counted as an error, and it does
+ * not affect the {@link CircuitBreaker}.
+ * <p>
+ * A single instance should be shared by all clients that talk to the same servers. This class is thread-safe.
+ */
+public class RequestExecutor {
+
+    /**
+     * The failure type of cancelled calls in the {@link ApiCallEvent}.
+     */
+    private static final String CANCELLED = "cancelled";
+
+    private ResiliencePolicy policy;
+
+    private Map<String, CircuitBreaker> circuitBreakers;
+    
+    private Map<String, RateLimiter> rateLimiters;
+    
+    private double defaultPermitsPerSecond;
+    
+    private int defaultBurst;
+    
+    private MetricsSink metrics;
+    
+    private Optional<RequestScheduler> scheduler = Optional.empty();
+
+    /**
+     * Creates a new executor with the given policy.
+     *
+     * @param policy The policy to apply to all requests.
+     */
+    public RequestExecutor(ResiliencePolicy policy) {
+        this.policy = policy;
+        this.circuitBreakers = new ConcurrentHashMap<>();
+        this.rateLimiters = new ConcurrentHashMap<>();
+        this.metrics = new InMemoryMetrics();
+    }
+    
+    /**
+     * Sets the {@link MetricsSink} that the metrics of all requests are recorded in. By default, an
+     * {@link InMemoryMetrics} is used.
+     * 
+     * @param metrics The sink to record metrics in. Use {@link MetricsSink#NONE} to disable recording.
+     * 
+     * @return This.
+     */
+    public RequestExecutor withMetricsSink(MetricsSink metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+    
+    /**
+     * Limits the request rate of each endpoint that has no specific limit set via
+     * {@link #withRateLimiter(String, RateLimiter)}. Each endpoint gets its own token bucket. By default, the request
+     * rate is not limited.
+     * <p>
+     * Must be called before the first request is executed.
+     * 
+     * @param permitsPerSecond The number of requests per second per endpoint in the long run.
+     * @param burst The number of requests per endpoint that may be sent at once after an idle period.
+     * 
+     * @return This.
+     * 
+     * @throws IllegalArgumentException If permitsPerSecond is not positive or burst is less than 1.
+     */
+    public RequestExecutor withRateLimit(double permitsPerSecond, int burst) throws IllegalArgumentException {
+        new RateLimiter(permitsPerSecond, burst); // validate arguments
+        this.defaultPermitsPerSecond = permitsPerSecond;
+        this.defaultBurst = burst;
+        return this;
+    }
+    
+    /**
+     * Limits the request rate of the given endpoint with the given {@link RateLimiter}. The same rate limiter may be
+     * set for several endpoints, so that they share a common limit.
+     * 
+     * @param endpoint The name of the endpoint, e.g. <code>submission.submit</code>.
+     * @param rateLimiter The rate limiter for the endpoint.
+     * 
+     * @return This.
+     */
+    public RequestExecutor withRateLimiter(String endpoint, RateLimiter rateLimiter) {
+        rateLimiters.put(endpoint, rateLimiter);
+        return this;
+    }
+
+    /**
+     * Sends all requests through the given {@link RequestScheduler}, which limits the number of concurrent requests
+     * and serves them by the {@link RequestPriority} of the sending thread. By default, requests are not scheduled.
+     * <p>
+     * Must be called before the first request is executed.
+     * 
+     * @param scheduler The scheduler of the requests.
+     * 
+     * @return This.
+     */
+    public RequestExecutor withRequestScheduler(RequestScheduler scheduler) {
+        this.scheduler = Optional.of(scheduler);
+        return this;
+    }
+
+    /**
+     * Returns the policy of this executor.
+     *
+     * @return The {@link ResiliencePolicy}.
+     */
+    public ResiliencePolicy getPolicy() {
+        return policy;
+    }
+    
+    /**
+     * Returns the {@link MetricsSink} of this executor. The API clients that use this executor record their own
+     * metrics (e.g. transferred bytes) in it, too.
+     * 
+     * @return The {@link MetricsSink}.
+     */
+    public MetricsSink getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the {@link RequestScheduler} of this executor.
+     * 
+     * @return The scheduler; {@link Optional#empty()} if requests are not scheduled.
+     */
+    public Optional<RequestScheduler> getRequestScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Returns the circuit breaker of the given endpoint. Creates it, if it doesn't exist yet.
+     *
+     * @param endpoint The name of the endpoint.
+     *
+     * @return The {@link CircuitBreaker} of the endpoint.
+     */
+    public CircuitBreaker getCircuitBreaker(String endpoint) {
+        return circuitBreakers.computeIfAbsent(endpoint, e -> new CircuitBreaker(
+                policy.getCircuitBreakerThreshold(), policy.getCircuitBreakerOpenDuration()));
+    }
+
+    /**
+     * Returns the rate limiter of the given endpoint. Creates it, if it doesn't exist yet and a default rate limit is
+     * set.
+     * 
+     * @param endpoint The name of the endpoint.
+     * 
+     * @return The {@link RateLimiter} of the endpoint; {@link Optional#empty()} if its rate is not limited.
+     */
+    public Optional<RateLimiter> getRateLimiter(String endpoint) {
+        RateLimiter rateLimiter;
+        if (defaultPermitsPerSecond > 0) {
+            rateLimiter = rateLimiters.computeIfAbsent(endpoint,
+                e -> new RateLimiter(defaultPermitsPerSecond, defaultBurst));
+        } else {
+            rateLimiter = rateLimiters.get(endpoint);
+        }
+        return Optional.ofNullable(rateLimiter);
+    }
+    
+    /**
+     * Executes the given call. Retries it on transient failures, as configured by the {@link ResiliencePolicy}.
+     *
+     * @param <T> The result type of the call.
+     * @param <E> The exception type of the API client.
+     * @param endpoint The name of the endpoint, e.g. <code>mgmt.getAssignments</code>. Used to select the
+     *      {@link CircuitBreaker}.
+     * @param idempotent Whether the call can safely be sent more than once.
+     * @param call The call to execute.
+     * @param adapter The {@link ApiExceptionAdapter} for the exception type of the API client.
+     *
+     * @return The result of the call.
+     *
+     * @throws E If the call fails and is not retried (anymore). If the circuit breaker of the endpoint is open, the
+     *      exception has a {@link CircuitOpenException} as its cause. If the thread is interrupted while waiting for
+     *      the rate limit or the {@link RequestScheduler}, the exception has an {@link InterruptedIOException} as its
+     *      cause.
+     */
+    public <T, E extends Exception> T execute(String endpoint, boolean idempotent, ApiCall<T, E> call,
+            ApiExceptionAdapter<E> adapter) throws E {
+        return execute(endpoint, null, null, idempotent, call, adapter);
+    }
+    
+    // checkstyle: stop parameter number check
+    
+    /**
+     * Executes the given call that refers to the given course and assignment. Retries it on transient failures, as
+     * configured by the {@link ResiliencePolicy}.
+     *
+     * @param <T> The result type of the call.
+     * @param <E> The exception type of the API client.
+     * @param endpoint The name of the endpoint, e.g. <code>mgmt.getAssignments</code>. Used to select the
+     *      {@link CircuitBreaker}.
+     * @param course The ID of the course that the call refers to, for the {@link ApiCallEvent}. May be
+     *      <code>null</code>.
+     * @param assignment The name of the assignment that the call refers to, for the {@link ApiCallEvent}. May be
+     *      <code>null</code>.
+     * @param idempotent Whether the call can safely be sent more than once.
+     * @param call The call to execute.
+     * @param adapter The {@link ApiExceptionAdapter} for the exception type of the API client.
+     *
+     * @return The result of the call.
+     *
+     * @throws E If the call fails and is not retried (anymore). See
+     *      {@link #execute(String, boolean, ApiCall, ApiExceptionAdapter)}.
+     */
+    public <T, E extends Exception> T execute(String endpoint, String course, String assignment, boolean idempotent,
+            ApiCall<T, E> call, ApiExceptionAdapter<E> adapter) throws E {
+        
+        ApiCallEvent event = new ApiCallEvent(endpoint, course, assignment, idempotent);
+        event.begin();
+        long start = System.nanoTime();
+        
+        T result;
+        try {
+            result = executeWithRetries(endpoint, idempotent, call, adapter, event);
+            
+        } finally {
+            metrics.recordLatency(endpoint, System.nanoTime() - start);
+            event.commit();
+        }
+        
+        return result;
+    }
+    
+    // checkstyle: resume parameter number check
+    
+    /**
+     * Executes the given call and retries it on transient failures.
+     *
+     * @param <T> The result type of the call.
+     * @param <E> The exception type of the API client.
+     * @param endpoint The name of the endpoint.
+     * @param idempotent Whether the call can safely be sent more than once.
+     * @param call The call to execute.
+     * @param adapter The {@link ApiExceptionAdapter} for the exception type of the API client.
+     * @param event The event to record the attempts and failures in.
+     *
+     * @return The result of the call.
+     *
+     * @throws E If the call fails and is not retried (anymore).
+     */
+    private <T, E extends Exception> T executeWithRetries(String endpoint, boolean idempotent, ApiCall<T, E> call,
+            ApiExceptionAdapter<E> adapter, ApiCallEvent event) throws E {
+
+        CircuitBreaker circuitBreaker = getCircuitBreaker(endpoint);
+        Optional<RateLimiter> rateLimiter = getRateLimiter(endpoint);
+        long deadline = System.nanoTime() + policy.getDeadline().toNanos();
+
+        T result = null;
+        boolean done = false;
+        for (int attempt = 1; !done; attempt++) {
+            if (rateLimiter.isPresent()) {
+                acquire(rateLimiter.get(), adapter);
+            }
+            RequestPriority priority = awaitSlot(adapter);
+            if (!circuitBreaker.tryAcquire()) {
+                releaseSlot(priority);
+                String failure = CircuitOpenException.class.getSimpleName();
+                metrics.increment(MetricNames.errors(endpoint, failure));
+                event.setFailure(failure, 0);
+                throw adapter.wrap(new CircuitOpenException(endpoint));
+            }
+
+            metrics.increment(MetricNames.requests(endpoint));
+            event.setAttempts(attempt);
+            try {
+                result = callInSlot(call, priority);
+                circuitBreaker.onSuccess();
+                event.clearFailure();
+                done = true;
+
+            // checkstyle: stop exception type check
+            } catch (Exception e) {
+            // checkstyle: resume exception type check
+                if (!adapter.isApiException(e)) {
+                    // e.g. a garbled response that cannot be parsed; proves nothing about the health of the server
+                    circuitBreaker.onCancelled();
+                    metrics.increment(MetricNames.errors(endpoint, e.getClass().getSimpleName()));
+                    event.setFailure(e.getClass().getSimpleName(), 0);
+                    throw (RuntimeException) e; // call can only throw E or unchecked exceptions
+                }
+
+                E apiException = adapter.cast(e);
+                if (isCancellation(apiException)) {
+                    circuitBreaker.onCancelled();
+                    event.setFailure(CANCELLED, 0);
+                    throw apiException;
+                }
+                int statusCode = adapter.getStatusCode(apiException);
+                String failure = getFailureType(apiException, statusCode);
+                metrics.increment(MetricNames.errors(endpoint, failure));
+                event.setFailure(failure, statusCode);
+                if (isServerFailure(apiException, statusCode)) {
+                    circuitBreaker.onFailure();
+                } else {
+                    circuitBreaker.onSuccess();
+                }
+
+                if (attempt >= policy.getMaxAttempts() || !isRetryable(apiException, statusCode, idempotent)
+                        || !backoff(attempt, deadline)) {
+                    throw apiException;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Waits until the given rate limiter allows the next request.
+     * 
+     * @param <E> The exception type of the API client.
+     * @param rateLimiter The rate limiter of the endpoint.
+     * @param adapter The {@link ApiExceptionAdapter} for the exception type of the API client.
+     * 
+     * @throws E If the thread is interrupted while waiting.
+     */
+    private static <E extends Exception> void acquire(RateLimiter rateLimiter, ApiExceptionAdapter<E> adapter)
+            throws E {
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException cause = new InterruptedIOException("Interrupted while waiting for rate limit");
+            cause.initCause(e);
+            throw adapter.wrap(cause);
+        }
+    }
+    
+    /**
+     * Waits until the {@link RequestScheduler}, if any, allows the next request of the current thread.
+     * 
+     * @param <E> The exception type of the API client.
+     * @param adapter The {@link ApiExceptionAdapter} for the exception type of the API client.
+     * 
+     * @return The priority of the request, see {@link RequestScheduler#getCurrentPriority()}.
+     * 
+     * @throws E If the thread is interrupted while waiting.
+     */
+    private <E extends Exception> RequestPriority awaitSlot(ApiExceptionAdapter<E> adapter) throws E {
+        RequestPriority priority = RequestScheduler.getCurrentPriority();
+        if (scheduler.isPresent()) {
+            long start = System.nanoTime();
+            try {
+                scheduler.get().acquire(priority);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                InterruptedIOException cause = new InterruptedIOException("Interrupted while waiting for scheduler");
+                cause.initCause(e);
+                throw adapter.wrap(cause);
+            }
+            metrics.recordLatency(MetricNames.schedulerWait(priority.name().toLowerCase(Locale.ROOT)),
+                    System.nanoTime() - start);
+        }
+        return priority;
+    }
+    
+    /**
+     * Executes the given call and gives back its slot of the {@link RequestScheduler}, if any, afterwards.
+     * 
+     * @param <T> The result type of the call.
+     * @param <E> The exception type of the API client.
+     * @param call The call to execute.
+     * @param priority The priority the slot was taken with.
+     * 
+     * @return The result of the call.
+     * 
+     * @throws E If the call fails.
+     */
+    private <T, E extends Exception> T callInSlot(ApiCall<T, E> call, RequestPriority priority) throws E {
+        T result;
+        try {
+            result = call.call();
+        } finally {
+            releaseSlot(priority);
+        }
+        return result;
+    }
+    
+    /**
+     * Gives back the slot of the {@link RequestScheduler}, if any.
+     * 
+     * @param priority The priority the slot was taken with.
+     */
+    private void releaseSlot(RequestPriority priority) {
+        if (scheduler.isPresent()) {
+            scheduler.get().release(priority);
+        }
+    }
+    
+    /**
+     * Waits before the next attempt.
+     *
+     * @param attempt The number of the attempt that just failed.
+     * @param deadline The deadline of the request, in {@link System#nanoTime()}.
+     *
+     * @return Whether another attempt should be made; <code>false</code> if the deadline would pass while waiting
+     *      or if the thread was interrupted.
+     */
+    private boolean backoff(int attempt, long deadline) {
+        long ceiling = policy.getBackoffCeilingMillis(attempt);
+        long sleep = ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+
+        boolean retry = System.nanoTime() + sleep * 1_000_000 < deadline;
+        if (retry && sleep > 0) {
+            try {
+                Thread.sleep(sleep);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                retry = false;
+            }
+        }
+        return retry;
+    }
+
+    /**
+     * Returns the type of the given failure for the error counters. This is the class name of the network exception,
+     * if the failure has one as its cause, and the HTTP status code (e.g. <code>http503</code>) otherwise.
+     * <p>
+     * Package visibility for test cases.
+     * 
+     * @param exception The exception of the failed call.
+     * @param statusCode The HTTP status code of the exception.
+     * 
+     * @return The type of the failure.
+     */
+    static String getFailureType(Exception exception, int statusCode) {
+        String type;
+        if (exception.getCause() instanceof IOException) {
+            type = exception.getCause().getClass().getSimpleName();
+        } else if (statusCode > 0) {
+            type = "http" + statusCode;
+        } else {
+            type = exception.getClass().getSimpleName();
+        }
+        return type;
+    }
+
+    /**
+     * Checks if the given failure was caused by interrupting the calling thread, i.e. the call was cancelled. A
+     * {@link SocketTimeoutException} is an {@link InterruptedIOException}, too, but a real failure.
+     * <p>
+     * Package visibility for test cases.
+     * 
+     * @param exception The exception of the failed call.
+     * 
+     * @return Whether the call was cancelled.
+     */
+    static boolean isCancellation(Exception exception) {
+        boolean cancelled = Thread.currentThread().isInterrupted();
+        for (Throwable cause = exception; cause != null && !cancelled; cause = cause.getCause()) {
+            cancelled = cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException);
+        }
+        return cancelled;
+    }
+
+    /**
+     * Checks if the given failure indicates that the server (or the network to it) is unhealthy. Such failures count
+     * towards opening the circuit breaker; client errors like 404 do not.
+     *
+     * @param exception The exception of the failed call.
+     * @param statusCode The HTTP status code of the exception.
+     *
+     * @return Whether the failure is a server or network failure.
+     */
+    static boolean isServerFailure(Exception exception, int statusCode) {
+        return exception.getCause() instanceof IOException || statusCode >= 500;
+    }
+
+    /**
+     * Checks if the given failure is transient and the call may be sent again.
+     * <p>
+     * Package visibility for test cases.
+     *
+     * @param exception The exception of the failed call.
+     * @param statusCode The HTTP status code of the exception.
+     * @param idempotent Whether the call can safely be sent more than once.
+     *
+     * @return Whether the call should be retried.
+     */
+    static boolean isRetryable(Exception exception, int statusCode, boolean idempotent) {
+        boolean retryable;
+
+        Throwable cause = exception.getCause();
+        if (cause instanceof CircuitOpenException || cause instanceof UnknownHostException) {
+            retryable = false;
+
+        } else if (cause instanceof IOException) {
+            // if no connection was established, the server has not seen the request
+            retryable = idempotent || cause instanceof ConnectException;
+
+        } else if (statusCode == 429 || statusCode == 503) {
+            // the server explicitly refused to process the request
+            retryable = true;
+
+        } else {
+            retryable = idempotent && (statusCode == 408 || statusCode == 502 || statusCode == 504);
+        }
+
+        return retryable;
+    }
+
+}
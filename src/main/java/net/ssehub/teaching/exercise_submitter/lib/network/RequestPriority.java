@@ -0,0 +1,23 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+/**
+ * The priority class of a request, see {@link RequestScheduler}. Declared from highest to lowest priority.
+ */
+public enum RequestPriority {
+
+    /**
+     * A request that a user actively waits for, e.g. a submission or a replay started by the user.
+     */
+    INTERACTIVE,
+
+    /**
+     * A request that keeps data up to date in the background, e.g. polling the version list.
+     */
+    BACKGROUND,
+
+    /**
+     * A request that is part of a large batch, e.g. exporting the submissions of all groups of a course.
+     */
+    BULK;
+
+}
@@ -0,0 +1,248 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Schedules the requests of a {@link RequestExecutor} by their {@link RequestPriority}, so that background traffic
+ * (e.g. polling the version list or exporting the submissions of a whole course) does not delay the requests that a
+ * user is waiting for. At most a fixed number of requests are sent at the same time; this should match the number
+ * of connections that a client keeps to the servers. Background and bulk requests together may only use a part of
+ * these slots, so that the remaining slots are always free for interactive requests. When a slot becomes free,
+ * waiting interactive requests are served first, then background requests, then bulk requests.
+ * <p>
+ * The priority of a request is the priority of the thread that sends it, see
+ * {@link #runWithPriority(RequestPriority, ApiCall)}. Threads without a priority (e.g. the UI thread of an IDE) send
+ * {@link RequestPriority#INTERACTIVE} requests. The {@link JitteredPoller} runs its task as
+ * {@link RequestPriority#BACKGROUND}, and the bulk export of the submissions of many groups retrieves them as
+ * {@link RequestPriority#BULK}.
+ * <p>
+ * A slot is only held while a request is sent, not while waiting for a rate limit or a retry. Waiting requests
+ * block on a {@link Lock}, not on a monitor, so they can run on virtual threads. This class is thread-safe.
+ */
+public class RequestScheduler {
+
+    private static final ThreadLocal<RequestPriority> CURRENT_PRIORITY
+            = ThreadLocal.withInitial(() -> RequestPriority.INTERACTIVE);
+
+    private int maxConcurrent;
+
+    private int[] limits = new int[RequestPriority.values().length];
+
+    private int[] running = new int[RequestPriority.values().length];
+
+    private int[] waiting = new int[RequestPriority.values().length];
+
+    private Lock lock = new ReentrantLock();
+
+    private Condition slotFreed = lock.newCondition();
+
+    /**
+     * Creates a new scheduler. By default, background and bulk requests together use at most half of the slots,
+     * and bulk requests at most a quarter of them (at least one).
+     *
+     * @param maxConcurrent The maximum number of requests that are sent at the same time.
+     *
+     * @throws IllegalArgumentException If maxConcurrent is less than 2, as one slot must be left for interactive
+     *      requests.
+     */
+    public RequestScheduler(int maxConcurrent) throws IllegalArgumentException {
+        if (maxConcurrent < 2) {
+            throw new IllegalArgumentException("maxConcurrent must be at least 2");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.limits[RequestPriority.INTERACTIVE.ordinal()] = maxConcurrent;
+        this.limits[RequestPriority.BACKGROUND.ordinal()] = maxConcurrent / 2;
+        this.limits[RequestPriority.BULK.ordinal()] = Math.max(1, maxConcurrent / 4);
+    }
+
+    /**
+     * Sets the maximum number of background or bulk requests that are sent at the same time. The limit of background
+     * requests includes the bulk requests, i.e. bulk requests are limited by both. Interactive requests can always
+     * use all slots.
+     *
+     * @param priority The priority to limit, either {@link RequestPriority#BACKGROUND} or {@link RequestPriority#BULK}.
+     * @param limit The maximum number of concurrent requests of this priority.
+     *
+     * @return This.
+     *
+     * @throws IllegalArgumentException If priority is {@link RequestPriority#INTERACTIVE}, or limit is less than 1 or
+     *      leaves no slot for interactive requests.
+     */
+    public RequestScheduler withLimit(RequestPriority priority, int limit) throws IllegalArgumentException {
+        if (priority == RequestPriority.INTERACTIVE) {
+            throw new IllegalArgumentException("Interactive requests cannot be limited");
+        }
+        if (limit < 1 || limit >= maxConcurrent) {
+            throw new IllegalArgumentException("limit must be between 1 and " + (maxConcurrent - 1) + ", got "
+                    + limit);
+        }
+        lock.lock();
+        try {
+            limits[priority.ordinal()] = limit;
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return this;
+    }
+
+    /**
+     * Returns the priority of the requests that the current thread sends.
+     *
+     * @return The priority; {@link RequestPriority#INTERACTIVE} if none is set.
+     */
+    public static RequestPriority getCurrentPriority() {
+        return CURRENT_PRIORITY.get();
+    }
+
+    /**
+     * Executes the given call in the current thread, sending all requests with the given priority. Afterwards, the
+     * previous priority of the thread is restored.
+     *
+     * @param <T> The result type of the call.
+     * @param <E> The checked exception type of the call.
+     * @param priority The priority of the requests.
+     * @param call The call to execute.
+     *
+     * @return The result of the call.
+     *
+     * @throws E If the call fails.
+     */
+    public static <T, E extends Exception> T runWithPriority(RequestPriority priority, ApiCall<T, E> call) throws E {
+        RequestPriority previous = CURRENT_PRIORITY.get();
+        CURRENT_PRIORITY.set(priority);
+        T result;
+        try {
+            result = call.call();
+        } finally {
+            CURRENT_PRIORITY.set(previous);
+        }
+        return result;
+    }
+
+    /**
+     * Wraps the given task so that it sends all requests with the given priority, regardless of the thread it runs
+     * in.
+     *
+     * @param priority The priority of the requests.
+     * @param task The task to wrap.
+     *
+     * @return The wrapped task.
+     */
+    public static Runnable withPriority(RequestPriority priority, Runnable task) {
+        return () -> runWithPriority(priority, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Waits until a request of the given priority may be sent and takes a slot for it. The slot must be given back
+     * with {@link #release(RequestPriority)}.
+     *
+     * @param priority The priority of the request.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting. No slot is taken in this case.
+     */
+    void acquire(RequestPriority priority) throws InterruptedException {
+        lock.lock();
+        try {
+            waiting[priority.ordinal()]++;
+            try {
+                while (!canSend(priority)) {
+                    slotFreed.await();
+                }
+            } finally {
+                waiting[priority.ordinal()]--;
+                // a leaving waiter may have blocked requests of lower priority
+                slotFreed.signalAll();
+            }
+            running[priority.ordinal()]++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back the slot of a request that was sent.
+     *
+     * @param priority The priority of the request.
+     */
+    void release(RequestPriority priority) {
+        lock.lock();
+        try {
+            running[priority.ordinal()]--;
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of requests of the given priority that are currently sent.
+     * <p>
+     * Package visibility for test cases.
+     *
+     * @param priority The priority.
+     *
+     * @return The number of requests that hold a slot.
+     */
+    int getRunning(RequestPriority priority) {
+        int result;
+        lock.lock();
+        try {
+            result = running[priority.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of requests of the given priority that wait for a slot.
+     * <p>
+     * Package visibility for test cases.
+     *
+     * @param priority The priority.
+     *
+     * @return The number of waiting requests.
+     */
+    int getWaiting(RequestPriority priority) {
+        int result;
+        lock.lock();
+        try {
+            result = waiting[priority.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a request of the given priority may be sent now. The lock must be held.
+     *
+     * @param priority The priority of the request.
+     *
+     * @return Whether a slot is free for the request and no request of higher priority is waiting.
+     */
+    private boolean canSend(RequestPriority priority) {
+        int interactive = running[RequestPriority.INTERACTIVE.ordinal()];
+        int background = running[RequestPriority.BACKGROUND.ordinal()];
+        int bulk = running[RequestPriority.BULK.ordinal()];
+
+        boolean allowed = interactive + background + bulk < maxConcurrent;
+        if (priority != RequestPriority.INTERACTIVE) {
+            // bulk requests count as background requests, too
+            allowed &= background + bulk < limits[RequestPriority.BACKGROUND.ordinal()]
+                    && waiting[RequestPriority.INTERACTIVE.ordinal()] == 0;
+        }
+        if (priority == RequestPriority.BULK) {
+            allowed &= bulk < limits[RequestPriority.BULK.ordinal()]
+                    && waiting[RequestPriority.BACKGROUND.ordinal()] == 0;
+        }
+        return allowed;
+    }
+
+}
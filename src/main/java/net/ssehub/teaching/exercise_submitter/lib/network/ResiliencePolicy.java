@@ -0,0 +1,194 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+import java.time.Duration;
+
+/**
+ * Configures how a {@link RequestExecutor} handles failing requests: how often requests are retried, how long to
+ * back off between attempts, the overall deadline for a request and when the circuit breaker of an endpoint opens.
+ * <p>
+ * The default values are suitable for interactive use. Use {@link #noRetries()} to get the behavior of a plain
+ * connection that gives up after the first failure.
+ */
+public class ResiliencePolicy {
+
+    private int maxAttempts = 3;
+
+    private Duration initialBackoff = Duration.ofMillis(250);
+
+    private Duration maxBackoff = Duration.ofSeconds(4);
+
+    private Duration deadline = Duration.ofSeconds(60);
+
+    private int circuitBreakerThreshold = 5;
+
+    private Duration circuitBreakerOpenDuration = Duration.ofSeconds(30);
+
+    /**
+     * Creates a policy that never retries a request and has no circuit breaker.
+     *
+     * @return A new policy without retries.
+     */
+    public static ResiliencePolicy noRetries() {
+        return new ResiliencePolicy()
+                .withMaxAttempts(1)
+                .withCircuitBreakerThreshold(0);
+    }
+
+    /**
+     * Sets the maximum number of attempts for a single request, including the first one.
+     *
+     * @param maxAttempts The maximum number of attempts. 1 disables retries.
+     *
+     * @return This.
+     *
+     * @throws IllegalArgumentException If maxAttempts is less than 1.
+     */
+    public ResiliencePolicy withMaxAttempts(int maxAttempts) throws IllegalArgumentException {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Sets the backoff before the first retry. Each further retry doubles the backoff, up to
+     * {@link #withMaxBackoff(Duration)}. The actual wait time is randomly chosen between zero and this value (full
+     * jitter), so that clients that failed at the same time do not retry at the same time.
+     *
+     * @param initialBackoff The backoff before the first retry.
+     *
+     * @return This.
+     */
+    public ResiliencePolicy withInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+        return this;
+    }
+
+    /**
+     * Sets the upper limit for the backoff between two attempts.
+     *
+     * @param maxBackoff The maximum backoff.
+     *
+     * @return This.
+     */
+    public ResiliencePolicy withMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+        return this;
+    }
+
+    /**
+     * Sets the overall deadline for a request, including all retries and backoffs. No further attempt is started
+     * after the deadline has passed; an attempt that is already running is not aborted.
+     *
+     * @param deadline The overall deadline for a request.
+     *
+     * @return This.
+     */
+    public ResiliencePolicy withDeadline(Duration deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+
+    /**
+     * Sets the number of consecutive failures of an endpoint after which its circuit breaker opens. While open,
+     * requests to the endpoint fail immediately without contacting the server.
+     *
+     * @param circuitBreakerThreshold The number of consecutive failures. 0 disables the circuit breaker.
+     *
+     * @return This.
+     *
+     * @throws IllegalArgumentException If the threshold is negative.
+     */
+    public ResiliencePolicy withCircuitBreakerThreshold(int circuitBreakerThreshold) throws IllegalArgumentException {
+        if (circuitBreakerThreshold < 0) {
+            throw new IllegalArgumentException("circuitBreakerThreshold must not be negative");
+        }
+        this.circuitBreakerThreshold = circuitBreakerThreshold;
+        return this;
+    }
+
+    /**
+     * Sets how long an opened circuit breaker stays open. After this time, a single trial request is let through;
+     * if it succeeds, the circuit breaker closes again.
+     *
+     * @param circuitBreakerOpenDuration The time the circuit breaker stays open.
+     *
+     * @return This.
+     */
+    public ResiliencePolicy withCircuitBreakerOpenDuration(Duration circuitBreakerOpenDuration) {
+        this.circuitBreakerOpenDuration = circuitBreakerOpenDuration;
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of attempts for a single request.
+     *
+     * @return The maximum number of attempts.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Returns the backoff before the first retry.
+     *
+     * @return The initial backoff.
+     */
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    /**
+     * Returns the upper limit for the backoff between two attempts.
+     *
+     * @return The maximum backoff.
+     */
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    /**
+     * Returns the overall deadline for a request.
+     *
+     * @return The deadline.
+     */
+    public Duration getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Returns the number of consecutive failures after which a circuit breaker opens.
+     *
+     * @return The threshold; 0 if circuit breakers are disabled.
+     */
+    public int getCircuitBreakerThreshold() {
+        return circuitBreakerThreshold;
+    }
+
+    /**
+     * Returns how long an opened circuit breaker stays open.
+     *
+     * @return The open duration.
+     */
+    public Duration getCircuitBreakerOpenDuration() {
+        return circuitBreakerOpenDuration;
+    }
+
+    /**
+     * Calculates the upper bound of the backoff before the given retry. The actual backoff should be chosen randomly
+     * between zero and this value.
+     *
+     * @param retry The number of the retry, starting at 1 for the first retry.
+     *
+     * @return The upper bound for the backoff, in milliseconds.
+     */
+    long getBackoffCeilingMillis(int retry) {
+        long ceiling = initialBackoff.toMillis();
+        for (int i = 1; i < retry && ceiling < maxBackoff.toMillis(); i++) {
+            ceiling *= 2;
+        }
+        return Math.min(ceiling, maxBackoff.toMillis());
+    }
+
+}
@@ -0,0 +1,146 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces concurrent calls with the same key into a single execution. The first caller of a key executes the call
+ * in its own thread; callers with the same key that arrive while the call is in flight wait for it and receive the
+ * same result, or the same exception. Once the call finished, the next caller of the key executes it again, i.e.
+ * results are not cached.
+ * <p>
+ * Waiting for a call in flight is not interruptible: a caller that is interrupted while waiting is only released once
+ * the executing caller finished the call, e.g. after the HTTP timeouts of a hanging request. The interrupt status of
+ * the waiting caller is kept, so it can react afterwards. Callers that must be cancellable promptly, e.g. a
+ * submission of the user, should not go through a {@link SingleFlight}.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @param <K> The type of the keys that identify equal calls.
+ * @param <V> The result type of the calls.
+ */
+public class SingleFlight<K, V> {
+
+    private Map<K, FutureTask<V>> inFlight = new ConcurrentHashMap<>();
+
+    private AtomicInteger waiting = new AtomicInteger();
+
+    /**
+     * Executes the given call, unless a call with the same key is already in flight. In that case, waits for the
+     * in-flight call instead. Waiting is not interruptible, as the waiting thread would otherwise have no result; an
+     * interrupted caller is not released before the in-flight call finished, and its interrupt status is restored
+     * afterwards.
+     *
+     * @param <E> The checked exception type of the call.
+     * @param key The key of the call.
+     * @param call The call to execute.
+     * @param exceptionType The class of the checked exception of the call.
+     *
+     * @return The result of the call.
+     *
+     * @throws E If the call fails.
+     */
+    public <E extends Exception> V execute(K key, ApiCall<V, E> call, Class<E> exceptionType) throws E {
+        FutureTask<V> task = new FutureTask<>(call::call);
+        FutureTask<V> existing = inFlight.putIfAbsent(key, task);
+        V result;
+        if (existing == null) {
+            try {
+                task.run();
+            } finally {
+                inFlight.remove(key, task);
+            }
+            result = await(task, exceptionType);
+        } else {
+            waiting.incrementAndGet();
+            try {
+                result = await(existing, exceptionType);
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether a call with the given key is currently in flight.
+     *
+     * @param key The key of the call.
+     *
+     * @return Whether the call is in flight.
+     */
+    public boolean isInFlight(K key) {
+        return inFlight.containsKey(key);
+    }
+
+    /**
+     * Returns the number of callers that currently wait for a call in flight of another caller, over all keys.
+     *
+     * @return The number of waiting callers.
+     */
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+
+    /**
+     * Waits for the given task and returns its result.
+     *
+     * @param <T> The result type of the task.
+     * @param <E> The checked exception type of the call.
+     * @param task The task.
+     * @param exceptionType The class of the checked exception of the call.
+     *
+     * @return The result of the task.
+     *
+     * @throws E If the task failed with a checked exception.
+     */
+    private static <T, E extends Exception> T await(FutureTask<T> task, Class<E> exceptionType) throws E {
+        boolean interrupted = false;
+        T result = null;
+        boolean done = false;
+        try {
+            while (!done) {
+                try {
+                    result = task.get();
+                    done = true;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw unwrap(e.getCause(), exceptionType);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Converts the failure of a call into the exception that is thrown to the callers. Unchecked exceptions and
+     * errors are re-thrown directly.
+     *
+     * @param <E> The checked exception type of the call.
+     * @param cause The exception thrown by the call.
+     * @param exceptionType The class of the checked exception of the call.
+     *
+     * @return The checked exception to throw.
+     */
+    private static <E extends Exception> E unwrap(Throwable cause, Class<E> exceptionType) {
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        if (!exceptionType.isInstance(cause)) {
+            throw new IllegalStateException("Call threw undeclared exception", cause);
+        }
+        return exceptionType.cast(cause);
+    }
+
+}
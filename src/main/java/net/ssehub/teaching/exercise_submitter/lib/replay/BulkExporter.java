@@ -0,0 +1,424 @@
+package net.ssehub.teaching.exercise_submitter.lib.replay;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import net.ssehub.teaching.exercise_submitter.lib.network.RequestExecutor;
+import net.ssehub.teaching.exercise_submitter.lib.network.RequestPriority;
+import net.ssehub.teaching.exercise_submitter.lib.network.RequestScheduler;
+import net.ssehub.teaching.exercise_submitter.server.api.api.SubmissionApi;
+
+/**
+ * Exports the latest submission of many groups of an assignment at once, e.g. for tutors that want to correct all
+ * submissions offline. The groups are retrieved concurrently, with at most {@link #withParallelism(int)} requests in
+ * flight, and all share a single client of the exercise-submitter-server API. The requests are sent as
+ * {@link RequestPriority#BULK}, so that a {@link RequestScheduler} serves interactive requests first.
+ * <p>
+ * Each group is replayed into memory (see {@link Replayer#replayLatestToMemory(long)}) and then streamed into the
+ * target directory or ZIP file, so that no temporary directories are written. A group that cannot be replayed, e.g.
+ * because it has not submitted anything, does not abort the export; it is reported in the {@link Result} instead.
+ * <p>
+ * Group names and file paths of the submissions must stay inside of the target; a group containing a file outside of
+ * its directory, e.g. {@code ../x}, is reported as failed instead of being written.
+ * <p>
+ * The groups can also be retrieved on virtual threads, see {@link #withExecutorService(ExecutorService)}. Note that
+ * the requests still go through the {@link RequestExecutor} and the caches of the {@link Replayer}, which synchronize
+ * on monitors; a virtual thread blocked there pins its carrier thread.
+ */
+public class BulkExporter {
+
+    /**
+     * The default maximum number of groups that are retrieved at the same time.
+     */
+    public static final int DEFAULT_PARALLELISM = 8;
+
+    /**
+     * Retrieves the latest version of a group.
+     * <p>
+     * Package visibility for test cases.
+     */
+    @FunctionalInterface
+    interface GroupFetcher {
+
+        /**
+         * Replays the latest version of the given group.
+         *
+         * @param groupName The name of the group.
+         * @param memoryBudget The maximum number of decoded bytes kept in memory.
+         *
+         * @return The content of the latest version. Closed by the caller.
+         *
+         * @throws ReplayException If replaying the version fails.
+         */
+        VersionSnapshot fetch(String groupName, long memoryBudget) throws ReplayException;
+
+    }
+
+    /**
+     * Writes the replayed version of a group to the target of the export.
+     */
+    @FunctionalInterface
+    private interface GroupWriter {
+
+        /**
+         * Writes the given version.
+         *
+         * @param groupName The name of the group.
+         * @param snapshot The content of the version.
+         *
+         * @throws IOException If writing fails.
+         */
+        void write(String groupName, VersionSnapshot snapshot) throws IOException;
+
+    }
+
+    /**
+     * The outcome of an export.
+     */
+    public static class Result {
+
+        private Set<String> exported = new TreeSet<>();
+
+        private Map<String, ReplayException> failures = new TreeMap<>();
+
+        /**
+         * Returns the groups that were exported successfully.
+         *
+         * @return The names of the groups, sorted.
+         */
+        public Set<String> getExported() {
+            return Collections.unmodifiableSet(exported);
+        }
+
+        /**
+         * Returns the groups that could not be replayed, e.g. because they have not submitted anything.
+         *
+         * @return The exceptions of the failed groups, by the group names.
+         */
+        public Map<String, ReplayException> getFailures() {
+            return Collections.unmodifiableMap(failures);
+        }
+
+        /**
+         * Returns whether all groups were exported.
+         *
+         * @return Whether no group failed.
+         */
+        public boolean isComplete() {
+            return failures.isEmpty();
+        }
+
+    }
+
+    private GroupFetcher fetcher;
+
+    private int parallelism = DEFAULT_PARALLELISM;
+
+    private long memoryBudget = VersionSnapshot.DEFAULT_MEMORY_BUDGET;
+
+    private Optional<ExecutorService> executorService = Optional.empty();
+
+    // checkstyle: stop parameter number check
+
+    /**
+     * Creates an exporter for the given assignment.
+     *
+     * @param baseUrl The URL of the exercise-submitter-server API.
+     * @param courseId The ID of the course.
+     * @param assignmentName The name of the assignment to export.
+     * @param token The token to authenticate with. The user must be a tutor of the course.
+     * @param executor The {@link RequestExecutor} that executes the requests to the exercise-submitter-server.
+     */
+    public BulkExporter(String baseUrl, String courseId, String assignmentName, String token,
+            RequestExecutor executor) {
+        SubmissionApi api = Replayer.createApi(baseUrl, token);
+        // the replayer holds no resources apart from the returned snapshot, which is closed by the exporter
+        this.fetcher = (groupName, memoryBudget) -> new Replayer(api, courseId, assignmentName, groupName, executor)
+                .replayLatestToMemory(memoryBudget);
+    }
+
+    // checkstyle: resume parameter number check
+
+    /**
+     * Creates an exporter that retrieves the groups with the given function.
+     * <p>
+     * Package visibility for test cases.
+     *
+     * @param fetcher Replays the latest version of a group.
+     */
+    BulkExporter(GroupFetcher fetcher) {
+        this.fetcher = fetcher;
+    }
+
+    /**
+     * Sets the maximum number of groups that are retrieved and written at the same time. Defaults to
+     * {@value #DEFAULT_PARALLELISM}.
+     *
+     * @param parallelism The maximum number of concurrent groups.
+     *
+     * @return This.
+     *
+     * @throws IllegalArgumentException If parallelism is less than 1.
+     */
+    public BulkExporter withParallelism(int parallelism) throws IllegalArgumentException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of decoded bytes of a single group that are kept in memory. Larger groups are spilled
+     * to a temporary file while they are written. Defaults to {@link VersionSnapshot#DEFAULT_MEMORY_BUDGET}.
+     *
+     * @param memoryBudget The memory budget per group, in bytes.
+     *
+     * @return This.
+     */
+    public BulkExporter withMemoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        return this;
+    }
+
+    /**
+     * Sets the threads that retrieve the groups, e.g. a virtual thread per task executor. The number of concurrent
+     * groups is still limited by {@link #withParallelism(int)}. The executor service is not shut down by the exporter.
+     * By default, a fixed thread pool of the size of the parallelism is created for each export.
+     *
+     * @param executorService The executor service to run the retrieval of the groups on.
+     *
+     * @return This.
+     */
+    public BulkExporter withExecutorService(ExecutorService executorService) {
+        this.executorService = Optional.of(executorService);
+        return this;
+    }
+
+    /**
+     * Exports the latest version of each group into a sub-directory of the given directory, named after the group.
+     * Existing files are overwritten.
+     *
+     * @param groupNames The names of the groups to export, e.g. from
+     *      {@link net.ssehub.teaching.exercise_submitter.lib.student_management_system.IApiConnection#getAllGroups}.
+     * @param directory The directory to export to. Created if it does not exist.
+     *
+     * @return Which groups were exported and which failed.
+     *
+     * @throws IOException If writing to the directory fails. This aborts the export.
+     * @throws IllegalArgumentException If a group name is not a relative path inside of the directory.
+     */
+    public Result exportToDirectory(Collection<String> groupNames, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return export(groupNames, (groupName, snapshot) -> writeDirectory(directory.resolve(groupName), snapshot));
+    }
+
+    /**
+     * Exports the latest version of each group into a ZIP archive, with a top-level directory per group. The groups
+     * are written in the order in which they are retrieved. The archive is finished, but the given stream is not
+     * closed.
+     *
+     * @param groupNames The names of the groups to export, e.g. from
+     *      {@link net.ssehub.teaching.exercise_submitter.lib.student_management_system.IApiConnection#getAllGroups}.
+     * @param out The stream to write the ZIP archive to.
+     *
+     * @return Which groups were exported and which failed.
+     *
+     * @throws IOException If writing to the stream fails. This aborts the export.
+     * @throws IllegalArgumentException If a group name is not a relative path inside of the archive.
+     */
+    public Result exportToZip(Collection<String> groupNames, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        Lock lock = new ReentrantLock();
+        Result result = export(groupNames, (groupName, snapshot) -> {
+            lock.lock();
+            try {
+                writeZip(zip, groupName, snapshot);
+            } finally {
+                lock.unlock();
+            }
+        });
+        zip.finish();
+        return result;
+    }
+
+    /**
+     * Retrieves all groups concurrently and writes them with the given writer.
+     *
+     * @param groupNames The names of the groups to export.
+     * @param writer Writes a single group to the target.
+     *
+     * @return Which groups were exported and which failed.
+     *
+     * @throws IOException If writing a group fails or the export is interrupted.
+     * @throws IllegalArgumentException If a group name is not a relative path inside of the target.
+     */
+    private Result export(Collection<String> groupNames, GroupWriter writer) throws IOException {
+        for (String groupName : groupNames) {
+            if (!isContained(Path.of(groupName))) {
+                throw new IllegalArgumentException("Group name " + groupName + " escapes the export target");
+            }
+        }
+        ExecutorService threads = executorService.orElseGet(() -> Executors.newFixedThreadPool(parallelism));
+        Semaphore permits = new Semaphore(parallelism);
+        Map<String, Future<Void>> tasks = new LinkedHashMap<>();
+        Result result = new Result();
+
+        try {
+            for (String groupName : new TreeSet<>(groupNames)) {
+                tasks.put(groupName, threads.submit(() -> exportGroup(groupName, permits, writer)));
+            }
+            for (Map.Entry<String, Future<Void>> task : tasks.entrySet()) {
+                await(task.getKey(), task.getValue(), result);
+            }
+
+        } finally {
+            tasks.values().forEach(task -> task.cancel(true));
+            if (executorService.isEmpty()) {
+                threads.shutdownNow();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves a single group and writes it, while holding one of the permits.
+     *
+     * @param groupName The name of the group.
+     * @param permits The permits that limit the number of concurrent groups.
+     * @param writer Writes the group to the target.
+     *
+     * @return Nothing.
+     *
+     * @throws ReplayException If replaying the group fails or it contains a file outside of its directory.
+     * @throws IOException If writing the group fails.
+     * @throws InterruptedException If the export is aborted while waiting for a permit.
+     */
+    private Void exportGroup(String groupName, Semaphore permits, GroupWriter writer)
+            throws ReplayException, IOException, InterruptedException {
+        permits.acquire();
+        try (VersionSnapshot snapshot = RequestScheduler.runWithPriority(RequestPriority.BULK,
+                () -> fetcher.fetch(groupName, memoryBudget))) {
+            for (Path file : snapshot.getFiles()) {
+                if (!isContained(file)) {
+                    throw new ReplayException("Submission of " + groupName + " contains file outside of its directory: "
+                            + file);
+                }
+            }
+            writer.write(groupName, snapshot);
+        } finally {
+            permits.release();
+        }
+        return null;
+    }
+
+    /**
+     * Waits for the export of a single group and records its outcome.
+     *
+     * @param groupName The name of the group.
+     * @param task The export of the group.
+     * @param result The result to record the outcome in.
+     *
+     * @throws IOException If writing the group failed or the export is interrupted.
+     */
+    private static void await(String groupName, Future<Void> task, Result result) throws IOException {
+        try {
+            task.get();
+            result.exported.add(groupName);
+
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ReplayException) {
+                result.failures.put(groupName, (ReplayException) cause);
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new IOException("Failed to export group " + groupName, cause);
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while exporting group " + groupName);
+        }
+    }
+
+    /**
+     * Checks whether a relative path stays inside of the directory that it is resolved against, i.e. it is not
+     * absolute, does not escape with {@code ..} and does not denote the directory itself.
+     *
+     * @param relative The path to check.
+     *
+     * @return Whether the path denotes an element inside of the directory.
+     */
+    private static boolean isContained(Path relative) {
+        Path root = Path.of("").toAbsolutePath();
+        Path resolved = root.resolve(relative).normalize();
+        return resolved.startsWith(root) && !resolved.equals(root);
+    }
+
+    /**
+     * Writes the files of a version into a directory.
+     *
+     * @param directory The directory of the group.
+     * @param snapshot The content of the version.
+     *
+     * @throws IOException If writing fails.
+     */
+    private static void writeDirectory(Path directory, VersionSnapshot snapshot) throws IOException {
+        Files.createDirectories(directory);
+        for (Path file : snapshot.getFiles()) {
+            Path target = directory.resolve(file.toString());
+            Files.createDirectories(target.getParent());
+            try (InputStream in = snapshot.newInputStream(file)) {
+                Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Writes the files of a version into a ZIP archive, below a directory named after the group.
+     *
+     * @param zip The ZIP archive.
+     * @param groupName The name of the group.
+     * @param snapshot The content of the version.
+     *
+     * @throws IOException If writing fails.
+     */
+    private static void writeZip(ZipOutputStream zip, String groupName, VersionSnapshot snapshot) throws IOException {
+        zip.putNextEntry(new ZipEntry(groupName + "/"));
+        zip.closeEntry();
+        for (Path file : snapshot.getFiles()) {
+            zip.putNextEntry(new ZipEntry(groupName + "/" + VersionSnapshot.toEntryName(file)));
+            try (InputStream in = snapshot.newInputStream(file)) {
+                in.transferTo(zip);
+            }
+            zip.closeEntry();
+        }
+    }
+
+}
@@ -0,0 +1,284 @@
+package net.ssehub.teaching.exercise_submitter.lib.replay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Computes the differences between two lists of lines with the Myers diff algorithm, i.e. a shortest edit script of
+ * deleted and inserted lines. Common leading and trailing lines are skipped before the algorithm runs, so the time
+ * mostly depends on the size of the changed region.
+ * <p>
+ * The algorithm keeps a copy of its state for each edit step, so its memory grows with the square of the number of
+ * changed lines. If more than {@link #MAX_EDIT_DISTANCE} lines were deleted or inserted, the search stops and the
+ * whole changed region is reported as a single hunk instead, like for a file that was rewritten completely.
+ */
+public class LineDiff {
+
+    /**
+     * The maximum number of deleted and inserted lines that the Myers algorithm searches for.
+     * <p>
+     * Package visibility for test cases.
+     */
+    static final int MAX_EDIT_DISTANCE = 1000;
+
+    /**
+     * A contiguous region of deleted and inserted lines.
+     */
+    public static class Hunk {
+
+        private int oldStart;
+
+        private List<String> oldLines;
+
+        private int newStart;
+
+        private List<String> newLines;
+
+        /**
+         * Creates a hunk.
+         *
+         * @param oldStart The 1-based line number of the first deleted line.
+         * @param oldLines The deleted lines.
+         * @param newStart The 1-based line number of the first inserted line.
+         * @param newLines The inserted lines.
+         */
+        Hunk(int oldStart, List<String> oldLines, int newStart, List<String> newLines) {
+            this.oldStart = oldStart;
+            this.oldLines = Collections.unmodifiableList(oldLines);
+            this.newStart = newStart;
+            this.newLines = Collections.unmodifiableList(newLines);
+        }
+
+        /**
+         * Returns the line number of the first deleted line in the old version. If no line was deleted, this is the
+         * number of the old line before which the lines were inserted.
+         *
+         * @return The 1-based line number.
+         */
+        public int getOldStart() {
+            return oldStart;
+        }
+
+        /**
+         * Returns the lines of the old version that were deleted or replaced.
+         *
+         * @return The deleted lines. May be empty.
+         */
+        public List<String> getOldLines() {
+            return oldLines;
+        }
+
+        /**
+         * Returns the line number of the first inserted line in the new version. If no line was inserted, this is the
+         * number of the new line before which the lines were deleted.
+         *
+         * @return The 1-based line number.
+         */
+        public int getNewStart() {
+            return newStart;
+        }
+
+        /**
+         * Returns the lines of the new version that were inserted or replace the deleted lines.
+         *
+         * @return The inserted lines. May be empty.
+         */
+        public List<String> getNewLines() {
+            return newLines;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(oldStart, oldLines, newStart, newLines);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            boolean result = false;
+            if (obj instanceof Hunk) {
+                Hunk other = (Hunk) obj;
+                result = oldStart == other.oldStart && newStart == other.newStart
+                        && oldLines.equals(other.oldLines) && newLines.equals(other.newLines);
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Hunk [-" + oldStart + "," + oldLines.size() + " +" + newStart + "," + newLines.size() + "]";
+        }
+
+    }
+
+    /**
+     * No instances.
+     */
+    private LineDiff() {
+    }
+
+    /**
+     * Computes the hunks that transform the old lines into the new lines.
+     *
+     * @param oldLines The lines of the old version.
+     * @param newLines The lines of the new version.
+     *
+     * @return The hunks, ordered by line. Empty if the lines are equal.
+     */
+    public static List<Hunk> diff(List<String> oldLines, List<String> newLines) {
+        int prefix = 0;
+        while (prefix < oldLines.size() && prefix < newLines.size()
+                && oldLines.get(prefix).equals(newLines.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < oldLines.size() - prefix && suffix < newLines.size() - prefix
+                && oldLines.get(oldLines.size() - 1 - suffix).equals(newLines.get(newLines.size() - 1 - suffix))) {
+            suffix++;
+        }
+
+        boolean[] oldChanged = new boolean[oldLines.size()];
+        boolean[] newChanged = new boolean[newLines.size()];
+        markChanges(oldLines.subList(prefix, oldLines.size() - suffix),
+                newLines.subList(prefix, newLines.size() - suffix), oldChanged, newChanged, prefix);
+
+        return toHunks(oldLines, newLines, oldChanged, newChanged);
+    }
+
+    /**
+     * Splits a text into lines. Line terminators (<code>\n</code> or <code>\r\n</code>) are not part of the lines; a
+     * terminator at the end of the text does not start a new line.
+     *
+     * @param text The text.
+     *
+     * @return The lines of the text.
+     */
+    public static List<String> splitLines(String text) {
+        List<String> lines = new ArrayList<>(Arrays.asList(text.split("\r?\n", -1)));
+        if (lines.get(lines.size() - 1).isEmpty()) {
+            lines.remove(lines.size() - 1);
+        }
+        return lines;
+    }
+
+    /**
+     * Runs the Myers algorithm and marks the deleted and inserted lines of a shortest edit script. If the edit script
+     * is longer than {@link #MAX_EDIT_DISTANCE}, all lines are marked instead.
+     *
+     * @param a The old lines.
+     * @param b The new lines.
+     * @param aChanged Receives the deleted lines, at index <code>offset + i</code> for <code>a.get(i)</code>.
+     * @param bChanged Receives the inserted lines, at index <code>offset + j</code> for <code>b.get(j)</code>.
+     * @param offset The offset of the lines in the marker arrays.
+     */
+    private static void markChanges(List<String> a, List<String> b, boolean[] aChanged, boolean[] bChanged,
+            int offset) {
+        int n = a.size();
+        int m = b.size();
+        int max = n + m;
+        int[] v = new int[2 * max + 3];
+        int zero = max + 1;
+
+        // trace.get(d) holds v[-d..d] before step d, for backtracking
+        List<int[]> trace = new ArrayList<>();
+        boolean done = n == 0 && m == 0;
+        for (int d = 0; !done && d <= MAX_EDIT_DISTANCE; d++) {
+            trace.add(Arrays.copyOfRange(v, zero - d, zero + d + 1));
+            for (int k = -d; k <= d && !done; k += 2) {
+                int x = k == -d || k != d && v[zero + k - 1] < v[zero + k + 1]
+                        ? v[zero + k + 1] : v[zero + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && a.get(x).equals(b.get(y))) {
+                    x++;
+                    y++;
+                }
+                v[zero + k] = x;
+                done = x >= n && y >= m;
+            }
+        }
+
+        if (done) {
+            backtrack(n, m, trace, aChanged, bChanged, offset);
+        } else {
+            Arrays.fill(aChanged, offset, offset + n, true);
+            Arrays.fill(bChanged, offset, offset + m, true);
+        }
+    }
+
+    // checkstyle: stop parameter number check
+
+    /**
+     * Follows the edit script found by {@link #markChanges(List, List, boolean[], boolean[], int)} backwards from the
+     * end of both line lists and marks its deleted and inserted lines.
+     *
+     * @param n The number of old lines.
+     * @param m The number of new lines.
+     * @param trace The furthest reaching x positions before each edit step.
+     * @param aChanged Receives the deleted lines.
+     * @param bChanged Receives the inserted lines.
+     * @param offset The offset of the lines in the marker arrays.
+     */
+    private static void backtrack(int n, int m, List<int[]> trace, boolean[] aChanged, boolean[] bChanged,
+            int offset) {
+        int x = n;
+        int y = m;
+        for (int d = trace.size() - 1; d > 0; d--) {
+            int[] previous = trace.get(d);
+            int k = x - y;
+            int previousK = k == -d || k != d && previous[k - 1 + d] < previous[k + 1 + d] ? k + 1 : k - 1;
+            int previousX = previous[previousK + d];
+            int previousY = previousX - previousK;
+            while (x > previousX && y > previousY) {
+                x--;
+                y--;
+            }
+            if (x == previousX) {
+                bChanged[offset + previousY] = true;
+            } else {
+                aChanged[offset + previousX] = true;
+            }
+            x = previousX;
+            y = previousY;
+        }
+    }
+
+    // checkstyle: resume parameter number check
+
+    /**
+     * Groups consecutive changed lines into hunks. Unchanged lines of both versions correspond to each other in order.
+     *
+     * @param oldLines The lines of the old version.
+     * @param newLines The lines of the new version.
+     * @param oldChanged Which old lines were deleted.
+     * @param newChanged Which new lines were inserted.
+     *
+     * @return The hunks.
+     */
+    private static List<Hunk> toHunks(List<String> oldLines, List<String> newLines, boolean[] oldChanged,
+            boolean[] newChanged) {
+        List<Hunk> hunks = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < oldLines.size() || j < newLines.size()) {
+            if (i < oldLines.size() && j < newLines.size() && !oldChanged[i] && !newChanged[j]) {
+                i++;
+                j++;
+            } else {
+                int oldStart = i;
+                int newStart = j;
+                while (i < oldLines.size() && oldChanged[i]) {
+                    i++;
+                }
+                while (j < newLines.size() && newChanged[j]) {
+                    j++;
+                }
+                hunks.add(new Hunk(oldStart + 1, new ArrayList<>(oldLines.subList(oldStart, i)),
+                        newStart + 1, new ArrayList<>(newLines.subList(newStart, j))));
+            }
+        }
+        return hunks;
+    }
+
+}
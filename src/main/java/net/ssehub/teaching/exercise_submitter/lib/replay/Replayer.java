@@ -1,40 +1,118 @@
 package net.ssehub.teaching.exercise_submitter.lib.replay;
 
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Base64;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 
+import net.ssehub.teaching.exercise_submitter.lib.jfr.ReplayEvent;
+import net.ssehub.teaching.exercise_submitter.lib.jfr.ReplayWriteEvent;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricNames;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricsSink;
+import net.ssehub.teaching.exercise_submitter.lib.network.ApiCall;
+import net.ssehub.teaching.exercise_submitter.lib.network.ApiExceptionAdapter;
+import net.ssehub.teaching.exercise_submitter.lib.network.Hedger;
+import net.ssehub.teaching.exercise_submitter.lib.network.JitteredPoller;
+import net.ssehub.teaching.exercise_submitter.lib.network.RequestExecutor;
+import net.ssehub.teaching.exercise_submitter.lib.network.ResiliencePolicy;
+import net.ssehub.teaching.exercise_submitter.lib.network.SingleFlight;
+import net.ssehub.teaching.exercise_submitter.lib.submission.ContentHashes;
+import net.ssehub.teaching.exercise_submitter.lib.submission.IgnoreRules;
 import net.ssehub.teaching.exercise_submitter.lib.submission.Submitter;
+import net.ssehub.teaching.exercise_submitter.lib.submission.WorkspaceTracker;
+import net.ssehub.teaching.exercise_submitter.server.api.ApiCallback;
 import net.ssehub.teaching.exercise_submitter.server.api.ApiClient;
 import net.ssehub.teaching.exercise_submitter.server.api.ApiException;
 import net.ssehub.teaching.exercise_submitter.server.api.api.SubmissionApi;
 import net.ssehub.teaching.exercise_submitter.server.api.model.FileDto;
+import okhttp3.Call;
 
 /**
  * Replays versions from the exercise-submitter-server version history of an exercise submission.
+ * <p>
+ * Replays are reported to the Java Flight Recorder as {@link ReplayEvent}s and {@link ReplayWriteEvent}s.
+ * <p>
+ * This class is thread-safe, except for {@link #close()}, which must not run concurrently to other methods. If several
+ * threads replay the same version at the same time, it is retrieved only once and all threads share the result.
  *
  * @author Adam
  * @author Lukas
  */
 public class Replayer implements Closeable {
 
+    /**
+     * The relative jitter applied to the interval of {@link #pollVersions(Duration, Consumer)}.
+     */
+    private static final double POLLING_JITTER = 0.2;
+    
+    /**
+     * The maximum number of version snapshots kept in memory for {@link #diff(Version, Version)}.
+     */
+    private static final int CACHED_SNAPSHOTS = 8;
+    
+    /**
+     * The maximum number of results of {@link #diff(Version, Version)} that are cached.
+     */
+    private static final int CACHED_DIFFS = 32;
+    
+    /**
+     * The maximum number of manifests of versions that are cached for
+     * {@link #isSameContent(WorkspaceTracker, Version)}.
+     */
+    private static final int CACHED_MANIFESTS = 32;
+    
+    private static final ApiExceptionAdapter<ApiException> SERVER_EXCEPTIONS = new ApiExceptionAdapter<>(
+            ApiException.class, ApiException::getCode, ApiException::new);
+    
+    /**
+     * Starts an asynchronous request to the exercise-submitter-server that retrieves the files of a version.
+     */
+    @FunctionalInterface
+    private interface AsyncRequest {
+
+        /**
+         * Starts the request.
+         *
+         * @param callback The callback that receives the response.
+         *
+         * @return The HTTP call, which can be cancelled.
+         *
+         * @throws ApiException If the request cannot be started.
+         */
+        Call send(ApiCallback<List<FileDto>> callback) throws ApiException;
+
+    }
+
     private String courseId;
     
     private String assignmentName;
@@ -43,12 +121,38 @@ public class Replayer implements Closeable {
     
     private SubmissionApi api;
     
-    private Set<Path> temporaryDirectoriesToDelete = new HashSet<>();
+    private Set<Path> temporaryDirectoriesToDelete = ConcurrentHashMap.newKeySet();
+    
+    private Map<Version, Path> cachedFiles = new ConcurrentHashMap<>();
+    
+    private SingleFlight<Version, Path> checkoutsInFlight = new SingleFlight<>();
+    
+    private volatile boolean hardLinks;
+    
+    private Map<String, Path> writtenFiles = new ConcurrentHashMap<>();
+    
+    private Map<List<Object>, Map<Path, String>> cachedManifests = boundedCache(CACHED_MANIFESTS, manifest -> { });
+    
+    private Set<VersionSnapshot> snapshotsToClose = ConcurrentHashMap.newKeySet();
+    
+    private Map<Version, VersionSnapshot> cachedSnapshots = boundedCache(CACHED_SNAPSHOTS, this::retireSnapshot);
+    
+    private SingleFlight<Version, VersionSnapshot> snapshotsInFlight = new SingleFlight<>();
+    
+    private Map<List<Version>, VersionDiff> cachedDiffs = boundedCache(CACHED_DIFFS, diff -> { });
+    
+    private List<VersionSnapshot> retiredSnapshots = new LinkedList<>();
     
-    private Map<Version, Path> cachedFiles = new HashMap<>();
+    private int diffsRunning;
+    
+    private RequestExecutor executor;
+    
+    private Optional<Hedger> hedger = Optional.empty();
+    
+    private List<JitteredPoller> pollers = new LinkedList<>();
     
     /**
-     * Creates a new replayer for the given assignment.
+     * Creates a new replayer for the given assignment with the default {@link ResiliencePolicy}.
      * 
      * @param baseUrl The URL of the exercise-submitter-server API.
      * @param courseId the ID of the course to submit to.
@@ -58,15 +162,97 @@ public class Replayer implements Closeable {
      *
      */
     public Replayer(String baseUrl, String courseId, String assignmentName, String groupName, String token) {
-        ApiClient client = new ApiClient();
-        client.setBasePath(baseUrl);
-        client.setAccessToken(token);
-        this.api = new SubmissionApi(client);
+        this(baseUrl, courseId, assignmentName, groupName, token, new RequestExecutor(new ResiliencePolicy()));
+    }
+    
+    // checkstyle: stop parameter number check
+    
+    /**
+     * Creates a new replayer for the given assignment.
+     * 
+     * @param baseUrl The URL of the exercise-submitter-server API.
+     * @param courseId the ID of the course to submit to.
+     * @param assignmentName The name of the assignment to submit to.
+     * @param groupName The name of the group to submit to. May be the students name for non-group assignments.
+     * @param token The token to authenticate with. This is the same as used for the student management system. 
+     * @param executor The {@link RequestExecutor} that executes the requests to the exercise-submitter-server.
+     */
+    public Replayer(String baseUrl, String courseId, String assignmentName, String groupName, String token,
+            RequestExecutor executor) {
+        
+        this(createApi(baseUrl, token), courseId, assignmentName, groupName, executor);
+    }
+    
+    // checkstyle: resume parameter number check
+    
+    /**
+     * Creates a new replayer that shares the given client with other replayers, e.g. to replay many groups with the
+     * same connection pool.
+     * <p>
+     * Package visibility for the {@link BulkExporter}.
+     * 
+     * @param api The client of the exercise-submitter-server API. See {@link #createApi(String, String)}.
+     * @param courseId the ID of the course to submit to.
+     * @param assignmentName The name of the assignment to submit to.
+     * @param groupName The name of the group to submit to. May be the students name for non-group assignments.
+     * @param executor The {@link RequestExecutor} that executes the requests to the exercise-submitter-server.
+     */
+    Replayer(SubmissionApi api, String courseId, String assignmentName, String groupName, RequestExecutor executor) {
+        this.executor = executor;
+        this.api = api;
         
         this.courseId = courseId;
         this.assignmentName = assignmentName;
         this.groupName = groupName;
-        
+    }
+    
+    /**
+     * Creates a client of the exercise-submitter-server API.
+     * <p>
+     * Package visibility for the {@link BulkExporter}.
+     * 
+     * @param baseUrl The URL of the exercise-submitter-server API.
+     * @param token The token to authenticate with.
+     * 
+     * @return The client.
+     */
+    static SubmissionApi createApi(String baseUrl, String token) {
+        ApiClient client = new ApiClient();
+        client.setBasePath(baseUrl);
+        client.setAccessToken(token);
+        return new SubmissionApi(client);
+    }
+    
+    /**
+     * Sets whether files that are equal to a file already written by {@link #replay(Version)} or
+     * {@link #replayLatest()} are created as hard links to that file instead of copies. Files are compared by their
+     * content hash, so replaying a long history where each version only changes few files uses little disk space. If
+     * the file system does not support hard links, copies are written. By default, all files are copies.
+     * <p>
+     * Linked files share their content: modifying a file in one replayed directory modifies it in all other
+     * directories of this {@link Replayer}. Only enable this if the replayed directories are not modified.
+     * 
+     * @param hardLinks Whether equal files are hard-linked.
+     * 
+     * @return This.
+     */
+    public Replayer withHardLinks(boolean hardLinks) {
+        this.hardLinks = hardLinks;
+        return this;
+    }
+    
+    /**
+     * Sets a {@link Hedger} for the retrieval of versions: if the server does not answer within the delay of the
+     * hedger, a second request is sent and the faster answer is used. The hedger may be shared by several
+     * {@link Replayer}s, so that they share its latency observations and budget. By default, no requests are hedged.
+     * 
+     * @param hedger The hedger for the requests that retrieve the content of versions.
+     * 
+     * @return This.
+     */
+    public Replayer withHedging(Hedger hedger) {
+        this.hedger = Optional.of(hedger);
+        return this;
     }
     
     /**
@@ -144,7 +330,8 @@ public class Replayer implements Closeable {
      */
     public List<Version> getVersions() throws ReplayException {
         try {
-            return api.listVersions(courseId, assignmentName, groupName).stream()
+            return executor.execute("submission.listVersions", courseId, assignmentName, true,
+                () -> api.listVersions(courseId, assignmentName, groupName), SERVER_EXCEPTIONS).stream()
                     .map(dto -> new Version(dto.getAuthor(), Instant.ofEpochSecond(dto.getTimestamp())))
                     .collect(Collectors.toList());
             
@@ -153,6 +340,34 @@ public class Replayer implements Closeable {
         }
     }
     
+    /**
+     * Periodically retrieves the version list in the background and passes it to the given listener. The interval is
+     * randomly varied by up to 20% (and the first poll happens at a random point within the first interval), so that
+     * many clients started at the same time do not poll the server in lockstep.
+     * <p>
+     * Failed polls are skipped silently; the next poll is attempted as usual. Polling stops when the returned
+     * {@link JitteredPoller} or this {@link Replayer} is closed.
+     * 
+     * @param interval The average interval between two polls.
+     * @param listener Receives the version list after each successful poll. Called on a background thread.
+     * 
+     * @return The poller; close it to stop polling.
+     */
+    public JitteredPoller pollVersions(Duration interval, Consumer<List<Version>> listener) {
+        JitteredPoller poller = new JitteredPoller(interval, POLLING_JITTER, () -> {
+            try {
+                listener.accept(getVersions());
+            } catch (ReplayException e) {
+                // ignore, try again in the next interval
+            }
+        });
+        
+        synchronized (pollers) {
+            pollers.add(poller);
+        }
+        return poller;
+    }
+    
     /**
      * Replays the given version to a temporary directory. The directory will be
      * deleted when this {@link Replayer} is closed.
@@ -164,14 +379,42 @@ public class Replayer implements Closeable {
      * @throws ReplayException If replaying the submission fails, either due to IO exceptions or API exceptions.
      */
     public File replay(Version version) throws ReplayException {
+        ReplayEvent event = new ReplayEvent(courseId, assignmentName, version.getTimestamp().toEpochMilli());
+        event.begin();
+        
         Path resultCheckout = cachedFiles.get(version);
         
+        try {
+            if (resultCheckout == null) {
+                resultCheckout = checkoutsInFlight.execute(version, () -> checkout(version), ReplayException.class);
+                
+            } else {
+                executor.getMetrics().increment(MetricNames.cacheHits(MetricNames.REPLAY_CACHE));
+                event.setCacheHit(true);
+            }
+        } finally {
+            event.commit();
+        }
+
+        return resultCheckout.toFile();
+    }
+    
+    /**
+     * Replays the given version to a new temporary directory and caches it, unless another thread cached it in the
+     * meantime. Only called by one thread per version at a time, see {@link #checkoutsInFlight}.
+     * 
+     * @param version The version to replay.
+     * 
+     * @return The temporary directory with the submission content.
+     * 
+     * @throws ReplayException If replaying the submission fails.
+     */
+    private Path checkout(Version version) throws ReplayException {
+        Path resultCheckout = cachedFiles.get(version);
         if (resultCheckout == null) {
+            executor.getMetrics().increment(MetricNames.cacheMisses(MetricNames.REPLAY_CACHE));
             try {
-                List<FileDto> files = api.getVersion(
-                        courseId, assignmentName, groupName, version.getTimestamp().getEpochSecond());
-                
-                resultCheckout = writeToTempDirectory(files);
+                resultCheckout = writeToTempDirectory(fetchVersion(version));
                 
             } catch (IOException e) {
                 throw new ReplayException("Failed to write submission to temporary directory", e);
@@ -182,9 +425,9 @@ public class Replayer implements Closeable {
             
             cachedFiles.put(version, resultCheckout);
         }
-
-        return resultCheckout.toFile();
+        return resultCheckout;
     }
+    
     /**
      * Replays the latest version to a temporary directory. The directory will be deleted when this {@link Replayer}
      * is closed.
@@ -197,26 +440,439 @@ public class Replayer implements Closeable {
      * @throws ReplayException If replaying the submission fails, either due to IO exceptions or API exceptions.
      */
     public File replayLatest() throws ReplayException {
+        ReplayEvent event = new ReplayEvent(courseId, assignmentName, 0);
+        event.begin();
+        
         Path checkoutResult;
         try {
-            List<FileDto> files = api.getLatest(courseId, assignmentName, groupName);
-            
-            checkoutResult = writeToTempDirectory(files);
+            checkoutResult = writeToTempDirectory(fetchLatest());
             
         } catch (IOException e) {
             throw new ReplayException("Failed to write submission to temporary directory", e);
             
         } catch (ApiException e) {
             throw new ReplayException("Failed to retrieve submission version", e);
+            
+        } finally {
+            event.commit();
         }
         
         return checkoutResult.toFile();
     }
     
+    /**
+     * Replays the given version into memory instead of a temporary directory. If the decoded files are larger than
+     * the given memory budget, they are spilled into a single temporary ZIP file. The snapshot should be closed when
+     * it is not needed anymore; otherwise, it is closed when this {@link Replayer} is closed.
+     * <p>
+     * Contrary to {@link #replay(Version)}, the result is not cached.
+     *
+     * @param version The version to replay. See {@link #getVersions()}.
+     * @param memoryBudget The maximum number of decoded bytes kept in memory, e.g.
+     *      {@link VersionSnapshot#DEFAULT_MEMORY_BUDGET}.
+     *
+     * @return A read-only snapshot of the submission content.
+     *
+     * @throws ReplayException If replaying the submission fails, either due to IO exceptions or API exceptions.
+     */
+    public VersionSnapshot replayToMemory(Version version, long memoryBudget) throws ReplayException {
+        ReplayEvent event = new ReplayEvent(courseId, assignmentName, version.getTimestamp().toEpochMilli());
+        event.begin();
+        try {
+            return toSnapshot(fetchVersion(version), memoryBudget);
+        } catch (ApiException e) {
+            throw new ReplayException("Failed to retrieve submission version", e);
+        } finally {
+            event.commit();
+        }
+    }
+    
+    /**
+     * Replays the latest version into memory, see {@link #replayToMemory(Version, long)}.
+     *
+     * @param memoryBudget The maximum number of decoded bytes kept in memory, e.g.
+     *      {@link VersionSnapshot#DEFAULT_MEMORY_BUDGET}.
+     *
+     * @return A read-only snapshot of the submission content.
+     *
+     * @throws ReplayException If replaying the submission fails, either due to IO exceptions or API exceptions.
+     */
+    public VersionSnapshot replayLatestToMemory(long memoryBudget) throws ReplayException {
+        ReplayEvent event = new ReplayEvent(courseId, assignmentName, 0);
+        event.begin();
+        try {
+            return toSnapshot(fetchLatest(), memoryBudget);
+        } catch (ApiException e) {
+            throw new ReplayException("Failed to retrieve submission version", e);
+        } finally {
+            event.commit();
+        }
+    }
+    
+    /**
+     * Replays the given version directly into a ZIP archive, e.g. to offer it as a download. The files are decoded
+     * while they are written to the stream, so no temporary files are created. The archive is finished, but the given
+     * stream is not closed.
+     * <p>
+     * Contrary to {@link #replay(Version)}, the result is not cached.
+     *
+     * @param version The version to replay. See {@link #getVersions()}.
+     * @param out The stream to write the ZIP archive to.
+     *
+     * @throws ReplayException If replaying the submission fails, either due to IO exceptions or API exceptions.
+     */
+    public void replayToZip(Version version, OutputStream out) throws ReplayException {
+        ReplayEvent event = new ReplayEvent(courseId, assignmentName, version.getTimestamp().toEpochMilli());
+        event.begin();
+        try {
+            streamToZip(fetchVersion(version), out);
+        } catch (ApiException e) {
+            throw new ReplayException("Failed to retrieve submission version", e);
+        } finally {
+            event.commit();
+        }
+    }
+    
+    /**
+     * Replays the latest version directly into a ZIP archive, see {@link #replayToZip(Version, OutputStream)}.
+     *
+     * @param out The stream to write the ZIP archive to.
+     *
+     * @throws ReplayException If replaying the submission fails, either due to IO exceptions or API exceptions.
+     */
+    public void replayLatestToZip(OutputStream out) throws ReplayException {
+        ReplayEvent event = new ReplayEvent(courseId, assignmentName, 0);
+        event.begin();
+        try {
+            streamToZip(fetchLatest(), out);
+        } catch (ApiException e) {
+            throw new ReplayException("Failed to retrieve submission version", e);
+        } finally {
+            event.commit();
+        }
+    }
+    
+    /**
+     * Computes the differences between two versions: the added, removed and modified files, and the changed lines of
+     * each text file. The content of each version is retrieved only once and kept in memory (see
+     * {@link #replayToMemory(Version, long)}), and the result is cached for each pair of versions, so that stepping
+     * through a long history only retrieves each version once. Both caches only keep the most recently used entries.
+     *
+     * @param oldVersion The older version. See {@link #getVersions()}.
+     * @param newVersion The newer version.
+     *
+     * @return The differences from the older to the newer version.
+     *
+     * @throws ReplayException If replaying one of the versions fails.
+     */
+    public VersionDiff diff(Version oldVersion, Version newVersion) throws ReplayException {
+        List<Version> key = List.of(oldVersion, newVersion);
+        VersionDiff diff = cachedDiffs.get(key);
+        if (diff == null) {
+            synchronized (retiredSnapshots) {
+                diffsRunning++;
+            }
+            try {
+                diff = new VersionDiff(getCachedSnapshot(oldVersion), getCachedSnapshot(newVersion));
+            } catch (IOException e) {
+                throw new ReplayException("Failed to read submission from temporary file", e);
+            } finally {
+                closeRetiredSnapshots();
+            }
+            cachedDiffs.put(key, diff);
+        }
+        return diff;
+    }
+    
+    /**
+     * Creates a thread-safe map that keeps at most the given number of entries. When it is full, the least recently
+     * used entry is removed.
+     * 
+     * @param <K> The key type.
+     * @param <V> The value type.
+     * @param maxSize The maximum number of entries.
+     * @param onEvict Called with the value of each entry that is removed because the map is full.
+     * 
+     * @return The map.
+     */
+    private static <K, V> Map<K, V> boundedCache(int maxSize, Consumer<V> onEvict) {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(maxSize * 2, 0.75f, true) {
+            
+            private static final long serialVersionUID = 1L;
+            
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                boolean full = size() > maxSize;
+                if (full) {
+                    onEvict.accept(eldest.getValue());
+                }
+                return full;
+            }
+            
+        });
+    }
+    
+    /**
+     * Called when a snapshot is removed from the cache. Other threads may still compute a diff with it, so it is
+     * only closed once no {@link #diff(Version, Version)} is running anymore.
+     * 
+     * @param snapshot The snapshot that was removed from the cache.
+     */
+    private void retireSnapshot(VersionSnapshot snapshot) {
+        synchronized (retiredSnapshots) {
+            retiredSnapshots.add(snapshot);
+        }
+    }
+    
+    /**
+     * Ends a {@link #diff(Version, Version)} and, if it was the last one running, closes the snapshots removed from
+     * the cache in the meantime. Snapshots that fail to close are closed again on {@link #close()}.
+     */
+    private void closeRetiredSnapshots() {
+        List<VersionSnapshot> toClose = new LinkedList<>();
+        synchronized (retiredSnapshots) {
+            diffsRunning--;
+            if (diffsRunning == 0) {
+                toClose.addAll(retiredSnapshots);
+                retiredSnapshots.clear();
+            }
+        }
+        for (VersionSnapshot snapshot : toClose) {
+            try {
+                closeSnapshot(snapshot);
+            } catch (IOException e) {
+                // stays in snapshotsToClose
+            }
+        }
+    }
+    
+    /**
+     * Closes a snapshot before this replayer is closed, so that {@link #close()} does not need to close it again.
+     * 
+     * @param snapshot The snapshot to close.
+     * 
+     * @throws IOException If deleting the spill file of the snapshot fails. The snapshot is closed again on
+     *      {@link #close()} in this case.
+     */
+    private void closeSnapshot(VersionSnapshot snapshot) throws IOException {
+        snapshot.close();
+        snapshotsToClose.remove(snapshot);
+    }
+    
+    /**
+     * Returns the in-memory snapshot of a version, replaying it if it is not cached yet.
+     * 
+     * @param version The version.
+     * 
+     * @return The snapshot, closed on {@link #close()}.
+     * 
+     * @throws ReplayException If replaying the version fails.
+     */
+    private VersionSnapshot getCachedSnapshot(Version version) throws ReplayException {
+        VersionSnapshot snapshot = cachedSnapshots.get(version);
+        if (snapshot == null) {
+            snapshot = snapshotsInFlight.execute(version, () -> {
+                VersionSnapshot loaded = cachedSnapshots.get(version);
+                if (loaded == null) {
+                    executor.getMetrics().increment(MetricNames.cacheMisses(MetricNames.REPLAY_CACHE));
+                    loaded = replayToMemory(version, VersionSnapshot.DEFAULT_MEMORY_BUDGET);
+                    cachedSnapshots.put(version, loaded);
+                }
+                return loaded;
+            }, ReplayException.class);
+        } else {
+            executor.getMetrics().increment(MetricNames.cacheHits(MetricNames.REPLAY_CACHE));
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Retrieves the files of a version from the server.
+     * 
+     * @param version The version.
+     * 
+     * @return The files of the version.
+     * 
+     * @throws ApiException If the request fails.
+     */
+    private List<FileDto> fetchVersion(Version version) throws ApiException {
+        return hedged(() -> executor.execute("submission.getVersion", courseId, assignmentName, true,
+            () -> sendCancellable(callback -> api.getVersionAsync(courseId, assignmentName, groupName,
+                    version.getTimestamp().getEpochSecond(), callback)),
+            SERVER_EXCEPTIONS));
+    }
+    
+    /**
+     * Retrieves the files of the latest version from the server.
+     * 
+     * @return The files of the latest version.
+     * 
+     * @throws ApiException If the request fails.
+     */
+    private List<FileDto> fetchLatest() throws ApiException {
+        return hedged(() -> executor.execute("submission.getLatest", courseId, assignmentName, true,
+            () -> sendCancellable(callback -> api.getLatestAsync(courseId, assignmentName, groupName, callback)),
+            SERVER_EXCEPTIONS));
+    }
+    
+    /**
+     * Sends a request that retrieves the files of a version and waits for the response. The HTTP client sends the
+     * request in its own thread, so that it can be aborted: if the current thread is interrupted while waiting, e.g.
+     * because it runs the losing request of a {@link Hedger}, the request is cancelled instead of blocking in a socket
+     * read until it completes.
+     * 
+     * @param request Starts the asynchronous request with the given callback.
+     * 
+     * @return The files of the version.
+     * 
+     * @throws ApiException If the request fails. Its cause is an {@link InterruptedIOException} if the thread was
+     *      interrupted.
+     */
+    private static List<FileDto> sendCancellable(AsyncRequest request) throws ApiException {
+        CompletableFuture<List<FileDto>> response = new CompletableFuture<>();
+        Call call = request.send(new ApiCallback<>() {
+            
+            @Override
+            public void onSuccess(List<FileDto> result, int statusCode, Map<String, List<String>> responseHeaders) {
+                response.complete(result);
+            }
+            
+            @Override
+            public void onFailure(ApiException e, int statusCode, Map<String, List<String>> responseHeaders) {
+                response.completeExceptionally(e);
+            }
+            
+            @Override
+            public void onUploadProgress(long bytesWritten, long contentLength, boolean done) {
+            }
+            
+            @Override
+            public void onDownloadProgress(long bytesRead, long contentLength, boolean done) {
+            }
+            
+        });
+        
+        List<FileDto> result;
+        try {
+            result = response.get();
+        } catch (InterruptedException e) {
+            call.cancel();
+            Thread.currentThread().interrupt();
+            throw new ApiException(new InterruptedIOException("Request cancelled"));
+        } catch (ExecutionException e) {
+            throw (ApiException) e.getCause();
+        }
+        return result;
+    }
+    
+    /**
+     * Executes the given call through the {@link Hedger}, if one is set.
+     * 
+     * @param call The call that retrieves the files of a version.
+     * 
+     * @return The files of the version.
+     * 
+     * @throws ApiException If the request fails.
+     */
+    private List<FileDto> hedged(ApiCall<List<FileDto>, ApiException> call) throws ApiException {
+        List<FileDto> result;
+        if (hedger.isPresent()) {
+            result = hedger.get().execute(call, SERVER_EXCEPTIONS, executor.getMetrics());
+        } else {
+            result = call.call();
+        }
+        return result;
+    }
+    
+    /**
+     * Decodes the given submission files into a {@link VersionSnapshot} that is closed on {@link #close()}.
+     * 
+     * @param files The files of the version.
+     * @param memoryBudget The maximum number of decoded bytes kept in memory.
+     * 
+     * @return The snapshot.
+     * 
+     * @throws ReplayException If writing the spill file fails.
+     */
+    private VersionSnapshot toSnapshot(List<FileDto> files, long memoryBudget) throws ReplayException {
+        MetricsSink metrics = executor.getMetrics();
+        long start = System.nanoTime();
+        VersionSnapshot snapshot;
+        try {
+            snapshot = VersionSnapshot.decode(files, memoryBudget, metrics);
+        } catch (IOException e) {
+            throw new ReplayException("Failed to write submission to temporary file", e);
+        } finally {
+            metrics.recordLatency(MetricNames.REPLAY_WRITE, System.nanoTime() - start);
+        }
+        if (snapshot.isSpilled()) {
+            snapshotsToClose.add(snapshot);
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Writes the given submission files into a ZIP archive on the given stream.
+     * 
+     * @param files The files of the version.
+     * @param out The stream to write the ZIP archive to.
+     * 
+     * @throws ReplayException If writing to the stream fails.
+     */
+    private void streamToZip(List<FileDto> files, OutputStream out) throws ReplayException {
+        MetricsSink metrics = executor.getMetrics();
+        long start = System.nanoTime();
+        ReplayWriteEvent event = new ReplayWriteEvent(courseId, assignmentName);
+        event.begin();
+        try {
+            writeZip(files, out, metrics, event);
+        } catch (IOException e) {
+            throw new ReplayException("Failed to write submission to ZIP stream", e);
+        } finally {
+            metrics.recordLatency(MetricNames.REPLAY_WRITE, System.nanoTime() - start);
+            event.commit();
+        }
+    }
+    
+    /**
+     * Writes the given submission files into a ZIP archive. The Base64 content of each file is decoded while it is
+     * written, so that the decoded content is never held in memory as a whole.
+     * <p>
+     * Package visibility for test cases.
+     * 
+     * @param files The files to write.
+     * @param out The stream to write the ZIP archive to. Not closed.
+     * @param metrics The sink to record the downloaded and written bytes in.
+     * @param event The event to add the written files to.
+     * 
+     * @throws IOException If writing to the stream fails.
+     */
+    static void writeZip(List<FileDto> files, OutputStream out, MetricsSink metrics, ReplayWriteEvent event)
+            throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        for (FileDto dto : files) {
+            metrics.increment(MetricNames.REPLAY_BYTES_DOWNLOADED, dto.getContent().length());
+            
+            zip.putNextEntry(new ZipEntry(VersionSnapshot.toEntryName(Path.of(dto.getPath()))));
+            long size;
+            try (InputStream in = Base64.getDecoder().wrap(
+                    new ByteArrayInputStream(dto.getContent().getBytes(StandardCharsets.ISO_8859_1)))) {
+                size = in.transferTo(zip);
+            }
+            zip.closeEntry();
+            
+            metrics.increment(MetricNames.REPLAY_BYTES_WRITTEN, size);
+            event.addFile(size);
+        }
+        zip.finish();
+    }
+    
     /**
      * Creates a temporary directory and writes the given submission files to it.
      * <p>
      * The directory will be added to {@link #temporaryDirectoriesToDelete} so that it is delete on {@link #close()}.
+     * <p>
+     * Package visibility for test cases.
      * 
      * @param files The files to write to the directory.
      * 
@@ -224,7 +880,12 @@ public class Replayer implements Closeable {
      * 
      * @throws IOException
      */
-    private Path writeToTempDirectory(List<FileDto> files) throws IOException {
+    Path writeToTempDirectory(List<FileDto> files) throws IOException {
+        MetricsSink metrics = executor.getMetrics();
+        long start = System.nanoTime();
+        ReplayWriteEvent event = new ReplayWriteEvent(courseId, assignmentName);
+        event.begin();
+        
         Path tempDirectory = Files.createTempDirectory("submission_replay");
         
         try {
@@ -233,8 +894,14 @@ public class Replayer implements Closeable {
                 Path filepath = tempDirectory.resolve(dto.getPath());
                 Files.createDirectories(filepath.getParent());
                 
+                metrics.increment(MetricNames.REPLAY_BYTES_DOWNLOADED, dto.getContent().length());
                 byte[] content = Base64.getDecoder().decode(dto.getContent());
-                Files.write(filepath, content);
+                if (writeFile(filepath, content)) {
+                    metrics.increment(MetricNames.REPLAY_BYTES_LINKED, content.length);
+                } else {
+                    metrics.increment(MetricNames.REPLAY_BYTES_WRITTEN, content.length);
+                }
+                event.addFile(content.length);
             }
         } catch (IOException e) {
             try {
@@ -243,12 +910,69 @@ public class Replayer implements Closeable {
                 // ignore
             }
             throw e;
+            
+        } finally {
+            metrics.recordLatency(MetricNames.REPLAY_WRITE, System.nanoTime() - start);
+            event.commit();
         }
         
         temporaryDirectoriesToDelete.add(tempDirectory);
         return tempDirectory;
     }
 
+    /**
+     * Writes a single replayed file. If enabled with {@link #withHardLinks(boolean)}, the file is created as a hard
+     * link to an equal file that was written before.
+     * 
+     * @param file The file to create.
+     * @param content The content of the file.
+     * 
+     * @return Whether the file was linked instead of written.
+     * 
+     * @throws IOException If writing the file fails.
+     */
+    private boolean writeFile(Path file, byte[] content) throws IOException {
+        boolean linked = false;
+        String hash = null;
+        if (hardLinks) {
+            hash = ContentHashes.hash(content);
+            Path existing = writtenFiles.get(hash);
+            if (existing != null) {
+                linked = createLink(file, existing);
+            }
+        }
+        if (!linked) {
+            Files.write(file, content);
+            if (hash != null) {
+                writtenFiles.put(hash, file);
+            }
+        }
+        return linked;
+    }
+    
+    /**
+     * Tries to create a hard link. If the file system does not support hard links, no further links are attempted.
+     * 
+     * @param link The link to create.
+     * @param existing The existing file to link to.
+     * 
+     * @return Whether the link was created.
+     */
+    private boolean createLink(Path link, Path existing) {
+        boolean linked;
+        try {
+            Files.createLink(link, existing);
+            linked = true;
+        } catch (UnsupportedOperationException e) {
+            hardLinks = false;
+            linked = false;
+        } catch (IOException e) {
+            // e.g. the existing file was deleted or has too many links; write a copy instead
+            linked = false;
+        }
+        return linked;
+    }
+
     /**
      * Checks if the given directory has the same content as the given submitted
      * version.
@@ -268,14 +992,69 @@ public class Replayer implements Closeable {
         return directoryContentEqual(directory.toPath(), result.toPath());
     }
 
+    /**
+     * Checks if the directory of the given {@link WorkspaceTracker} has the same content as the given submitted
+     * version. Unlike {@link #isSameContent(File, Version)}, this only reads the files that changed since the last
+     * check, the version is replayed into memory (see {@link #replayToMemory(Version, long)}), and the content hashes
+     * of each version are computed only once.
+     * <p>
+     * The tracker learns about changed files asynchronously, so files written just before this call may not be
+     * noticed yet (see {@link WorkspaceTracker}). Use {@link #isSameContent(File, Version)} or call
+     * {@link WorkspaceTracker#rescan()} before, if the answer must reflect such changes.
+     *
+     * @param workspace The tracker of the directory that will be checked. Its {@link IgnoreRules} are also applied
+     *      to the version.
+     * @param version The version which content will be compared to the directory.
+     *
+     * @return Whether the directory and the submitted version have the same content.
+     *
+     * @throws IOException If reading the files fails.
+     * @throws ReplayException If retrieving the given version fails.
+     */
+    public boolean isSameContent(WorkspaceTracker workspace, Version version) throws IOException, ReplayException {
+        List<Object> key = List.of(version, workspace.getIgnoreRules());
+        Map<Path, String> versionManifest = cachedManifests.get(key);
+        if (versionManifest == null) {
+            VersionSnapshot snapshot = replayToMemory(version, VersionSnapshot.DEFAULT_MEMORY_BUDGET);
+            try {
+                versionManifest = snapshot.getManifest(workspace.getIgnoreRules());
+            } finally {
+                closeSnapshot(snapshot);
+            }
+            cachedManifests.put(key, versionManifest);
+        }
+        return workspace.getManifest().equals(versionManifest);
+    }
+
     /**
      * Clears all temporary directories with checked-out versions.
      */
     @Override
     public void close() throws IOException {
+        synchronized (pollers) {
+            pollers.forEach(JitteredPoller::close);
+            pollers.clear();
+        }
+        
         cachedFiles.clear();
+        writtenFiles.clear();
+        cachedManifests.clear();
+        cachedSnapshots.clear();
+        cachedDiffs.clear();
+        synchronized (retiredSnapshots) {
+            retiredSnapshots.clear();
+        }
         
         IOException exception = null;
+        for (VersionSnapshot snapshot : snapshotsToClose) {
+            try {
+                snapshot.close();
+            } catch (IOException e) {
+                exception = e;
+            }
+        }
+        snapshotsToClose.clear();
+
         for (Path directory : temporaryDirectoriesToDelete) {
             try {
                 deleteDirectory(directory);
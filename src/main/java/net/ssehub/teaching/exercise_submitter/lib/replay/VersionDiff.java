@@ -0,0 +1,150 @@
+package net.ssehub.teaching.exercise_submitter.lib.replay;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import net.ssehub.teaching.exercise_submitter.lib.replay.LineDiff.Hunk;
+import net.ssehub.teaching.exercise_submitter.lib.submission.ContentClassifier;
+
+/**
+ * The differences between two versions of a submission: which files were added, removed or modified, and the changed
+ * lines of each text file. See {@link Replayer#diff(Replayer.Version, Replayer.Version)}.
+ * <p>
+ * Text files are compared as UTF-8, which is the encoding of all submitted text files. Binary files are only compared
+ * as a whole; they have no hunks. Instances are immutable.
+ */
+public class VersionDiff {
+
+    private Set<Path> added = new TreeSet<>();
+
+    private Set<Path> removed = new TreeSet<>();
+
+    private Set<Path> modified = new TreeSet<>();
+
+    private Set<Path> binary = new HashSet<>();
+
+    private Map<Path, List<Hunk>> hunks = new HashMap<>();
+
+    /**
+     * Computes the differences between two versions.
+     * <p>
+     * Package visibility for the {@link Replayer} and test cases.
+     *
+     * @param oldVersion The content of the older version.
+     * @param newVersion The content of the newer version.
+     *
+     * @throws IOException If reading a spilled snapshot fails.
+     */
+    VersionDiff(VersionSnapshot oldVersion, VersionSnapshot newVersion) throws IOException {
+        Set<Path> files = new HashSet<>(oldVersion.getFiles());
+        files.addAll(newVersion.getFiles());
+
+        for (Path file : files) {
+            byte[] oldContent = oldVersion.exists(file) ? oldVersion.readAllBytes(file) : null;
+            byte[] newContent = newVersion.exists(file) ? newVersion.readAllBytes(file) : null;
+
+            if (oldContent == null) {
+                added.add(file);
+            } else if (newContent == null) {
+                removed.add(file);
+            } else if (!Arrays.equals(oldContent, newContent)) {
+                modified.add(file);
+            }
+
+            if (oldContent == null || newContent == null || !Arrays.equals(oldContent, newContent)) {
+                byte[] anyContent = newContent != null ? newContent : oldContent;
+                if (ContentClassifier.isText(file, anyContent)) {
+                    hunks.put(file, Collections.unmodifiableList(LineDiff.diff(toLines(oldContent),
+                            toLines(newContent))));
+                } else {
+                    binary.add(file);
+                }
+            }
+        }
+
+        added = Collections.unmodifiableSet(added);
+        removed = Collections.unmodifiableSet(removed);
+        modified = Collections.unmodifiableSet(modified);
+    }
+
+    /**
+     * Returns the files that exist only in the newer version.
+     *
+     * @return The added files, sorted.
+     */
+    public Set<Path> getAdded() {
+        return added;
+    }
+
+    /**
+     * Returns the files that exist only in the older version.
+     *
+     * @return The removed files, sorted.
+     */
+    public Set<Path> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Returns the files that exist in both versions with different content.
+     *
+     * @return The modified files, sorted.
+     */
+    public Set<Path> getModified() {
+        return modified;
+    }
+
+    /**
+     * Returns whether any file was added, removed or modified.
+     *
+     * @return Whether the versions differ.
+     */
+    public boolean hasChanges() {
+        return !added.isEmpty() || !removed.isEmpty() || !modified.isEmpty();
+    }
+
+    /**
+     * Checks whether a changed file is a binary file, which has no hunks.
+     *
+     * @param file The path of the file.
+     *
+     * @return Whether the file was changed and is binary.
+     */
+    public boolean isBinary(Path file) {
+        return binary.contains(file);
+    }
+
+    /**
+     * Returns the changed lines of a file. An added file has a single hunk inserting all lines, a removed file a
+     * single hunk deleting all lines.
+     *
+     * @param file The path of the file.
+     *
+     * @return The hunks of the file; empty if the file is unchanged, binary or in none of the versions.
+     */
+    public List<Hunk> getHunks(Path file) {
+        return hunks.getOrDefault(file, Collections.emptyList());
+    }
+
+    /**
+     * Splits the content of a text file into lines.
+     *
+     * @param content The content, or <code>null</code> if the file does not exist.
+     *
+     * @return The lines.
+     */
+    private static List<String> toLines(byte[] content) {
+        return content != null ? LineDiff.splitLines(new String(content, StandardCharsets.UTF_8))
+                : Collections.emptyList();
+    }
+
+}
@@ -0,0 +1,336 @@
+package net.ssehub.teaching.exercise_submitter.lib.replay;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricNames;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricsSink;
+import net.ssehub.teaching.exercise_submitter.lib.submission.ContentHashes;
+import net.ssehub.teaching.exercise_submitter.lib.submission.IgnoreRules;
+import net.ssehub.teaching.exercise_submitter.lib.submission.WorkspaceTracker;
+import net.ssehub.teaching.exercise_submitter.server.api.model.FileDto;
+
+/**
+ * A read-only view of the files of a replayed version, kept in memory instead of being written to a temporary
+ * directory. If the decoded content exceeds the memory budget, the files are spilled into a single temporary ZIP file
+ * instead, which is read on demand.
+ * <p>
+ * All paths are relative to the root of the submission. The spill file is deleted when the snapshot is closed.
+ * <p>
+ * Several threads may read from a snapshot at the same time, but reads must not overlap with {@link #close()}. Reading
+ * the content of a file after the snapshot was closed throws an {@link IllegalStateException}; streams that were
+ * opened before may fail with an {@link IOException}.
+ */
+public class VersionSnapshot implements Closeable {
+
+    /**
+     * The default memory budget of {@link Replayer#replayToMemory(Replayer.Version, long)}, in bytes of decoded file
+     * content.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 16 * 1024 * 1024;
+
+    private Map<Path, Long> sizes = new TreeMap<>();
+
+    private Map<Path, byte[]> inMemory = new HashMap<>();
+
+    private Path spillFile;
+
+    private ZipFile zip;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates an empty snapshot. Filled by {@link #decode(List, long, MetricsSink)}.
+     */
+    private VersionSnapshot() {
+    }
+
+    /**
+     * Decodes the files of a version into a new snapshot.
+     * <p>
+     * Package visibility for the {@link Replayer} and test cases.
+     *
+     * @param files The files of the version, as returned by the server.
+     * @param memoryBudget The maximum number of decoded bytes kept in memory. If the files are larger, all of them are
+     *      spilled to a temporary ZIP file.
+     * @param metrics The sink to record the downloaded and spilled bytes in.
+     *
+     * @return The snapshot.
+     *
+     * @throws IOException If writing the spill file fails.
+     */
+    static VersionSnapshot decode(List<FileDto> files, long memoryBudget, MetricsSink metrics) throws IOException {
+        VersionSnapshot snapshot = new VersionSnapshot();
+        long total = 0;
+        ZipOutputStream out = null;
+        try {
+            for (FileDto dto : files) {
+                metrics.increment(MetricNames.REPLAY_BYTES_DOWNLOADED, dto.getContent().length());
+                byte[] content = Base64.getDecoder().decode(dto.getContent());
+                Path path = Path.of(dto.getPath());
+                snapshot.sizes.put(path, (long) content.length);
+                total += content.length;
+
+                if (out == null && total > memoryBudget) {
+                    out = snapshot.startSpilling(metrics);
+                }
+                if (out != null) {
+                    writeEntry(out, path, content, metrics);
+                } else {
+                    snapshot.inMemory.put(path, content);
+                }
+            }
+            if (out != null) {
+                out.close();
+                snapshot.zip = new ZipFile(snapshot.spillFile.toFile());
+            }
+
+        } catch (IOException e) {
+            try {
+                if (out != null) {
+                    out.close();
+                }
+            } catch (IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            try {
+                snapshot.close();
+            } catch (IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the files of this version.
+     *
+     * @return The paths of the files, sorted.
+     */
+    public Set<Path> getFiles() {
+        return Collections.unmodifiableSet(sizes.keySet());
+    }
+
+    /**
+     * Checks whether a file exists in this version.
+     *
+     * @param file The path of the file.
+     *
+     * @return Whether the file exists.
+     */
+    public boolean exists(Path file) {
+        return sizes.containsKey(file);
+    }
+
+    /**
+     * Returns the size of a file.
+     *
+     * @param file The path of the file.
+     *
+     * @return The size of the file in bytes.
+     *
+     * @throws NoSuchFileException If the file does not exist in this version.
+     */
+    public long size(Path file) throws NoSuchFileException {
+        Long size = sizes.get(file);
+        if (size == null) {
+            throw new NoSuchFileException(file.toString());
+        }
+        return size;
+    }
+
+    /**
+     * Reads the content of a file.
+     *
+     * @param file The path of the file.
+     *
+     * @return The content of the file. A copy if the file is kept in memory.
+     *
+     * @throws NoSuchFileException If the file does not exist in this version.
+     * @throws IOException If reading the spill file fails.
+     * @throws IllegalStateException If this snapshot is closed.
+     */
+    public byte[] readAllBytes(Path file) throws NoSuchFileException, IOException, IllegalStateException {
+        checkNotClosed();
+        byte[] result;
+        if (zip == null) {
+            result = getInMemory(file).clone();
+        } else {
+            try (InputStream in = newInputStream(file)) {
+                result = in.readAllBytes();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Opens a stream to read the content of a file.
+     *
+     * @param file The path of the file.
+     *
+     * @return A stream of the content of the file.
+     *
+     * @throws NoSuchFileException If the file does not exist in this version.
+     * @throws IOException If reading the spill file fails.
+     * @throws IllegalStateException If this snapshot is closed.
+     */
+    public InputStream newInputStream(Path file) throws NoSuchFileException, IOException, IllegalStateException {
+        checkNotClosed();
+        InputStream result;
+        if (zip == null) {
+            result = new ByteArrayInputStream(getInMemory(file));
+        } else {
+            if (!exists(file)) {
+                throw new NoSuchFileException(file.toString());
+            }
+            result = zip.getInputStream(zip.getEntry(toEntryName(file)));
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the content exceeded the memory budget and was spilled to a temporary file.
+     *
+     * @return Whether the content was spilled.
+     */
+    public boolean isSpilled() {
+        return zip != null;
+    }
+
+    /**
+     * Computes the content hashes of the files that are not excluded by the given rules. The result can be compared
+     * to {@link WorkspaceTracker#getManifest()}.
+     *
+     * @param ignoreRules The rules for files that are not included.
+     *
+     * @return The hex-encoded SHA-256 hashes of the files, by their path.
+     *
+     * @throws IOException If reading the spill file fails.
+     * @throws IllegalStateException If this snapshot is closed.
+     */
+    public Map<Path, String> getManifest(IgnoreRules ignoreRules) throws IOException, IllegalStateException {
+        checkNotClosed();
+        Map<Path, String> manifest = new TreeMap<>();
+        for (Path file : sizes.keySet()) {
+            if (ignoreRules.isWanted(file)) {
+                manifest.put(file, ContentHashes.hash(zip == null ? getInMemory(file) : readAllBytes(file)));
+            }
+        }
+        return Collections.unmodifiableMap(manifest);
+    }
+
+    /**
+     * Deletes the spill file, if any. The snapshot must not be used afterwards.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        inMemory = Collections.emptyMap();
+        try {
+            if (zip != null) {
+                zip.close();
+            }
+        } finally {
+            if (spillFile != null) {
+                Files.deleteIfExists(spillFile);
+            }
+        }
+    }
+
+    /**
+     * Checks that this snapshot is not closed yet.
+     *
+     * @throws IllegalStateException If this snapshot is closed.
+     */
+    private void checkNotClosed() throws IllegalStateException {
+        if (closed) {
+            throw new IllegalStateException("Snapshot is closed");
+        }
+    }
+
+    /**
+     * Returns the content of a file kept in memory, without copying it.
+     *
+     * @param file The path of the file.
+     *
+     * @return The content.
+     *
+     * @throws NoSuchFileException If the file does not exist in this version.
+     */
+    private byte[] getInMemory(Path file) throws NoSuchFileException {
+        byte[] content = inMemory.get(file);
+        if (content == null) {
+            throw new NoSuchFileException(file.toString());
+        }
+        return content;
+    }
+
+    /**
+     * Creates the spill file and moves the files decoded so far from memory into it.
+     *
+     * @param metrics The sink to record the spilled bytes in.
+     *
+     * @return The stream to write further files to.
+     *
+     * @throws IOException If creating or writing the spill file fails.
+     */
+    private ZipOutputStream startSpilling(MetricsSink metrics) throws IOException {
+        spillFile = Files.createTempFile("submission_replay", ".zip");
+        ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(spillFile));
+        out.setLevel(Deflater.BEST_SPEED);
+        for (Map.Entry<Path, byte[]> entry : inMemory.entrySet()) {
+            writeEntry(out, entry.getKey(), entry.getValue(), metrics);
+        }
+        inMemory = Collections.emptyMap();
+        return out;
+    }
+
+    /**
+     * Writes a file into the spill file.
+     *
+     * @param out The stream of the spill file.
+     * @param file The path of the file.
+     * @param content The content of the file.
+     * @param metrics The sink to record the spilled bytes in.
+     *
+     * @throws IOException If writing fails.
+     */
+    private static void writeEntry(ZipOutputStream out, Path file, byte[] content, MetricsSink metrics)
+            throws IOException {
+        out.putNextEntry(new ZipEntry(toEntryName(file)));
+        out.write(content);
+        out.closeEntry();
+        metrics.increment(MetricNames.REPLAY_BYTES_WRITTEN, content.length);
+    }
+
+    /**
+     * Converts a path to the name of its ZIP entry.
+     * <p>
+     * Package visibility for the {@link BulkExporter}.
+     *
+     * @param file The path of the file.
+     *
+     * @return The entry name, separated by <code>/</code>.
+     */
+    static String toEntryName(Path file) {
+        return file.toString().replace('\\', '/');
+    }
+
+}
@@ -3,6 +3,7 @@ package net.ssehub.teaching.exercise_submitter.lib.student_management_system;
 import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -39,15 +40,38 @@ import net.ssehub.teaching.exercise_submitter.lib.data.Assignment;
 import net.ssehub.teaching.exercise_submitter.lib.data.Assignment.MaxPoints;
 import net.ssehub.teaching.exercise_submitter.lib.data.Assignment.State;
 import net.ssehub.teaching.exercise_submitter.lib.data.Course;
+import net.ssehub.teaching.exercise_submitter.lib.network.ApiCall;
+import net.ssehub.teaching.exercise_submitter.lib.network.ApiExceptionAdapter;
+import net.ssehub.teaching.exercise_submitter.lib.network.RequestExecutor;
+import net.ssehub.teaching.exercise_submitter.lib.network.RequestPriority;
+import net.ssehub.teaching.exercise_submitter.lib.network.RequestScheduler;
+import net.ssehub.teaching.exercise_submitter.lib.network.ResiliencePolicy;
+import net.ssehub.teaching.exercise_submitter.lib.network.SingleFlight;
+import net.ssehub.teaching.exercise_submitter.lib.submission.LazyProblemList;
 import net.ssehub.teaching.exercise_submitter.lib.submission.Problem;
 import net.ssehub.teaching.exercise_submitter.lib.submission.Problem.Severity;
 
 /**
  * Provides communication to the student-management system.
+ * <p>
+ * Identical read requests that are issued concurrently by different threads, e.g. by several UI components on
+ * startup, are coalesced: only one request is sent, and all callers receive its result or exception. A caller that
+ * joined a request of another thread is not released by an interrupt before that request finished, see
+ * {@link SingleFlight}.
  */
 public class ApiConnection implements IApiConnection {
     
     private static final Gson GSON = new Gson();
+    
+    private static final ApiExceptionAdapter<net.ssehub.studentmgmt.backend_api.ApiException> MGMT_EXCEPTIONS
+            = new ApiExceptionAdapter<>(net.ssehub.studentmgmt.backend_api.ApiException.class,
+                    net.ssehub.studentmgmt.backend_api.ApiException::getCode,
+                    net.ssehub.studentmgmt.backend_api.ApiException::new);
+    
+    private static final ApiExceptionAdapter<net.ssehub.studentmgmt.sparkyservice_api.ApiException> AUTH_EXCEPTIONS
+            = new ApiExceptionAdapter<>(net.ssehub.studentmgmt.sparkyservice_api.ApiException.class,
+                    net.ssehub.studentmgmt.sparkyservice_api.ApiException::getCode,
+                    net.ssehub.studentmgmt.sparkyservice_api.ApiException::new);
 
     private net.ssehub.studentmgmt.sparkyservice_api.ApiClient authClient;
 
@@ -56,14 +80,31 @@ public class ApiConnection implements IApiConnection {
     private UserDto loggedInUser;
     
     private String token;
+    
+    private RequestExecutor executor;
+    
+    private SingleFlight<List<Object>, Object> callsInFlight = new SingleFlight<>();
 
     /**
-     * Instantiates a new API connection.
+     * Instantiates a new API connection with the default {@link ResiliencePolicy}.
      *
      * @param authUrl The URL to the authentication sytem (sparky-service). Without a trailing slash.
      * @param mgmtUrl the URL to the student management system. Without a trailing slash.
      */
     public ApiConnection(String authUrl, String mgmtUrl) {
+        this(authUrl, mgmtUrl, new RequestExecutor(new ResiliencePolicy()));
+    }
+    
+    /**
+     * Instantiates a new API connection.
+     *
+     * @param authUrl The URL to the authentication sytem (sparky-service). Without a trailing slash.
+     * @param mgmtUrl the URL to the student management system. Without a trailing slash.
+     * @param executor The {@link RequestExecutor} that executes all requests to the two systems.
+     */
+    public ApiConnection(String authUrl, String mgmtUrl, RequestExecutor executor) {
+        this.executor = executor;
+        
         this.authClient = new net.ssehub.studentmgmt.sparkyservice_api.ApiClient();
         this.authClient.setBasePath(authUrl);
 
@@ -80,7 +121,8 @@ public class ApiConnection implements IApiConnection {
         credentials.setPassword(password);
         
         try {
-            AuthenticationInfoDto authinfo = api.authenticate(credentials);
+            AuthenticationInfoDto authinfo = executor.execute("auth.authenticate", true,
+                () -> api.authenticate(credentials), AUTH_EXCEPTIONS);
             this.token = authinfo.getToken().getToken();
             this.mgmtClient.setAccessToken(this.token);
             
@@ -96,7 +138,7 @@ public class ApiConnection implements IApiConnection {
 
         AuthenticationApi mgmtAuth = new AuthenticationApi(mgmtClient);
         try {
-            this.loggedInUser = mgmtAuth.whoAmI();
+            this.loggedInUser = mgmtCall("mgmt.whoAmI", true, () -> mgmtAuth.whoAmI());
             
         } catch (net.ssehub.studentmgmt.backend_api.ApiException e) {
             throw handleMgmtException(e);
@@ -125,7 +167,8 @@ public class ApiConnection implements IApiConnection {
         Course course;
         
         try {
-            CourseDto courseinfo = api.getCourseById(courseId);
+            CourseDto courseinfo = sharedMgmtCall("mgmt.getCourse", courseId, null,
+                () -> api.getCourseById(courseId), courseId);
             course = new Course(courseinfo.getTitle(), courseinfo.getId());
             
         } catch (net.ssehub.studentmgmt.backend_api.ApiException e) {
@@ -148,7 +191,8 @@ public class ApiConnection implements IApiConnection {
         
         try {
             CourseApi api = new CourseApi(mgmtClient);
-            List<CourseDto> dtos = api.getCourses(null, null, null, null, null);
+            List<CourseDto> dtos = sharedMgmtCall("mgmt.getCourses", null, null,
+                () -> api.getCourses(null, null, null, null, null));
             
             for (CourseDto dto : dtos) {
                 Course course = new Course(dto.getTitle(), dto.getId());
@@ -173,7 +217,9 @@ public class ApiConnection implements IApiConnection {
         List<Assignment> assignments;
         try {
             
-            assignments = api.getAssignmentsOfCourse(course.getId()).stream()
+            assignments = sharedMgmtCall("mgmt.getAssignments", course.getId(), null,
+                () -> api.getAssignmentsOfCourse(course.getId()), course.getId())
+                    .stream()
                     .map((assignment) -> {
                         Assignment.State state;
                         switch (assignment.getState()) {
@@ -236,8 +282,11 @@ public class ApiConnection implements IApiConnection {
         String groupName;
         
         try {
-            GroupDto group = assignmentRegistrations.getRegisteredGroupOfUser(course.getId(),
-                    assignment.getManagementId(), this.loggedInUser.getId());
+            String userId = this.loggedInUser.getId();
+            GroupDto group = sharedMgmtCall("mgmt.getRegisteredGroupOfUser", course.getId(), assignment.getName(),
+                () -> assignmentRegistrations.getRegisteredGroupOfUser(course.getId(),
+                        assignment.getManagementId(), userId),
+                course.getId(), assignment.getManagementId(), userId);
             
             groupName = group.getName();
             
@@ -271,7 +320,9 @@ public class ApiConnection implements IApiConnection {
         
         boolean isTutor;
         try {
-            ParticipantDto dto = api.getParticipant(course.getId(), this.loggedInUser.getId());
+            String userId = this.loggedInUser.getId();
+            ParticipantDto dto = sharedMgmtCall("mgmt.getParticipant", course.getId(), null,
+                () -> api.getParticipant(course.getId(), userId), course.getId(), userId);
             isTutor = dto.getRole() == RoleEnum.LECTURER || dto.getRole() == RoleEnum.TUTOR;
             
         } catch (net.ssehub.studentmgmt.backend_api.ApiException e) {
@@ -299,14 +350,19 @@ public class ApiConnection implements IApiConnection {
             if (assignment.isGroupWork()) {
                 AssignmentRegistrationApi api = new AssignmentRegistrationApi(mgmtClient);
                 
-                api.getRegisteredGroups(course.getId(), assignment.getManagementId(), null, null, null).stream()
+                sharedMgmtCall("mgmt.getRegisteredGroups", course.getId(), assignment.getName(),
+                    () -> api.getRegisteredGroups(course.getId(), assignment.getManagementId(), null, null, null),
+                    course.getId(), assignment.getManagementId())
+                        .stream()
                         .map(GroupDto::getName)
                         .forEach(result::add);
                 
             } else {
                 CourseParticipantsApi api = new CourseParticipantsApi(mgmtClient);
                 
-                api.getUsersOfCourse(course.getId(), null, null, List.of("STUDENT"), null, null).stream()
+                sharedMgmtCall("mgmt.getUsersOfCourse", course.getId(), null,
+                    () -> api.getUsersOfCourse(course.getId(), null, null, List.of("STUDENT"), null, null),
+                    course.getId(), "STUDENT").stream()
                         .map(ParticipantDto::getUsername)
                         .forEach(result::add);
             }
@@ -339,12 +395,16 @@ public class ApiConnection implements IApiConnection {
             
             List<AssessmentDto> assessment;
             if (assignment.isGroupWork()) {
-                assessment = api.getAssessmentsForAssignment(course.getId(), assignment.getManagementId(),
-                        null, null, null, getGroupId(course, assignment, groupName), null, null, null);
+                String groupId = getGroupId(course, assignment, groupName);
+                assessment = mgmtCall("mgmt.getAssessments", course.getId(), assignment.getName(), true,
+                    () -> api.getAssessmentsForAssignment(course.getId(), assignment.getManagementId(),
+                            null, null, null, groupId, null, null, null));
                 
             } else {
-                assessment = api.getAssessmentsForAssignment(course.getId(), assignment.getManagementId(),
-                        null, null, null, null, getUsesrId(course, groupName), null, null);
+                String userId = getUsesrId(course, groupName);
+                assessment = mgmtCall("mgmt.getAssessments", course.getId(), assignment.getName(), true,
+                    () -> api.getAssessmentsForAssignment(course.getId(), assignment.getManagementId(),
+                            null, null, null, null, userId, null, null));
             }
             
             if (!assessment.isEmpty()) {
@@ -398,17 +458,29 @@ public class ApiConnection implements IApiConnection {
         }
         
         if (assessment.getPartialAssessments() != null) {
-            assessment.getPartialAssessments().stream()
+            List<MarkerDto> markers = assessment.getPartialAssessments().stream()
                 .filter(p -> p.getKey().equals("exercise-submitter-checks"))
                 .filter(p -> p.getMarkers() != null)
                 .flatMap(p -> p.getMarkers().stream())
-                .map(ApiConnection::markerDtoToProblem)
-                .forEach(result::addProblem);
+                .collect(Collectors.toList());
+            result.setProblems(new LazyProblemList<>(markers, ApiConnection::getSeverity,
+                    ApiConnection::markerDtoToProblem));
         }
         
         return result;
     }
     
+    /**
+     * Returns the severity of a marker.
+     * 
+     * @param marker The marker.
+     * 
+     * @return The severity.
+     */
+    private static Severity getSeverity(MarkerDto marker) {
+        return marker.getSeverity() == SeverityEnum.ERROR ? Severity.ERROR : Severity.WARNING;
+    }
+    
     /**
      * Converts a DTO to our own {@link Problem}.
      * <p>
@@ -430,9 +502,7 @@ public class ApiConnection implements IApiConnection {
             }
         }
         
-        Severity severity = marker.getSeverity() == SeverityEnum.ERROR ? Severity.ERROR : Severity.WARNING;
-        
-        Problem problem = new Problem(checkName, comment, severity);
+        Problem problem = new Problem(checkName, comment, getSeverity(marker));
         
         if (marker.getPath() != null) {
             problem.setFile(new File(marker.getPath()));
@@ -470,7 +540,8 @@ public class ApiConnection implements IApiConnection {
                     dto.setUserId(getUsesrId(course, groupName));
                 }
                 
-                api.createAssessment(dto, course.getId(), assignment.getManagementId());
+                mgmtCall("mgmt.createAssessment", course.getId(), assignment.getName(), false,
+                    () -> api.createAssessment(dto, course.getId(), assignment.getManagementId()));
                 
             } else {
                 // update assessment
@@ -479,8 +550,10 @@ public class ApiConnection implements IApiConnection {
                 assessment.getComment().ifPresent(dto::setComment);
                 assessment.getPoints().map(BigDecimal::valueOf).ifPresent(dto::setAchievedPoints);
                 
-                api.updateAssessment(dto, course.getId(), assignment.getManagementId(),
-                        assessment.getManagementId().get());
+                // idempotent, as the update sets absolute values
+                mgmtCall("mgmt.updateAssessment", course.getId(), assignment.getName(), true,
+                    () -> api.updateAssessment(dto, course.getId(), assignment.getManagementId(),
+                            assessment.getManagementId().get()));
             }
             
         } catch (net.ssehub.studentmgmt.backend_api.ApiException e) {
@@ -513,8 +586,9 @@ public class ApiConnection implements IApiConnection {
             throws GroupNotFoundException, net.ssehub.studentmgmt.backend_api.ApiException {
         
         AssignmentRegistrationApi groupApi = new AssignmentRegistrationApi(mgmtClient);
-        String groupId = groupApi.getRegisteredGroups(course.getId(), assignment.getManagementId(),
-            null, null, groupName).stream()
+        String groupId = mgmtCall("mgmt.getRegisteredGroups", course.getId(), assignment.getName(), true,
+            () -> groupApi.getRegisteredGroups(course.getId(), assignment.getManagementId(), null, null, groupName))
+                .stream()
                 .filter(dto -> dto.getName().equals(groupName))
                 .map(dto -> dto.getId())
                 .findFirst()
@@ -538,7 +612,8 @@ public class ApiConnection implements IApiConnection {
             throws GroupNotFoundException, net.ssehub.studentmgmt.backend_api.ApiException {
         
         CourseParticipantsApi userApi = new CourseParticipantsApi(mgmtClient);
-        String userId = userApi.getUsersOfCourse(course.getId(), null, null, null, userName, null).stream()
+        String userId = mgmtCall("mgmt.getUsersOfCourse", course.getId(), null, true,
+            () -> userApi.getUsersOfCourse(course.getId(), null, null, null, userName, null)).stream()
                 .filter(dto -> dto.getUsername().equals(userName))
                 .map(dto -> dto.getUserId())
                 .findFirst()
@@ -547,6 +622,85 @@ public class ApiConnection implements IApiConnection {
         return userId;
     }
 
+    /**
+     * Executes the given call to the management API through the {@link RequestExecutor}.
+     * 
+     * @param <T> The result type of the call.
+     * @param endpoint The name of the endpoint, used to select the circuit breaker.
+     * @param idempotent Whether the call can safely be sent more than once.
+     * @param call The call to execute.
+     * 
+     * @return The result of the call.
+     * 
+     * @throws net.ssehub.studentmgmt.backend_api.ApiException If the call fails.
+     */
+    private <T> T mgmtCall(String endpoint, boolean idempotent,
+            ApiCall<T, net.ssehub.studentmgmt.backend_api.ApiException> call)
+            throws net.ssehub.studentmgmt.backend_api.ApiException {
+        return mgmtCall(endpoint, null, null, idempotent, call);
+    }
+    
+    /**
+     * Executes the given call to the management API, which refers to the given course and assignment, through the
+     * {@link RequestExecutor}.
+     * 
+     * @param <T> The result type of the call.
+     * @param endpoint The name of the endpoint, used to select the circuit breaker.
+     * @param courseId The ID of the course that the call refers to. May be <code>null</code>.
+     * @param assignmentName The name of the assignment that the call refers to. May be <code>null</code>.
+     * @param idempotent Whether the call can safely be sent more than once.
+     * @param call The call to execute.
+     * 
+     * @return The result of the call.
+     * 
+     * @throws net.ssehub.studentmgmt.backend_api.ApiException If the call fails.
+     */
+    private <T> T mgmtCall(String endpoint, String courseId, String assignmentName, boolean idempotent,
+            ApiCall<T, net.ssehub.studentmgmt.backend_api.ApiException> call)
+            throws net.ssehub.studentmgmt.backend_api.ApiException {
+        return executor.execute(endpoint, courseId, assignmentName, idempotent, call, MGMT_EXCEPTIONS);
+    }
+
+    /**
+     * Executes the given read call to the management API like
+     * {@link #mgmtCall(String, String, String, boolean, ApiCall)}, but shares it with identical calls of other threads
+     * that are in flight at the same time. Only one request is sent, and all callers receive its result or exception.
+     * The call must be idempotent and its result must not be modified by the callers. Calls of different
+     * {@link RequestPriority} are not shared, so that an interactive call never waits for a queued background call.
+     * 
+     * @param <T> The result type of the call.
+     * @param endpoint The name of the endpoint, used to select the circuit breaker.
+     * @param courseId The ID of the course that the call refers to. May be <code>null</code>.
+     * @param assignmentName The name of the assignment that the call refers to. May be <code>null</code>.
+     * @param call The call to execute.
+     * @param parameters The parameters of the call that, together with the endpoint, identify identical calls.
+     * 
+     * @return The result of the call.
+     * 
+     * @throws net.ssehub.studentmgmt.backend_api.ApiException If the call fails.
+     */
+    @SuppressWarnings("unchecked") // the endpoint in the key determines the result type
+    private <T> T sharedMgmtCall(String endpoint, String courseId, String assignmentName,
+            ApiCall<T, net.ssehub.studentmgmt.backend_api.ApiException> call, Object... parameters)
+            throws net.ssehub.studentmgmt.backend_api.ApiException {
+        List<Object> key = Arrays.asList(endpoint, token, RequestScheduler.getCurrentPriority(),
+                Arrays.asList(parameters));
+        return (T) callsInFlight.execute(key, () -> mgmtCall(endpoint, courseId, assignmentName, true, call),
+                net.ssehub.studentmgmt.backend_api.ApiException.class);
+    }
+
+    /**
+     * Returns the number of callers that currently wait for an identical call of another thread, see
+     * {@link #sharedMgmtCall(String, String, String, ApiCall, Object...)}.
+     * <p>
+     * Package visibility for test cases.
+     *
+     * @return The number of waiting callers.
+     */
+    int getWaitingCallCount() {
+        return callsInFlight.getWaitingCount();
+    }
+
     /**
      * Converts the given exception from the management API to a proper {@link ApiException}.
      * <p>
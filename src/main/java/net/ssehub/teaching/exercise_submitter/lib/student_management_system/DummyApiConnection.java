@@ -13,7 +13,7 @@ import net.ssehub.teaching.exercise_submitter.lib.data.Assignment.State;
 import net.ssehub.teaching.exercise_submitter.lib.data.Course;
 
 /**
- * A dummy implementation with fixed data.
+ * A dummy implementation with fixed data. See {@link SyntheticApiConnection} for generated data of realistic size.
  * 
  * @author Adam
  */
@@ -0,0 +1,232 @@
+package net.ssehub.teaching.exercise_submitter.lib.student_management_system;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import net.ssehub.teaching.exercise_submitter.lib.data.Assessment;
+import net.ssehub.teaching.exercise_submitter.lib.data.Assignment;
+import net.ssehub.teaching.exercise_submitter.lib.data.Course;
+
+/**
+ * A dummy implementation backed by a {@link SyntheticDataset}. Like the {@link DummyApiConnection}, the password must
+ * equal the username. Unlike it, this serves courses of realistic size and simulates the latency of the calls, which
+ * makes it useful for profiling views and caches without a student management system.
+ * <p>
+ * Uploaded assessments are kept in memory and replace the generated ones.
+ */
+public class SyntheticApiConnection implements IApiConnection {
+
+    private SyntheticDataset dataset;
+
+    private Map<String, Assessment> uploadedAssessments = new ConcurrentHashMap<>();
+
+    private String loggedInUser;
+
+    private String token;
+
+    /**
+     * Creates a new connection.
+     *
+     * @param dataset The dataset to serve.
+     */
+    public SyntheticApiConnection(SyntheticDataset dataset) {
+        this.dataset = dataset;
+    }
+
+    @Override
+    public void login(String username, String password) throws NetworkException, AuthenticationException, ApiException {
+        simulateLatency(1);
+        if (!(dataset.isStudent(username) || dataset.isTutor(username)) || !username.equals(password)) {
+            throw new AuthenticationException("Invalid credentials (username must equal password)");
+        }
+        loggedInUser = username;
+        token = "synthetic-" + username;
+    }
+
+    @Override
+    public String getUsername() {
+        return loggedInUser;
+    }
+
+    @Override
+    public String getToken() {
+        return token;
+    }
+
+    @Override
+    public Course getCourse(String courseId)
+            throws NetworkException, AuthenticationException, UserNotInCourseException, ApiException {
+        checkLoggedIn();
+        simulateLatency(1);
+        if (!dataset.getCourse().getId().equals(courseId)) {
+            throw new UserNotInCourseException("No course " + courseId);
+        }
+        return dataset.getCourse();
+    }
+
+    @Override
+    public Set<Course> getAllCourses() throws NetworkException, AuthenticationException, ApiException {
+        checkLoggedIn();
+        simulateLatency(1);
+        return Set.of(dataset.getCourse());
+    }
+
+    @Override
+    public List<Assignment> getAssignments(Course course)
+            throws NetworkException, AuthenticationException, UserNotInCourseException, ApiException {
+        checkCourse(course);
+        List<Assignment> assignments = dataset.getAssignments();
+        simulateLatency(assignments.size());
+        return assignments;
+    }
+
+    @Override
+    public String getGroupName(Course course, Assignment assignment)
+            throws NetworkException, AuthenticationException, UserNotInCourseException, GroupNotFoundException,
+            ApiException {
+        checkCourse(course);
+        int number = getAssignmentNumber(assignment);
+        simulateLatency(1);
+        if (!assignment.isGroupWork()) {
+            throw new GroupNotFoundException("Assignment " + assignment.getName() + " is not group work");
+        }
+        return dataset.getGroupName(number, loggedInUser).orElseThrow(
+            () -> new GroupNotFoundException("User " + loggedInUser + " is not in a group"));
+    }
+
+    @Override
+    public boolean hasTutorRights(Course course)
+            throws NetworkException, AuthenticationException, UserNotInCourseException, ApiException {
+        checkCourse(course);
+        simulateLatency(1);
+        return dataset.isTutor(loggedInUser);
+    }
+
+    @Override
+    public Set<String> getAllGroups(Course course, Assignment assignment)
+            throws NetworkException, AuthenticationException, UserNotInCourseException, ApiException {
+        checkTutor(course);
+        List<String> groups = dataset.getGroupNames(assignment.isGroupWork());
+        simulateLatency(groups.size());
+        return Collections.unmodifiableSet(new LinkedHashSet<>(groups));
+    }
+
+    @Override
+    public Optional<Assessment> getAssessment(Course course, Assignment assignment, String groupName)
+            throws NetworkException, AuthenticationException, UserNotInCourseException, GroupNotFoundException,
+            ApiException {
+        checkTutor(course);
+        int number = getAssignmentNumber(assignment);
+        checkGroup(assignment, groupName);
+        simulateLatency(1);
+
+        Optional<Assessment> result = Optional.ofNullable(uploadedAssessments.get(number + "/" + groupName));
+        if (result.isEmpty()) {
+            result = dataset.createAssessment(number, groupName);
+        }
+        return result;
+    }
+
+    @Override
+    public void uploadAssessment(Course course, Assignment assignment, String groupName, Assessment assessment)
+            throws NetworkException, AuthenticationException, UserNotInCourseException, GroupNotFoundException,
+            ApiException {
+        checkTutor(course);
+        int number = getAssignmentNumber(assignment);
+        checkGroup(assignment, groupName);
+        simulateLatency(1);
+        uploadedAssessments.put(number + "/" + groupName, assessment);
+    }
+
+    /**
+     * Checks that a user is logged in.
+     *
+     * @throws AuthenticationException If no user is logged in.
+     */
+    private void checkLoggedIn() throws AuthenticationException {
+        if (loggedInUser == null) {
+            throw new AuthenticationException("Not logged in");
+        }
+    }
+
+    /**
+     * Checks that a user is logged in and the course is the course of the dataset.
+     *
+     * @param course The course.
+     *
+     * @throws AuthenticationException If no user is logged in.
+     * @throws UserNotInCourseException If the course is not the course of the dataset.
+     */
+    private void checkCourse(Course course) throws AuthenticationException, UserNotInCourseException {
+        checkLoggedIn();
+        if (!dataset.getCourse().equals(course)) {
+            throw new UserNotInCourseException("Invalid course " + course);
+        }
+    }
+
+    /**
+     * Checks that the logged-in user is a tutor in the course.
+     *
+     * @param course The course.
+     *
+     * @throws AuthenticationException If no user is logged in.
+     * @throws UserNotInCourseException If the course is not the course of the dataset or the user is not a tutor.
+     */
+    private void checkTutor(Course course) throws AuthenticationException, UserNotInCourseException {
+        checkCourse(course);
+        if (!dataset.isTutor(loggedInUser)) {
+            throw new UserNotInCourseException("User " + loggedInUser + " is not a tutor");
+        }
+    }
+
+    /**
+     * Checks that a group exists in an assignment.
+     *
+     * @param assignment The assignment.
+     * @param groupName The group name, or username for single assignments.
+     *
+     * @throws GroupNotFoundException If the group does not exist.
+     */
+    private void checkGroup(Assignment assignment, String groupName) throws GroupNotFoundException {
+        if (!dataset.hasGroup(assignment.isGroupWork(), groupName)) {
+            throw new GroupNotFoundException("Group " + groupName + " not found in " + assignment.getName());
+        }
+    }
+
+    /**
+     * Returns the number of an assignment in the dataset.
+     *
+     * @param assignment The assignment.
+     *
+     * @return The number of the assignment.
+     *
+     * @throws GroupNotFoundException If the assignment is not part of the dataset.
+     */
+    private int getAssignmentNumber(Assignment assignment) throws GroupNotFoundException {
+        return dataset.getAssignmentNumber(assignment).orElseThrow(
+            () -> new GroupNotFoundException("Assignment " + assignment.getName() + " not found"));
+    }
+
+    /**
+     * Sleeps for the simulated latency of a call.
+     *
+     * @param items The number of returned elements.
+     *
+     * @throws NetworkException If the thread is interrupted while sleeping.
+     */
+    private void simulateLatency(int items) throws NetworkException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(dataset.getLatencyNanos(items));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NetworkException(e);
+        }
+    }
+
+}
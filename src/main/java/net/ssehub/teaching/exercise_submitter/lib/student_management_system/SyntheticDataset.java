@@ -0,0 +1,404 @@
+package net.ssehub.teaching.exercise_submitter.lib.student_management_system;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import net.ssehub.teaching.exercise_submitter.lib.data.Assessment;
+import net.ssehub.teaching.exercise_submitter.lib.data.Assignment;
+import net.ssehub.teaching.exercise_submitter.lib.data.Assignment.MaxPoints;
+import net.ssehub.teaching.exercise_submitter.lib.data.Assignment.State;
+import net.ssehub.teaching.exercise_submitter.lib.data.Course;
+import net.ssehub.teaching.exercise_submitter.lib.submission.Problem;
+import net.ssehub.teaching.exercise_submitter.lib.submission.Problem.Severity;
+
+/**
+ * A generated, deterministic dataset for the {@link DummyApiConnection}: a single course with many students, tutors,
+ * assignments, groups and assessments with problem markers. Everything is derived from the seed and the sizes, so two
+ * datasets with the same configuration contain exactly the same data.
+ * <p>
+ * Students are called <code>student1</code> to <code>studentN</code>, tutors <code>tutor1</code> to
+ * <code>tutorM</code>. Groups and assessments are computed on demand instead of being stored, so large courses (e.g.
+ * 2000 students and thousands of assignments) need only memory for the assignment list.
+ */
+public class SyntheticDataset {
+
+    private static final String[] CHECKS = {"javac", "checkstyle", "junit", "encoding"};
+
+    private static final String[] MESSAGES = {
+        "cannot find symbol", "';' expected", "incompatible types", "Line is longer than 120 characters",
+        "Missing a Javadoc comment", "Test failed: expected <3> but was <4>", "Invalid UTF-8 character",
+    };
+
+    private static final String[] FILES = {
+        "src/Main.java", "src/Util.java", "src/model/Data.java", "test/MainTest.java",
+    };
+
+    private long seed;
+
+    private int students = 2000;
+
+    private int tutors = 20;
+
+    private int assignments = 1000;
+
+    private int groupSize = 2;
+
+    private Duration perCallLatency = Duration.ZERO;
+
+    private Duration perItemLatency = Duration.ZERO;
+
+    private Course course = new Course("Synthetic course", "java-wise2021");
+
+    private List<Assignment> assignmentList;
+
+    /**
+     * Creates a dataset with 2000 students, 20 tutors, 1000 assignments, groups of two and no latency.
+     *
+     * @param seed The seed of the generator.
+     */
+    public SyntheticDataset(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the number of students.
+     *
+     * @param students The number of students.
+     *
+     * @return This.
+     *
+     * @throws IllegalArgumentException If the number is less than 1.
+     */
+    public SyntheticDataset withStudents(int students) throws IllegalArgumentException {
+        if (students < 1) {
+            throw new IllegalArgumentException("students must be at least 1");
+        }
+        this.students = students;
+        return this;
+    }
+
+    /**
+     * Sets the number of tutors.
+     *
+     * @param tutors The number of tutors.
+     *
+     * @return This.
+     *
+     * @throws IllegalArgumentException If the number is negative.
+     */
+    public SyntheticDataset withTutors(int tutors) throws IllegalArgumentException {
+        if (tutors < 0) {
+            throw new IllegalArgumentException("tutors must not be negative");
+        }
+        this.tutors = tutors;
+        return this;
+    }
+
+    /**
+     * Sets the number of assignments.
+     *
+     * @param assignments The number of assignments.
+     *
+     * @return This.
+     *
+     * @throws IllegalArgumentException If the number is less than 1.
+     */
+    public SyntheticDataset withAssignments(int assignments) throws IllegalArgumentException {
+        if (assignments < 1) {
+            throw new IllegalArgumentException("assignments must be at least 1");
+        }
+        this.assignments = assignments;
+        this.assignmentList = null;
+        return this;
+    }
+
+    /**
+     * Sets the number of students per group in group assignments.
+     *
+     * @param groupSize The group size.
+     *
+     * @return This.
+     *
+     * @throws IllegalArgumentException If the size is less than 1.
+     */
+    public SyntheticDataset withGroupSize(int groupSize) throws IllegalArgumentException {
+        if (groupSize < 1) {
+            throw new IllegalArgumentException("groupSize must be at least 1");
+        }
+        this.groupSize = groupSize;
+        return this;
+    }
+
+    /**
+     * Sets the simulated latency of API calls. Each call takes the per-call latency plus the per-item latency for each
+     * returned element, varied randomly by &plusmn;50%. For example, 40 ms per call and 20 &micro;s per item
+     * approximate a student management system in the same network.
+     *
+     * @param perCall The latency of every call.
+     * @param perItem The additional latency per returned element.
+     *
+     * @return This.
+     */
+    public SyntheticDataset withLatency(Duration perCall, Duration perItem) {
+        this.perCallLatency = perCall;
+        this.perItemLatency = perItem;
+        return this;
+    }
+
+    /**
+     * Returns the course of this dataset.
+     *
+     * @return The course.
+     */
+    public Course getCourse() {
+        return course;
+    }
+
+    /**
+     * Returns the number of students.
+     *
+     * @return The number of students.
+     */
+    public int getStudents() {
+        return students;
+    }
+
+    /**
+     * Returns all assignments. Tests (every fifth assignment) are single work, all others are group work. The last two
+     * assignments are open for submissions, the two before are in review, and a few random ones are invisible or
+     * closed; all others are reviewed.
+     *
+     * @return The assignments, in order.
+     */
+    public synchronized List<Assignment> getAssignments() {
+        if (assignmentList == null) {
+            SplittableRandom random = new SplittableRandom(seed);
+            List<Assignment> result = new ArrayList<>(assignments);
+            for (int i = 1; i <= assignments; i++) {
+                boolean test = i % 5 == 0;
+                State state;
+                if (i > assignments - 2) {
+                    state = State.SUBMISSION;
+                } else if (i > assignments - 4) {
+                    state = State.IN_REVIEW;
+                } else {
+                    int roll = random.nextInt(100);
+                    state = roll < 3 ? State.INVISIBLE : roll < 6 ? State.CLOSED : State.REVIEWED;
+                }
+                MaxPoints points = new MaxPoints(5 + random.nextInt(16), random.nextInt(10) == 0 ? 2 : 0);
+                result.add(new Assignment("synthetic-" + i, String.format("%s%04d", test ? "Test" : "Homework", i),
+                        state, !test, points));
+            }
+            assignmentList = Collections.unmodifiableList(result);
+        }
+        return assignmentList;
+    }
+
+    /**
+     * Returns the number of an assignment of this dataset.
+     *
+     * @param assignment The assignment.
+     *
+     * @return The number of the assignment, starting at 1; {@link Optional#empty()} if it is not part of this
+     *      dataset.
+     */
+    Optional<Integer> getAssignmentNumber(Assignment assignment) {
+        Optional<Integer> result = parseNumber(assignment.getManagementId(), "synthetic-")
+                .filter(number -> number <= assignments);
+        return result.filter(number -> getAssignments().get(number - 1).equals(assignment));
+    }
+
+    /**
+     * Returns whether the given username is a student of this dataset.
+     *
+     * @param username The username.
+     *
+     * @return Whether the user is a student.
+     */
+    boolean isStudent(String username) {
+        return parseNumber(username, "student").filter(number -> number <= students).isPresent();
+    }
+
+    /**
+     * Returns whether the given username is a tutor of this dataset.
+     *
+     * @param username The username.
+     *
+     * @return Whether the user is a tutor.
+     */
+    boolean isTutor(String username) {
+        return parseNumber(username, "tutor").filter(number -> number <= tutors).isPresent();
+    }
+
+    /**
+     * Returns the group of a student in a group assignment. The students are shuffled anew for each assignment, so
+     * they work with different partners over the semester.
+     *
+     * @param assignment The number of the assignment.
+     * @param username The username of the student.
+     *
+     * @return The name of the group; {@link Optional#empty()} if the user is not a student.
+     */
+    Optional<String> getGroupName(int assignment, String username) {
+        return parseNumber(username, "student")
+                .filter(number -> number <= students)
+                .map(number -> getSlots(assignment)[number - 1])
+                .map(slot -> getGroupName(slot / groupSize + 1));
+    }
+
+    /**
+     * Returns a random permutation of the students for an assignment. Consecutive slots form a group.
+     *
+     * @param assignment The number of the assignment.
+     *
+     * @return The slot of each student, by the student number minus one.
+     */
+    private int[] getSlots(int assignment) {
+        SplittableRandom random = new SplittableRandom(seed ^ assignment * 0xD6E8FEB86659FD93L);
+        int[] slots = new int[students];
+        for (int i = 0; i < students; i++) {
+            int j = random.nextInt(i + 1);
+            slots[i] = slots[j];
+            slots[j] = i;
+        }
+        return slots;
+    }
+
+    /**
+     * Returns the names of all groups or, for single assignments, all students.
+     *
+     * @param groupWork Whether the assignment is group work.
+     *
+     * @return The group names, in order.
+     */
+    List<String> getGroupNames(boolean groupWork) {
+        int count = groupWork ? (students - 1) / groupSize + 1 : students;
+        List<String> result = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            result.add(groupWork ? getGroupName(i) : "student" + i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether a group (or student, for single assignments) exists in an assignment.
+     *
+     * @param groupWork Whether the assignment is group work.
+     * @param groupName The group name, or username for single assignments.
+     *
+     * @return Whether the group exists.
+     */
+    boolean hasGroup(boolean groupWork, String groupName) {
+        boolean result;
+        if (groupWork) {
+            result = parseNumber(groupName, "Group").filter(number -> number <= (students - 1) / groupSize + 1)
+                    .isPresent();
+        } else {
+            result = isStudent(groupName);
+        }
+        return result;
+    }
+
+    /**
+     * Generates the assessment of a group. Reviewed and closed assignments have a final assessment for every group,
+     * assignments in review have draft assessments for roughly half of the groups, and all other assignments have no
+     * assessments.
+     *
+     * @param assignment The number of the assignment.
+     * @param groupName The name of the group, or username for single assignments.
+     *
+     * @return The generated assessment, if any.
+     */
+    Optional<Assessment> createAssessment(int assignment, String groupName) {
+        Assignment data = getAssignments().get(assignment - 1);
+        SplittableRandom random = new SplittableRandom(seed ^ assignment * 0x9E3779B97F4A7C15L
+                ^ groupName.hashCode() * 0xC2B2AE3D27D4EB4FL);
+
+        Optional<Assessment> result = Optional.empty();
+        boolean reviewed = data.getState() == State.REVIEWED || data.getState() == State.CLOSED;
+        if (reviewed || data.getState() == State.IN_REVIEW && random.nextBoolean()) {
+            Assessment assessment = new Assessment();
+            assessment.setManagementId("synthetic-" + assignment + "-" + groupName);
+            assessment.setPoints(Math.round(random.nextDouble() * data.getMaxPoints() * 2) / 2.0);
+            assessment.setComment(random.nextInt(4) == 0 ? "Well done." : "See the marked problems.");
+            int problems = random.nextInt(6);
+            for (int i = 0; i < problems; i++) {
+                assessment.addProblem(createProblem(random));
+            }
+            assessment.setDraft(!reviewed);
+            result = Optional.of(assessment);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the simulated latency of a call.
+     *
+     * @param items The number of returned elements.
+     *
+     * @return The latency, in nanoseconds.
+     */
+    long getLatencyNanos(int items) {
+        long nanos = perCallLatency.toNanos() + perItemLatency.toNanos() * items;
+        if (nanos > 0) {
+            nanos = nanos / 2 + new SplittableRandom().nextLong(nanos + 1);
+        }
+        return nanos;
+    }
+
+    /**
+     * Generates a problem marker.
+     *
+     * @param random The random generator of the assessment.
+     *
+     * @return The problem.
+     */
+    private static Problem createProblem(SplittableRandom random) {
+        Problem problem = new Problem(CHECKS[random.nextInt(CHECKS.length)],
+                MESSAGES[random.nextInt(MESSAGES.length)],
+                random.nextInt(3) == 0 ? Severity.ERROR : Severity.WARNING);
+        if (random.nextInt(10) > 0) {
+            problem.setFile(new File(FILES[random.nextInt(FILES.length)]));
+            problem.setLine(1 + random.nextInt(200));
+            problem.setColumn(1 + random.nextInt(80));
+        }
+        return problem;
+    }
+
+    /**
+     * Returns the name of a group.
+     *
+     * @param number The number of the group, starting at 1.
+     *
+     * @return The group name.
+     */
+    private static String getGroupName(int number) {
+        return String.format("Group%04d", number);
+    }
+
+    /**
+     * Parses a positive number that follows a prefix.
+     *
+     * @param text The text, e.g. <code>student12</code>.
+     * @param prefix The prefix, e.g. <code>student</code>.
+     *
+     * @return The number; {@link Optional#empty()} if the text does not consist of the prefix and a positive number.
+     */
+    private static Optional<Integer> parseNumber(String text, String prefix) {
+        Optional<Integer> result = Optional.empty();
+        if (text != null && text.startsWith(prefix)) {
+            try {
+                result = Optional.of(Integer.parseInt(text.substring(prefix.length()))).filter(number -> number > 0);
+            } catch (NumberFormatException e) {
+                // not a number
+            }
+        }
+        return result;
+    }
+
+}
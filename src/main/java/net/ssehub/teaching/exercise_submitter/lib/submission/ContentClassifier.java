@@ -0,0 +1,178 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Decides whether a file of a submission is text (and thus converted to UTF-8) or binary (and thus submitted as-is).
+ * <p>
+ * Unlike {@link Files#probeContentType(Path)}, this does not depend on the MIME databases or file type detectors of
+ * the platform, so the result is the same on all systems. Most files are classified by their extension alone; only
+ * files with an unknown or no extension are classified by sniffing their first bytes: known magic numbers of binary
+ * formats or a NUL byte mean binary, anything else is text.
+ */
+public class ContentClassifier {
+
+    /**
+     * The number of bytes read from the start of a file with an unknown extension.
+     */
+    static final int SNIFF_LENGTH = 512;
+
+    /**
+     * Maps lower-case file extensions to whether they are text files.
+     */
+    private static final Map<String, Boolean> EXTENSIONS = new HashMap<>();
+
+    /**
+     * Magic numbers at the start of binary files.
+     */
+    private static final byte[][] BINARY_SIGNATURES = {
+        {(byte) 0x89, 'P', 'N', 'G'}, // PNG
+        {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}, // JPEG
+        {'G', 'I', 'F', '8'}, // GIF
+        {'%', 'P', 'D', 'F'}, // PDF
+        {'P', 'K', 0x03, 0x04}, // ZIP, JAR, office documents
+        {'P', 'K', 0x05, 0x06}, // empty ZIP
+        {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE}, // Java class file
+        {0x1F, (byte) 0x8B}, // GZIP
+        {0x7F, 'E', 'L', 'F'}, // ELF executable
+    };
+
+    /**
+     * Byte order marks of Unicode text files. Checked before the NUL byte, as UTF-16 text contains NUL bytes.
+     */
+    private static final byte[][] TEXT_SIGNATURES = {
+        {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}, // UTF-8
+        {(byte) 0xFE, (byte) 0xFF}, // UTF-16 big endian
+        {(byte) 0xFF, (byte) 0xFE}, // UTF-16 little endian
+    };
+
+    static {
+        for (String extension : new String[] {
+            "java", "txt", "md", "xml", "html", "htm", "css", "js", "json", "properties", "csv", "tsv", "yml", "yaml",
+            "c", "h", "cpp", "hpp", "cs", "py", "kt", "scala", "groovy", "gradle", "sql", "sh", "bat", "tex", "bib",
+            "ini", "cfg", "conf", "log", "gitignore", "classpath", "project", "prefs", "checkstyle", "mf", "svg",
+        }) {
+            EXTENSIONS.put(extension, Boolean.TRUE);
+        }
+        for (String extension : new String[] {
+            "class", "jar", "zip", "gz", "tar", "7z", "png", "jpg", "jpeg", "gif", "bmp", "ico", "pdf", "doc",
+            "docx", "xls", "xlsx", "ppt", "pptx", "odt", "exe", "dll", "so", "bin", "ser", "mp3", "mp4", "wav",
+        }) {
+            EXTENSIONS.put(extension, Boolean.FALSE);
+        }
+    }
+
+    /**
+     * No instances.
+     */
+    private ContentClassifier() {
+    }
+
+    /**
+     * Checks whether the given file is a text file. Reads at most the first {@value #SNIFF_LENGTH} bytes of the file,
+     * and only if its extension is unknown.
+     *
+     * @param file The file to classify.
+     *
+     * @return Whether the file is a text file.
+     *
+     * @throws IOException If reading the file fails.
+     */
+    public static boolean isText(Path file) throws IOException {
+        Boolean byExtension = isTextExtension(file.getFileName().toString());
+        boolean result;
+        if (byExtension != null) {
+            result = byExtension;
+        } else {
+            byte[] start;
+            try (InputStream in = Files.newInputStream(file)) {
+                start = in.readNBytes(SNIFF_LENGTH);
+            }
+            result = isText(start);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a file whose content is already in memory is a text file, e.g. a file of a replayed version.
+     * Like {@link #isText(Path)}, the content is only considered if the extension is unknown.
+     *
+     * @param fileName The name or path of the file.
+     * @param content The content of the file, or at least its first {@value #SNIFF_LENGTH} bytes.
+     *
+     * @return Whether the file is a text file.
+     */
+    public static boolean isText(Path fileName, byte[] content) {
+        Boolean byExtension = isTextExtension(fileName.getFileName().toString());
+        return byExtension != null ? byExtension : isText(content);
+    }
+
+    /**
+     * Classifies a file by the extension of its name.
+     * <p>
+     * Package visibility for test cases.
+     *
+     * @param fileName The name of the file.
+     *
+     * @return Whether the extension is a text format; <code>null</code> if the extension is unknown.
+     */
+    static Boolean isTextExtension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        Boolean result = null;
+        if (dot != -1) {
+            result = EXTENSIONS.get(fileName.substring(dot + 1).toLowerCase(Locale.ROOT));
+        }
+        return result;
+    }
+
+    /**
+     * Classifies a file by its first bytes. At most {@value #SNIFF_LENGTH} bytes are considered.
+     * <p>
+     * Package visibility for test cases.
+     *
+     * @param start The first bytes of the file.
+     *
+     * @return Whether the file is a text file.
+     */
+    static boolean isText(byte[] start) {
+        boolean result;
+        if (startsWithAny(start, TEXT_SIGNATURES)) {
+            result = true;
+        } else if (startsWithAny(start, BINARY_SIGNATURES)) {
+            result = false;
+        } else {
+            result = true;
+            for (int i = 0; i < start.length && i < SNIFF_LENGTH && result; i++) {
+                result = start[i] != 0;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the given bytes start with any of the given signatures.
+     *
+     * @param bytes The bytes to check.
+     * @param signatures The signatures.
+     *
+     * @return Whether a signature matches.
+     */
+    private static boolean startsWithAny(byte[] bytes, byte[][] signatures) {
+        boolean found = false;
+        for (int s = 0; s < signatures.length && !found; s++) {
+            byte[] signature = signatures[s];
+            found = bytes.length >= signature.length;
+            for (int i = 0; i < signature.length && found; i++) {
+                found = bytes[i] == signature[i];
+            }
+        }
+        return found;
+    }
+
+}
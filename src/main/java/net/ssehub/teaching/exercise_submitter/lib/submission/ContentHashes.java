@@ -0,0 +1,68 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Utility methods for the content hashes that identify equal files, e.g. in the manifests of the
+ * {@link WorkspaceTracker} and of submitted versions. All hashes are hex-encoded SHA-256 hashes, so hashes computed by
+ * different classes can be compared.
+ */
+public class ContentHashes {
+
+    /**
+     * No instances.
+     */
+    private ContentHashes() {
+    }
+
+    /**
+     * Computes the hash of the given content.
+     *
+     * @param content The content.
+     *
+     * @return The hex-encoded hash.
+     */
+    public static String hash(byte[] content) {
+        return HexFormat.of().formatHex(newDigest().digest(content));
+    }
+
+    /**
+     * Computes the hash of the content of a file, without reading the whole file into memory.
+     *
+     * @param file The file.
+     *
+     * @return The hex-encoded hash.
+     *
+     * @throws IOException If reading the file fails.
+     */
+    public static String hash(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Creates a new SHA-256 {@link MessageDigest}.
+     *
+     * @return The digest.
+     */
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,242 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled set of gitignore-style rules that decide which files of a submission directory are not submitted.
+ * <p>
+ * Supported syntax, as in <code>.gitignore</code> files:
+ * <ul>
+ *   <li>Blank lines and lines starting with <code>#</code> are ignored.</li>
+ *   <li><code>*</code> matches anything except <code>/</code>, <code>?</code> matches a single character except
+ *   <code>/</code>, <code>[...]</code> matches a character class and <code>**</code> matches any number of
+ *   directories.</li>
+ *   <li>A pattern ending with <code>/</code> only matches directories.</li>
+ *   <li>A pattern containing a <code>/</code> (other than at the end) is relative to the submission directory; other
+ *   patterns match a file or directory name at any level.</li>
+ *   <li>A pattern starting with <code>!</code> re-includes files excluded by an earlier pattern. As in git, files
+ *   inside an excluded directory cannot be re-included.</li>
+ * </ul>
+ * Instances are immutable and thread-safe.
+ */
+public class IgnoreRules {
+
+    /**
+     * The default rules: compiled Java classes, Eclipse project metadata, the build output folders <code>bin</code>
+     * and <code>target</code>, and version control metadata.
+     */
+    public static final IgnoreRules DEFAULT = new IgnoreRules(Arrays.asList(
+            "*.class",
+            "/.classpath",
+            "/.project",
+            "/.checkstyle",
+            "/.settings/",
+            "/bin/",
+            "/target/",
+            ".git/",
+            ".svn/",
+            ".hg/"));
+
+    /**
+     * A single compiled rule.
+     */
+    private static class Rule {
+
+        private Pattern pattern;
+
+        private boolean negated;
+
+        private boolean directoryOnly;
+
+        /**
+         * Compiles a rule.
+         *
+         * @param line The line of the rule, not blank and not a comment.
+         */
+        Rule(String line) {
+            String glob = line;
+            if (glob.startsWith("!")) {
+                negated = true;
+                glob = glob.substring(1);
+            }
+            if (glob.endsWith("/")) {
+                directoryOnly = true;
+                glob = glob.substring(0, glob.length() - 1);
+            }
+            boolean anchored = glob.contains("/");
+            if (glob.startsWith("/")) {
+                glob = glob.substring(1);
+            }
+            pattern = Pattern.compile((anchored ? "" : "(?:.*/)?") + globToRegex(glob));
+        }
+
+        /**
+         * Checks whether this rule matches the given path.
+         *
+         * @param path The path relative to the submission directory, separated by <code>/</code>.
+         * @param directory Whether the path is a directory.
+         *
+         * @return Whether this rule matches.
+         */
+        boolean matches(String path, boolean directory) {
+            return (directory || !directoryOnly) && pattern.matcher(path).matches();
+        }
+
+    }
+
+    private List<String> patterns;
+
+    private List<Rule> rules;
+
+    /**
+     * Compiles the given rules.
+     *
+     * @param patterns The lines of the rules, in gitignore syntax.
+     */
+    public IgnoreRules(List<String> patterns) {
+        this.patterns = Collections.unmodifiableList(new ArrayList<>(patterns));
+        this.rules = new ArrayList<>(patterns.size());
+        for (String pattern : patterns) {
+            String trimmed = pattern.strip();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                rules.add(new Rule(trimmed));
+            }
+        }
+    }
+
+    /**
+     * Creates new rules that contain these rules followed by the given additional rules.
+     *
+     * @param additionalPatterns The additional rules, in gitignore syntax.
+     *
+     * @return The combined rules.
+     */
+    public IgnoreRules withPatterns(String... additionalPatterns) {
+        List<String> combined = new ArrayList<>(patterns);
+        combined.addAll(Arrays.asList(additionalPatterns));
+        return new IgnoreRules(combined);
+    }
+
+    /**
+     * Returns the lines of these rules.
+     *
+     * @return The rules, in gitignore syntax.
+     */
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * Checks whether a single file or directory is excluded by these rules, without considering its parent
+     * directories. Used while walking a directory tree, where excluded directories are not entered at all.
+     *
+     * @param relativePath The path relative to the submission directory.
+     * @param directory Whether the path is a directory.
+     *
+     * @return Whether the file or directory is excluded.
+     */
+    public boolean isIgnored(Path relativePath, boolean directory) {
+        return isIgnored(toSlashPath(relativePath), directory);
+    }
+
+    /**
+     * Checks whether a file should be submitted, i.e. neither the file nor any of its parent directories is excluded.
+     *
+     * @param relativeFile The path of a file relative to the submission directory.
+     *
+     * @return Whether the file is wanted.
+     */
+    public boolean isWanted(Path relativeFile) {
+        String path = toSlashPath(relativeFile);
+        boolean wanted = !isIgnored(path, false);
+        for (int slash = path.indexOf('/'); wanted && slash != -1; slash = path.indexOf('/', slash + 1)) {
+            wanted = !isIgnored(path.substring(0, slash), true);
+        }
+        return wanted;
+    }
+
+    /**
+     * Checks whether a path is excluded. The last matching rule wins.
+     *
+     * @param path The path relative to the submission directory, separated by <code>/</code>.
+     * @param directory Whether the path is a directory.
+     *
+     * @return Whether the path is excluded.
+     */
+    private boolean isIgnored(String path, boolean directory) {
+        boolean ignored = false;
+        for (Rule rule : rules) {
+            if (ignored == rule.negated && rule.matches(path, directory)) {
+                ignored = !rule.negated;
+            }
+        }
+        return ignored;
+    }
+
+    /**
+     * Converts a relative path to a string separated by <code>/</code>, independent of the platform.
+     *
+     * @param path The relative path.
+     *
+     * @return The path string.
+     */
+    private static String toSlashPath(Path path) {
+        StringBuilder result = new StringBuilder();
+        for (Path element : path) {
+            if (result.length() > 0) {
+                result.append('/');
+            }
+            result.append(element.toString());
+        }
+        return result.toString();
+    }
+
+    /**
+     * Converts a gitignore glob to a regular expression.
+     *
+     * @param glob The glob, without leading or trailing <code>/</code>.
+     *
+     * @return The regular expression.
+     */
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        int i = 0;
+        while (i < glob.length()) {
+            char c = glob.charAt(i);
+            if (glob.startsWith("**/", i)) {
+                regex.append("(?:.*/)?");
+                i += 3;
+            } else if (glob.startsWith("**", i)) {
+                regex.append(".*");
+                i += 2;
+            } else if (c == '*') {
+                regex.append("[^/]*");
+                i++;
+            } else if (c == '?') {
+                regex.append("[^/]");
+                i++;
+            } else if (c == '[' && glob.indexOf(']', i + 1) != -1) {
+                int end = glob.indexOf(']', i + 1);
+                String content = glob.substring(i + 1, end);
+                if (content.startsWith("!")) {
+                    content = "^" + content.substring(1);
+                }
+                regex.append('[').append(content.replace("\\", "\\\\")).append(']');
+                i = end + 1;
+            } else {
+                if (!Character.isLetterOrDigit(c)) {
+                    regex.append('\\');
+                }
+                regex.append(c);
+                i++;
+            }
+        }
+        return regex.toString();
+    }
+
+}
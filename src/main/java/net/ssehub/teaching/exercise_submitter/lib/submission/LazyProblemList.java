@@ -0,0 +1,115 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import net.ssehub.teaching.exercise_submitter.lib.submission.Problem.Severity;
+
+/**
+ * An unmodifiable list of {@link Problem}s that keeps the raw data (e.g. the DTOs of the server) and only creates a
+ * {@link Problem} when an element is accessed. The number of errors and warnings is available without creating any
+ * {@link Problem}.
+ * <p>
+ * Created problems are cached, so repeated accesses return the same instance. This class is thread-safe, as long as
+ * the raw list is not modified.
+ *
+ * @param <T> The type of the raw elements.
+ */
+public class LazyProblemList<T> extends AbstractList<Problem> implements RandomAccess {
+
+    private List<T> raw;
+
+    private Function<T, Problem> converter;
+
+    private AtomicReferenceArray<Problem> problems;
+
+    private int errors;
+
+    /**
+     * Creates a new lazy list.
+     *
+     * @param raw The raw elements. Must support fast random access and must not be modified afterwards.
+     * @param severity Returns the severity of a raw element. Called once for each element on construction.
+     * @param converter Converts a raw element into a {@link Problem}. Called at most once for each element.
+     */
+    public LazyProblemList(List<T> raw, Function<T, Severity> severity, Function<T, Problem> converter) {
+        this.raw = raw;
+        this.converter = converter;
+        this.problems = new AtomicReferenceArray<>(raw.size());
+        for (T element : raw) {
+            if (severity.apply(element) == Severity.ERROR) {
+                errors++;
+            }
+        }
+    }
+
+    /**
+     * Wraps already created problems.
+     *
+     * @param problems The problems.
+     *
+     * @return A list with the same elements.
+     */
+    public static LazyProblemList<Problem> of(List<Problem> problems) {
+        return new LazyProblemList<>(List.copyOf(problems), Problem::getSeverity, Function.identity());
+    }
+
+    @Override
+    public Problem get(int index) {
+        Problem problem = problems.get(index);
+        if (problem == null) {
+            problem = converter.apply(raw.get(index));
+            if (!problems.compareAndSet(index, null, problem)) {
+                problem = problems.get(index);
+            }
+        }
+        return problem;
+    }
+
+    @Override
+    public int size() {
+        return raw.size();
+    }
+
+    /**
+     * Returns the number of problems with severity {@link Severity#ERROR}.
+     *
+     * @return The number of errors.
+     */
+    public int getErrorCount() {
+        return errors;
+    }
+
+    /**
+     * Returns the number of problems with severity {@link Severity#WARNING}.
+     *
+     * @return The number of warnings.
+     */
+    public int getWarningCount() {
+        return raw.size() - errors;
+    }
+
+    /**
+     * Counts the problems with the given severity. Does not create any {@link Problem} if the list is a
+     * {@link LazyProblemList}.
+     *
+     * @param problems The problems.
+     * @param severity The severity to count.
+     *
+     * @return The number of problems with the given severity.
+     */
+    public static int count(List<Problem> problems, Severity severity) {
+        int result;
+        if (problems instanceof LazyProblemList) {
+            LazyProblemList<?> lazy = (LazyProblemList<?>) problems;
+            result = severity == Severity.ERROR ? lazy.getErrorCount() : lazy.getWarningCount();
+        } else {
+            result = (int) problems.stream().filter(problem -> problem.getSeverity() == severity).count();
+        }
+        return result;
+    }
+
+}
@@ -6,6 +6,11 @@ import java.util.Optional;
 
 /**
  * This class poses a problem that comes back from the stumgmt when uploading an assignment.
+ * <p>
+ * Tutors may hold hundreds of thousands of problems in memory, so the representation is compact: line and column are
+ * stored as primitives with a sentinel for absent values, check names and file paths are interned, and the hash code is
+ * computed when the problem changes instead of on every call. The {@link Optional}s of the getters are created on
+ * access.
  */
 public class Problem {
 
@@ -19,17 +24,26 @@ public class Problem {
         ERROR;
     }
 
+    /**
+     * Marks an absent line or column. Not a valid line or column itself.
+     * <p>
+     * Package visibility for {@link ProblemIndex} and {@link ProblemDiff}.
+     */
+    static final int ABSENT = Integer.MIN_VALUE;
+
     private String checkName;
 
     private String message;
 
     private Severity severity;
 
-    private Optional<File> file = Optional.empty();
+    private String filePath;
+
+    private int line = ABSENT;
 
-    private Optional<Integer> line = Optional.empty();
+    private int column = ABSENT;
 
-    private Optional<Integer> column = Optional.empty();
+    private int hash;
 
     /**
      * Instantiates a new problem.
@@ -39,9 +53,10 @@ public class Problem {
      * @param severity  the severity
      */
     public Problem(String checkName, String message, Severity severity) {
-        this.checkName = checkName;
+        this.checkName = intern(checkName);
         this.message = message;
         this.severity = severity;
+        updateHash();
     }
 
     /**
@@ -77,7 +92,16 @@ public class Problem {
      * @return The affected file.
      */
     public Optional<File> getFile() {
-        return file;
+        return filePath != null ? Optional.of(new File(filePath)) : Optional.empty();
+    }
+
+    /**
+     * Returns the path of the affected file, without creating a {@link File}.
+     *
+     * @return The path; <code>null</code> if there is no affected file.
+     */
+    String getFilePath() {
+        return filePath;
     }
 
     /**
@@ -86,7 +110,8 @@ public class Problem {
      * @param file the new file
      */
     public void setFile(File file) {
-        this.file = Optional.of(file);
+        this.filePath = intern(file.getPath());
+        updateHash();
     }
 
     /**
@@ -95,6 +120,15 @@ public class Problem {
      * @return the line
      */
     public Optional<Integer> getLine() {
+        return line != ABSENT ? Optional.of(line) : Optional.empty();
+    }
+
+    /**
+     * Returns the line without boxing it.
+     *
+     * @return The line; {@link #ABSENT} if there is no line.
+     */
+    int getLineOrAbsent() {
         return line;
     }
 
@@ -102,9 +136,15 @@ public class Problem {
      * Sets the line.
      *
      * @param line the new line
+     *
+     * @throws IllegalArgumentException If line is {@link Integer#MIN_VALUE}.
      */
-    public void setLine(int line) {
-        this.line = Optional.of(line);
+    public void setLine(int line) throws IllegalArgumentException {
+        if (line == ABSENT) {
+            throw new IllegalArgumentException("Invalid line " + line);
+        }
+        this.line = line;
+        updateHash();
     }
 
     /**
@@ -113,20 +153,50 @@ public class Problem {
      * @return the column
      */
     public Optional<Integer> getColumn() {
-        return column;
+        return column != ABSENT ? Optional.of(column) : Optional.empty();
     }
 
     /**
      * Sets the column.
      * @param column the new column
+     *
+     * @throws IllegalArgumentException If column is {@link Integer#MIN_VALUE}.
+     */
+    public void setColumn(int column) throws IllegalArgumentException {
+        if (column == ABSENT) {
+            throw new IllegalArgumentException("Invalid column " + column);
+        }
+        this.column = column;
+        updateHash();
+    }
+
+    /**
+     * Interns a string that is shared by many problems, like a check name or a file path.
+     *
+     * @param value The string; may be <code>null</code>.
+     *
+     * @return The canonical instance of the string.
+     */
+    private static String intern(String value) {
+        return value != null ? value.intern() : null;
+    }
+
+    /**
+     * Recomputes the hash code after a change.
      */
-    public void setColumn(int column) {
-        this.column = Optional.of(column);
+    private void updateHash() {
+        int result = Objects.hashCode(checkName);
+        result = 31 * result + column;
+        result = 31 * result + Objects.hashCode(filePath);
+        result = 31 * result + line;
+        result = 31 * result + Objects.hashCode(message);
+        result = 31 * result + Objects.hashCode(severity);
+        this.hash = result;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(checkName, column, file, line, message, severity);
+        return hash;
     }
 
     @Override
@@ -138,8 +208,8 @@ public class Problem {
             return false;
         }
         Problem other = (Problem) obj;
-        return Objects.equals(checkName, other.checkName) && Objects.equals(column, other.column)
-                && Objects.equals(file, other.file) && Objects.equals(line, other.line)
+        return hash == other.hash && Objects.equals(checkName, other.checkName) && column == other.column
+                && Objects.equals(filePath, other.filePath) && line == other.line
                 && Objects.equals(message, other.message) && severity == other.severity;
     }
 
@@ -153,11 +223,11 @@ public class Problem {
         builder.append(", severity=");
         builder.append(severity);
         builder.append(", file=");
-        builder.append(file);
+        builder.append(getFile());
         builder.append(", line=");
-        builder.append(line);
+        builder.append(getLine());
         builder.append(", column=");
-        builder.append(column);
+        builder.append(getColumn());
         builder.append("]");
         return builder.toString();
     }
@@ -0,0 +1,237 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import net.ssehub.teaching.exercise_submitter.lib.submission.Problem.Severity;
+
+/**
+ * The difference between the {@link Problem}s of two submissions: which problems are new, which are fixed and which
+ * are still there. Works on plain problem lists, so a cached previous {@link SubmissionResult} (or the problems of an
+ * assessment) can be compared without fetching anything again.
+ * <p>
+ * Two problems are considered the same if they have the same check name, message, severity and file, and their lines
+ * differ by at most a tolerance, so that problems are still matched after lines were inserted above them. Columns are
+ * ignored. Problems are first matched on the exact line using hashing, and only the remaining ones are matched with
+ * the tolerance, so the diff takes linear time if most problems stay on their line.
+ */
+public class ProblemDiff {
+
+    /**
+     * The default line tolerance of {@link #between(SubmissionResult, SubmissionResult)}.
+     */
+    public static final int DEFAULT_LINE_TOLERANCE = 3;
+
+    /**
+     * The identity of a problem, with or without its line.
+     */
+    private static class Key {
+
+        private String checkName;
+
+        private String message;
+
+        private Severity severity;
+
+        private String filePath;
+
+        private int line;
+
+        private int hash;
+
+        /**
+         * Creates the key of a problem.
+         *
+         * @param problem The problem.
+         * @param withLine Whether the line is part of the key.
+         */
+        Key(Problem problem, boolean withLine) {
+            this.checkName = problem.getCheckName();
+            this.message = problem.getMessage();
+            this.severity = problem.getSeverity();
+            this.filePath = problem.getFilePath();
+            this.line = withLine ? problem.getLineOrAbsent() : 0;
+            this.hash = Objects.hash(checkName, message, severity, filePath, line);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            boolean result = false;
+            if (obj instanceof Key) {
+                Key other = (Key) obj;
+                result = hash == other.hash && line == other.line && severity == other.severity
+                        && Objects.equals(checkName, other.checkName) && Objects.equals(message, other.message)
+                        && Objects.equals(filePath, other.filePath);
+            }
+            return result;
+        }
+
+    }
+
+    private List<Problem> added = new ArrayList<>();
+
+    private List<Problem> removed = new ArrayList<>();
+
+    private List<Problem> unchanged = new ArrayList<>();
+
+    /**
+     * Computes the difference between two lists of problems.
+     *
+     * @param previous The problems of the earlier submission.
+     * @param current The problems of the later submission.
+     * @param lineTolerance The maximum difference of lines of matching problems. 0 requires the same line.
+     *
+     * @throws IllegalArgumentException If the tolerance is negative.
+     */
+    public ProblemDiff(List<Problem> previous, List<Problem> current, int lineTolerance)
+            throws IllegalArgumentException {
+        if (lineTolerance < 0) {
+            throw new IllegalArgumentException("lineTolerance must not be negative: " + lineTolerance);
+        }
+
+        Map<Key, ArrayDeque<Problem>> unmatchedPrevious = new LinkedHashMap<>();
+        for (Problem problem : previous) {
+            unmatchedPrevious.computeIfAbsent(new Key(problem, true), k -> new ArrayDeque<>()).add(problem);
+        }
+
+        Map<Key, List<Problem>> unmatchedCurrent = new LinkedHashMap<>();
+        for (Problem problem : current) {
+            ArrayDeque<Problem> candidates = unmatchedPrevious.get(new Key(problem, true));
+            if (candidates != null && !candidates.isEmpty()) {
+                candidates.poll();
+                unchanged.add(problem);
+            } else {
+                unmatchedCurrent.computeIfAbsent(new Key(problem, false), k -> new ArrayList<>()).add(problem);
+            }
+        }
+
+        Map<Key, List<Problem>> remainingPrevious = new HashMap<>();
+        for (ArrayDeque<Problem> candidates : unmatchedPrevious.values()) {
+            for (Problem problem : candidates) {
+                remainingPrevious.computeIfAbsent(new Key(problem, false), k -> new ArrayList<>()).add(problem);
+            }
+        }
+
+        if (lineTolerance > 0) {
+            unmatchedCurrent.forEach((key, problems) -> matchTolerant(
+                    remainingPrevious.getOrDefault(key, Collections.emptyList()), problems, lineTolerance));
+        } else {
+            unmatchedCurrent.values().forEach(added::addAll);
+        }
+        remainingPrevious.values().forEach(removed::addAll);
+
+        added = Collections.unmodifiableList(added);
+        removed = Collections.unmodifiableList(removed);
+        unchanged = Collections.unmodifiableList(unchanged);
+    }
+
+    /**
+     * Computes the difference between the problems of two submission results, with the
+     * {@link #DEFAULT_LINE_TOLERANCE}.
+     *
+     * @param previous The result of the earlier submission.
+     * @param current The result of the later submission.
+     *
+     * @return The difference.
+     */
+    public static ProblemDiff between(SubmissionResult previous, SubmissionResult current) {
+        return new ProblemDiff(previous.getProblems(), current.getProblems(), DEFAULT_LINE_TOLERANCE);
+    }
+
+    /**
+     * Returns the problems of the later submission that were not in the earlier one.
+     *
+     * @return The new problems.
+     */
+    public List<Problem> getAdded() {
+        return added;
+    }
+
+    /**
+     * Returns the problems of the earlier submission that are not in the later one anymore.
+     *
+     * @return The fixed problems.
+     */
+    public List<Problem> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Returns the problems of the later submission that were already in the earlier one, possibly on a slightly
+     * different line.
+     *
+     * @return The unchanged problems, as contained in the later submission.
+     */
+    public List<Problem> getUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * Returns whether any problem was added or removed.
+     *
+     * @return Whether the problems changed.
+     */
+    public boolean hasChanges() {
+        return !added.isEmpty() || !removed.isEmpty();
+    }
+
+    /**
+     * Matches problems with the same key (except the line) by their line, greedily from the top of the file. Matched
+     * problems are removed from the previous problems and added to {@link #unchanged}, unmatched current problems are
+     * added to {@link #added}.
+     *
+     * @param previous The unmatched previous problems of the key; matched ones are removed.
+     * @param current The unmatched current problems of the key.
+     * @param lineTolerance The maximum line difference.
+     */
+    private void matchTolerant(List<Problem> previous, List<Problem> current, int lineTolerance) {
+        if (previous.isEmpty()) {
+            added.addAll(current);
+
+        } else {
+            Comparator<Problem> byLine = Comparator.comparingInt(Problem::getLineOrAbsent);
+            previous.sort(byLine);
+            List<Problem> sortedCurrent = new ArrayList<>(current);
+            sortedCurrent.sort(byLine);
+
+            boolean[] matched = new boolean[previous.size()];
+            int p = 0;
+            for (Problem problem : sortedCurrent) {
+                long line = problem.getLineOrAbsent();
+                while (p < previous.size() && previous.get(p).getLineOrAbsent() < line - lineTolerance) {
+                    p++;
+                }
+                if (p < previous.size() && line != Problem.ABSENT
+                        && previous.get(p).getLineOrAbsent() != Problem.ABSENT
+                        && Math.abs(previous.get(p).getLineOrAbsent() - line) <= lineTolerance) {
+                    matched[p++] = true;
+                    unchanged.add(problem);
+                } else {
+                    added.add(problem);
+                }
+            }
+
+            List<Problem> unmatched = new ArrayList<>();
+            for (int i = 0; i < matched.length; i++) {
+                if (!matched[i]) {
+                    unmatched.add(previous.get(i));
+                }
+            }
+            previous.clear();
+            previous.addAll(unmatched);
+        }
+    }
+
+}
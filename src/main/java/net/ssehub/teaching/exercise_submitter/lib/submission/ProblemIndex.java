@@ -0,0 +1,190 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.ssehub.teaching.exercise_submitter.lib.submission.Problem.Severity;
+
+/**
+ * An index of a list of {@link Problem}s by file, line, check name and severity. Built once in a single pass over the
+ * problems, so that e.g. the markers of all open files can be refreshed without scanning the full list for each file.
+ * <p>
+ * All returned lists are unmodifiable and keep the order of the original list, except for line range queries, which
+ * are ordered by line. The index does not reflect later changes of the original list or of the problems.
+ */
+public class ProblemIndex {
+
+    /**
+     * The problems of a single file.
+     */
+    private static class FileProblems {
+
+        private List<Problem> problems = new ArrayList<>();
+
+        private Problem[] byLine;
+
+        private int[] lines;
+
+        /**
+         * Sorts the problems with a line by their line, for range queries.
+         */
+        void sortByLine() {
+            byLine = problems.stream()
+                    .filter(problem -> problem.getLineOrAbsent() != Problem.ABSENT)
+                    .sorted(Comparator.comparingInt(Problem::getLineOrAbsent))
+                    .toArray(Problem[]::new);
+            lines = new int[byLine.length];
+            for (int i = 0; i < byLine.length; i++) {
+                lines[i] = byLine[i].getLineOrAbsent();
+            }
+            problems = Collections.unmodifiableList(problems);
+        }
+
+    }
+
+    private Map<String, FileProblems> byFile = new HashMap<>();
+
+    private Set<File> files = new LinkedHashSet<>();
+
+    private List<Problem> withoutFile = new ArrayList<>();
+
+    private Map<String, List<Problem>> byCheck = new HashMap<>();
+
+    private Map<Severity, List<Problem>> bySeverity = new EnumMap<>(Severity.class);
+
+    /**
+     * Builds the index for the given problems.
+     *
+     * @param problems The problems to index.
+     */
+    public ProblemIndex(List<Problem> problems) {
+        for (Problem problem : problems) {
+            String path = problem.getFilePath();
+            if (path != null) {
+                byFile.computeIfAbsent(path, p -> {
+                    files.add(new File(p));
+                    return new FileProblems();
+                }).problems.add(problem);
+            } else {
+                withoutFile.add(problem);
+            }
+            byCheck.computeIfAbsent(problem.getCheckName(), c -> new ArrayList<>()).add(problem);
+            bySeverity.computeIfAbsent(problem.getSeverity(), s -> new ArrayList<>()).add(problem);
+        }
+
+        byFile.values().forEach(FileProblems::sortByLine);
+        files = Collections.unmodifiableSet(files);
+        withoutFile = Collections.unmodifiableList(withoutFile);
+        byCheck.replaceAll((check, list) -> Collections.unmodifiableList(list));
+        bySeverity.replaceAll((severity, list) -> Collections.unmodifiableList(list));
+    }
+
+    /**
+     * Returns all files that have at least one problem.
+     *
+     * @return The files, in order of their first problem.
+     */
+    public Set<File> getFiles() {
+        return files;
+    }
+
+    /**
+     * Returns the problems of a single file.
+     *
+     * @param file The file, relative to the submission directory.
+     *
+     * @return The problems of the file; empty if there are none.
+     */
+    public List<Problem> getProblems(File file) {
+        FileProblems problems = byFile.get(file.getPath());
+        return problems != null ? problems.problems : Collections.emptyList();
+    }
+
+    /**
+     * Returns the problems of a file in a range of lines. Problems without a line are not included.
+     *
+     * @param file The file, relative to the submission directory.
+     * @param fromLine The first line of the range, inclusive.
+     * @param toLine The last line of the range, inclusive.
+     *
+     * @return The problems in the range, ordered by line.
+     *
+     * @throws IllegalArgumentException If <code>fromLine</code> is greater than <code>toLine</code>.
+     */
+    public List<Problem> getProblems(File file, int fromLine, int toLine) throws IllegalArgumentException {
+        if (fromLine > toLine) {
+            throw new IllegalArgumentException("fromLine " + fromLine + " is greater than toLine " + toLine);
+        }
+        List<Problem> result = Collections.emptyList();
+        FileProblems problems = byFile.get(file.getPath());
+        if (problems != null) {
+            int start = lowerBound(problems.lines, fromLine);
+            int end = toLine == Integer.MAX_VALUE ? problems.lines.length : lowerBound(problems.lines, toLine + 1);
+            result = Collections.unmodifiableList(Arrays.asList(problems.byLine).subList(start, end));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the problems that are not associated with a file.
+     *
+     * @return The problems without a file.
+     */
+    public List<Problem> getProblemsWithoutFile() {
+        return withoutFile;
+    }
+
+    /**
+     * Returns the problems detected by a check.
+     *
+     * @param checkName The name of the check, e.g. <code>javac</code>.
+     *
+     * @return The problems of the check; empty if there are none.
+     */
+    public List<Problem> getProblemsByCheck(String checkName) {
+        return byCheck.getOrDefault(checkName, Collections.emptyList());
+    }
+
+    /**
+     * Returns the problems with the given severity.
+     *
+     * @param severity The severity.
+     *
+     * @return The problems with the severity; empty if there are none.
+     */
+    public List<Problem> getProblems(Severity severity) {
+        return bySeverity.getOrDefault(severity, Collections.emptyList());
+    }
+
+    /**
+     * Finds the first index in a sorted array whose value is not less than the given value.
+     *
+     * @param values The sorted values.
+     * @param value The value to search.
+     *
+     * @return The index; the length of the array if all values are less.
+     */
+    private static int lowerBound(int[] values, int value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+}
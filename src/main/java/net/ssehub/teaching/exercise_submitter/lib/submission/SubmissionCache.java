@@ -0,0 +1,54 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Remembers the last uploaded submission of an assignment and group, so that an unchanged submission is not uploaded
+ * again, see {@link Submitter#withSubmissionCache(SubmissionCache)}. All {@link Submitter}s of the same assignment
+ * and group may share one cache, e.g. the ones created by the
+ * {@link net.ssehub.teaching.exercise_submitter.lib.ExerciseSubmitterManager}.
+ * <p>
+ * Besides the content of the submission, the number of versions on the server is remembered. A submission is only
+ * skipped if no other version was submitted since, e.g. by another group member. This class is thread-safe.
+ */
+public class SubmissionCache {
+
+    private Map<String, String> manifest;
+
+    private int versionCount;
+
+    private SubmissionResult result;
+
+    /**
+     * Returns the result of the last submission if it had the same content and no other version was submitted since.
+     *
+     * @param manifest The manifest of the current submission, see {@link Submitter#computeManifest(java.util.List)}.
+     * @param versionCount The current number of versions on the server.
+     *
+     * @return The result of the last submission; empty if the submission must be uploaded.
+     */
+    synchronized Optional<SubmissionResult> find(Map<String, String> manifest, int versionCount) {
+        Optional<SubmissionResult> found = Optional.empty();
+        if (manifest.equals(this.manifest) && versionCount == this.versionCount) {
+            found = Optional.of(result);
+        }
+        return found;
+    }
+
+    /**
+     * Remembers an uploaded submission.
+     *
+     * @param manifest The manifest of the submission.
+     * @param versionCountBefore The number of versions on the server before the upload. The server only stores
+     *      accepted submissions as a new version; if the count turns out to be different, the next submission is
+     *      simply uploaded again.
+     * @param result The result of the submission.
+     */
+    synchronized void remember(Map<String, String> manifest, int versionCountBefore, SubmissionResult result) {
+        this.manifest = manifest;
+        this.versionCount = result.isAccepted() ? versionCountBefore + 1 : versionCountBefore;
+        this.result = result;
+    }
+
+}
@@ -0,0 +1,57 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+/**
+ * Receives the progress of a submission started with {@link Submitter#submitAsync(java.io.File,
+ * SubmissionProgressListener)}, e.g. to show a progress bar. The methods are called in the order they are declared
+ * here, on the thread that performs the submission, except for {@link #uploadProgress(long, long)}, which is called by
+ * the HTTP client. Implementations should return quickly. All methods do nothing by default.
+ */
+public interface SubmissionProgressListener {
+
+    /**
+     * A listener that ignores all progress.
+     */
+    public static final SubmissionProgressListener NONE = new SubmissionProgressListener() {
+    };
+
+    /**
+     * Called when the files of the submission directory were listed.
+     *
+     * @param fileCount The number of files that will be submitted.
+     */
+    public default void filesPrepared(int fileCount) {
+    }
+
+    /**
+     * Called after each file was read and encoded for upload.
+     *
+     * @param filesEncoded The number of files encoded so far.
+     * @param fileCount The number of files that will be submitted.
+     * @param bytesEncoded The size of the encoded content of all files so far, in bytes. This is the number of bytes
+     *      that will be uploaded.
+     */
+    public default void bytesEncoded(int filesEncoded, int fileCount, long bytesEncoded) {
+    }
+
+    /**
+     * Called before each attempt to upload the files, i.e. again if the upload is retried. Not called if an unchanged
+     * submission is skipped, see {@link Submitter#withSkipUnchanged(boolean)}.
+     *
+     * @param totalBytes The number of bytes of encoded file content that are uploaded.
+     */
+    public default void uploadStarted(long totalBytes) {
+    }
+
+    /**
+     * Called repeatedly while the upload request is sent. The sizes refer to the whole request, which is slightly
+     * larger than the encoded file content. The server checks the files once the request is complete, so after the
+     * last call the submission is awaiting the results of the checks; no further progress is reported until the
+     * result arrives.
+     *
+     * @param bytesWritten The number of bytes of the request sent so far.
+     * @param totalBytes The size of the request in bytes; -1 if unknown.
+     */
+    public default void uploadProgress(long bytesWritten, long totalBytes) {
+    }
+
+}
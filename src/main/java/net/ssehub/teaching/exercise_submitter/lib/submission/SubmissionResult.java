@@ -3,6 +3,8 @@ package net.ssehub.teaching.exercise_submitter.lib.submission;
 import java.util.List;
 import java.util.Objects;
 
+import net.ssehub.teaching.exercise_submitter.lib.submission.Problem.Severity;
+
 /**
  * The result of a submission to the server.
  * 
@@ -13,6 +15,8 @@ public class SubmissionResult {
     private boolean accepted;
     
     private List<Problem> problems;
+    
+    private ProblemIndex index;
 
     /**
      * Creates a new {@link SubmissionResult}.
@@ -37,13 +41,49 @@ public class SubmissionResult {
     
     /**
      * A list of {@link Problem}s that the server detected in the submission.
+     * <p>
+     * The list is unmodifiable, as the problems are only created when they are accessed (see {@link LazyProblemList});
+     * modifying it throws an {@link UnsupportedOperationException}.
      * 
      * @return The list of problems. Never <code>null</code>, but may be an empty list.
      */
     public List<Problem> getProblems() {
         return problems;
     }
+    
+    /**
+     * Returns the number of {@link Problem}s with severity {@link Severity#ERROR}. Cheaper than counting the elements
+     * of {@link #getProblems()}, as no {@link Problem} needs to be created.
+     * 
+     * @return The number of errors.
+     */
+    public int getErrorCount() {
+        return LazyProblemList.count(problems, Severity.ERROR);
+    }
+    
+    /**
+     * Returns the number of {@link Problem}s with severity {@link Severity#WARNING}. Cheaper than counting the
+     * elements of {@link #getProblems()}, as no {@link Problem} needs to be created.
+     * 
+     * @return The number of warnings.
+     */
+    public int getWarningCount() {
+        return LazyProblemList.count(problems, Severity.WARNING);
+    }
 
+    /**
+     * Returns an index of the {@link Problem}s by file, line, check name and severity. The index is built on the first
+     * call.
+     * 
+     * @return The index of {@link #getProblems()}.
+     */
+    public synchronized ProblemIndex getProblemIndex() {
+        if (index == null) {
+            index = new ProblemIndex(problems);
+        }
+        return index;
+    }
+    
     @Override
     public int hashCode() {
         return Objects.hash(accepted, problems);
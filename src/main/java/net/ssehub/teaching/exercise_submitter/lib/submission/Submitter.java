@@ -2,16 +2,38 @@ package net.ssehub.teaching.exercise_submitter.lib.submission;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
+import net.ssehub.teaching.exercise_submitter.lib.jfr.SubmissionPhaseEvent;
+import net.ssehub.teaching.exercise_submitter.lib.jfr.SubmissionPhaseEvent.Phase;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricNames;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricsSink;
+import net.ssehub.teaching.exercise_submitter.lib.network.ApiExceptionAdapter;
+import net.ssehub.teaching.exercise_submitter.lib.network.RequestExecutor;
+import net.ssehub.teaching.exercise_submitter.lib.network.ResiliencePolicy;
 import net.ssehub.teaching.exercise_submitter.lib.submission.Problem.Severity;
+import net.ssehub.teaching.exercise_submitter.server.api.ApiCallback;
 import net.ssehub.teaching.exercise_submitter.server.api.ApiClient;
 import net.ssehub.teaching.exercise_submitter.server.api.ApiException;
 import net.ssehub.teaching.exercise_submitter.server.api.api.SubmissionApi;
@@ -19,6 +41,8 @@ import net.ssehub.teaching.exercise_submitter.server.api.model.CheckMessageDto;
 import net.ssehub.teaching.exercise_submitter.server.api.model.CheckMessageDto.TypeEnum;
 import net.ssehub.teaching.exercise_submitter.server.api.model.FileDto;
 import net.ssehub.teaching.exercise_submitter.server.api.model.SubmissionResultDto;
+import net.ssehub.teaching.exercise_submitter.server.api.model.VersionDto;
+import okhttp3.Call;
 
 /**
  * Submits solutions to a given assignment.
@@ -29,28 +53,27 @@ import net.ssehub.teaching.exercise_submitter.server.api.model.SubmissionResultD
 public class Submitter {
 
     /**
-     * A {@link Predicate} that filters all unwanted files from a submission directory.
+     * A {@link Predicate} that filters all unwanted files from a submission directory, according to
+     * {@link IgnoreRules#DEFAULT}.
      * <p>
      * Parameter should be the relative path of the file inside the submission directory to check.
      * <p>
      * Returns <code>false</code> if the file is unwanted and should be filtered, <code>true</code> otherwise.
      */
-    public static final Predicate<Path> WANTED_FILES;
+    public static final Predicate<Path> WANTED_FILES = IgnoreRules.DEFAULT::isWanted;
     
-    static {
-        Predicate<Path> notClassFile = p -> !p.getFileName().toString().endsWith(".class");
-        
-        Predicate<Path> notClasspathFile = p -> !p.equals(Path.of(".classpath"));
-        Predicate<Path> notProjectFile = p -> !p.equals(Path.of(".project"));
-        Predicate<Path> notCheckstyleFile = p -> !p.equals(Path.of(".checkstyle"));
-        Predicate<Path> notInSettingsDir = p -> !p.startsWith(".settings");
-        
-        WANTED_FILES = notClassFile
-                .and(notClasspathFile)
-                .and(notProjectFile)
-                .and(notCheckstyleFile)
-                .and(notInSettingsDir);
-    }
+    private static final ApiExceptionAdapter<ApiException> SERVER_EXCEPTIONS = new ApiExceptionAdapter<>(
+            ApiException.class, ApiException::getCode, ApiException::new);
+    
+    /**
+     * The default executor of {@link #submitAsync(File, SubmissionProgressListener)}, shared by all
+     * {@link Submitter}s. Its daemon threads are ended when they were idle for a minute.
+     */
+    private static final ExecutorService ASYNC_SUBMISSIONS = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "Submitter");
+        thread.setDaemon(true);
+        return thread;
+    });
     
     private String courseId;
     
@@ -60,8 +83,16 @@ public class Submitter {
     
     private SubmissionApi api;
     
+    private RequestExecutor executor;
+    
+    private IgnoreRules ignoreRules = IgnoreRules.DEFAULT;
+    
+    private Optional<SubmissionCache> submissionCache = Optional.empty();
+    
+    private Executor asyncExecutor = ASYNC_SUBMISSIONS;
+    
     /**
-     * Creates a new submitter for the given assignment.
+     * Creates a new submitter for the given assignment with the default {@link ResiliencePolicy}.
      * 
      * @param baseUrl The URL of the exercise-submitter-server API.
      * @param courseId the ID of the course to submit to.
@@ -71,6 +102,26 @@ public class Submitter {
      *
      */
     public Submitter(String baseUrl, String courseId, String assignmentName, String groupName, String token) {
+        this(baseUrl, courseId, assignmentName, groupName, token, new RequestExecutor(new ResiliencePolicy()));
+    }
+    
+    // checkstyle: stop parameter number check
+    
+    /**
+     * Creates a new submitter for the given assignment.
+     * 
+     * @param baseUrl The URL of the exercise-submitter-server API.
+     * @param courseId the ID of the course to submit to.
+     * @param assignmentName The name of the assignment to submit to.
+     * @param groupName The name of the group to submit to. May be the students name for non-group assignments.
+     * @param token The token to authenticate with. This is the same as used for the student management system. 
+     * @param executor The {@link RequestExecutor} that executes the requests to the exercise-submitter-server.
+     */
+    public Submitter(String baseUrl, String courseId, String assignmentName, String groupName, String token,
+            RequestExecutor executor) {
+        
+        this.executor = executor;
+        
         ApiClient client = new ApiClient();
         client.setBasePath(baseUrl);
         client.setAccessToken(token);
@@ -80,6 +131,68 @@ public class Submitter {
         this.assignmentName = assignmentName;
         this.groupName = groupName;
     }
+    
+    // checkstyle: resume parameter number check
+    
+    /**
+     * Sets the rules that decide which files of the submission directory are not submitted. Excluded directories are
+     * not entered at all. By default, {@link IgnoreRules#DEFAULT} is used.
+     * 
+     * @param ignoreRules The rules.
+     * 
+     * @return This.
+     */
+    public Submitter withIgnoreRules(IgnoreRules ignoreRules) {
+        this.ignoreRules = ignoreRules;
+        return this;
+    }
+
+    /**
+     * Sets whether a submission is skipped if its content equals the last submission of this {@link Submitter}. In
+     * that case, {@link #submit(File)} returns the previous {@link SubmissionResult} instead of uploading the files
+     * again, so that the server does not run all checks again. By default, every submission is uploaded.
+     * <p>
+     * Enabling this gives this {@link Submitter} its own {@link SubmissionCache}. To skip submissions across several
+     * {@link Submitter}s of the same assignment and group, use {@link #withSubmissionCache(SubmissionCache)}.
+     * 
+     * @param skipUnchanged Whether unchanged submissions are skipped.
+     * 
+     * @return This.
+     */
+    public Submitter withSkipUnchanged(boolean skipUnchanged) {
+        this.submissionCache = skipUnchanged ? Optional.of(new SubmissionCache()) : Optional.empty();
+        return this;
+    }
+
+    /**
+     * Skips a submission if its content equals the last submission remembered in the given cache, see
+     * {@link #withSkipUnchanged(boolean)}. The cache must only be shared by {@link Submitter}s of the same assignment
+     * and group.
+     * <p>
+     * To notice submissions of other group members in the meantime, the version list of the server is retrieved once
+     * before each submission; the submission is only skipped if no version was added since the last upload.
+     * 
+     * @param submissionCache The cache of the last submission.
+     * 
+     * @return This.
+     */
+    public Submitter withSubmissionCache(SubmissionCache submissionCache) {
+        this.submissionCache = Optional.of(submissionCache);
+        return this;
+    }
+
+    /**
+     * Sets the executor that runs the submissions of {@link #submitAsync(File, SubmissionProgressListener)}, e.g. the
+     * job scheduler of an IDE. By default, a thread pool shared by all {@link Submitter}s is used.
+     * 
+     * @param asyncExecutor The executor. Cancelling a submission interrupts the thread that it runs in.
+     * 
+     * @return This.
+     */
+    public Submitter withAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+        return this;
+    }
 
     /**
      * Converts the given file to a {@link FileDto} for submission.
@@ -94,6 +207,26 @@ public class Submitter {
      * @throws UncheckedIOException If reading the file content fails.
      */
     static FileDto pathToFileDto(Path file, Path submissionDirectory) throws UncheckedIOException {
+        return pathToFileDto(file, submissionDirectory, MetricsSink.NONE);
+    }
+    
+    /**
+     * Converts the given file to a {@link FileDto} for submission. Text files, as decided by the
+     * {@link ContentClassifier}, are converted to UTF-8. Records the number of bytes read and encoded in the given
+     * {@link MetricsSink}.
+     * <p>
+     * Package visibility for test cases.
+     * 
+     * @param file The file to submit, relative to the submissionDirectory.
+     * @param submissionDirectory The base submission directory.
+     * @param metrics The sink to record the metrics in.
+     * 
+     * @return The {@link FileDto} with correct content and path.
+     * 
+     * @throws UncheckedIOException If reading the file content fails.
+     */
+    static FileDto pathToFileDto(Path file, Path submissionDirectory, MetricsSink metrics)
+            throws UncheckedIOException {
         try {
             FileDto result = new FileDto();
             result.setPath(file.toString().replace('\\', '/'));
@@ -102,8 +235,7 @@ public class Submitter {
             
             byte[] rawContent;
             
-            String contentType = Files.probeContentType(absoluteFile);
-            if (contentType != null && contentType.startsWith("text")
+            if (ContentClassifier.isText(absoluteFile)
                     && !EncodingUtils.checkEncoding(absoluteFile, StandardCharsets.UTF_8)) {
                 
                 rawContent = EncodingUtils.getUtf8ConvertedContent(absoluteFile);
@@ -115,6 +247,9 @@ public class Submitter {
             String base64Content = Base64.getEncoder().encodeToString(rawContent);
             result.setContent(base64Content);
             
+            metrics.increment(MetricNames.SUBMISSION_BYTES_READ, rawContent.length);
+            metrics.increment(MetricNames.SUBMISSION_BYTES_ENCODED, base64Content.length());
+            
             return result;
             
         } catch (IOException e) {
@@ -124,7 +259,8 @@ public class Submitter {
     
     /**
      * Converts a {@link SubmissionResultDto} with {@link CheckMessageDto}s
-     * to {@link SubmissionResult} with {@link Problem}s.
+     * to {@link SubmissionResult} with {@link Problem}s. The {@link Problem}s are only created when they are accessed,
+     * see {@link LazyProblemList}.
      * <p>
      * Package visibility for test cases.
      * 
@@ -133,29 +269,153 @@ public class Submitter {
      * @return The converted {@link SubmissionResult} with all messages.
      */
     static SubmissionResult dtoToSubmissionResult(SubmissionResultDto dto) {
-        var problems = dto.getMessages().stream()
-            .map(message -> {
-                Problem problem = new Problem(message.getCheckName(), message.getMessage(),
-                        message.getType() == TypeEnum.WARNING ? Severity.WARNING : Severity.ERROR);
+        var problems = new LazyProblemList<>(dto.getMessages(), Submitter::getSeverity, Submitter::messageToProblem);
+        
+        return new SubmissionResult(dto.isAccepted(), problems);
+    }
+    
+    /**
+     * Returns the severity of a message of the server.
+     * 
+     * @param message The message.
+     * 
+     * @return The severity.
+     */
+    private static Severity getSeverity(CheckMessageDto message) {
+        return message.getType() == TypeEnum.WARNING ? Severity.WARNING : Severity.ERROR;
+    }
+    
+    /**
+     * Converts a single message of the server to a {@link Problem}.
+     * 
+     * @param message The message to convert.
+     * 
+     * @return The {@link Problem} with the data of the message.
+     */
+    private static Problem messageToProblem(CheckMessageDto message) {
+        Problem problem = new Problem(message.getCheckName(), message.getMessage(), getSeverity(message));
+        
+        if (message.getFile() != null) {
+            problem.setFile(new File(message.getFile()));
+        }
+        if (message.getLine() != null) {
+            problem.setLine(message.getLine());
+        }
+        if (message.getColumn() != null) {
+            problem.setColumn(message.getColumn());
+        }
+        return problem;
+    }
+    
+    /**
+     * Lists the files of the given submission directory that should be submitted. Directories excluded by the
+     * {@link IgnoreRules} are not entered. If the thread is interrupted, listing stops early and the result is
+     * incomplete.
+     * <p>
+     * Package visibility for test cases.
+     * 
+     * @param submissionDir The submission directory.
+     * 
+     * @return The paths of the files, relative to the submission directory.
+     * 
+     * @throws SubmissionException If listing the directory content fails.
+     */
+    List<Path> listFiles(Path submissionDir) throws SubmissionException {
+        SubmissionPhaseEvent event = new SubmissionPhaseEvent(courseId, assignmentName, Phase.WALK);
+        event.begin();
+        
+        List<Path> paths = new ArrayList<>();
+        try {
+            Files.walkFileTree(submissionDir, new SimpleFileVisitor<Path>() {
                 
-                if (message.getFile() != null) {
-                    problem.setFile(new File(message.getFile()));
-                }
-                if (message.getLine() != null) {
-                    problem.setLine(message.getLine());
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    Path relative = submissionDir.relativize(dir);
+                    FileVisitResult result;
+                    if (Thread.currentThread().isInterrupted()) {
+                        result = FileVisitResult.TERMINATE;
+                    } else if (!dir.equals(submissionDir) && ignoreRules.isIgnored(relative, true)) {
+                        result = FileVisitResult.SKIP_SUBTREE;
+                    } else {
+                        result = FileVisitResult.CONTINUE;
+                    }
+                    return result;
                 }
-                if (message.getColumn() != null) {
-                    problem.setColumn(message.getColumn());
+                
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    Path relative = submissionDir.relativize(file);
+                    boolean regularFile = attrs.isRegularFile() || attrs.isSymbolicLink() && Files.isRegularFile(file);
+                    if (regularFile && !ignoreRules.isIgnored(relative, false)) {
+                        paths.add(relative);
+                    }
+                    return FileVisitResult.CONTINUE;
                 }
-                return problem;
-            })
-            .collect(Collectors.toList());
+                
+            });
+            
+            event.setSize(paths.size(), 0);
+            
+        } catch (IOException e) {
+            throw new SubmissionException("Failed to list submission directory content", e);
+            
+        } finally {
+            event.commit();
+        }
         
-        return new SubmissionResult(dto.isAccepted(), problems);
+        return paths;
+    }
+    
+    /**
+     * Reads and encodes the given files for submission.
+     * 
+     * @param paths The paths of the files, relative to the submission directory.
+     * @param submissionDir The submission directory.
+     * @param metrics The sink to record the read and encoded bytes in.
+     * @param listener The listener to report the encoded files to.
+     * 
+     * @return The {@link FileDto}s of the files.
+     * 
+     * @throws SubmissionException If reading a file fails or the thread is interrupted.
+     */
+    private List<FileDto> encodeFiles(List<Path> paths, Path submissionDir, MetricsSink metrics,
+            SubmissionProgressListener listener) throws SubmissionException {
+        
+        SubmissionPhaseEvent event = new SubmissionPhaseEvent(courseId, assignmentName, Phase.ENCODE);
+        event.begin();
+        
+        List<FileDto> files = new ArrayList<>(paths.size());
+        long bytesEncoded = 0;
+        try {
+            for (Path filepath : paths) {
+                checkNotCancelled();
+                FileDto file = pathToFileDto(filepath, submissionDir, metrics);
+                files.add(file);
+                bytesEncoded += file.getContent().length();
+                listener.bytesEncoded(files.size(), paths.size(), bytesEncoded);
+            }
+            
+        } catch (UncheckedIOException e) {
+            throw new SubmissionException("Failed to read file content", e.getCause());
+            
+        } finally {
+            event.commit();
+        }
+        
+        return files;
     }
     
     /**
      * Submits the given directory.
+     * <p>
+     * The phases of the submission are reported to the Java Flight Recorder as {@link SubmissionPhaseEvent}s.
+     * <p>
+     * If enabled with {@link #withSkipUnchanged(boolean)} or {@link #withSubmissionCache(SubmissionCache)}, an
+     * unchanged submission is not uploaded again.
+     * <p>
+     * If the calling thread is interrupted, the submission is aborted with a {@link SubmissionException}. This also
+     * aborts a running upload, see {@link #submitAsync(File, SubmissionProgressListener)}; the interrupt status of the
+     * thread is kept.
      *
      * @param directory The directory that contains the solution to be submitted.
      *
@@ -166,39 +426,266 @@ public class Submitter {
      */
     public SubmissionResult submit(File directory)
             throws SubmissionException, IllegalArgumentException {
-
+        return submit(toSubmissionDirectory(directory), SubmissionProgressListener.NONE);
+    }
+    
+    /**
+     * Submits the given directory in a background thread, see {@link #withAsyncExecutor(Executor)}. Works like
+     * {@link #submit(File)}, but returns immediately and reports the progress of the submission to the given listener.
+     * <p>
+     * The submission can be aborted with {@link Future#cancel(boolean)}, passing <code>true</code> to interrupt the
+     * background thread. Listing and encoding the files stops at the next file, and a running upload request is
+     * cancelled. If the server already received the whole submission, it may still store it, even though the future
+     * is cancelled.
+     * <p>
+     * A {@link Submitter} should only perform one submission at a time.
+     *
+     * @param directory The directory that contains the solution to be submitted.
+     * @param listener The listener that receives the progress of the submission.
+     *
+     * @return The future result of the submission. Its {@link Future#get()} throws an
+     *      {@link java.util.concurrent.ExecutionException} with a {@link SubmissionException} as its cause if the
+     *      submission fails.
+     *
+     * @throws IllegalArgumentException If the given directory is not a directory.
+     */
+    public Future<SubmissionResult> submitAsync(File directory, SubmissionProgressListener listener)
+            throws IllegalArgumentException {
+        Path submissionDir = toSubmissionDirectory(directory);
+        
+        FutureTask<SubmissionResult> task = new FutureTask<>(() -> submit(submissionDir, listener));
+        asyncExecutor.execute(task);
+        return task;
+    }
+    
+    /**
+     * Checks that the given submission directory is a directory.
+     * 
+     * @param directory The directory that contains the solution to be submitted.
+     * 
+     * @return The directory as {@link Path}.
+     * 
+     * @throws IllegalArgumentException If the given directory is not a directory.
+     */
+    private static Path toSubmissionDirectory(File directory) throws IllegalArgumentException {
         Path submissionDir = directory.toPath();
         
         if (!Files.isDirectory(submissionDir)) {
             throw new IllegalArgumentException(directory + " is not a directory");
         }
+        return submissionDir;
+    }
+    
+    /**
+     * Submits the given directory and reports the progress to the given listener.
+     * 
+     * @param submissionDir The directory that contains the solution to be submitted.
+     * @param listener The listener that receives the progress of the submission.
+     * 
+     * @return The result of the submission.
+     * 
+     * @throws SubmissionException If the submission fails or the thread is interrupted before the upload started.
+     */
+    private SubmissionResult submit(Path submissionDir, SubmissionProgressListener listener)
+            throws SubmissionException {
+        
+        MetricsSink metrics = executor.getMetrics();
+        long prepareStart = System.nanoTime();
         
         List<FileDto> files;
         try {
-            files = Files.walk(submissionDir)
-                    .filter(p -> Files.isRegularFile(p))
-                    .map(p -> submissionDir.relativize(p))
-                    
-                    .filter(WANTED_FILES)
-                    .map(filepath -> pathToFileDto(filepath, submissionDir))
-                    
-                    .collect(Collectors.toList());
-            
-        } catch (IOException e) {
-            throw new SubmissionException("Failed to list submission directory content", e.getCause());
-            
-        } catch (UncheckedIOException e) {
-            throw new SubmissionException("Failed to read file content", e.getCause());
+            List<Path> paths = listFiles(submissionDir);
+            checkNotCancelled();
+            listener.filesPrepared(paths.size());
+            files = encodeFiles(paths, submissionDir, metrics, listener);
+        } finally {
+            metrics.recordLatency(MetricNames.SUBMISSION_PREPARE, System.nanoTime() - prepareStart);
+        }
+        
+        SubmissionResult result;
+        if (submissionCache.isPresent()) {
+            result = uploadIfChanged(files, submissionCache.get(), listener);
+        } else {
+            checkNotCancelled();
+            result = upload(files, listener);
         }
+        return result;
+    }
+    
+    /**
+     * Aborts the submission if the current thread is interrupted, e.g. because {@link #submitAsync(File,
+     * SubmissionProgressListener)} was cancelled. The interrupt status is kept.
+     * 
+     * @throws SubmissionException If the current thread is interrupted.
+     */
+    private static void checkNotCancelled() throws SubmissionException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new SubmissionException("Submission cancelled", new InterruptedIOException("Thread interrupted"));
+        }
+    }
+    
+    /**
+     * Uploads the given files and converts the result of the server.
+     * 
+     * @param files The files to submit.
+     * @param listener The listener to report the upload progress to.
+     * 
+     * @return The result of the submission.
+     * 
+     * @throws SubmissionException If uploading the files fails or the thread is interrupted.
+     */
+    private SubmissionResult upload(List<FileDto> files, SubmissionProgressListener listener)
+            throws SubmissionException {
+        MetricsSink metrics = executor.getMetrics();
+        long uploadSize = files.stream().mapToLong(file -> file.getContent().length()).sum();
 
+        SubmissionPhaseEvent uploadEvent = new SubmissionPhaseEvent(courseId, assignmentName, Phase.UPLOAD);
+        uploadEvent.setSize(files.size(), uploadSize);
+        uploadEvent.begin();
+        
         SubmissionResultDto dto;
         try {
-            dto = api.submit(courseId, assignmentName, groupName, files);
+            dto = executor.execute("submission.submit", courseId, assignmentName, false, () -> {
+                metrics.increment(MetricNames.SUBMISSION_BYTES_UPLOADED, uploadSize);
+                listener.uploadStarted(uploadSize);
+                return send(files, listener);
+            }, SERVER_EXCEPTIONS);
         } catch (ApiException e) {
+            checkNotCancelled();
             throw new SubmissionException("Failed to upload submission", e);
+        } finally {
+            uploadEvent.commit();
+        }
+        
+        SubmissionPhaseEvent mapEvent = new SubmissionPhaseEvent(courseId, assignmentName, Phase.MAP_RESULT);
+        mapEvent.begin();
+        SubmissionResult result = dtoToSubmissionResult(dto);
+        mapEvent.commit();
+        
+        return result;
+    }
+    
+    /**
+     * Sends the upload request and waits for the response. The HTTP client sends the request in its own thread, so
+     * that the upload progress can be reported and the request can be aborted: if the current thread is interrupted
+     * while waiting, the request is cancelled.
+     * 
+     * @param files The files to submit.
+     * @param listener The listener to report the upload progress to.
+     * 
+     * @return The response of the server.
+     * 
+     * @throws ApiException If the request fails. Its cause is an {@link InterruptedIOException} if the thread was
+     *      interrupted.
+     */
+    private SubmissionResultDto send(List<FileDto> files, SubmissionProgressListener listener) throws ApiException {
+        CompletableFuture<SubmissionResultDto> response = new CompletableFuture<>();
+        ApiCallback<SubmissionResultDto> callback = new ApiCallback<>() {
+            
+            @Override
+            public void onSuccess(SubmissionResultDto result, int statusCode,
+                    Map<String, List<String>> responseHeaders) {
+                response.complete(result);
+            }
+            
+            @Override
+            public void onFailure(ApiException e, int statusCode, Map<String, List<String>> responseHeaders) {
+                response.completeExceptionally(e);
+            }
+            
+            @Override
+            public void onUploadProgress(long bytesWritten, long contentLength, boolean done) {
+                listener.uploadProgress(bytesWritten, contentLength);
+            }
+            
+            @Override
+            public void onDownloadProgress(long bytesRead, long contentLength, boolean done) {
+            }
+            
+        };
+        Call call = api.submitAsync(courseId, assignmentName, groupName, files, callback);
+        
+        SubmissionResultDto result;
+        try {
+            result = response.get();
+        } catch (InterruptedException e) {
+            call.cancel();
+            Thread.currentThread().interrupt();
+            throw new ApiException(new InterruptedIOException("Upload cancelled"));
+        } catch (ExecutionException e) {
+            throw (ApiException) e.getCause();
+        }
+        return result;
+    }
+    
+    /**
+     * Computes the content hashes of the prepared files of a submission.
+     * <p>
+     * Package visibility for test cases.
+     * 
+     * @param files The files to submit.
+     * 
+     * @return The hex-encoded SHA-256 hashes of the encoded file contents, by file path.
+     */
+    static Map<String, String> computeManifest(List<FileDto> files) {
+        Map<String, String> manifest = new HashMap<>();
+        for (FileDto file : files) {
+            manifest.put(file.getPath(), ContentHashes.hash(file.getContent().getBytes(StandardCharsets.US_ASCII)));
         }
+        return manifest;
+    }
+    
+    /**
+     * Uploads the given files, unless their content equals the last submission remembered in the given cache and no
+     * other version was submitted since. The version list is retrieved once, before the upload; its size after an
+     * upload is derived from it instead of retrieving it again.
+     * 
+     * @param files The files to submit.
+     * @param cache The cache of the last submission.
+     * @param listener The listener to report the start of each upload attempt to.
+     * 
+     * @return The result of the submission, or of the last submission if this one is skipped.
+     * 
+     * @throws SubmissionException If uploading the files fails or the thread is interrupted before the upload started.
+     */
+    private SubmissionResult uploadIfChanged(List<FileDto> files, SubmissionCache cache,
+            SubmissionProgressListener listener) throws SubmissionException {
+        Map<String, String> manifest = computeManifest(files);
+        Optional<Integer> versionCount = getVersionCount();
+        Optional<SubmissionResult> unchanged = versionCount.flatMap(count -> cache.find(manifest, count));
+        
+        MetricsSink metrics = executor.getMetrics();
+        metrics.increment(unchanged.isPresent() ? MetricNames.cacheHits(MetricNames.SUBMISSION_CACHE)
+                : MetricNames.cacheMisses(MetricNames.SUBMISSION_CACHE));
         
-        return dtoToSubmissionResult(dto);
+        SubmissionResult result;
+        if (unchanged.isPresent()) {
+            result = unchanged.get();
+        } else {
+            checkNotCancelled();
+            result = upload(files, listener);
+            if (versionCount.isPresent()) {
+                cache.remember(manifest, versionCount.get(), result);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Retrieves the number of versions of the submission on the server.
+     * 
+     * @return The number of versions. Empty if retrieving the version list fails.
+     */
+    private Optional<Integer> getVersionCount() {
+        Optional<Integer> result;
+        try {
+            List<VersionDto> versions = executor.execute("submission.listVersions", courseId, assignmentName, true,
+                () -> api.listVersions(courseId, assignmentName, groupName), SERVER_EXCEPTIONS);
+            result = Optional.of(versions.size());
+        } catch (ApiException e) {
+            result = Optional.empty();
+        }
+        return result;
     }
     
 }
@@ -0,0 +1,380 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps an in-memory index of the files of a submission directory, i.e. their size, modification time and content
+ * hash. A {@link WatchService} reports changes in the directory, so that only the changed files have to be read again
+ * instead of the complete directory. Files and directories excluded by the {@link IgnoreRules} are not tracked.
+ * <p>
+ * Events of the {@link WatchService} are processed when the index is queried. They are delivered asynchronously by the
+ * operating system, so a change may become visible with a short delay; on platforms without native file change
+ * notifications, e.g. macOS, the JDK polls the directory every few seconds. A manifest queried right after a file was
+ * written may therefore still be stale. It is meant to avoid reading unchanged files, not to decide whether a
+ * directory changed: callers that need a correct answer, e.g. before skipping a submission, must call
+ * {@link #rescan()} first or compare the files themselves. If events are lost, the directory is scanned again
+ * completely. {@link #rescan()} forces a complete scan.
+ * <p>
+ * This class is thread-safe.
+ */
+public class WorkspaceTracker implements Closeable {
+
+    /**
+     * The state of a single tracked file.
+     */
+    private static class Entry {
+
+        private long size;
+
+        private long modified;
+
+        private String hash;
+
+        /**
+         * Creates an entry from the attributes of a file. The hash is computed later.
+         *
+         * @param attributes The attributes of the file.
+         */
+        Entry(BasicFileAttributes attributes) {
+            this.size = attributes.size();
+            this.modified = attributes.lastModifiedTime().toMillis();
+        }
+
+    }
+
+    private Path directory;
+
+    private IgnoreRules ignoreRules;
+
+    private WatchService watcher;
+
+    private Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+
+    private Map<Path, Entry> entries = new HashMap<>();
+
+    private Set<Path> dirty = new HashSet<>();
+
+    private Set<Path> changed = new HashSet<>();
+
+    /**
+     * Starts tracking the given directory with the {@link IgnoreRules#DEFAULT} rules.
+     *
+     * @param directory The submission directory.
+     *
+     * @throws IOException If scanning the directory or registering the {@link WatchService} fails.
+     */
+    public WorkspaceTracker(Path directory) throws IOException {
+        this(directory, IgnoreRules.DEFAULT);
+    }
+
+    /**
+     * Starts tracking the given directory. Scans the directory once, but does not read any file content yet.
+     *
+     * @param directory The submission directory.
+     * @param ignoreRules The rules for files and directories that are not tracked.
+     *
+     * @throws IOException If scanning the directory or registering the {@link WatchService} fails.
+     */
+    public WorkspaceTracker(Path directory, IgnoreRules ignoreRules) throws IOException {
+        this.directory = directory;
+        this.ignoreRules = ignoreRules;
+        this.watcher = directory.getFileSystem().newWatchService();
+        try {
+            scan(Path.of(""), false);
+        } catch (IOException e) {
+            watcher.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the tracked submission directory.
+     *
+     * @return The directory.
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the rules for files and directories that are not tracked.
+     *
+     * @return The ignore rules.
+     */
+    public IgnoreRules getIgnoreRules() {
+        return ignoreRules;
+    }
+
+    /**
+     * Returns the currently tracked files.
+     *
+     * @return The paths of the files relative to the submission directory, sorted.
+     *
+     * @throws IOException If reading the state of a changed file fails.
+     */
+    public synchronized Set<Path> getFiles() throws IOException {
+        update();
+        return Collections.unmodifiableSet(new TreeSet<>(entries.keySet()));
+    }
+
+    /**
+     * Returns the content hashes of all tracked files. Only files that changed since the last call are read.
+     *
+     * @return The hex-encoded SHA-256 hashes of the files, by their path relative to the submission directory.
+     *
+     * @throws IOException If reading a file fails.
+     */
+    public synchronized Map<Path, String> getManifest() throws IOException {
+        update();
+        Map<Path, String> manifest = new TreeMap<>();
+        for (Map.Entry<Path, Entry> entry : entries.entrySet()) {
+            manifest.put(entry.getKey(), getHash(entry.getKey(), entry.getValue()));
+        }
+        return Collections.unmodifiableMap(manifest);
+    }
+
+    /**
+     * Returns the files that were added, removed or changed since the last call of this method, or since this tracker
+     * was created.
+     * <p>
+     * A file whose hash was already computed is only reported if its content actually changed; other files are
+     * reported when they were written to.
+     *
+     * @return The paths of the changed files relative to the submission directory, sorted.
+     *
+     * @throws IOException If reading the state of a changed file fails.
+     */
+    public synchronized Set<Path> pollChanges() throws IOException {
+        update();
+        Set<Path> result = Collections.unmodifiableSet(new TreeSet<>(changed));
+        changed.clear();
+        return result;
+    }
+
+    /**
+     * Scans the complete directory again, e.g. if changes may have been missed.
+     *
+     * @throws IOException If scanning the directory fails.
+     */
+    public synchronized void rescan() throws IOException {
+        dirty.addAll(entries.keySet());
+        scan(Path.of(""), true);
+        refreshDirty();
+    }
+
+    /**
+     * Stops watching the directory.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        watchedDirectories.clear();
+        watcher.close();
+    }
+
+    /**
+     * Computes the content hashes of all files in a directory that are not excluded by the given rules, without
+     * tracking it. The result can be compared to {@link #getManifest()}.
+     *
+     * @param directory The directory, e.g. a replayed version.
+     * @param ignoreRules The rules for files and directories that are not included.
+     *
+     * @return The hex-encoded SHA-256 hashes of the files, by their path relative to the directory.
+     *
+     * @throws IOException If reading the directory or a file fails.
+     */
+    public static Map<Path, String> computeManifest(Path directory, IgnoreRules ignoreRules) throws IOException {
+        Map<Path, String> manifest = new TreeMap<>();
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                return !dir.equals(directory) && ignoreRules.isIgnored(directory.relativize(dir), true)
+                        ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path relative = directory.relativize(file);
+                if (isRegularFile(file, attrs) && !ignoreRules.isIgnored(relative, false)) {
+                    manifest.put(relative, ContentHashes.hash(file));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+        return Collections.unmodifiableMap(manifest);
+    }
+
+    /**
+     * Scans a directory, registers all its non-ignored sub-directories at the {@link #watcher} and adds their files
+     * to the index.
+     *
+     * @param relativeDir The directory relative to the submission directory.
+     * @param report Whether newly found files are added to {@link #changed}.
+     *
+     * @throws IOException If scanning the directory fails.
+     */
+    private void scan(Path relativeDir, boolean report) throws IOException {
+        Files.walkFileTree(directory.resolve(relativeDir), new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Path relative = directory.relativize(dir);
+                FileVisitResult result = FileVisitResult.SKIP_SUBTREE;
+                if (dir.equals(directory) || !ignoreRules.isIgnored(relative, true)) {
+                    watchedDirectories.put(dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY), relative);
+                    result = FileVisitResult.CONTINUE;
+                }
+                return result;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                Path relative = directory.relativize(file);
+                if (isRegularFile(file, attrs) && !ignoreRules.isIgnored(relative, false)
+                        && !entries.containsKey(relative)) {
+                    entries.put(relative, new Entry(attrs));
+                    if (report) {
+                        changed.add(relative);
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+    }
+
+    /**
+     * Processes all pending events of the {@link #watcher} and refreshes the changed files.
+     *
+     * @throws IOException If reading the state of a changed file fails.
+     */
+    private void update() throws IOException {
+        boolean overflow = false;
+        for (WatchKey key = watcher.poll(); key != null; key = watcher.poll()) {
+            Path dir = watchedDirectories.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    overflow = true;
+                } else if (dir != null) {
+                    handleEvent(dir.resolve((Path) event.context()), event.kind());
+                }
+            }
+            if (!key.reset()) {
+                watchedDirectories.remove(key);
+            }
+        }
+
+        if (overflow) {
+            rescan();
+        } else {
+            refreshDirty();
+        }
+    }
+
+    /**
+     * Handles a single event of the {@link #watcher}.
+     *
+     * @param relative The affected path relative to the submission directory.
+     * @param kind The kind of the event.
+     *
+     * @throws IOException If scanning a new directory fails.
+     */
+    private void handleEvent(Path relative, WatchEvent.Kind<?> kind) throws IOException {
+        Path absolute = directory.resolve(relative);
+        if (kind == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(absolute)) {
+            if (!ignoreRules.isIgnored(relative, true)) {
+                // files may have been created before the new directory was registered
+                scan(relative, true);
+            }
+        } else if (kind == StandardWatchEventKinds.ENTRY_DELETE && !entries.containsKey(relative)) {
+            // a directory was deleted; its watch key is cancelled automatically
+            Iterator<Path> iterator = entries.keySet().iterator();
+            while (iterator.hasNext()) {
+                Path path = iterator.next();
+                if (path.startsWith(relative)) {
+                    iterator.remove();
+                    changed.add(path);
+                }
+            }
+        } else if (!ignoreRules.isIgnored(relative, false)) {
+            dirty.add(relative);
+        }
+    }
+
+    /**
+     * Reads the state of all {@link #dirty} files and updates the index.
+     *
+     * @throws IOException If reading the state of a file fails.
+     */
+    private void refreshDirty() throws IOException {
+        for (Path relative : dirty) {
+            Path absolute = directory.resolve(relative);
+            Entry old = entries.remove(relative);
+            if (Files.isRegularFile(absolute)) {
+                Entry entry = new Entry(Files.readAttributes(absolute, BasicFileAttributes.class));
+                if (old != null && entry.size == old.size && entry.modified == old.modified) {
+                    entry.hash = old.hash;
+                } else if (old == null || old.hash == null || entry.size != old.size
+                        || !getHash(relative, entry).equals(old.hash)) {
+                    changed.add(relative);
+                }
+                entries.put(relative, entry);
+
+            } else if (old != null) {
+                changed.add(relative);
+            }
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Returns the hash of a tracked file, computing it if necessary.
+     *
+     * @param relative The path of the file relative to the submission directory.
+     * @param entry The entry of the file.
+     *
+     * @return The hex-encoded SHA-256 hash of the file content.
+     *
+     * @throws IOException If reading the file fails.
+     */
+    private String getHash(Path relative, Entry entry) throws IOException {
+        if (entry.hash == null) {
+            entry.hash = ContentHashes.hash(directory.resolve(relative));
+        }
+        return entry.hash;
+    }
+
+    /**
+     * Checks whether a visited path is a regular file or a symbolic link to one, like
+     * {@link Submitter#listFiles(Path)} does.
+     *
+     * @param file The visited path.
+     * @param attrs The attributes of the path, not following symbolic links.
+     *
+     * @return Whether the path is a regular file.
+     */
+    private static boolean isRegularFile(Path file, BasicFileAttributes attrs) {
+        return attrs.isRegularFile() || attrs.isSymbolicLink() && Files.isRegularFile(file);
+    }
+
+}
@@ -0,0 +1,81 @@
+package net.ssehub.teaching.exercise_submitter.lib.data;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import net.ssehub.teaching.exercise_submitter.lib.submission.LazyProblemList;
+import net.ssehub.teaching.exercise_submitter.lib.submission.Problem;
+import net.ssehub.teaching.exercise_submitter.lib.submission.Problem.Severity;
+
+public class AssessmentTest {
+
+    private static final Problem FIRST = new Problem("checkstyle", "first", Severity.WARNING);
+    
+    private static final Problem SECOND = new Problem("javac", "second", Severity.ERROR);
+    
+    @Nested
+    public class Problems {
+        
+        @Test
+        public void getProblemsUnmodifiable() {
+            Assessment assessment = new Assessment();
+            assessment.addProblem(FIRST);
+            
+            assertThrows(UnsupportedOperationException.class, () -> assessment.getProblems().add(SECOND));
+        }
+        
+        @Test
+        public void addAfterSetImmutableList() {
+            Assessment assessment = new Assessment();
+            assessment.setProblems(List.of(FIRST));
+            
+            assessment.addProblem(SECOND);
+            
+            assertEquals(List.of(FIRST, SECOND), assessment.getProblems());
+        }
+        
+        @Test
+        public void setProblemsCopiesList() {
+            Assessment assessment = new Assessment();
+            List<Problem> problems = new ArrayList<>(List.of(FIRST));
+            assessment.setProblems(problems);
+            
+            problems.add(SECOND);
+            
+            assertEquals(List.of(FIRST), assessment.getProblems());
+        }
+        
+        @Test
+        public void addAfterSetLazyList() {
+            Assessment assessment = new Assessment();
+            assessment.setProblems(new LazyProblemList<>(List.of(FIRST), Problem::getSeverity, problem -> problem));
+            
+            assessment.addProblem(SECOND);
+            
+            assertAll(
+                () -> assertEquals(List.of(FIRST, SECOND), assessment.getProblems()),
+                () -> assertEquals(1, assessment.getErrorCount())
+            );
+        }
+        
+        @Test
+        public void indexUpdatedAfterAdd() {
+            Assessment assessment = new Assessment();
+            assessment.addProblem(FIRST);
+            assertEquals(List.of(), assessment.getProblemIndex().getProblems(Severity.ERROR));
+            
+            assessment.addProblem(SECOND);
+            
+            assertEquals(List.of(SECOND), assessment.getProblemIndex().getProblems(Severity.ERROR));
+        }
+        
+    }
+    
+}
@@ -0,0 +1,79 @@
+package net.ssehub.teaching.exercise_submitter.lib.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import net.ssehub.teaching.exercise_submitter.lib.metrics.InMemoryMetrics;
+
+/**
+ * Drives a number of {@link SimulatedStudent}s concurrently against the configured servers and collects a
+ * {@link LoadTestReport}.
+ * <p>
+ * Each student runs on its own platform thread, as the library targets Java 17 (no virtual threads). The students
+ * start evenly distributed over the ramp-up period of the {@link LoadTestConfig}.
+ */
+public class LoadGenerator {
+
+    private LoadTestConfig config;
+
+    /**
+     * Creates a new load generator.
+     *
+     * @param config The configuration of the run.
+     */
+    public LoadGenerator(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Runs the load test and waits until all students are finished.
+     *
+     * @return The report of the run.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting for the students.
+     */
+    public LoadTestReport run() throws InterruptedException {
+        InMemoryMetrics metrics = new InMemoryMetrics();
+        int students = config.getStudents();
+        long rampUpNanos = config.getRampUp().toNanos();
+
+        ExecutorService threads = Executors.newFixedThreadPool(students, runnable -> {
+            Thread thread = new Thread(runnable, "SimulatedStudent");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        List<Future<Void>> futures = new ArrayList<>(students);
+        try {
+            for (int i = 1; i <= students; i++) {
+                long startAt = start + rampUpNanos * (i - 1) / students;
+                SimulatedStudent student = new SimulatedStudent(i, config, metrics);
+                futures.add(threads.submit(() -> {
+                    TimeUnit.NANOSECONDS.sleep(startAt - System.nanoTime());
+                    return student.call();
+                }));
+            }
+
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    metrics.increment("loadtest.student.errors." + e.getCause().getClass().getSimpleName());
+                }
+            }
+
+        } finally {
+            threads.shutdownNow();
+        }
+
+        return new LoadTestReport(students, Duration.ofNanos(System.nanoTime() - start), metrics);
+    }
+
+}
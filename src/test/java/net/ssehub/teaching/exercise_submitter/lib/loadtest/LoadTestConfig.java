@@ -0,0 +1,193 @@
+package net.ssehub.teaching.exercise_submitter.lib.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Configuration of a load test run. All values can be overridden with system properties, see
+ * {@link #fromSystemProperties()}.
+ */
+public class LoadTestConfig {
+
+    private int students = 500;
+
+    private int iterations = 3;
+
+    private Duration thinkTime = Duration.ofMillis(200);
+
+    private Duration rampUp = Duration.ofSeconds(5);
+
+    private String authUrl = "http://localhost:8000";
+
+    private String mgmtUrl = "http://localhost:3000";
+
+    private String submissionUrl = "http://localhost:8001";
+
+    private String courseId = "java-wise2021";
+
+    private String usernamePattern = "student%d";
+
+    private String password = "123456";
+
+    /**
+     * Creates a configuration from the system properties <code>loadtest.students</code>,
+     * <code>loadtest.iterations</code>, <code>loadtest.thinkTimeMs</code>, <code>loadtest.rampUpMs</code>,
+     * <code>loadtest.authUrl</code>, <code>loadtest.mgmtUrl</code>, <code>loadtest.submissionUrl</code>,
+     * <code>loadtest.course</code>, <code>loadtest.usernamePattern</code> and <code>loadtest.password</code>. Missing
+     * properties keep their default value.
+     *
+     * @return The configuration.
+     */
+    public static LoadTestConfig fromSystemProperties() {
+        LoadTestConfig config = new LoadTestConfig();
+        config.students = Integer.getInteger("loadtest.students", config.students);
+        config.iterations = Integer.getInteger("loadtest.iterations", config.iterations);
+        config.thinkTime = Duration.ofMillis(Long.getLong("loadtest.thinkTimeMs", config.thinkTime.toMillis()));
+        config.rampUp = Duration.ofMillis(Long.getLong("loadtest.rampUpMs", config.rampUp.toMillis()));
+        config.authUrl = System.getProperty("loadtest.authUrl", config.authUrl);
+        config.mgmtUrl = System.getProperty("loadtest.mgmtUrl", config.mgmtUrl);
+        config.submissionUrl = System.getProperty("loadtest.submissionUrl", config.submissionUrl);
+        config.courseId = System.getProperty("loadtest.course", config.courseId);
+        config.usernamePattern = System.getProperty("loadtest.usernamePattern", config.usernamePattern);
+        config.password = System.getProperty("loadtest.password", config.password);
+        return config;
+    }
+
+    /**
+     * Sets the number of simulated students. Each student runs on its own thread.
+     *
+     * @param students The number of students.
+     *
+     * @return This.
+     */
+    public LoadTestConfig withStudents(int students) {
+        this.students = students;
+        return this;
+    }
+
+    /**
+     * Sets how often each student lists the assignments, submits and replays after logging in.
+     *
+     * @param iterations The number of iterations per student.
+     *
+     * @return This.
+     */
+    public LoadTestConfig withIterations(int iterations) {
+        this.iterations = iterations;
+        return this;
+    }
+
+    /**
+     * Sets the pause of a student between two steps.
+     *
+     * @param thinkTime The pause; randomly varied by up to 50%.
+     *
+     * @return This.
+     */
+    public LoadTestConfig withThinkTime(Duration thinkTime) {
+        this.thinkTime = thinkTime;
+        return this;
+    }
+
+    /**
+     * Sets the period in which the students start. The students start evenly distributed within this period.
+     *
+     * @param rampUp The ramp-up period; {@link Duration#ZERO} to start all students at once.
+     *
+     * @return This.
+     */
+    public LoadTestConfig withRampUp(Duration rampUp) {
+        this.rampUp = rampUp;
+        return this;
+    }
+
+    /**
+     * Sets the URLs of the servers to test against.
+     *
+     * @param authUrl The URL of the authentication system.
+     * @param mgmtUrl The URL of the student management system.
+     * @param submissionUrl The URL of the exercise-submitter-server.
+     *
+     * @return This.
+     */
+    public LoadTestConfig withUrls(String authUrl, String mgmtUrl, String submissionUrl) {
+        this.authUrl = authUrl;
+        this.mgmtUrl = mgmtUrl;
+        this.submissionUrl = submissionUrl;
+        return this;
+    }
+
+    /**
+     * Sets the course that the students are enrolled in.
+     *
+     * @param courseId The ID of the course.
+     *
+     * @return This.
+     */
+    public LoadTestConfig withCourse(String courseId) {
+        this.courseId = courseId;
+        return this;
+    }
+
+    /**
+     * Sets the credentials of the students.
+     *
+     * @param usernamePattern The format of the usernames; <code>%d</code> is replaced by the number of the student,
+     *      starting at 1.
+     * @param password The password of all students.
+     *
+     * @return This.
+     */
+    public LoadTestConfig withCredentials(String usernamePattern, String password) {
+        this.usernamePattern = usernamePattern;
+        this.password = password;
+        return this;
+    }
+
+    public int getStudents() {
+        return students;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public Duration getThinkTime() {
+        return thinkTime;
+    }
+
+    public Duration getRampUp() {
+        return rampUp;
+    }
+
+    public String getAuthUrl() {
+        return authUrl;
+    }
+
+    public String getMgmtUrl() {
+        return mgmtUrl;
+    }
+
+    public String getSubmissionUrl() {
+        return submissionUrl;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    /**
+     * Returns the username of the given student.
+     *
+     * @param student The number of the student, starting at 1.
+     *
+     * @return The username.
+     */
+    public String getUsername(int student) {
+        return String.format(usernamePattern, student);
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+}
@@ -0,0 +1,166 @@
+package net.ssehub.teaching.exercise_submitter.lib.loadtest;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import net.ssehub.teaching.exercise_submitter.lib.loadtest.SimulatedStudent.Step;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.InMemoryMetrics;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.LatencyHistogram;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricNames;
+
+/**
+ * The result of a load test run: throughput, latency percentiles and error rate of each {@link Step}, plus the
+ * per-endpoint metrics recorded by the library itself.
+ */
+public class LoadTestReport {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private int students;
+
+    private Duration duration;
+
+    private InMemoryMetrics metrics;
+
+    /**
+     * Creates a new report.
+     *
+     * @param students The number of simulated students.
+     * @param duration The wall-clock duration of the run.
+     * @param metrics The metrics recorded during the run.
+     */
+    LoadTestReport(int students, Duration duration, InMemoryMetrics metrics) {
+        this.students = students;
+        this.duration = duration;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the wall-clock duration of the run.
+     *
+     * @return The duration.
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns all metrics recorded during the run.
+     *
+     * @return The metrics.
+     */
+    public InMemoryMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns how often the given step was attempted.
+     *
+     * @param step The step.
+     *
+     * @return The number of attempts.
+     */
+    public long getAttempts(Step step) {
+        return metrics.getCounter(MetricNames.requests(step.metricName()));
+    }
+
+    /**
+     * Returns how often the given step failed.
+     *
+     * @param step The step.
+     *
+     * @return The number of failures, of all types.
+     */
+    public long getErrors(Step step) {
+        String prefix = MetricNames.errors(step.metricName(), "");
+        return metrics.getCounters().entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    /**
+     * Returns the ratio of failed attempts of the given step.
+     *
+     * @param step The step.
+     *
+     * @return The error rate, between 0 and 1.
+     */
+    public double getErrorRate(Step step) {
+        long attempts = getAttempts(step);
+        return attempts > 0 ? (double) getErrors(step) / attempts : 0;
+    }
+
+    /**
+     * Returns the number of successful executions of the given step per second.
+     *
+     * @param step The step.
+     *
+     * @return The throughput, in executions per second.
+     */
+    public double getThroughput(Step step) {
+        long successful = getAttempts(step) - getErrors(step);
+        return duration.isZero() ? 0 : successful * 1000.0 / duration.toMillis();
+    }
+
+    /**
+     * Returns the latency histogram of the successful executions of the given step.
+     *
+     * @param step The step.
+     *
+     * @return The histogram; {@link Optional#empty()} if the step never succeeded.
+     */
+    public Optional<LatencyHistogram> getLatency(Step step) {
+        return metrics.getLatency(step.metricName());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append(String.format(Locale.ROOT, "Load test with %d students, %.1f s%n",
+                students, duration.toMillis() / 1000.0));
+        result.append(String.format(Locale.ROOT, "%-28s %8s %8s %8s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+
+        for (Step step : Step.values()) {
+            appendLine(result, step.metricName(), getAttempts(step), getErrors(step), getThroughput(step),
+                    getLatency(step));
+        }
+        metrics.getLatencies().forEach((name, histogram) -> {
+            if (!name.startsWith("loadtest.")) {
+                appendLine(result, name, metrics.getCounter(MetricNames.requests(name)), -1, -1,
+                        Optional.of(histogram));
+            }
+        });
+        return result.toString();
+    }
+
+    // checkstyle: stop parameter number check
+
+    /**
+     * Appends a line of the table of {@link #toString()}.
+     *
+     * @param result The builder to append to.
+     * @param name The name of the operation.
+     * @param count The number of executions.
+     * @param errors The number of failures; negative if unknown.
+     * @param throughput The throughput; negative if unknown.
+     * @param latency The latency histogram, if any.
+     */
+    private static void appendLine(StringBuilder result, String name, long count, long errors, double throughput,
+            Optional<LatencyHistogram> latency) {
+        result.append(String.format(Locale.ROOT, "%-28s %8d %8s %8s %9.1f %9.1f %9.1f %9.1f%n",
+                name, count,
+                errors >= 0 ? Long.toString(errors) : "",
+                throughput >= 0 ? String.format(Locale.ROOT, "%.1f", throughput) : "",
+                latency.map(h -> h.getPercentileNanos(0.5)).orElse(0L) / NANOS_PER_MILLI,
+                latency.map(h -> h.getPercentileNanos(0.95)).orElse(0L) / NANOS_PER_MILLI,
+                latency.map(h -> h.getPercentileNanos(0.99)).orElse(0L) / NANOS_PER_MILLI,
+                latency.map(LatencyHistogram::getMaxNanos).orElse(0L) / NANOS_PER_MILLI));
+    }
+
+    // checkstyle: resume parameter number check
+
+}
@@ -0,0 +1,67 @@
+package net.ssehub.teaching.exercise_submitter.lib.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import net.ssehub.teaching.exercise_submitter.lib.loadtest.SimulatedStudent.Step;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.InMemoryMetrics;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricNames;
+
+public class LoadTestReportTest {
+
+    private static InMemoryMetrics createMetrics() {
+        InMemoryMetrics metrics = new InMemoryMetrics();
+        metrics.increment(MetricNames.requests(Step.SUBMIT.metricName()), 10);
+        metrics.increment(MetricNames.errors(Step.SUBMIT.metricName(), "SubmissionException"), 1);
+        metrics.increment(MetricNames.errors(Step.SUBMIT.metricName(), "IllegalArgumentException"), 1);
+        for (int i = 0; i < 8; i++) {
+            metrics.recordLatency(Step.SUBMIT.metricName(), 1_000_000);
+        }
+        metrics.recordLatency("submission.submit", 900_000);
+        return metrics;
+    }
+
+    @Test
+    public void errorsOfAllTypesSummed() {
+        LoadTestReport report = new LoadTestReport(5, Duration.ofSeconds(2), createMetrics());
+
+        assertAll(
+            () -> assertEquals(10, report.getAttempts(Step.SUBMIT)),
+            () -> assertEquals(2, report.getErrors(Step.SUBMIT)),
+            () -> assertEquals(0.2, report.getErrorRate(Step.SUBMIT), 0.0001)
+        );
+    }
+
+    @Test
+    public void throughputCountsSuccessfulExecutions() {
+        LoadTestReport report = new LoadTestReport(5, Duration.ofSeconds(2), createMetrics());
+
+        assertEquals(4.0, report.getThroughput(Step.SUBMIT), 0.0001);
+    }
+
+    @Test
+    public void unusedStepHasNoErrors() {
+        LoadTestReport report = new LoadTestReport(5, Duration.ofSeconds(2), createMetrics());
+
+        assertAll(
+            () -> assertEquals(0, report.getErrorRate(Step.REPLAY)),
+            () -> assertTrue(report.getLatency(Step.REPLAY).isEmpty())
+        );
+    }
+
+    @Test
+    public void toStringContainsStepsAndEndpoints() {
+        String table = new LoadTestReport(5, Duration.ofSeconds(2), createMetrics()).toString();
+
+        assertAll(
+            () -> assertTrue(table.contains("loadtest.submit")),
+            () -> assertTrue(table.contains("submission.submit"))
+        );
+    }
+
+}
@@ -0,0 +1,59 @@
+package net.ssehub.teaching.exercise_submitter.lib.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import net.ssehub.teaching.exercise_submitter.lib.loadtest.SimulatedStudent.Step;
+import net.ssehub.teaching.exercise_submitter.lib.standin.StandInDataset;
+import net.ssehub.teaching.exercise_submitter.lib.standin.StandInServer;
+
+/**
+ * Runs the load test configured by system properties (see {@link LoadTestConfig#fromSystemProperties()}) and prints
+ * the report. Not part of the normal test run; start it with <code>mvn test -P load-test</code>, e.g.:
+ * <pre>
+ * mvn test -P load-test -Dloadtest.students=500 -Dloadtest.mgmtUrl=http://localhost:3000
+ * </pre>
+ * Fails if the error rate of any step exceeds <code>loadtest.maxErrorRate</code> (default 0.01).
+ * <p>
+ * If <code>loadtest.mgmtUrl</code> is not set, the test runs against an in-process {@link StandInServer} instead. Its
+ * latency and error rate are set by <code>loadtest.standin.latencyMs</code>, <code>loadtest.standin.jitterMs</code>
+ * and <code>loadtest.standin.errorRate</code>.
+ */
+public class LoadTestRunner {
+
+    @Test
+    public void run() throws InterruptedException, IOException {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.maxErrorRate", "0.01"));
+
+        LoadTestReport report;
+        if (System.getProperty("loadtest.mgmtUrl") == null) {
+            try (StandInServer server = startStandIn(config)) {
+                config.withUrls(server.getUrl(), server.getUrl(), server.getUrl());
+                report = new LoadGenerator(config).run();
+            }
+        } else {
+            report = new LoadGenerator(config).run();
+        }
+        System.out.println(report);
+
+        for (Step step : Step.values()) {
+            assertTrue(report.getErrorRate(step) <= maxErrorRate, step + " error rate " + report.getErrorRate(step));
+        }
+    }
+
+    private static StandInServer startStandIn(LoadTestConfig config) throws IOException {
+        return new StandInServer()
+                .withDataset(new StandInDataset(config.getCourseId(), config.getStudents(), 5, 2))
+                .withLatency(Duration.ofMillis(Long.getLong("loadtest.standin.latencyMs", 20)),
+                        Duration.ofMillis(Long.getLong("loadtest.standin.jitterMs", 30)))
+                .withErrorRate(Double.parseDouble(System.getProperty("loadtest.standin.errorRate", "0")))
+                .withThreads(Math.max(16, config.getStudents() / 4))
+                .start();
+    }
+
+}
@@ -0,0 +1,190 @@
+package net.ssehub.teaching.exercise_submitter.lib.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+
+import net.ssehub.teaching.exercise_submitter.lib.ExerciseSubmitterFactory;
+import net.ssehub.teaching.exercise_submitter.lib.ExerciseSubmitterManager;
+import net.ssehub.teaching.exercise_submitter.lib.data.Assignment;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricNames;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricsSink;
+import net.ssehub.teaching.exercise_submitter.lib.replay.Replayer;
+import net.ssehub.teaching.exercise_submitter.lib.submission.Submitter;
+
+/**
+ * A single simulated student. Logs in, then repeatedly lists the assignments, submits a small solution to the first
+ * submittable assignment and replays the version history. The duration and failures of each step are recorded in
+ * a {@link MetricsSink}, see {@link Step}.
+ */
+class SimulatedStudent implements Callable<Void> {
+
+    /**
+     * The steps of a simulated student.
+     */
+    enum Step {
+        LOGIN, LIST_ASSIGNMENTS, SUBMIT, LIST_VERSIONS, REPLAY;
+
+        /**
+         * Returns the name under which this step is recorded in the {@link MetricsSink}.
+         *
+         * @return The name of this step.
+         */
+        String metricName() {
+            return "loadtest." + name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * A single step that may fail.
+     */
+    @FunctionalInterface
+    private interface StepAction<T> {
+
+        // checkstyle: stop exception type check
+        T run() throws Exception;
+        // checkstyle: resume exception type check
+
+    }
+
+    private int number;
+
+    private LoadTestConfig config;
+
+    private MetricsSink metrics;
+
+    /**
+     * Creates a new simulated student.
+     *
+     * @param number The number of the student, starting at 1.
+     * @param config The configuration of the load test.
+     * @param metrics The sink to record the steps in. Also used by the library for its own metrics.
+     */
+    SimulatedStudent(int number, LoadTestConfig config, MetricsSink metrics) {
+        this.number = number;
+        this.config = config;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Void call() throws IOException, InterruptedException {
+        Path solution = createSolution();
+        try {
+            ExerciseSubmitterManager manager = step(Step.LOGIN, () -> new ExerciseSubmitterFactory()
+                    .withAuthUrl(config.getAuthUrl())
+                    .withMgmtUrl(config.getMgmtUrl())
+                    .withExerciseSubmitterServerUrl(config.getSubmissionUrl())
+                    .withUsername(config.getUsername(number))
+                    .withPassword(config.getPassword())
+                    .withCourse(config.getCourseId())
+                    .withMetricsSink(metrics)
+                    .build());
+
+            for (int i = 0; manager != null && i < config.getIterations(); i++) {
+                thinkTime();
+                runIteration(manager, solution);
+            }
+
+        } finally {
+            Files.deleteIfExists(solution.resolve("Main.java"));
+            Files.deleteIfExists(solution);
+        }
+        return null;
+    }
+
+    /**
+     * Runs a single iteration: list assignments, submit, list versions and replay the latest version.
+     *
+     * @param manager The manager of the logged-in student.
+     * @param solution The directory with the solution to submit.
+     *
+     * @throws InterruptedException If the thread is interrupted while thinking.
+     */
+    private void runIteration(ExerciseSubmitterManager manager, Path solution) throws InterruptedException {
+        List<Assignment> assignments = step(Step.LIST_ASSIGNMENTS, manager::getAllSubmittableAssignments);
+        if (assignments != null && !assignments.isEmpty()) {
+            Assignment assignment = assignments.get(0);
+
+            thinkTime();
+            step(Step.SUBMIT, () -> {
+                Submitter submitter = manager.getSubmitter(assignment);
+                return submitter.submit(solution.toFile());
+            });
+
+            thinkTime();
+            Replayer replayer = step(Step.LIST_VERSIONS, () -> {
+                Replayer result = manager.getReplayer(assignment);
+                result.getVersions();
+                return result;
+            });
+            if (replayer != null) {
+                step(Step.REPLAY, () -> {
+                    File latest = replayer.replayLatest();
+                    replayer.close();
+                    return latest;
+                });
+            }
+        }
+    }
+
+    /**
+     * Runs a single step and records its duration, or its failure.
+     *
+     * @param <T> The result type of the step.
+     * @param step The step.
+     * @param action The action of the step.
+     *
+     * @return The result of the step; <code>null</code> if it failed.
+     */
+    private <T> T step(Step step, StepAction<T> action) {
+        T result = null;
+        long start = System.nanoTime();
+        try {
+            metrics.increment(MetricNames.requests(step.metricName()));
+            result = action.run();
+            metrics.recordLatency(step.metricName(), System.nanoTime() - start);
+
+        // checkstyle: stop exception type check
+        } catch (Exception e) {
+        // checkstyle: resume exception type check
+            metrics.increment(MetricNames.errors(step.metricName(), e.getClass().getSimpleName()));
+        }
+        return result;
+    }
+
+    /**
+     * Pauses for a random time around the configured think time.
+     *
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    private void thinkTime() throws InterruptedException {
+        long millis = config.getThinkTime().toMillis();
+        if (millis > 0) {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(millis / 2, millis + millis / 2 + 1));
+        }
+    }
+
+    /**
+     * Creates a temporary directory with a small solution.
+     *
+     * @return The directory.
+     *
+     * @throws IOException If creating the directory fails.
+     */
+    private Path createSolution() throws IOException {
+        Path directory = Files.createTempDirectory("loadtest_student" + number);
+        Files.writeString(directory.resolve("Main.java"), "public class Main {\n"
+                + "    public static void main(String[] args) {\n"
+                + "        System.out.println(\"Hello from student " + number + "\");\n"
+                + "    }\n"
+                + "}\n", StandardCharsets.UTF_8);
+        return directory;
+    }
+
+}
@@ -0,0 +1,79 @@
+package net.ssehub.teaching.exercise_submitter.lib.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class InMemoryMetricsTest {
+
+    @Test
+    public void unknownCounterIsZero() {
+        InMemoryMetrics metrics = new InMemoryMetrics();
+
+        assertEquals(0, metrics.getCounter("unknown"));
+    }
+
+    @Test
+    public void countersAccumulate() {
+        InMemoryMetrics metrics = new InMemoryMetrics();
+        metrics.increment("bytes", 100);
+        metrics.increment("bytes", 20);
+        metrics.increment("requests");
+
+        assertAll(
+            () -> assertEquals(120, metrics.getCounter("bytes")),
+            () -> assertEquals(Map.of("bytes", 120L, "requests", 1L), metrics.getCounters())
+        );
+    }
+
+    @Test
+    public void latenciesPerOperation() {
+        InMemoryMetrics metrics = new InMemoryMetrics();
+        metrics.recordLatency("a", 10);
+        metrics.recordLatency("a", 20);
+        metrics.recordLatency("b", 30);
+
+        assertAll(
+            () -> assertEquals(2, metrics.getLatency("a").get().getCount()),
+            () -> assertEquals(1, metrics.getLatency("b").get().getCount()),
+            () -> assertFalse(metrics.getLatency("c").isPresent()),
+            () -> assertEquals(2, metrics.getLatencies().size())
+        );
+    }
+
+    @Test
+    public void cacheHitRatio() {
+        InMemoryMetrics metrics = new InMemoryMetrics();
+        metrics.increment(MetricNames.cacheHits("cache"), 3);
+        metrics.increment(MetricNames.cacheMisses("cache"));
+
+        assertEquals(0.75, metrics.getCacheHitRatio("cache").getAsDouble());
+    }
+
+    @Test
+    public void unusedCacheHasNoHitRatio() {
+        InMemoryMetrics metrics = new InMemoryMetrics();
+
+        assertFalse(metrics.getCacheHitRatio("cache").isPresent());
+    }
+
+    @Test
+    public void resetRemovesEverything() {
+        InMemoryMetrics metrics = new InMemoryMetrics();
+        metrics.increment("counter");
+        metrics.recordLatency("operation", 10);
+
+        metrics.reset();
+
+        assertAll(
+            () -> assertTrue(metrics.getCounters().isEmpty()),
+            () -> assertTrue(metrics.getLatencies().isEmpty())
+        );
+    }
+
+}
@@ -0,0 +1,83 @@
+package net.ssehub.teaching.exercise_submitter.lib.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void emptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertAll(
+            () -> assertEquals(0, histogram.getCount()),
+            () -> assertEquals(0, histogram.getMeanNanos()),
+            () -> assertEquals(0, histogram.getMaxNanos()),
+            () -> assertEquals(0, histogram.getPercentileNanos(0.99))
+        );
+    }
+
+    @Test
+    public void countTotalMeanAndMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100);
+        histogram.record(300);
+
+        assertAll(
+            () -> assertEquals(2, histogram.getCount()),
+            () -> assertEquals(400, histogram.getTotalNanos()),
+            () -> assertEquals(200, histogram.getMeanNanos()),
+            () -> assertEquals(300, histogram.getMaxNanos())
+        );
+    }
+
+    @Test
+    public void negativeDurationRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+
+        assertAll(
+            () -> assertEquals(1, histogram.getCount()),
+            () -> assertEquals(0, histogram.getTotalNanos())
+        );
+    }
+
+    @Test
+    public void percentileWithinFactorTwo() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        long p50 = histogram.getPercentileNanos(0.5);
+        long p99 = histogram.getPercentileNanos(0.99);
+
+        assertAll(
+            () -> assertTrue(p50 >= 50_000 && p50 < 100_000, "p50 is " + p50),
+            () -> assertTrue(p99 >= 99_000 && p99 <= 100_000, "p99 is " + p99)
+        );
+    }
+
+    @Test
+    public void percentileNotAboveMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1025);
+
+        assertEquals(1025, histogram.getPercentileNanos(1));
+    }
+
+    @Test
+    public void invalidPercentileThrows() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertAll(
+            () -> assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileNanos(-0.1)),
+            () -> assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileNanos(1.5))
+        );
+    }
+
+}
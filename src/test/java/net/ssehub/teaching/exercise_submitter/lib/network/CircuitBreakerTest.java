@@ -0,0 +1,113 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import net.ssehub.teaching.exercise_submitter.lib.network.CircuitBreaker.State;
+
+public class CircuitBreakerTest {
+
+    private AtomicLong time = new AtomicLong();
+
+    private CircuitBreaker createBreaker(int threshold) {
+        return new CircuitBreaker(threshold, Duration.ofNanos(100), time::get);
+    }
+
+    @Test
+    public void initiallyClosed() {
+        CircuitBreaker breaker = createBreaker(2);
+
+        assertAll(
+            () -> assertEquals(State.CLOSED, breaker.getState()),
+            () -> assertTrue(breaker.tryAcquire())
+        );
+    }
+
+    @Test
+    public void opensAfterThreshold() {
+        CircuitBreaker breaker = createBreaker(2);
+
+        breaker.tryAcquire();
+        breaker.onFailure();
+        assertEquals(State.CLOSED, breaker.getState());
+
+        breaker.tryAcquire();
+        breaker.onFailure();
+        assertAll(
+            () -> assertEquals(State.OPEN, breaker.getState()),
+            () -> assertFalse(breaker.tryAcquire())
+        );
+    }
+
+    @Test
+    public void successResetsFailureCount() {
+        CircuitBreaker breaker = createBreaker(2);
+
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void halfOpenAllowsSingleTrial() {
+        CircuitBreaker breaker = createBreaker(1);
+        breaker.onFailure();
+
+        time.addAndGet(100);
+
+        assertAll(
+            () -> assertTrue(breaker.tryAcquire()),
+            () -> assertEquals(State.HALF_OPEN, breaker.getState()),
+            () -> assertFalse(breaker.tryAcquire())
+        );
+    }
+
+    @Test
+    public void successfulTrialCloses() {
+        CircuitBreaker breaker = createBreaker(1);
+        breaker.onFailure();
+        time.addAndGet(100);
+
+        breaker.tryAcquire();
+        breaker.onSuccess();
+
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void failedTrialOpensAgain() {
+        CircuitBreaker breaker = createBreaker(3);
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onFailure();
+        time.addAndGet(100);
+
+        breaker.tryAcquire();
+        breaker.onFailure();
+
+        assertAll(
+            () -> assertEquals(State.OPEN, breaker.getState()),
+            () -> assertFalse(breaker.tryAcquire())
+        );
+    }
+
+    @Test
+    public void thresholdZeroNeverOpens() {
+        CircuitBreaker breaker = createBreaker(0);
+        for (int i = 0; i < 10; i++) {
+            breaker.onFailure();
+        }
+
+        assertTrue(breaker.tryAcquire());
+    }
+
+}
@@ -0,0 +1,312 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import net.ssehub.teaching.exercise_submitter.lib.metrics.InMemoryMetrics;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricNames;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricsSink;
+
+public class HedgerTest {
+
+    private static final ApiExceptionAdapter<IOException> ADAPTER = new ApiExceptionAdapter<>(
+            IOException.class, e -> 0, e -> e);
+
+    private InMemoryMetrics metrics = new InMemoryMetrics();
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("interrupted");
+        }
+    }
+
+    @Nested
+    public class Construction {
+
+        @Test
+        public void invalidBudgetThrows() {
+            assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> new Hedger(Duration.ofMillis(10), 0)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new Hedger(Duration.ofMillis(10), 1.5))
+            );
+        }
+
+        @Test
+        public void invalidPercentileThrows() {
+            assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> new Hedger(0, 0.1)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new Hedger(1, 0.1))
+            );
+        }
+
+        @Test
+        public void negativeDelayThrows() {
+            assertThrows(IllegalArgumentException.class, () -> new Hedger(Duration.ofMillis(-1), 0.1));
+        }
+
+    }
+
+    @Nested
+    public class Execute {
+
+        @Test
+        public void fastCallNotHedged() throws IOException {
+            Hedger hedger = new Hedger(Duration.ofSeconds(1), 1);
+            AtomicInteger calls = new AtomicInteger();
+
+            String result = hedger.execute(() -> "call " + calls.incrementAndGet(), ADAPTER, metrics);
+
+            assertAll(
+                () -> assertEquals("call 1", result),
+                () -> assertEquals(1, calls.get()),
+                () -> assertEquals(0, metrics.getCounter(MetricNames.HEDGES_SENT))
+            );
+        }
+
+        @Test
+        public void slowCallHedgedAndCancelled() throws IOException, InterruptedException {
+            Hedger hedger = new Hedger(Duration.ofMillis(20), 1);
+            AtomicInteger calls = new AtomicInteger();
+            CountDownLatch primaryCancelled = new CountDownLatch(1);
+
+            long start = System.nanoTime();
+            String result = hedger.execute(() -> {
+                String value;
+                if (calls.incrementAndGet() == 1) {
+                    try {
+                        sleep(5000);
+                    } catch (InterruptedIOException e) {
+                        primaryCancelled.countDown();
+                        throw e;
+                    }
+                    value = "primary";
+                } else {
+                    value = "hedge";
+                }
+                return value;
+            }, ADAPTER, metrics);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertAll(
+                () -> assertEquals("hedge", result),
+                () -> assertTrue(elapsedMillis < 2000, "took " + elapsedMillis + " ms"),
+                () -> assertEquals(1, metrics.getCounter(MetricNames.HEDGES_SENT)),
+                () -> assertEquals(1, metrics.getCounter(MetricNames.HEDGES_WON)),
+                () -> assertTrue(primaryCancelled.await(5, TimeUnit.SECONDS))
+            );
+        }
+
+        @Test
+        public void primaryFinishingFirstWins() throws IOException {
+            Hedger hedger = new Hedger(Duration.ofMillis(10), 1);
+            AtomicInteger calls = new AtomicInteger();
+
+            String result = hedger.execute(() -> {
+                String value;
+                if (calls.incrementAndGet() == 1) {
+                    sleep(50);
+                    value = "primary";
+                } else {
+                    sleep(5000);
+                    value = "hedge";
+                }
+                return value;
+            }, ADAPTER, metrics);
+
+            assertAll(
+                () -> assertEquals("primary", result),
+                () -> assertEquals(1, metrics.getCounter(MetricNames.HEDGES_SENT)),
+                () -> assertEquals(0, metrics.getCounter(MetricNames.HEDGES_WON))
+            );
+        }
+
+        @Test
+        public void failedPrimaryWaitsForHedge() throws IOException {
+            Hedger hedger = new Hedger(Duration.ofMillis(10), 1);
+            AtomicInteger calls = new AtomicInteger();
+
+            String result = hedger.execute(() -> {
+                if (calls.incrementAndGet() == 1) {
+                    sleep(50);
+                    throw new IOException("primary failed");
+                }
+                sleep(100);
+                return "hedge";
+            }, ADAPTER, metrics);
+
+            assertEquals("hedge", result);
+        }
+
+        @Test
+        public void allFailedThrows() {
+            Hedger hedger = new Hedger(Duration.ofMillis(10), 1);
+
+            IOException e = assertThrows(IOException.class, () -> hedger.execute(() -> {
+                sleep(50);
+                throw new IOException("failed");
+            }, ADAPTER, metrics));
+
+            assertAll(
+                () -> assertEquals("failed", e.getMessage()),
+                () -> assertEquals(1, metrics.getCounter(MetricNames.HEDGES_SENT))
+            );
+        }
+
+        @Test
+        public void closeCancelsRunningCalls() throws InterruptedException {
+            Hedger hedger = new Hedger(Duration.ofSeconds(10), 1);
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch cancelled = new CountDownLatch(1);
+            Thread caller = new Thread(() -> {
+                try {
+                    hedger.execute(() -> {
+                        started.countDown();
+                        try {
+                            sleep(10000);
+                        } catch (InterruptedIOException e) {
+                            cancelled.countDown();
+                            throw e;
+                        }
+                        return "finished";
+                    }, ADAPTER, metrics);
+                } catch (IOException e) {
+                    // expected, as the call is cancelled
+                }
+            });
+            caller.start();
+
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            hedger.close();
+
+            assertAll(
+                () -> assertTrue(cancelled.await(5, TimeUnit.SECONDS)),
+                () -> assertThrows(RejectedExecutionException.class,
+                    () -> hedger.execute(() -> "call", ADAPTER, metrics))
+            );
+            caller.join(5000);
+        }
+
+        @Test
+        public void uncheckedExceptionRethrown() {
+            Hedger hedger = new Hedger(Duration.ofSeconds(1), 1);
+
+            assertThrows(IllegalStateException.class, () -> hedger.execute(() -> {
+                throw new IllegalStateException();
+            }, ADAPTER, metrics));
+        }
+
+    }
+
+    @Nested
+    public class WithRequestExecutor {
+
+        @Test
+        public void wonHedgesDoNotOpenCircuitBreaker() throws IOException, InterruptedException {
+            Hedger hedger = new Hedger(Duration.ofMillis(5), 1);
+            RequestExecutor executor = new RequestExecutor(new ResiliencePolicy().withCircuitBreakerThreshold(2))
+                    .withMetricsSink(metrics);
+            AtomicInteger calls = new AtomicInteger();
+            CountDownLatch primariesCancelled = new CountDownLatch(10);
+            // the first call initializes classes; if it is slower than the delay, the hedge draws the odd call number
+            hedger.execute(() -> executor.execute("warm-up", true, () -> "warm", ADAPTER), ADAPTER, MetricsSink.NONE);
+
+            for (int i = 0; i < 10; i++) {
+                hedger.execute(() -> executor.execute("test", true, () -> {
+                    String value = "hedge";
+                    if (calls.incrementAndGet() % 2 == 1) {
+                        try {
+                            sleep(5000);
+                        } finally {
+                            primariesCancelled.countDown();
+                        }
+                        value = "primary";
+                    }
+                    return value;
+                }, ADAPTER), ADAPTER, metrics);
+            }
+            assertTrue(primariesCancelled.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100); // let the executor handle the cancelled primaries
+
+            assertAll(
+                () -> assertEquals(10, metrics.getCounter(MetricNames.HEDGES_WON)),
+                () -> assertEquals(20, metrics.getCounter(MetricNames.requests("test"))),
+                () -> assertEquals(CircuitBreaker.State.CLOSED, executor.getCircuitBreaker("test").getState()),
+                () -> assertEquals(0, metrics.getCounter(MetricNames.errors("test", "InterruptedIOException")))
+            );
+        }
+
+    }
+
+    @Nested
+    public class Budget {
+
+        @Test
+        public void hedgesLimitedByBudget() throws IOException {
+            Hedger hedger = new Hedger(Duration.ofMillis(1), 0.25);
+
+            for (int i = 0; i < 8; i++) {
+                hedger.execute(() -> {
+                    sleep(20);
+                    return "slow";
+                }, ADAPTER, metrics);
+            }
+
+            assertEquals(2, metrics.getCounter(MetricNames.HEDGES_SENT));
+        }
+
+    }
+
+    @Nested
+    public class AdaptiveDelay {
+
+        @Test
+        public void noDelayBeforeMinSamples() throws IOException {
+            Hedger hedger = new Hedger(0.95, 1);
+
+            for (int i = 0; i < Hedger.MIN_SAMPLES - 1; i++) {
+                hedger.execute(() -> "fast", ADAPTER, metrics);
+            }
+
+            assertAll(
+                () -> assertEquals(Optional.empty(), hedger.getDelay()),
+                () -> assertEquals(0, metrics.getCounter(MetricNames.HEDGES_SENT))
+            );
+        }
+
+        @Test
+        public void delayFromObservedLatencies() throws IOException {
+            Hedger hedger = new Hedger(0.95, 1);
+
+            for (int i = 0; i < Hedger.MIN_SAMPLES; i++) {
+                hedger.execute(() -> {
+                    sleep(2);
+                    return "result";
+                }, ADAPTER, metrics);
+            }
+
+            Duration delay = hedger.getDelay().get();
+            assertAll(
+                () -> assertTrue(delay.toMillis() >= 1, delay.toString()),
+                () -> assertTrue(delay.toMillis() < 1000, delay.toString())
+            );
+        }
+
+    }
+
+}
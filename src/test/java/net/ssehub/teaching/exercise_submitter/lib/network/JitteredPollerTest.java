@@ -0,0 +1,58 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class JitteredPollerTest {
+
+    @Test
+    public void delayWithinJitterBounds() {
+        Random random = new Random(123);
+        for (int i = 0; i < 1000; i++) {
+            long delay = JitteredPoller.nextDelay(1000, 0.2, random);
+            assertTrue(delay >= 800 && delay <= 1200, "delay " + delay + " out of bounds");
+        }
+    }
+
+    @Test
+    public void delaysAreNotSynchronized() {
+        Random random = new Random(123);
+        Set<Long> delays = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            delays.add(JitteredPoller.nextDelay(1_000_000_000, 0.2, random));
+        }
+        assertNotEquals(1, delays.size());
+    }
+
+    @Test
+    public void taskRunsRepeatedly() {
+        CountDownLatch runs = new CountDownLatch(3);
+
+        try (JitteredPoller poller = new JitteredPoller(Duration.ofMillis(10), 0.5, runs::countDown)) {
+            assertTrue(assertDoesNotThrow(() -> runs.await(5, TimeUnit.SECONDS)));
+        }
+    }
+
+    @Test
+    public void invalidArgumentsThrow() {
+        assertAll(
+            () -> assertThrows(IllegalArgumentException.class,
+                () -> new JitteredPoller(Duration.ZERO, 0.2, () -> { })),
+            () -> assertThrows(IllegalArgumentException.class,
+                () -> new JitteredPoller(Duration.ofSeconds(1), 1.5, () -> { }))
+        );
+    }
+
+}
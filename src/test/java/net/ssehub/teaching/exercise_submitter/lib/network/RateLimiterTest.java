@@ -0,0 +1,84 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private AtomicLong time = new AtomicLong(42 * SECOND);
+
+    @Test
+    public void burstAvailableImmediately() {
+        RateLimiter limiter = new RateLimiter(1, 3, time::get);
+
+        assertAll(
+            () -> assertEquals(0, limiter.reserve()),
+            () -> assertEquals(0, limiter.reserve()),
+            () -> assertEquals(0, limiter.reserve())
+        );
+    }
+
+    @Test
+    public void emptyBucketWaits() {
+        RateLimiter limiter = new RateLimiter(2, 1, time::get);
+
+        limiter.reserve();
+
+        assertEquals(SECOND / 2, limiter.reserve());
+    }
+
+    @Test
+    public void waitingRequestsQueueUp() {
+        RateLimiter limiter = new RateLimiter(1, 1, time::get);
+
+        limiter.reserve();
+
+        assertAll(
+            () -> assertEquals(SECOND, limiter.reserve()),
+            () -> assertEquals(2 * SECOND, limiter.reserve())
+        );
+    }
+
+    @Test
+    public void bucketRefillsOverTime() {
+        RateLimiter limiter = new RateLimiter(1, 2, time::get);
+        limiter.reserve();
+        limiter.reserve();
+
+        time.addAndGet(SECOND);
+
+        assertAll(
+            () -> assertEquals(0, limiter.reserve()),
+            () -> assertEquals(SECOND, limiter.reserve())
+        );
+    }
+
+    @Test
+    public void idleTimeDoesNotExceedBurst() {
+        RateLimiter limiter = new RateLimiter(1, 2, time::get);
+
+        time.addAndGet(100 * SECOND);
+
+        assertAll(
+            () -> assertEquals(0, limiter.reserve()),
+            () -> assertEquals(0, limiter.reserve()),
+            () -> assertEquals(SECOND, limiter.reserve())
+        );
+    }
+
+    @Test
+    public void invalidArgumentsThrow() {
+        assertAll(
+            () -> assertThrows(IllegalArgumentException.class, () -> new RateLimiter(0, 1)),
+            () -> assertThrows(IllegalArgumentException.class, () -> new RateLimiter(1, 0))
+        );
+    }
+
+}
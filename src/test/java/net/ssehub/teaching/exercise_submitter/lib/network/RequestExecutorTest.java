@@ -0,0 +1,532 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.InMemoryMetrics;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricNames;
+
+public class RequestExecutorTest {
+
+    static class TestApiException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private int code;
+
+        public TestApiException(int code) {
+            this.code = code;
+        }
+
+        public TestApiException(Throwable cause) {
+            super(cause);
+        }
+
+        public int getCode() {
+            return code;
+        }
+
+    }
+
+    static final ApiExceptionAdapter<TestApiException> ADAPTER = new ApiExceptionAdapter<>(
+            TestApiException.class, TestApiException::getCode, TestApiException::new);
+
+    private static ResiliencePolicy fastPolicy() {
+        return new ResiliencePolicy()
+                .withInitialBackoff(Duration.ofMillis(1))
+                .withMaxBackoff(Duration.ofMillis(2));
+    }
+
+    @Nested
+    public class Execute {
+
+        @Test
+        public void successReturnsResult() {
+            RequestExecutor executor = new RequestExecutor(fastPolicy());
+
+            String result = assertDoesNotThrow(() -> executor.execute("test", true, () -> "result", ADAPTER));
+
+            assertEquals("result", result);
+        }
+
+        @Test
+        public void transientFailureRetried() {
+            RequestExecutor executor = new RequestExecutor(fastPolicy().withMaxAttempts(3));
+            AtomicInteger calls = new AtomicInteger();
+
+            String result = assertDoesNotThrow(() -> executor.execute("test", true, () -> {
+                if (calls.incrementAndGet() < 3) {
+                    throw new TestApiException(503);
+                }
+                return "result";
+            }, ADAPTER));
+
+            assertAll(
+                () -> assertEquals("result", result),
+                () -> assertEquals(3, calls.get())
+            );
+        }
+
+        @Test
+        public void givesUpAfterMaxAttempts() {
+            RequestExecutor executor = new RequestExecutor(fastPolicy().withMaxAttempts(2));
+            AtomicInteger calls = new AtomicInteger();
+            TestApiException exception = new TestApiException(502);
+
+            TestApiException thrown = assertThrows(TestApiException.class, () -> executor.execute("test", true, () -> {
+                calls.incrementAndGet();
+                throw exception;
+            }, ADAPTER));
+
+            assertAll(
+                () -> assertSame(exception, thrown),
+                () -> assertEquals(2, calls.get())
+            );
+        }
+
+        @Test
+        public void clientErrorNotRetried() {
+            RequestExecutor executor = new RequestExecutor(fastPolicy());
+            AtomicInteger calls = new AtomicInteger();
+
+            assertThrows(TestApiException.class, () -> executor.execute("test", true, () -> {
+                calls.incrementAndGet();
+                throw new TestApiException(404);
+            }, ADAPTER));
+
+            assertEquals(1, calls.get());
+        }
+
+        @Test
+        public void deadlineStopsRetries() {
+            RequestExecutor executor = new RequestExecutor(new ResiliencePolicy()
+                    .withMaxAttempts(100)
+                    .withInitialBackoff(Duration.ofMillis(20))
+                    .withMaxBackoff(Duration.ofMillis(20))
+                    .withDeadline(Duration.ofMillis(100)));
+            AtomicInteger calls = new AtomicInteger();
+
+            assertThrows(TestApiException.class, () -> executor.execute("test", true, () -> {
+                calls.incrementAndGet();
+                throw new TestApiException(503);
+            }, ADAPTER));
+
+            assertTrue(calls.get() < 100);
+        }
+
+        @Test
+        public void runtimeExceptionPassedThrough() {
+            RequestExecutor executor = new RequestExecutor(fastPolicy());
+            AtomicInteger calls = new AtomicInteger();
+
+            assertThrows(IllegalStateException.class, () -> executor.execute("test", true, () -> {
+                calls.incrementAndGet();
+                throw new IllegalStateException();
+            }, ADAPTER));
+
+            assertEquals(1, calls.get());
+        }
+
+        @Test
+        public void runtimeExceptionDoesNotResetCircuitBreaker() {
+            RequestExecutor executor = new RequestExecutor(fastPolicy()
+                    .withMaxAttempts(1)
+                    .withCircuitBreakerThreshold(2));
+
+            assertThrows(TestApiException.class, () -> executor.execute("test", true, () -> {
+                throw new TestApiException(503);
+            }, ADAPTER));
+            assertThrows(IllegalStateException.class, () -> executor.execute("test", true, () -> {
+                throw new IllegalStateException("garbled response");
+            }, ADAPTER));
+            assertThrows(TestApiException.class, () -> executor.execute("test", true, () -> {
+                throw new TestApiException(503);
+            }, ADAPTER));
+
+            assertEquals(CircuitBreaker.State.OPEN, executor.getCircuitBreaker("test").getState());
+        }
+
+        @Test
+        public void openCircuitRejectsWithoutCalling() {
+            RequestExecutor executor = new RequestExecutor(fastPolicy()
+                    .withMaxAttempts(1)
+                    .withCircuitBreakerThreshold(2));
+            AtomicInteger calls = new AtomicInteger();
+
+            for (int i = 0; i < 2; i++) {
+                assertThrows(TestApiException.class, () -> executor.execute("test", true, () -> {
+                    calls.incrementAndGet();
+                    throw new TestApiException(new IOException("connection reset"));
+                }, ADAPTER));
+            }
+
+            TestApiException thrown = assertThrows(TestApiException.class,
+                () -> executor.execute("test", true, () -> calls.incrementAndGet(), ADAPTER));
+
+            assertAll(
+                () -> assertTrue(thrown.getCause() instanceof CircuitOpenException),
+                () -> assertEquals(2, calls.get())
+            );
+        }
+
+        @Test
+        public void circuitBreakersArePerEndpoint() {
+            RequestExecutor executor = new RequestExecutor(fastPolicy()
+                    .withMaxAttempts(1)
+                    .withCircuitBreakerThreshold(1));
+
+            assertThrows(TestApiException.class, () -> executor.execute("failing", true, () -> {
+                throw new TestApiException(500);
+            }, ADAPTER));
+
+            assertEquals("ok", assertDoesNotThrow(() -> executor.execute("other", true, () -> "ok", ADAPTER)));
+        }
+
+    }
+
+    @Nested
+    public class Metrics {
+
+        @Test
+        public void successRecordsRequestAndLatency() {
+            InMemoryMetrics metrics = new InMemoryMetrics();
+            RequestExecutor executor = new RequestExecutor(fastPolicy()).withMetricsSink(metrics);
+
+            assertDoesNotThrow(() -> executor.execute("test", true, () -> "result", ADAPTER));
+
+            assertAll(
+                () -> assertEquals(1, metrics.getCounter(MetricNames.requests("test"))),
+                () -> assertEquals(1, metrics.getLatency("test").get().getCount()),
+                () -> assertEquals(1, metrics.getCounters().size())
+            );
+        }
+
+        @Test
+        public void retriesCountedAsRequestsAndErrorsByType() {
+            InMemoryMetrics metrics = new InMemoryMetrics();
+            RequestExecutor executor = new RequestExecutor(fastPolicy().withMaxAttempts(3)).withMetricsSink(metrics);
+            AtomicInteger calls = new AtomicInteger();
+
+            assertDoesNotThrow(() -> executor.execute("test", true, () -> {
+                int call = calls.incrementAndGet();
+                if (call == 1) {
+                    throw new TestApiException(503);
+                } else if (call == 2) {
+                    throw new TestApiException(new SocketTimeoutException());
+                }
+                return "result";
+            }, ADAPTER));
+
+            assertAll(
+                () -> assertEquals(3, metrics.getCounter(MetricNames.requests("test"))),
+                () -> assertEquals(1, metrics.getCounter(MetricNames.errors("test", "http503"))),
+                () -> assertEquals(1, metrics.getCounter(MetricNames.errors("test", "SocketTimeoutException"))),
+                () -> assertEquals(1, metrics.getLatency("test").get().getCount())
+            );
+        }
+
+        @Test
+        public void failureRecordsLatency() {
+            InMemoryMetrics metrics = new InMemoryMetrics();
+            RequestExecutor executor = new RequestExecutor(fastPolicy()).withMetricsSink(metrics);
+
+            assertThrows(TestApiException.class, () -> executor.execute("test", true, () -> {
+                throw new TestApiException(404);
+            }, ADAPTER));
+
+            assertAll(
+                () -> assertEquals(1, metrics.getCounter(MetricNames.errors("test", "http404"))),
+                () -> assertEquals(1, metrics.getLatency("test").get().getCount())
+            );
+        }
+
+        @Test
+        public void openCircuitCountedAsError() {
+            InMemoryMetrics metrics = new InMemoryMetrics();
+            RequestExecutor executor = new RequestExecutor(fastPolicy()
+                    .withMaxAttempts(1)
+                    .withCircuitBreakerThreshold(1))
+                    .withMetricsSink(metrics);
+
+            assertThrows(TestApiException.class, () -> executor.execute("test", true, () -> {
+                throw new TestApiException(500);
+            }, ADAPTER));
+            assertThrows(TestApiException.class, () -> executor.execute("test", true, () -> "result", ADAPTER));
+
+            assertAll(
+                () -> assertEquals(1, metrics.getCounter(MetricNames.requests("test"))),
+                () -> assertEquals(1, metrics.getCounter(MetricNames.errors("test", "CircuitOpenException")))
+            );
+        }
+
+    }
+
+    @Nested
+    public class FlightRecorder {
+
+        private List<RecordedEvent> record(Runnable action) throws IOException {
+            Path file = Files.createTempFile("RequestExecutorTest", ".jfr");
+            try (Recording recording = new Recording()) {
+                recording.enable("net.ssehub.teaching.exercise_submitter.ApiCall");
+                recording.start();
+                action.run();
+                recording.stop();
+                recording.dump(file);
+
+                return RecordingFile.readAllEvents(file).stream()
+                        .filter(e -> e.getEventType().getName().equals(
+                                "net.ssehub.teaching.exercise_submitter.ApiCall"))
+                        .collect(Collectors.toList());
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        @Test
+        public void callRecordedWithContext() throws IOException {
+            RequestExecutor executor = new RequestExecutor(fastPolicy());
+            AtomicInteger calls = new AtomicInteger();
+
+            List<RecordedEvent> events = record(() -> assertDoesNotThrow(() -> executor.execute("test",
+                    "java-wise2021", "Homework01", true, () -> {
+                        if (calls.incrementAndGet() < 2) {
+                            throw new TestApiException(503);
+                        }
+                        return "result";
+                    }, ADAPTER)));
+
+            assertEquals(1, events.size());
+            RecordedEvent event = events.get(0);
+            assertAll(
+                () -> assertEquals("test", event.getString("endpoint")),
+                () -> assertEquals("java-wise2021", event.getString("course")),
+                () -> assertEquals("Homework01", event.getString("assignment")),
+                () -> assertEquals(2, event.getInt("attempts")),
+                () -> assertEquals(0, event.getInt("statusCode"))
+            );
+        }
+
+        @Test
+        public void failureRecorded() throws IOException {
+            RequestExecutor executor = new RequestExecutor(fastPolicy());
+
+            List<RecordedEvent> events = record(() -> assertThrows(TestApiException.class,
+                () -> executor.execute("test", false, () -> {
+                    throw new TestApiException(404);
+                }, ADAPTER)));
+
+            assertEquals(1, events.size());
+            RecordedEvent event = events.get(0);
+            assertAll(
+                () -> assertEquals(404, event.getInt("statusCode")),
+                () -> assertEquals("http404", event.getString("failure")),
+                () -> assertFalse(event.getBoolean("idempotent"))
+            );
+        }
+
+    }
+
+    @Nested
+    public class IsRetryable {
+
+        @Test
+        public void idempotentNetworkFailureRetryable() {
+            assertTrue(RequestExecutor.isRetryable(
+                    new TestApiException(new SocketTimeoutException()), 0, true));
+        }
+
+        @Test
+        public void nonIdempotentNetworkFailureNotRetryable() {
+            assertFalse(RequestExecutor.isRetryable(
+                    new TestApiException(new SocketTimeoutException()), 0, false));
+        }
+
+        @Test
+        public void nonIdempotentConnectFailureRetryable() {
+            assertTrue(RequestExecutor.isRetryable(
+                    new TestApiException(new ConnectException()), 0, false));
+        }
+
+        @Test
+        public void unknownHostNotRetryable() {
+            assertFalse(RequestExecutor.isRetryable(
+                    new TestApiException(new UnknownHostException()), 0, true));
+        }
+
+        @Test
+        public void badGatewayOnlyRetryableIfIdempotent() {
+            assertAll(
+                () -> assertTrue(RequestExecutor.isRetryable(new TestApiException(502), 502, true)),
+                () -> assertFalse(RequestExecutor.isRetryable(new TestApiException(502), 502, false))
+            );
+        }
+
+        @Test
+        public void serviceUnavailableAlwaysRetryable() {
+            assertAll(
+                () -> assertTrue(RequestExecutor.isRetryable(new TestApiException(503), 503, true)),
+                () -> assertTrue(RequestExecutor.isRetryable(new TestApiException(503), 503, false))
+            );
+        }
+
+    }
+
+    @Nested
+    public class IsCancellation {
+
+        @Test
+        public void interruptedIoCancelled() {
+            assertTrue(RequestExecutor.isCancellation(new TestApiException(new InterruptedIOException())));
+        }
+
+        @Test
+        public void socketTimeoutNotCancelled() {
+            assertFalse(RequestExecutor.isCancellation(new TestApiException(new SocketTimeoutException())));
+        }
+
+        @Test
+        public void interruptedThreadCancelled() {
+            Thread.currentThread().interrupt();
+            try {
+                assertTrue(RequestExecutor.isCancellation(new TestApiException(503)));
+            } finally {
+                Thread.interrupted();
+            }
+        }
+
+        @Test
+        public void cancelledCallNotRetriedOrCounted() {
+            InMemoryMetrics metrics = new InMemoryMetrics();
+            RequestExecutor executor = new RequestExecutor(fastPolicy().withCircuitBreakerThreshold(1))
+                    .withMetricsSink(metrics);
+            AtomicInteger calls = new AtomicInteger();
+
+            assertThrows(TestApiException.class, () -> executor.execute("test", true, () -> {
+                calls.incrementAndGet();
+                throw new TestApiException(new InterruptedIOException());
+            }, ADAPTER));
+
+            assertAll(
+                () -> assertEquals(1, calls.get()),
+                () -> assertEquals(CircuitBreaker.State.CLOSED, executor.getCircuitBreaker("test").getState()),
+                () -> assertEquals(0, metrics.getCounter(MetricNames.errors("test", "InterruptedIOException")))
+            );
+        }
+
+    }
+
+    @Nested
+    public class RateLimit {
+
+        private static final int CLIENTS = 4;
+
+        private static final int REQUESTS_PER_CLIENT = 5;
+
+        private int get(URL url) throws TestApiException {
+            try {
+                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                int code = connection.getResponseCode();
+                connection.disconnect();
+                return code;
+            } catch (IOException e) {
+                throw new TestApiException(e);
+            }
+        }
+
+        @Test
+        public void stubServerSeesLimitedArrivalRate() throws IOException, InterruptedException {
+            List<Long> arrivals = Collections.synchronizedList(new ArrayList<>());
+
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/", exchange -> {
+                arrivals.add(System.nanoTime());
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+
+            URL url = new URL("http://localhost:" + server.getAddress().getPort() + "/versions");
+            RequestExecutor executor = new RequestExecutor(fastPolicy()).withRateLimit(20, 2);
+
+            // warm up the server and connection outside of the rate limit, so that a slow first request does not
+            // shorten the measured interval
+            assertDoesNotThrow(() -> get(url));
+            arrivals.clear();
+
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+            try {
+                for (int i = 0; i < CLIENTS; i++) {
+                    clients.submit(() -> {
+                        for (int j = 0; j < REQUESTS_PER_CLIENT; j++) {
+                            assertDoesNotThrow(() -> executor.execute("stub.get", true, () -> get(url), ADAPTER));
+                        }
+                    });
+                }
+                clients.shutdown();
+                assertTrue(clients.awaitTermination(30, TimeUnit.SECONDS));
+            } finally {
+                server.stop(0);
+            }
+
+            List<Long> sorted = new ArrayList<>(arrivals);
+            Collections.sort(sorted);
+
+            long windowNanos = TimeUnit.MILLISECONDS.toNanos(250);
+            int maxInWindow = 0;
+            for (int start = 0, end = 0; end < sorted.size(); end++) {
+                while (sorted.get(end) - sorted.get(start) >= windowNanos) {
+                    start++;
+                }
+                maxInWindow = Math.max(maxInWindow, end - start + 1);
+            }
+            int maxAllowed = 2 + 5; // burst + 250 ms at 20 requests per second
+            long totalMillis = TimeUnit.NANOSECONDS.toMillis(sorted.get(sorted.size() - 1) - sorted.get(0));
+            int maxInWindowResult = maxInWindow;
+
+            assertAll(
+                () -> assertEquals(CLIENTS * REQUESTS_PER_CLIENT, sorted.size()),
+                () -> assertTrue(maxInWindowResult <= maxAllowed + 1,
+                        maxInWindowResult + " requests arrived within 250 ms"),
+                // 18 requests beyond the burst at 20 per second take at least 900 ms
+                () -> assertTrue(totalMillis >= 850, "all requests arrived within " + totalMillis + " ms")
+            );
+        }
+
+    }
+
+}
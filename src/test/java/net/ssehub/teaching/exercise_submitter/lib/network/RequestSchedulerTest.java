@@ -0,0 +1,265 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import net.ssehub.teaching.exercise_submitter.lib.metrics.InMemoryMetrics;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricNames;
+import net.ssehub.teaching.exercise_submitter.lib.network.RequestExecutorTest.TestApiException;
+
+public class RequestSchedulerTest {
+
+    private ExecutorService threads = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void shutdown() {
+        threads.shutdownNow();
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached");
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Acquires a slot of the given priority in a background thread.
+     */
+    private Future<?> acquireLater(RequestScheduler scheduler, RequestPriority priority) throws InterruptedException {
+        int waiting = scheduler.getWaiting(priority);
+        Future<?> future = threads.submit(() -> {
+            scheduler.acquire(priority);
+            return null;
+        });
+        awaitCondition(() -> future.isDone() || scheduler.getWaiting(priority) > waiting);
+        return future;
+    }
+
+    @Nested
+    public class Construction {
+
+        @Test
+        public void tooFewSlotsThrows() {
+            assertThrows(IllegalArgumentException.class, () -> new RequestScheduler(1));
+        }
+
+        @Test
+        public void interactiveLimitThrows() {
+            assertThrows(IllegalArgumentException.class,
+                () -> new RequestScheduler(4).withLimit(RequestPriority.INTERACTIVE, 2));
+        }
+
+        @Test
+        public void limitWithoutInteractiveSlotThrows() {
+            assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                    () -> new RequestScheduler(4).withLimit(RequestPriority.BACKGROUND, 4)),
+                () -> assertThrows(IllegalArgumentException.class,
+                    () -> new RequestScheduler(4).withLimit(RequestPriority.BULK, 0))
+            );
+        }
+
+    }
+
+    @Nested
+    public class Priority {
+
+        @Test
+        public void interactiveByDefault() {
+            assertEquals(RequestPriority.INTERACTIVE, RequestScheduler.getCurrentPriority());
+        }
+
+        @Test
+        public void setDuringCallAndRestored() {
+            RequestPriority inner = RequestScheduler.runWithPriority(RequestPriority.BULK,
+                () -> RequestScheduler.runWithPriority(RequestPriority.BACKGROUND,
+                    RequestScheduler::getCurrentPriority));
+
+            assertAll(
+                () -> assertEquals(RequestPriority.BACKGROUND, inner),
+                () -> assertEquals(RequestPriority.INTERACTIVE, RequestScheduler.getCurrentPriority())
+            );
+        }
+
+        @Test
+        public void wrappedTaskRunsWithPriority() {
+            AtomicReference<RequestPriority> priority = new AtomicReference<>();
+
+            RequestScheduler.withPriority(RequestPriority.BACKGROUND,
+                () -> priority.set(RequestScheduler.getCurrentPriority())).run();
+
+            assertEquals(RequestPriority.BACKGROUND, priority.get());
+        }
+
+    }
+
+    @Nested
+    public class Scheduling {
+
+        @Test
+        public void interactiveNotBlockedByBackground() throws InterruptedException {
+            RequestScheduler scheduler = new RequestScheduler(4);
+            scheduler.acquire(RequestPriority.BACKGROUND);
+            scheduler.acquire(RequestPriority.BACKGROUND);
+
+            Future<?> thirdBackground = acquireLater(scheduler, RequestPriority.BACKGROUND);
+            scheduler.acquire(RequestPriority.INTERACTIVE);
+            scheduler.acquire(RequestPriority.INTERACTIVE);
+
+            assertAll(
+                () -> assertEquals(2, scheduler.getRunning(RequestPriority.INTERACTIVE)),
+                () -> assertEquals(2, scheduler.getRunning(RequestPriority.BACKGROUND)),
+                () -> assertFalse(thirdBackground.isDone())
+            );
+        }
+
+        @Test
+        public void waitingInteractiveServedFirst() throws Exception {
+            RequestScheduler scheduler = new RequestScheduler(2);
+            scheduler.acquire(RequestPriority.INTERACTIVE);
+            scheduler.acquire(RequestPriority.INTERACTIVE);
+            Future<?> background = acquireLater(scheduler, RequestPriority.BACKGROUND);
+            Future<?> interactive = acquireLater(scheduler, RequestPriority.INTERACTIVE);
+
+            scheduler.release(RequestPriority.INTERACTIVE);
+            interactive.get(5, TimeUnit.SECONDS);
+            assertFalse(background.isDone());
+
+            scheduler.release(RequestPriority.INTERACTIVE);
+            background.get(5, TimeUnit.SECONDS);
+            assertAll(
+                () -> assertEquals(1, scheduler.getRunning(RequestPriority.INTERACTIVE)),
+                () -> assertEquals(1, scheduler.getRunning(RequestPriority.BACKGROUND))
+            );
+        }
+
+        @Test
+        public void bulkLimitedSeparately() throws InterruptedException {
+            RequestScheduler scheduler = new RequestScheduler(8).withLimit(RequestPriority.BULK, 2);
+            scheduler.acquire(RequestPriority.BULK);
+            scheduler.acquire(RequestPriority.BULK);
+
+            Future<?> thirdBulk = acquireLater(scheduler, RequestPriority.BULK);
+            scheduler.acquire(RequestPriority.BACKGROUND);
+
+            assertAll(
+                () -> assertFalse(thirdBulk.isDone()),
+                () -> assertEquals(1, scheduler.getRunning(RequestPriority.BACKGROUND))
+            );
+        }
+
+        @Test
+        public void bulkCountsAsBackground() throws InterruptedException {
+            RequestScheduler scheduler = new RequestScheduler(4).withLimit(RequestPriority.BULK, 2);
+            scheduler.acquire(RequestPriority.BULK);
+            scheduler.acquire(RequestPriority.BULK);
+
+            Future<?> background = acquireLater(scheduler, RequestPriority.BACKGROUND);
+
+            assertFalse(background.isDone());
+        }
+
+        @Test
+        public void interruptedWaiterLeavesWithoutSlot() throws InterruptedException {
+            RequestScheduler scheduler = new RequestScheduler(2);
+            scheduler.acquire(RequestPriority.INTERACTIVE);
+            scheduler.acquire(RequestPriority.INTERACTIVE);
+
+            Future<?> waiter = acquireLater(scheduler, RequestPriority.INTERACTIVE);
+            waiter.cancel(true);
+            awaitCondition(() -> scheduler.getWaiting(RequestPriority.INTERACTIVE) == 0);
+
+            assertEquals(2, scheduler.getRunning(RequestPriority.INTERACTIVE));
+        }
+
+    }
+
+    @Nested
+    public class WithRequestExecutor {
+
+        @Test
+        public void slotHeldDuringCallOnly() {
+            RequestScheduler scheduler = new RequestScheduler(2);
+            InMemoryMetrics metrics = new InMemoryMetrics();
+            RequestExecutor executor = new RequestExecutor(new ResiliencePolicy())
+                    .withRequestScheduler(scheduler)
+                    .withMetricsSink(metrics);
+
+            int running = assertDoesNotThrow(() -> executor.execute("test", true,
+                () -> scheduler.getRunning(RequestPriority.INTERACTIVE), RequestExecutorTest.ADAPTER));
+
+            assertAll(
+                () -> assertEquals(1, running),
+                () -> assertEquals(0, scheduler.getRunning(RequestPriority.INTERACTIVE)),
+                () -> assertEquals(1, metrics.getLatency(MetricNames.schedulerWait("interactive")).get().getCount())
+            );
+        }
+
+        @Test
+        public void slotReleasedBetweenRetries() {
+            RequestScheduler scheduler = new RequestScheduler(2);
+            RequestExecutor executor = new RequestExecutor(new ResiliencePolicy()
+                    .withInitialBackoff(Duration.ofMillis(1))
+                    .withMaxBackoff(Duration.ofMillis(2)))
+                    .withRequestScheduler(scheduler);
+            AtomicInteger attempts = new AtomicInteger();
+
+            String result = assertDoesNotThrow(() -> executor.execute("test", true, () -> {
+                assertEquals(1, scheduler.getRunning(RequestPriority.INTERACTIVE));
+                if (attempts.incrementAndGet() < 3) {
+                    throw new TestApiException(503);
+                }
+                return "result";
+            }, RequestExecutorTest.ADAPTER));
+
+            assertAll(
+                () -> assertEquals("result", result),
+                () -> assertEquals(3, attempts.get()),
+                () -> assertEquals(0, scheduler.getRunning(RequestPriority.INTERACTIVE))
+            );
+        }
+
+        @Test
+        public void interruptedWhileWaitingThrows() throws InterruptedException {
+            RequestScheduler scheduler = new RequestScheduler(2);
+            scheduler.acquire(RequestPriority.INTERACTIVE);
+            scheduler.acquire(RequestPriority.INTERACTIVE);
+            RequestExecutor executor = new RequestExecutor(new ResiliencePolicy()).withRequestScheduler(scheduler);
+            AtomicInteger calls = new AtomicInteger();
+
+            Thread.currentThread().interrupt();
+            try {
+                TestApiException e = assertThrows(TestApiException.class,
+                    () -> executor.execute("test", true, calls::incrementAndGet, RequestExecutorTest.ADAPTER));
+                assertAll(
+                    () -> assertTrue(e.getCause() instanceof InterruptedIOException),
+                    () -> assertEquals(0, calls.get())
+                );
+            } finally {
+                Thread.interrupted();
+            }
+        }
+
+    }
+
+}
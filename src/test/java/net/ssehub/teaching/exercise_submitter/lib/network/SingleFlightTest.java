@@ -0,0 +1,182 @@
+package net.ssehub.teaching.exercise_submitter.lib.network;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class SingleFlightTest {
+
+    private SingleFlight<String, String> flight = new SingleFlight<>();
+
+    private ExecutorService threads = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void shutdown() {
+        threads.shutdownNow();
+    }
+
+    /**
+     * Starts a call that blocks until the returned latch is released, and waits until it is in flight.
+     */
+    private Future<String> startBlockingCall(String key, CountDownLatch release, AtomicInteger executions,
+            IOException failure) throws InterruptedException {
+        Future<String> future = threads.submit(() -> flight.execute(key, () -> {
+            executions.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return "result of " + key;
+        }, IOException.class));
+        while (!flight.isInFlight(key)) {
+            Thread.sleep(1);
+        }
+        return future;
+    }
+
+    @Test
+    public void sequentialCallsExecutedEach() throws IOException {
+        AtomicInteger executions = new AtomicInteger();
+
+        flight.execute("a", () -> "result " + executions.incrementAndGet(), IOException.class);
+        String second = flight.execute("a", () -> "result " + executions.incrementAndGet(), IOException.class);
+
+        assertAll(
+            () -> assertEquals("result 2", second),
+            () -> assertEquals(2, executions.get()),
+            () -> assertFalse(flight.isInFlight("a"))
+        );
+    }
+
+    @Test
+    public void concurrentCallsShareResult() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = startBlockingCall("a", release, executions, null);
+        List<Future<String>> waiters = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            waiters.add(threads.submit(() -> flight.execute("a", () -> {
+                executions.incrementAndGet();
+                return "own result";
+            }, IOException.class)));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals("result of a", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> waiter : waiters) {
+            assertEquals("result of a", waiter.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void concurrentCallsShareException() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        IOException failure = new IOException("failed");
+
+        Future<String> leader = startBlockingCall("a", release, executions, failure);
+        Future<String> waiter = threads.submit(() -> flight.execute("a", () -> "own result", IOException.class));
+        Thread.sleep(100);
+        release.countDown();
+
+        ExecutionException leaderException = assertThrows(ExecutionException.class,
+            () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException waiterException = assertThrows(ExecutionException.class,
+            () -> waiter.get(5, TimeUnit.SECONDS));
+        assertAll(
+            () -> assertTrue(leaderException.getCause() == failure),
+            () -> assertTrue(waiterException.getCause() == failure),
+            () -> assertEquals(1, executions.get()),
+            () -> assertFalse(flight.isInFlight("a"))
+        );
+    }
+
+    @Test
+    public void waitingCallersCounted() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = startBlockingCall("a", release, executions, null);
+        Future<String> waiter = threads.submit(() -> flight.execute("a", () -> "own result", IOException.class));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.getWaitingCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        int waitingBefore = flight.getWaitingCount();
+        release.countDown();
+
+        assertAll(
+            () -> assertEquals(1, waitingBefore),
+            () -> assertEquals("result of a", leader.get(5, TimeUnit.SECONDS)),
+            () -> assertEquals("result of a", waiter.get(5, TimeUnit.SECONDS)),
+            () -> assertEquals(0, flight.getWaitingCount())
+        );
+    }
+
+    @Test
+    public void differentKeysNotCoalesced() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> first = startBlockingCall("a", release, executions, null);
+        String second = flight.execute("b", () -> "result of b", IOException.class);
+        release.countDown();
+
+        assertAll(
+            () -> assertEquals("result of a", first.get(5, TimeUnit.SECONDS)),
+            () -> assertEquals("result of b", second)
+        );
+    }
+
+    @Test
+    public void interruptedWaiterReleasedAfterCall() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        startBlockingCall("a", release, executions, null);
+        Future<Boolean> waiter = threads.submit(() -> {
+            Thread.currentThread().interrupt();
+            String result = flight.execute("a", () -> "own result", IOException.class);
+            return result.equals("result of a") && Thread.currentThread().isInterrupted();
+        });
+        Thread.sleep(100);
+        boolean releasedEarly = waiter.isDone();
+        release.countDown();
+
+        assertAll(
+            () -> assertFalse(releasedEarly),
+            () -> assertTrue(waiter.get(5, TimeUnit.SECONDS))
+        );
+    }
+
+    @Test
+    public void uncheckedExceptionRethrown() {
+        assertThrows(IllegalArgumentException.class, () -> flight.execute("a", () -> {
+            throw new IllegalArgumentException();
+        }, IOException.class));
+    }
+
+}
@@ -0,0 +1,226 @@
+package net.ssehub.teaching.exercise_submitter.lib.replay;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricsSink;
+import net.ssehub.teaching.exercise_submitter.server.api.model.FileDto;
+
+public class BulkExporterTest {
+
+    private Path directory;
+
+    private static FileDto file(String path, String content) {
+        FileDto dto = new FileDto();
+        dto.setPath(path);
+        dto.setContent(Base64.getEncoder().encodeToString(content.getBytes(StandardCharsets.UTF_8)));
+        return dto;
+    }
+
+    /**
+     * Two groups with submissions; all other groups fail as if they had not submitted anything.
+     */
+    private static VersionSnapshot fetch(String groupName, long memoryBudget) throws ReplayException {
+        List<FileDto> files;
+        if (groupName.equals("Group01")) {
+            files = Arrays.asList(file("Main.java", "class Main {}\n"), file("pkg/Util.java", "class Util {}\n"));
+        } else if (groupName.equals("Group02")) {
+            files = Arrays.asList(file("Main.java", "class Other {}\n"));
+        } else if (groupName.equals("Escaping")) {
+            files = Arrays.asList(file("Main.java", "class Main {}\n"), file("../../Evil.java", "class Evil {}\n"));
+        } else {
+            throw new ReplayException("No submission of " + groupName);
+        }
+        try {
+            return VersionSnapshot.decode(files, memoryBudget, MetricsSink.NONE);
+        } catch (IOException e) {
+            throw new ReplayException("Failed to decode", e);
+        }
+    }
+
+    @BeforeEach
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("BulkExporterTest");
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Nested
+    public class ExportToDirectory {
+
+        @Test
+        public void writesGroupsIntoSubdirectories() throws IOException {
+            BulkExporter.Result result = new BulkExporter(BulkExporterTest::fetch)
+                    .exportToDirectory(List.of("Group01", "Group02"), directory);
+            assertAll(
+                () -> assertTrue(result.isComplete()),
+                () -> assertEquals(Set.of("Group01", "Group02"), result.getExported()),
+                () -> assertEquals("class Main {}\n", Files.readString(directory.resolve("Group01/Main.java"))),
+                () -> assertEquals("class Util {}\n", Files.readString(directory.resolve("Group01/pkg/Util.java"))),
+                () -> assertEquals("class Other {}\n", Files.readString(directory.resolve("Group02/Main.java")))
+            );
+        }
+
+        @Test
+        public void failedGroupsReportedWithoutAborting() throws IOException {
+            BulkExporter.Result result = new BulkExporter(BulkExporterTest::fetch)
+                    .exportToDirectory(List.of("Group01", "Group03", "Group02"), directory);
+            assertAll(
+                () -> assertFalse(result.isComplete()),
+                () -> assertEquals(Set.of("Group01", "Group02"), result.getExported()),
+                () -> assertEquals(Set.of("Group03"), result.getFailures().keySet()),
+                () -> assertFalse(Files.exists(directory.resolve("Group03")))
+            );
+        }
+
+        @Test
+        public void spilledGroupsWritten() throws IOException {
+            BulkExporter.Result result = new BulkExporter(BulkExporterTest::fetch)
+                    .withMemoryBudget(0)
+                    .exportToDirectory(List.of("Group01"), directory);
+            assertAll(
+                () -> assertTrue(result.isComplete()),
+                () -> assertEquals("class Util {}\n", Files.readString(directory.resolve("Group01/pkg/Util.java")))
+            );
+        }
+
+        @Test
+        public void escapingFileReportedAsFailure() throws IOException {
+            Path target = directory.resolve("target");
+            BulkExporter.Result result = new BulkExporter(BulkExporterTest::fetch)
+                    .exportToDirectory(List.of("Escaping", "Group01"), target);
+            assertAll(
+                () -> assertEquals(Set.of("Group01"), result.getExported()),
+                () -> assertEquals(Set.of("Escaping"), result.getFailures().keySet()),
+                () -> assertTrue(result.getFailures().get("Escaping").getMessage().contains("outside")),
+                () -> assertFalse(Files.exists(directory.resolve("Evil.java"))),
+                () -> assertFalse(Files.exists(target.resolve("Escaping")))
+            );
+        }
+
+        @Test
+        public void escapingGroupNameThrows() {
+            assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> new BulkExporter(BulkExporterTest::fetch)
+                        .exportToDirectory(List.of("Group01", "../Group02"), directory)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new BulkExporter(BulkExporterTest::fetch)
+                        .exportToDirectory(List.of("."), directory)),
+                () -> assertFalse(Files.exists(directory.resolve("Group01")))
+            );
+        }
+
+        @Test
+        public void writeFailureAborts() throws IOException {
+            Files.writeString(directory.resolve("Group01"), "not a directory");
+            assertThrows(IOException.class, () -> new BulkExporter(BulkExporterTest::fetch)
+                    .exportToDirectory(List.of("Group01", "Group02"), directory));
+        }
+
+    }
+
+    @Nested
+    public class ExportToZip {
+
+        @Test
+        public void writesGroupsIntoTopLevelDirectories() throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            BulkExporter.Result result = new BulkExporter(BulkExporterTest::fetch)
+                    .exportToZip(List.of("Group01", "Group02", "Group03"), out);
+
+            Map<String, String> entries = new HashMap<>();
+            try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+                for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                    entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            }
+
+            assertAll(
+                () -> assertEquals(Set.of("Group01", "Group02"), result.getExported()),
+                () -> assertEquals(Set.of("Group03"), result.getFailures().keySet()),
+                () -> assertEquals(Map.of(
+                        "Group01/", "",
+                        "Group01/Main.java", "class Main {}\n",
+                        "Group01/pkg/Util.java", "class Util {}\n",
+                        "Group02/", "",
+                        "Group02/Main.java", "class Other {}\n"), entries)
+            );
+        }
+
+        @Test
+        public void escapingGroupNameThrows() {
+            assertThrows(IllegalArgumentException.class, () -> new BulkExporter(BulkExporterTest::fetch)
+                    .exportToZip(List.of("../Group01"), new ByteArrayOutputStream()));
+        }
+
+    }
+
+    @Nested
+    public class Parallelism {
+
+        @Test
+        public void invalidParallelismThrows() {
+            assertThrows(IllegalArgumentException.class,
+                () -> new BulkExporter(BulkExporterTest::fetch).withParallelism(0));
+        }
+
+        @Test
+        public void concurrentGroupsLimited() throws IOException {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            BulkExporter exporter = new BulkExporter((groupName, memoryBudget) -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return fetch("Group01", memoryBudget);
+            }).withParallelism(3);
+
+            List<String> groups = List.of("G1", "G2", "G3", "G4", "G5", "G6", "G7", "G8", "G9", "G10");
+            BulkExporter.Result result = exporter.exportToDirectory(groups, directory);
+
+            assertAll(
+                () -> assertEquals(groups.size(), result.getExported().size()),
+                () -> assertTrue(maxRunning.get() <= 3, "max concurrent: " + maxRunning.get()),
+                () -> assertTrue(maxRunning.get() > 1, "max concurrent: " + maxRunning.get())
+            );
+        }
+
+    }
+
+}
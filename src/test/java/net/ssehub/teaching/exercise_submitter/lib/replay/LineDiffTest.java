@@ -0,0 +1,201 @@
+package net.ssehub.teaching.exercise_submitter.lib.replay;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import net.ssehub.teaching.exercise_submitter.lib.replay.LineDiff.Hunk;
+
+public class LineDiffTest {
+
+    /**
+     * Applies the hunks to the old lines, from the bottom so that line numbers stay valid.
+     */
+    private static List<String> apply(List<String> oldLines, List<Hunk> hunks) {
+        List<String> result = new ArrayList<>(oldLines);
+        List<Hunk> reversed = new ArrayList<>(hunks);
+        Collections.reverse(reversed);
+        for (Hunk hunk : reversed) {
+            int start = hunk.getOldStart() - 1;
+            result.subList(start, start + hunk.getOldLines().size()).clear();
+            result.addAll(start, hunk.getNewLines());
+        }
+        return result;
+    }
+
+    private static int minimalEditCount(List<String> a, List<String> b) {
+        int[][] lcs = new int[a.size() + 1][b.size() + 1];
+        for (int i = a.size() - 1; i >= 0; i--) {
+            for (int j = b.size() - 1; j >= 0; j--) {
+                lcs[i][j] = a.get(i).equals(b.get(j)) ? lcs[i + 1][j + 1] + 1 : Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+            }
+        }
+        return a.size() + b.size() - 2 * lcs[0][0];
+    }
+
+    private static int editCount(List<Hunk> hunks) {
+        return hunks.stream().mapToInt(hunk -> hunk.getOldLines().size() + hunk.getNewLines().size()).sum();
+    }
+
+    @Nested
+    public class Diff {
+
+        @Test
+        public void equalLinesNoHunks() {
+            assertEquals(Collections.emptyList(), LineDiff.diff(List.of("a", "b"), List.of("a", "b")));
+        }
+
+        @Test
+        public void bothEmpty() {
+            assertEquals(Collections.emptyList(), LineDiff.diff(List.of(), List.of()));
+        }
+
+        @Test
+        public void allInserted() {
+            assertEquals(List.of(new Hunk(1, List.of(), 1, List.of("a", "b"))),
+                    LineDiff.diff(List.of(), List.of("a", "b")));
+        }
+
+        @Test
+        public void allDeleted() {
+            assertEquals(List.of(new Hunk(1, List.of("a", "b"), 1, List.of())),
+                    LineDiff.diff(List.of("a", "b"), List.of()));
+        }
+
+        @Test
+        public void singleLineReplaced() {
+            assertEquals(List.of(new Hunk(2, List.of("b"), 2, List.of("x"))),
+                    LineDiff.diff(List.of("a", "b", "c"), List.of("a", "x", "c")));
+        }
+
+        @Test
+        public void insertionInMiddle() {
+            assertEquals(List.of(new Hunk(2, List.of(), 2, List.of("x", "y"))),
+                    LineDiff.diff(List.of("a", "b"), List.of("a", "x", "y", "b")));
+        }
+
+        @Test
+        public void separateHunks() {
+            List<Hunk> hunks = LineDiff.diff(List.of("a", "b", "c", "d", "e"), List.of("a", "c", "d", "x", "e"));
+            assertAll(
+                () -> assertEquals(new Hunk(2, List.of("b"), 2, List.of()), hunks.get(0)),
+                () -> assertEquals(new Hunk(5, List.of(), 4, List.of("x")), hunks.get(1)),
+                () -> assertEquals(2, hunks.size())
+            );
+        }
+
+        @Test
+        public void shortestEditScript() {
+            // classic example from the paper of Myers: ABCABBA -> CBABAC needs 5 edits
+            List<String> a = List.of("A", "B", "C", "A", "B", "B", "A");
+            List<String> b = List.of("C", "B", "A", "B", "A", "C");
+            List<Hunk> hunks = LineDiff.diff(a, b);
+            assertAll(
+                () -> assertEquals(5, editCount(hunks)),
+                () -> assertEquals(b, apply(a, hunks))
+            );
+        }
+
+        @Test
+        public void randomEditsApplyCorrectly() {
+            Random random = new Random(42);
+            for (int run = 0; run < 500; run++) {
+                List<String> a = new ArrayList<>();
+                List<String> b = new ArrayList<>();
+                for (int i = random.nextInt(30); i > 0; i--) {
+                    a.add(String.valueOf((char) ('a' + random.nextInt(4))));
+                }
+                for (String line : a) {
+                    if (random.nextInt(5) != 0) {
+                        b.add(line);
+                    }
+                    if (random.nextInt(5) == 0) {
+                        b.add(String.valueOf((char) ('a' + random.nextInt(4))));
+                    }
+                }
+                List<Hunk> hunks = LineDiff.diff(a, b);
+                assertEquals(b, apply(a, hunks), a + " -> " + b);
+                assertEquals(minimalEditCount(a, b), editCount(hunks), a + " -> " + b);
+            }
+        }
+
+        @Test
+        public void maxEditDistanceStillMinimal() {
+            List<String> a = new ArrayList<>();
+            List<String> b = new ArrayList<>();
+            for (int i = 0; i < LineDiff.MAX_EDIT_DISTANCE / 2; i++) {
+                a.add("common " + i);
+                a.add("old " + i);
+                b.add("common " + i);
+                b.add("new " + i);
+            }
+
+            List<Hunk> hunks = LineDiff.diff(a, b);
+
+            assertAll(
+                () -> assertEquals(LineDiff.MAX_EDIT_DISTANCE / 2, hunks.size()),
+                () -> assertEquals(b, apply(a, hunks))
+            );
+        }
+
+        @Test
+        public void largeRewriteSingleHunk() {
+            List<String> a = new ArrayList<>();
+            List<String> b = new ArrayList<>();
+            a.add("header");
+            b.add("header");
+            for (int i = 0; i < LineDiff.MAX_EDIT_DISTANCE; i++) {
+                a.add("old " + i);
+                a.add("common " + i);
+                b.add("new " + i);
+                b.add("common " + i);
+            }
+            a.add("footer");
+            b.add("footer");
+
+            List<Hunk> hunks = LineDiff.diff(a, b);
+
+            assertAll(
+                () -> assertEquals(1, hunks.size()),
+                () -> assertEquals(2, hunks.get(0).getOldStart()),
+                () -> assertEquals(2 * LineDiff.MAX_EDIT_DISTANCE - 1, hunks.get(0).getOldLines().size()),
+                () -> assertEquals(2 * LineDiff.MAX_EDIT_DISTANCE - 1, hunks.get(0).getNewLines().size()),
+                () -> assertEquals(b, apply(a, hunks))
+            );
+        }
+
+    }
+
+    @Nested
+    public class SplitLines {
+
+        @Test
+        public void trailingNewlineIgnored() {
+            assertEquals(List.of("a", "b"), LineDiff.splitLines("a\nb\n"));
+        }
+
+        @Test
+        public void withoutTrailingNewline() {
+            assertEquals(List.of("a", "b"), LineDiff.splitLines("a\nb"));
+        }
+
+        @Test
+        public void windowsLineEndings() {
+            assertEquals(List.of("a", "", "b"), LineDiff.splitLines("a\r\n\r\nb\r\n"));
+        }
+
+        @Test
+        public void emptyText() {
+            assertEquals(List.of(), LineDiff.splitLines(""));
+        }
+
+    }
+
+}
@@ -5,16 +5,25 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -370,6 +379,58 @@ public class ReplayerIT {
         
     }
     
+    @Nested
+    public class ReplayToZip {
+        
+        private Map<String, String> readZip(byte[] zip) throws IOException {
+            Map<String, String> entries = new HashMap<>();
+            try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+                for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                    entries.put(entry.getName(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            }
+            return entries;
+        }
+        
+        @Test
+        public void latestVersion() throws IOException {
+            try (Replayer replayer = new Replayer(docker.getExerciseSubmitterServerUrl(), courseId,
+                    "twoSubmissions", "JP001", docker.getAuthToken("student1"))) {
+                
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                assertDoesNotThrow(() -> replayer.replayLatestToZip(out));
+                
+                Map<String, String> entries = readZip(out.toByteArray());
+                assertAll(
+                    () -> assertEquals(Set.of("Main.java"), entries.keySet()),
+                    () -> assertTrue(entries.get("Main.java").contains("Hello Revision2!"))
+                );
+            }
+        }
+        
+        @Test
+        public void subDirectory() throws IOException {
+            try (Replayer replayer = new Replayer(docker.getExerciseSubmitterServerUrl(), courseId,
+                    "subDirectory", "JP001", docker.getAuthToken("student1"))) {
+                
+                List<Version> versions = assertDoesNotThrow(() -> replayer.getVersions());
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                assertDoesNotThrow(() -> replayer.replayToZip(versions.get(0), out));
+                
+                assertEquals(Set.of("cli/Main.java"), readZip(out.toByteArray()).keySet());
+            }
+        }
+        
+        @Test
+        public void invalidTokenThrows() {
+            Replayer replayer = new Replayer(docker.getExerciseSubmitterServerUrl(), courseId,
+                    "twoSubmissions", "JP001", "invalid_token");
+            
+            assertThrows(ReplayException.class, () -> replayer.replayLatestToZip(new ByteArrayOutputStream()));
+        }
+        
+    }
+    
     @Nested
     public class IsSameContent {
         
@@ -397,4 +458,44 @@ public class ReplayerIT {
         
     }
 
+    @Nested
+    public class Diff {
+        
+        @Test
+        public void modifiedLine() throws IOException {
+            try (Replayer replayer = new Replayer(docker.getExerciseSubmitterServerUrl(), courseId,
+                    "twoSubmissions", "JP001", docker.getAuthToken("student1"))) {
+                
+                List<Version> versions = assertDoesNotThrow(() -> replayer.getVersions());
+                
+                VersionDiff diff = assertDoesNotThrow(() -> replayer.diff(versions.get(1), versions.get(0)));
+                
+                assertAll(
+                    () -> assertEquals(Set.of(Path.of("Main.java")), diff.getModified()),
+                    () -> assertEquals(Collections.emptySet(), diff.getAdded()),
+                    () -> assertEquals(Collections.emptySet(), diff.getRemoved()),
+                    () -> assertEquals(1, diff.getHunks(Path.of("Main.java")).size()),
+                    () -> assertEquals(5, diff.getHunks(Path.of("Main.java")).get(0).getOldStart()),
+                    () -> assertEquals(List.of("        System.out.println(\"Hello Revision2!\");"),
+                            diff.getHunks(Path.of("Main.java")).get(0).getNewLines())
+                );
+            }
+        }
+        
+        @Test
+        public void resultCached() throws IOException {
+            try (Replayer replayer = new Replayer(docker.getExerciseSubmitterServerUrl(), courseId,
+                    "twoSubmissions", "JP001", docker.getAuthToken("student1"))) {
+                
+                List<Version> versions = assertDoesNotThrow(() -> replayer.getVersions());
+                
+                VersionDiff first = assertDoesNotThrow(() -> replayer.diff(versions.get(1), versions.get(0)));
+                VersionDiff second = assertDoesNotThrow(() -> replayer.diff(versions.get(1), versions.get(0)));
+                
+                assertSame(first, second);
+            }
+        }
+        
+    }
+
 }
@@ -1,14 +1,39 @@
 package net.ssehub.teaching.exercise_submitter.lib.replay;
 
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import net.ssehub.teaching.exercise_submitter.lib.jfr.ReplayWriteEvent;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.InMemoryMetrics;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricNames;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricsSink;
+import net.ssehub.teaching.exercise_submitter.lib.network.RequestExecutor;
+import net.ssehub.teaching.exercise_submitter.lib.network.ResiliencePolicy;
+import net.ssehub.teaching.exercise_submitter.server.api.model.FileDto;
+
 public class ReplayerTest {
 
     private static final Path TESTDATA = Path.of("src", "test", "resources", "ReplayerTest");
@@ -107,4 +132,147 @@ public class ReplayerTest {
         
     }
     
+    @Nested
+    public class WriteZip {
+        
+        private FileDto file(String path, byte[] content) {
+            FileDto dto = new FileDto();
+            dto.setPath(path);
+            dto.setContent(Base64.getEncoder().encodeToString(content));
+            return dto;
+        }
+        
+        private Map<String, byte[]> readZip(byte[] zip) throws IOException {
+            Map<String, byte[]> entries = new LinkedHashMap<>();
+            try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+                for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                    entries.put(entry.getName(), in.readAllBytes());
+                }
+            }
+            return entries;
+        }
+        
+        @Test
+        public void filesDecodedIntoEntries() throws IOException {
+            byte[] binary = new byte[100000];
+            new Random(1).nextBytes(binary);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            
+            Replayer.writeZip(Arrays.asList(
+                    file("Main.java", "class Main {}\n".getBytes(StandardCharsets.UTF_8)),
+                    file("pkg/data.bin", binary)), out, MetricsSink.NONE, new ReplayWriteEvent("course", "a"));
+            
+            Map<String, byte[]> entries = readZip(out.toByteArray());
+            assertAll(
+                () -> assertEquals(List.of("Main.java", "pkg/data.bin"), List.copyOf(entries.keySet())),
+                () -> assertArrayEquals("class Main {}\n".getBytes(StandardCharsets.UTF_8), entries.get("Main.java")),
+                () -> assertArrayEquals(binary, entries.get("pkg/data.bin"))
+            );
+        }
+        
+        @Test
+        public void emptyVersionIsEmptyArchive() throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            
+            Replayer.writeZip(Collections.emptyList(), out, MetricsSink.NONE, new ReplayWriteEvent("course", "a"));
+            
+            assertEquals(Collections.emptyMap(), readZip(out.toByteArray()));
+        }
+        
+        @Test
+        public void bytesRecorded() throws IOException {
+            InMemoryMetrics metrics = new InMemoryMetrics();
+            
+            Replayer.writeZip(Arrays.asList(file("a.txt", new byte[] {'a', 'b', 'c'})), new ByteArrayOutputStream(),
+                    metrics, new ReplayWriteEvent("course", "a"));
+            
+            assertAll(
+                () -> assertEquals(4, metrics.getCounter(MetricNames.REPLAY_BYTES_DOWNLOADED)),
+                () -> assertEquals(3, metrics.getCounter(MetricNames.REPLAY_BYTES_WRITTEN))
+            );
+        }
+        
+    }
+    
+    @Nested
+    public class WriteToTempDirectory {
+        
+        private FileDto file(String path, String content) {
+            FileDto dto = new FileDto();
+            dto.setPath(path);
+            dto.setContent(Base64.getEncoder().encodeToString(content.getBytes(StandardCharsets.UTF_8)));
+            return dto;
+        }
+        
+        private Replayer createReplayer() {
+            return new Replayer("http://localhost:0", "course", "assignment", "group", "token");
+        }
+        
+        @Test
+        public void equalFilesCopiedByDefault() throws IOException {
+            try (Replayer replayer = createReplayer()) {
+                Path first = replayer.writeToTempDirectory(Arrays.asList(file("Main.java", "class Main {}\n")));
+                Path second = replayer.writeToTempDirectory(Arrays.asList(file("Main.java", "class Main {}\n")));
+                
+                assertFalse(Files.isSameFile(first.resolve("Main.java"), second.resolve("Main.java")));
+            }
+        }
+        
+        @Test
+        public void equalFilesHardLinked() throws IOException {
+            InMemoryMetrics metrics = new InMemoryMetrics();
+            try (Replayer replayer = new Replayer("http://localhost:0", "course", "assignment", "group", "token",
+                    new RequestExecutor(new ResiliencePolicy()).withMetricsSink(metrics)).withHardLinks(true)) {
+                
+                Path first = replayer.writeToTempDirectory(Arrays.asList(
+                        file("Main.java", "class Main {}\n"), file("Util.java", "class Util {}\n")));
+                Path second = replayer.writeToTempDirectory(Arrays.asList(
+                        file("Main.java", "class Main {}\n"), file("Util.java", "class Util { int x; }\n")));
+                
+                assertAll(
+                    () -> assertTrue(Files.isSameFile(first.resolve("Main.java"), second.resolve("Main.java"))),
+                    () -> assertFalse(Files.isSameFile(first.resolve("Util.java"), second.resolve("Util.java"))),
+                    () -> assertEquals("class Util { int x; }\n", Files.readString(second.resolve("Util.java"))),
+                    () -> assertEquals(14, metrics.getCounter(MetricNames.REPLAY_BYTES_LINKED))
+                );
+            }
+        }
+        
+        @Test
+        public void linkedFileInSameVersion() throws IOException {
+            try (Replayer replayer = createReplayer().withHardLinks(true)) {
+                Path directory = replayer.writeToTempDirectory(Arrays.asList(
+                        file("a/Main.java", "class Main {}\n"), file("b/Main.java", "class Main {}\n")));
+                
+                assertTrue(Files.isSameFile(directory.resolve("a/Main.java"), directory.resolve("b/Main.java")));
+            }
+        }
+        
+        @Test
+        public void deletedOriginalCopied() throws IOException {
+            try (Replayer replayer = createReplayer().withHardLinks(true)) {
+                Path first = replayer.writeToTempDirectory(Arrays.asList(file("Main.java", "class Main {}\n")));
+                Files.delete(first.resolve("Main.java"));
+                Path second = replayer.writeToTempDirectory(Arrays.asList(file("Main.java", "class Main {}\n")));
+                
+                assertEquals("class Main {}\n", Files.readString(second.resolve("Main.java")));
+            }
+        }
+        
+        @Test
+        public void closeDeletesLinkedDirectories() throws IOException {
+            Path first;
+            Path second;
+            try (Replayer replayer = createReplayer().withHardLinks(true)) {
+                first = replayer.writeToTempDirectory(Arrays.asList(file("Main.java", "class Main {}\n")));
+                second = replayer.writeToTempDirectory(Arrays.asList(file("Main.java", "class Main {}\n")));
+            }
+            assertAll(
+                () -> assertFalse(Files.exists(first)),
+                () -> assertFalse(Files.exists(second))
+            );
+        }
+        
+    }
+    
 }
@@ -0,0 +1,92 @@
+package net.ssehub.teaching.exercise_submitter.lib.replay;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricsSink;
+import net.ssehub.teaching.exercise_submitter.lib.replay.LineDiff.Hunk;
+import net.ssehub.teaching.exercise_submitter.server.api.model.FileDto;
+
+public class VersionDiffTest {
+
+    private static FileDto file(String path, byte[] content) {
+        FileDto dto = new FileDto();
+        dto.setPath(path);
+        dto.setContent(Base64.getEncoder().encodeToString(content));
+        return dto;
+    }
+
+    private static FileDto file(String path, String content) {
+        return file(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static VersionDiff diff(List<FileDto> oldFiles, List<FileDto> newFiles) throws IOException {
+        try (VersionSnapshot oldVersion = VersionSnapshot.decode(oldFiles, 1024, MetricsSink.NONE);
+                VersionSnapshot newVersion = VersionSnapshot.decode(newFiles, 0, MetricsSink.NONE)) {
+            return new VersionDiff(oldVersion, newVersion);
+        }
+    }
+
+    @Test
+    public void noChanges() throws IOException {
+        VersionDiff diff = diff(Arrays.asList(file("Main.java", "class Main {}\n")),
+                Arrays.asList(file("Main.java", "class Main {}\n")));
+        assertAll(
+            () -> assertFalse(diff.hasChanges()),
+            () -> assertEquals(Collections.emptyList(), diff.getHunks(Path.of("Main.java")))
+        );
+    }
+
+    @Test
+    public void fileLevelChanges() throws IOException {
+        VersionDiff diff = diff(
+                Arrays.asList(file("Main.java", "a\nb\n"), file("Old.java", "old\n"), file("Same.java", "same\n")),
+                Arrays.asList(file("Main.java", "a\nc\n"), file("pkg/New.java", "new\n"), file("Same.java", "same\n")));
+        assertAll(
+            () -> assertTrue(diff.hasChanges()),
+            () -> assertEquals(Set.of(Path.of("pkg", "New.java")), diff.getAdded()),
+            () -> assertEquals(Set.of(Path.of("Old.java")), diff.getRemoved()),
+            () -> assertEquals(Set.of(Path.of("Main.java")), diff.getModified())
+        );
+    }
+
+    @Test
+    public void lineHunks() throws IOException {
+        VersionDiff diff = diff(
+                Arrays.asList(file("Main.java", "a\nb\n"), file("Old.java", "old\n")),
+                Arrays.asList(file("Main.java", "a\nc\n"), file("New.java", "new\n")));
+        assertAll(
+            () -> assertEquals(List.of(new Hunk(2, List.of("b"), 2, List.of("c"))),
+                    diff.getHunks(Path.of("Main.java"))),
+            () -> assertEquals(List.of(new Hunk(1, List.of(), 1, List.of("new"))),
+                    diff.getHunks(Path.of("New.java"))),
+            () -> assertEquals(List.of(new Hunk(1, List.of("old"), 1, List.of())),
+                    diff.getHunks(Path.of("Old.java")))
+        );
+    }
+
+    @Test
+    public void binaryFileWithoutHunks() throws IOException {
+        VersionDiff diff = diff(Arrays.asList(file("image.png", new byte[] {1, 2, 3})),
+                Arrays.asList(file("image.png", new byte[] {1, 2, 4})));
+        assertAll(
+            () -> assertEquals(Set.of(Path.of("image.png")), diff.getModified()),
+            () -> assertTrue(diff.isBinary(Path.of("image.png"))),
+            () -> assertEquals(Collections.emptyList(), diff.getHunks(Path.of("image.png")))
+        );
+    }
+
+}
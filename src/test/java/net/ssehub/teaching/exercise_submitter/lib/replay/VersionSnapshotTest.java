@@ -0,0 +1,215 @@
+package net.ssehub.teaching.exercise_submitter.lib.replay;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import net.ssehub.teaching.exercise_submitter.lib.metrics.InMemoryMetrics;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricNames;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricsSink;
+import net.ssehub.teaching.exercise_submitter.lib.submission.IgnoreRules;
+import net.ssehub.teaching.exercise_submitter.lib.submission.WorkspaceTracker;
+import net.ssehub.teaching.exercise_submitter.server.api.model.FileDto;
+
+public class VersionSnapshotTest {
+
+    private static FileDto file(String path, String content) {
+        FileDto dto = new FileDto();
+        dto.setPath(path);
+        dto.setContent(Base64.getEncoder().encodeToString(content.getBytes(StandardCharsets.UTF_8)));
+        return dto;
+    }
+
+    private static final List<FileDto> FILES = Arrays.asList(
+            file("Main.java", "class Main {}\n"),
+            file("pkg/Util.java", "class Util {}\n"),
+            file("bin/Main.class", "compiled"));
+
+    @Nested
+    public class InMemory {
+
+        @Test
+        public void filesSorted() throws IOException {
+            try (VersionSnapshot snapshot = VersionSnapshot.decode(FILES, 1024, MetricsSink.NONE)) {
+                assertEquals(List.of(Path.of("Main.java"), Path.of("bin", "Main.class"), Path.of("pkg", "Util.java")),
+                        List.copyOf(snapshot.getFiles()));
+            }
+        }
+
+        @Test
+        public void contentAndSize() throws IOException {
+            try (VersionSnapshot snapshot = VersionSnapshot.decode(FILES, 1024, MetricsSink.NONE)) {
+                assertAll(
+                    () -> assertFalse(snapshot.isSpilled()),
+                    () -> assertTrue(snapshot.exists(Path.of("pkg", "Util.java"))),
+                    () -> assertEquals(14, snapshot.size(Path.of("Main.java"))),
+                    () -> assertEquals("class Util {}\n", new String(
+                            snapshot.readAllBytes(Path.of("pkg", "Util.java")), StandardCharsets.UTF_8))
+                );
+            }
+        }
+
+        @Test
+        public void readAllBytesReturnsCopy() throws IOException {
+            try (VersionSnapshot snapshot = VersionSnapshot.decode(FILES, 1024, MetricsSink.NONE)) {
+                snapshot.readAllBytes(Path.of("Main.java"))[0] = 'X';
+                assertEquals('c', snapshot.readAllBytes(Path.of("Main.java"))[0]);
+            }
+        }
+
+        @Test
+        public void missingFileThrows() throws IOException {
+            try (VersionSnapshot snapshot = VersionSnapshot.decode(FILES, 1024, MetricsSink.NONE)) {
+                assertAll(
+                    () -> assertFalse(snapshot.exists(Path.of("Other.java"))),
+                    () -> assertThrows(NoSuchFileException.class, () -> snapshot.size(Path.of("Other.java"))),
+                    () -> assertThrows(NoSuchFileException.class, () -> snapshot.readAllBytes(Path.of("Other.java")))
+                );
+            }
+        }
+
+        @Test
+        public void readAfterCloseThrows() throws IOException {
+            VersionSnapshot snapshot = VersionSnapshot.decode(FILES, 1024, MetricsSink.NONE);
+            snapshot.close();
+
+            assertAll(
+                () -> assertThrows(IllegalStateException.class, () -> snapshot.readAllBytes(Path.of("Main.java"))),
+                () -> assertThrows(IllegalStateException.class, () -> snapshot.newInputStream(Path.of("Main.java")))
+            );
+        }
+
+        @Test
+        public void nothingWritten() throws IOException {
+            InMemoryMetrics metrics = new InMemoryMetrics();
+            try (VersionSnapshot snapshot = VersionSnapshot.decode(FILES, 1024, metrics)) {
+                assertEquals(0, metrics.getCounter(MetricNames.REPLAY_BYTES_WRITTEN));
+            }
+        }
+
+    }
+
+    @Nested
+    public class Spilled {
+
+        @Test
+        public void spilledWhenBudgetExceeded() throws IOException {
+            try (VersionSnapshot snapshot = VersionSnapshot.decode(FILES, 20, MetricsSink.NONE)) {
+                assertAll(
+                    () -> assertTrue(snapshot.isSpilled()),
+                    () -> assertEquals(Set.of(Path.of("Main.java"), Path.of("bin", "Main.class"),
+                            Path.of("pkg", "Util.java")), snapshot.getFiles()),
+                    () -> assertEquals("class Main {}\n", new String(
+                            snapshot.readAllBytes(Path.of("Main.java")), StandardCharsets.UTF_8)),
+                    () -> assertEquals("compiled", new String(
+                            snapshot.readAllBytes(Path.of("bin", "Main.class")), StandardCharsets.UTF_8)),
+                    () -> assertThrows(NoSuchFileException.class, () -> snapshot.newInputStream(Path.of("Other.java")))
+                );
+            }
+        }
+
+        @Test
+        public void streamReadsContent() throws IOException {
+            try (VersionSnapshot snapshot = VersionSnapshot.decode(FILES, 0, MetricsSink.NONE);
+                    InputStream in = snapshot.newInputStream(Path.of("pkg", "Util.java"))) {
+                assertArrayEquals("class Util {}\n".getBytes(StandardCharsets.UTF_8), in.readAllBytes());
+            }
+        }
+
+        @Test
+        public void allBytesWritten() throws IOException {
+            InMemoryMetrics metrics = new InMemoryMetrics();
+            try (VersionSnapshot snapshot = VersionSnapshot.decode(FILES, 20, metrics)) {
+                assertEquals(14 + 14 + 8, metrics.getCounter(MetricNames.REPLAY_BYTES_WRITTEN));
+            }
+        }
+
+        @Test
+        public void closeDeletesSpillFile() throws IOException {
+            long before = countSpillFiles();
+            VersionSnapshot snapshot = VersionSnapshot.decode(FILES, 0, MetricsSink.NONE);
+            assertEquals(before + 1, countSpillFiles());
+
+            snapshot.close();
+            assertEquals(before, countSpillFiles());
+        }
+
+        @Test
+        public void readAfterCloseThrows() throws IOException {
+            VersionSnapshot snapshot = VersionSnapshot.decode(FILES, 0, MetricsSink.NONE);
+            snapshot.close();
+
+            assertAll(
+                () -> assertThrows(IllegalStateException.class, () -> snapshot.readAllBytes(Path.of("Main.java"))),
+                () -> assertThrows(IllegalStateException.class, () -> snapshot.getManifest(IgnoreRules.DEFAULT))
+            );
+        }
+
+        private long countSpillFiles() throws IOException {
+            try (var files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+                return files.filter(f -> f.getFileName().toString().startsWith("submission_replay")
+                        && f.getFileName().toString().endsWith(".zip")).count();
+            }
+        }
+
+    }
+
+    @Nested
+    public class Manifest {
+
+        @Test
+        public void ignoredFilesExcluded() throws IOException {
+            try (VersionSnapshot snapshot = VersionSnapshot.decode(FILES, 1024, MetricsSink.NONE)) {
+                assertEquals(Set.of(Path.of("Main.java"), Path.of("pkg", "Util.java")),
+                        snapshot.getManifest(IgnoreRules.DEFAULT).keySet());
+            }
+        }
+
+        @Test
+        public void sameAsSpilled() throws IOException {
+            try (VersionSnapshot inMemory = VersionSnapshot.decode(FILES, 1024, MetricsSink.NONE);
+                    VersionSnapshot spilled = VersionSnapshot.decode(FILES, 0, MetricsSink.NONE)) {
+                assertEquals(inMemory.getManifest(IgnoreRules.DEFAULT), spilled.getManifest(IgnoreRules.DEFAULT));
+            }
+        }
+
+        @Test
+        public void equalsWorkspaceManifest() throws IOException {
+            Path dir = Files.createTempDirectory("VersionSnapshotTest");
+            try {
+                Files.writeString(dir.resolve("Main.java"), "class Main {}\n");
+                Files.createDirectory(dir.resolve("pkg"));
+                Files.writeString(dir.resolve("pkg/Util.java"), "class Util {}\n");
+
+                try (VersionSnapshot snapshot = VersionSnapshot.decode(FILES, 1024, MetricsSink.NONE)) {
+                    assertEquals(WorkspaceTracker.computeManifest(dir, IgnoreRules.DEFAULT),
+                            snapshot.getManifest(IgnoreRules.DEFAULT));
+                }
+            } finally {
+                Files.delete(dir.resolve("pkg/Util.java"));
+                Files.delete(dir.resolve("pkg"));
+                Files.delete(dir.resolve("Main.java"));
+                Files.delete(dir);
+            }
+        }
+
+    }
+
+}
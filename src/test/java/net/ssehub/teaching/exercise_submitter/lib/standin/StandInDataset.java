@@ -0,0 +1,279 @@
+package net.ssehub.teaching.exercise_submitter.lib.standin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The data served by a {@link StandInServer}: a single course with students, one tutor and assignments. The data is
+ * derived from the sizes only, so two datasets with the same sizes are identical.
+ * <p>
+ * Students are called <code>student1</code> to <code>studentN</code> (user IDs <code>user-1</code> to
+ * <code>user-N</code>); the tutor is called <code>tutor1</code>. All users have the same password. Assignments are
+ * called <code>Homework01</code>, <code>Homework02</code> and so on; the first one is open for submissions, the
+ * others cycle through the remaining states. Every other assignment is a group assignment, for which the students are
+ * put into groups of consecutive students.
+ */
+public class StandInDataset {
+
+    /**
+     * The states of assignments, as named by the student management system.
+     */
+    static final String[] ASSIGNMENT_STATES = {"IN_PROGRESS", "EVALUATED", "IN_REVIEW", "CLOSED", "INVISIBLE"};
+
+    /**
+     * The username of the tutor of the course.
+     */
+    public static final String TUTOR = "tutor1";
+
+    private String courseId;
+
+    private int students;
+
+    private int assignments;
+
+    private int groupSize;
+
+    private String password;
+
+    /**
+     * Creates a dataset.
+     *
+     * @param courseId The ID of the course, e.g. <code>java-wise2021</code>.
+     * @param students The number of students.
+     * @param assignments The number of assignments.
+     * @param groupSize The number of students per group.
+     *
+     * @throws IllegalArgumentException If any of the numbers is less than 1.
+     */
+    public StandInDataset(String courseId, int students, int assignments, int groupSize)
+            throws IllegalArgumentException {
+        if (students < 1 || assignments < 1 || groupSize < 1) {
+            throw new IllegalArgumentException("students, assignments and groupSize must be at least 1");
+        }
+        this.courseId = courseId;
+        this.students = students;
+        this.assignments = assignments;
+        this.groupSize = groupSize;
+        this.password = "123456";
+    }
+
+    /**
+     * Creates the default dataset: course <code>java-wise2021</code> with 500 students, 5 assignments and groups of
+     * two.
+     */
+    public StandInDataset() {
+        this("java-wise2021", 500, 5, 2);
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public int getStudents() {
+        return students;
+    }
+
+    public int getAssignments() {
+        return assignments;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Returns the number of the given user.
+     *
+     * @param username The username, e.g. <code>student12</code>.
+     *
+     * @return The number of the student, starting at 1; 0 for the tutor. {@link Optional#empty()} if there is no such
+     *      user.
+     */
+    Optional<Integer> getUserNumber(String username) {
+        Optional<Integer> result = Optional.empty();
+        if (TUTOR.equals(username)) {
+            result = Optional.of(0);
+
+        } else if (username != null && username.startsWith("student")) {
+            try {
+                int number = Integer.parseInt(username.substring("student".length()));
+                if (number >= 1 && number <= students) {
+                    result = Optional.of(number);
+                }
+            } catch (NumberFormatException e) {
+                // not a student
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the username of the given user.
+     *
+     * @param number The number of the user; 0 for the tutor.
+     *
+     * @return The username.
+     */
+    static String getUsername(int number) {
+        return number == 0 ? TUTOR : "student" + number;
+    }
+
+    /**
+     * Returns the user ID of the given user.
+     *
+     * @param number The number of the user; 0 for the tutor.
+     *
+     * @return The user ID.
+     */
+    static String getUserId(int number) {
+        return "user-" + number;
+    }
+
+    /**
+     * Returns the number of the user with the given user ID.
+     *
+     * @param userId The user ID.
+     *
+     * @return The number of the user; {@link Optional#empty()} if there is no such user.
+     */
+    Optional<Integer> getUserNumberById(String userId) {
+        Optional<Integer> result = Optional.empty();
+        if (userId != null && userId.startsWith("user-")) {
+            try {
+                int number = Integer.parseInt(userId.substring("user-".length()));
+                if (number >= 0 && number <= students) {
+                    result = Optional.of(number);
+                }
+            } catch (NumberFormatException e) {
+                // not a user
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the name of the given assignment.
+     *
+     * @param number The number of the assignment, starting at 1.
+     *
+     * @return The name of the assignment.
+     */
+    static String getAssignmentName(int number) {
+        return String.format("Homework%02d", number);
+    }
+
+    /**
+     * Returns the ID of the given assignment.
+     *
+     * @param number The number of the assignment, starting at 1.
+     *
+     * @return The ID of the assignment.
+     */
+    static String getAssignmentId(int number) {
+        return "assignment-" + number;
+    }
+
+    /**
+     * Returns the number of the assignment with the given ID.
+     *
+     * @param assignmentId The ID of the assignment.
+     *
+     * @return The number of the assignment; {@link Optional#empty()} if there is no such assignment.
+     */
+    Optional<Integer> getAssignmentNumber(String assignmentId) {
+        Optional<Integer> result = Optional.empty();
+        if (assignmentId != null && assignmentId.startsWith("assignment-")) {
+            try {
+                int number = Integer.parseInt(assignmentId.substring("assignment-".length()));
+                if (number >= 1 && number <= assignments) {
+                    result = Optional.of(number);
+                }
+            } catch (NumberFormatException e) {
+                // not an assignment
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the state of the given assignment, as named by the student management system.
+     *
+     * @param number The number of the assignment, starting at 1.
+     *
+     * @return The state.
+     */
+    static String getAssignmentState(int number) {
+        return ASSIGNMENT_STATES[(number - 1) % ASSIGNMENT_STATES.length];
+    }
+
+    /**
+     * Returns whether the given assignment is a group assignment.
+     *
+     * @param number The number of the assignment, starting at 1.
+     *
+     * @return Whether the assignment is a group assignment.
+     */
+    static boolean isGroupWork(int number) {
+        return number % 2 == 1;
+    }
+
+    /**
+     * Returns the number of the group of the given student in group assignments.
+     *
+     * @param student The number of the student, starting at 1.
+     *
+     * @return The number of the group, starting at 1.
+     */
+    int getGroupOf(int student) {
+        return (student - 1) / groupSize + 1;
+    }
+
+    /**
+     * Returns the number of groups in group assignments.
+     *
+     * @return The number of groups.
+     */
+    int getGroups() {
+        return (students - 1) / groupSize + 1;
+    }
+
+    /**
+     * Returns the name of the given group.
+     *
+     * @param number The number of the group, starting at 1.
+     *
+     * @return The name of the group.
+     */
+    static String getGroupName(int number) {
+        return String.format("Group%03d", number);
+    }
+
+    /**
+     * Returns the ID of the given group.
+     *
+     * @param number The number of the group, starting at 1.
+     *
+     * @return The ID of the group.
+     */
+    static String getGroupId(int number) {
+        return "group-" + number;
+    }
+
+    /**
+     * Returns the students in the given group.
+     *
+     * @param group The number of the group, starting at 1.
+     *
+     * @return The numbers of the students.
+     */
+    List<Integer> getMembers(int group) {
+        List<Integer> members = new ArrayList<>(groupSize);
+        for (int i = (group - 1) * groupSize + 1; i <= Math.min(group * groupSize, students); i++) {
+            members.add(i);
+        }
+        return Collections.unmodifiableList(members);
+    }
+
+}
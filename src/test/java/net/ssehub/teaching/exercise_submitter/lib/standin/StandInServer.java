@@ -0,0 +1,787 @@
+package net.ssehub.teaching.exercise_submitter.lib.standin;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import net.ssehub.teaching.exercise_submitter.lib.standin.SubmissionStore.Version;
+
+/**
+ * An in-process stand-in for the authentication, student management and exercise submitter servers, based on the
+ * JDK {@link HttpServer}. Serves the endpoints used by the library with the data of a {@link StandInDataset}, so that
+ * tests and load tests can run without the Docker test environment. The same URL ({@link #getUrl()}) is used for all
+ * three servers.
+ * <p>
+ * Every request can be delayed by a configurable latency and fail with a configurable probability (HTTP 503), to
+ * simulate slow or overloaded servers. Submissions are accepted without running any checks.
+ */
+public class StandInServer implements Closeable {
+
+    /**
+     * Handles a single route.
+     */
+    @FunctionalInterface
+    private interface Handler {
+
+        /**
+         * Handles a request.
+         *
+         * @param request The request.
+         *
+         * @return The response.
+         *
+         * @throws HttpError If the request fails with an HTTP error.
+         */
+        Response handle(Request request) throws HttpError;
+
+    }
+
+    /**
+     * A request to a route.
+     */
+    private static class Request {
+
+        private Matcher path;
+
+        private Map<String, String> query;
+
+        private String username;
+
+        private JsonElement body;
+
+        /**
+         * Creates a request.
+         *
+         * @param path The matched path.
+         * @param query The query parameters.
+         * @param username The authenticated user; <code>null</code> if not authenticated.
+         * @param body The parsed body; {@link JsonNull} if there is none.
+         */
+        Request(Matcher path, Map<String, String> query, String username, JsonElement body) {
+            this.path = path;
+            this.query = query;
+            this.username = username;
+            this.body = body;
+        }
+
+    }
+
+    /**
+     * A response to a request.
+     */
+    private static class Response {
+
+        private int status;
+
+        private JsonElement body;
+
+        /**
+         * Creates a response.
+         *
+         * @param status The HTTP status code.
+         * @param body The body.
+         */
+        Response(int status, JsonElement body) {
+            this.status = status;
+            this.body = body;
+        }
+
+    }
+
+    /**
+     * Signals an HTTP error response.
+     */
+    private static class HttpError extends Exception {
+
+        private static final long serialVersionUID = 8233467306402593318L;
+
+        private int status;
+
+        /**
+         * Creates an error.
+         *
+         * @param status The HTTP status code.
+         * @param message The message sent in the body.
+         */
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+    }
+
+    /**
+     * A route of the server.
+     */
+    private static class Route {
+
+        private String method;
+
+        private Pattern path;
+
+        private boolean authenticated;
+
+        private Handler handler;
+
+        /**
+         * Creates a route.
+         *
+         * @param method The HTTP method.
+         * @param path The regular expression of the path.
+         * @param authenticated Whether a bearer token is required.
+         * @param handler The handler.
+         */
+        Route(String method, String path, boolean authenticated, Handler handler) {
+            this.method = method;
+            this.path = Pattern.compile(path);
+            this.authenticated = authenticated;
+            this.handler = handler;
+        }
+
+    }
+
+    private static final String SEGMENT = "([^/]+)";
+
+    private StandInDataset dataset = new StandInDataset();
+
+    private Duration latency = Duration.ZERO;
+
+    private Duration jitter = Duration.ZERO;
+
+    private double errorRate;
+
+    private int threads = 16;
+
+    private List<Route> routes = new ArrayList<>();
+
+    private Map<String, String> tokens = new ConcurrentHashMap<>();
+
+    private Map<String, JsonObject> assessments = new ConcurrentHashMap<>();
+
+    private SubmissionStore submissions = new SubmissionStore();
+
+    private AtomicLong requests = new AtomicLong();
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    /**
+     * Creates a new server with the default {@link StandInDataset}, no latency and no errors. Call {@link #start()}
+     * after configuring it.
+     */
+    public StandInServer() {
+        addAuthRoutes();
+        addCourseRoutes();
+        addAssessmentRoutes();
+        addSubmissionRoutes();
+    }
+
+    /**
+     * Sets the data to serve.
+     *
+     * @param dataset The dataset.
+     *
+     * @return This.
+     */
+    public StandInServer withDataset(StandInDataset dataset) {
+        this.dataset = dataset;
+        return this;
+    }
+
+    /**
+     * Sets the latency added to every request.
+     *
+     * @param latency The minimum latency.
+     * @param jitter The maximum random latency added on top of the minimum latency.
+     *
+     * @return This.
+     */
+    public StandInServer withLatency(Duration latency, Duration jitter) {
+        this.latency = latency;
+        this.jitter = jitter;
+        return this;
+    }
+
+    /**
+     * Sets the probability with which requests fail with HTTP 503.
+     *
+     * @param errorRate The probability, between 0 and 1.
+     *
+     * @return This.
+     *
+     * @throws IllegalArgumentException If the error rate is not between 0 and 1.
+     */
+    public StandInServer withErrorRate(double errorRate) throws IllegalArgumentException {
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("errorRate must be between 0 and 1: " + errorRate);
+        }
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads that handle requests.
+     *
+     * @param threads The number of threads.
+     *
+     * @return This.
+     */
+    public StandInServer withThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Starts the server on a free port of the loopback interface.
+     *
+     * @return This.
+     *
+     * @throws IOException If binding the server fails.
+     */
+    public StandInServer start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "StandInServer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        return this;
+    }
+
+    /**
+     * Returns the URL of this server, to be used as authentication, management and submission URL.
+     *
+     * @return The URL, without trailing slash.
+     */
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the dataset served by this server.
+     *
+     * @return The dataset.
+     */
+    public StandInDataset getDataset() {
+        return dataset;
+    }
+
+    /**
+     * Returns the number of requests received so far.
+     *
+     * @return The number of requests.
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Handles an exchange: simulates latency and errors, authenticates and dispatches to the matching route.
+     *
+     * @param exchange The exchange.
+     *
+     * @throws IOException If writing the response fails.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        Response response;
+        try {
+            simulateLatency();
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                throw new HttpError(503, "Injected error");
+            }
+            response = dispatch(exchange);
+
+        } catch (HttpError e) {
+            JsonObject message = new JsonObject();
+            message.addProperty("message", e.getMessage());
+            response = new Response(e.status, message);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response = new Response(503, JsonNull.INSTANCE);
+        }
+
+        byte[] body = response.body.isJsonNull() ? new byte[0] : response.body.toString()
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.status, body.length > 0 ? body.length : -1);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Finds the route of an exchange and runs it.
+     *
+     * @param exchange The exchange.
+     *
+     * @return The response.
+     *
+     * @throws HttpError If the request fails.
+     * @throws IOException If reading the request body fails.
+     */
+    private Response dispatch(HttpExchange exchange) throws HttpError, IOException {
+        String path = exchange.getRequestURI().getPath();
+        Response response = null;
+        for (int i = 0; response == null && i < routes.size(); i++) {
+            Route route = routes.get(i);
+            Matcher matcher = route.path.matcher(path);
+            if (route.method.equals(exchange.getRequestMethod()) && matcher.matches()) {
+                String username = authenticate(exchange);
+                if (route.authenticated && username == null) {
+                    throw new HttpError(401, "Unauthorized");
+                }
+                response = route.handler.handle(new Request(matcher,
+                        parseQuery(exchange.getRequestURI().getRawQuery()), username, readBody(exchange)));
+            }
+        }
+        if (response == null) {
+            throw new HttpError(404, "Not found: " + exchange.getRequestMethod() + " " + path);
+        }
+        return response;
+    }
+
+    /**
+     * Sleeps for the configured latency.
+     *
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    private void simulateLatency() throws InterruptedException {
+        long millis = latency.toMillis();
+        if (!jitter.isZero()) {
+            millis += ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1);
+        }
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    /**
+     * Returns the user of the bearer token of an exchange.
+     *
+     * @param exchange The exchange.
+     *
+     * @return The username; <code>null</code> if there is no valid token.
+     */
+    private String authenticate(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        String username = null;
+        if (header != null && header.startsWith("Bearer ")) {
+            username = tokens.get(header.substring("Bearer ".length()));
+        }
+        return username;
+    }
+
+    /**
+     * Reads the JSON body of an exchange.
+     *
+     * @param exchange The exchange.
+     *
+     * @return The body; {@link JsonNull} if there is none.
+     *
+     * @throws HttpError If the body is not valid JSON.
+     * @throws IOException If reading the body fails.
+     */
+    private static JsonElement readBody(HttpExchange exchange) throws HttpError, IOException {
+        try (InputStream in = exchange.getRequestBody();
+                Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return JsonParser.parseReader(reader);
+        } catch (JsonParseException e) {
+            throw new HttpError(400, "Invalid JSON: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses a query string.
+     *
+     * @param query The raw query string; may be <code>null</code>.
+     *
+     * @return The query parameters.
+     */
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> result = new HashMap<>();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                int equals = parameter.indexOf('=');
+                if (equals > 0) {
+                    result.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+                            URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds the routes of the authentication server and the authentication routes of the management server.
+     */
+    private void addAuthRoutes() {
+        routes.add(new Route("POST", "/api/v1/authenticate", false, request -> {
+            JsonObject credentials = request.body.isJsonObject() ? request.body.getAsJsonObject() : new JsonObject();
+            String username = getString(credentials, "username");
+            if (dataset.getUserNumber(username).isEmpty()
+                    || !dataset.getPassword().equals(getString(credentials, "password"))) {
+                throw new HttpError(401, "Invalid credentials");
+            }
+            String token = "standin-" + username + "-" + UUID.randomUUID();
+            tokens.put(token, username);
+
+            JsonObject user = new JsonObject();
+            user.addProperty("username", username);
+            JsonObject tokenDto = new JsonObject();
+            tokenDto.addProperty("token", token);
+            JsonObject result = new JsonObject();
+            result.add("user", user);
+            result.add("token", tokenDto);
+            return new Response(200, result);
+        }));
+
+        routes.add(new Route("GET", "/auth/whoAmI", true, request -> {
+            int number = dataset.getUserNumber(request.username).orElseThrow();
+            JsonObject user = new JsonObject();
+            user.addProperty("id", StandInDataset.getUserId(number));
+            user.addProperty("username", request.username);
+            user.addProperty("displayName", request.username);
+            return new Response(200, user);
+        }));
+    }
+
+    /**
+     * Adds the course, assignment, participant and group routes of the management server.
+     */
+    private void addCourseRoutes() {
+        routes.add(new Route("GET", "/courses", true, request -> {
+            JsonArray courses = new JsonArray();
+            courses.add(createCourse());
+            return new Response(200, courses);
+        }));
+        routes.add(new Route("GET", "/courses/" + SEGMENT, true, request -> {
+            checkCourse(request.path.group(1));
+            return new Response(200, createCourse());
+        }));
+
+        routes.add(new Route("GET", "/courses/" + SEGMENT + "/assignments", true, request -> {
+            checkCourse(request.path.group(1));
+            JsonArray result = new JsonArray();
+            for (int i = 1; i <= dataset.getAssignments(); i++) {
+                result.add(createAssignment(i));
+            }
+            return new Response(200, result);
+        }));
+
+        routes.add(new Route("GET", "/courses/" + SEGMENT + "/users", true, request -> {
+            checkCourse(request.path.group(1));
+            JsonArray result = new JsonArray();
+            for (int i = 0; i <= dataset.getStudents(); i++) {
+                result.add(createParticipant(i));
+            }
+            return new Response(200, result);
+        }));
+        routes.add(new Route("GET", "/courses/" + SEGMENT + "/users/" + SEGMENT, true, request -> {
+            checkCourse(request.path.group(1));
+            int user = dataset.getUserNumberById(request.path.group(2))
+                    .orElseThrow(() -> new HttpError(404, "User not found"));
+            return new Response(200, createParticipant(user));
+        }));
+
+        routes.add(new Route("GET", "/courses/" + SEGMENT + "/assignments/" + SEGMENT + "/registrations/groups", true,
+            request -> {
+                checkGroupAssignment(request.path.group(1), request.path.group(2));
+                JsonArray result = new JsonArray();
+                for (int i = 1; i <= dataset.getGroups(); i++) {
+                    result.add(createGroup(i));
+                }
+                return new Response(200, result);
+            }));
+        routes.add(new Route("GET",
+            "/courses/" + SEGMENT + "/assignments/" + SEGMENT + "/registrations/users/" + SEGMENT, true, request -> {
+                checkGroupAssignment(request.path.group(1), request.path.group(2));
+                int user = dataset.getUserNumberById(request.path.group(3))
+                        .filter(number -> number > 0)
+                        .orElseThrow(() -> new HttpError(404, "User is not registered"));
+                return new Response(200, createGroup(dataset.getGroupOf(user)));
+            }));
+    }
+
+    /**
+     * Adds the assessment routes of the management server.
+     */
+    private void addAssessmentRoutes() {
+        String assessmentsPath = "/courses/" + SEGMENT + "/assignments/" + SEGMENT + "/assessments";
+
+        routes.add(new Route("GET", assessmentsPath, true, request -> {
+            checkAssignment(request.path.group(1), request.path.group(2));
+            String assignmentId = request.path.group(2);
+            JsonArray result = new JsonArray();
+            for (JsonObject assessment : assessments.values()) {
+                if (assignmentId.equals(getString(assessment, "assignmentId"))
+                        && matchesFilter(assessment, request.query, "groupId")
+                        && matchesFilter(assessment, request.query, "userId")) {
+                    result.add(assessment);
+                }
+            }
+            return new Response(200, result);
+        }));
+
+        routes.add(new Route("POST", assessmentsPath, true, request -> {
+            checkAssignment(request.path.group(1), request.path.group(2));
+            if (!request.body.isJsonObject()) {
+                throw new HttpError(400, "Assessment expected");
+            }
+            JsonObject assessment = request.body.getAsJsonObject().deepCopy();
+            assessment.addProperty("id", UUID.randomUUID().toString());
+            assessment.addProperty("assignmentId", request.path.group(2));
+            assessments.put(assessment.get("id").getAsString(), assessment);
+            return new Response(201, assessment);
+        }));
+
+        routes.add(new Route("PATCH", assessmentsPath + "/" + SEGMENT, true, request -> {
+            checkAssignment(request.path.group(1), request.path.group(2));
+            JsonObject assessment = Optional.ofNullable(assessments.get(request.path.group(3)))
+                    .orElseThrow(() -> new HttpError(404, "Assessment not found"));
+            if (request.body.isJsonObject()) {
+                synchronized (assessment) {
+                    request.body.getAsJsonObject().entrySet()
+                            .forEach(entry -> assessment.add(entry.getKey(), entry.getValue()));
+                }
+            }
+            return new Response(200, assessment);
+        }));
+    }
+
+    /**
+     * Adds the routes of the exercise submitter server.
+     */
+    private void addSubmissionRoutes() {
+        String groupPath = "/submission/" + SEGMENT + "/" + SEGMENT + "/" + SEGMENT;
+
+        routes.add(new Route("POST", groupPath, true, request -> {
+            if (!request.body.isJsonArray()) {
+                throw new HttpError(400, "Files expected");
+            }
+            submissions.add(request.path.group(1), request.path.group(2), request.path.group(3), request.username,
+                    request.body.getAsJsonArray());
+            JsonObject result = new JsonObject();
+            result.addProperty("accepted", true);
+            result.add("messages", new JsonArray());
+            return new Response(201, result);
+        }));
+
+        routes.add(new Route("GET", groupPath + "/versions", true, request -> {
+            JsonArray result = new JsonArray();
+            for (Version version : submissions.getVersions(request.path.group(1), request.path.group(2),
+                    request.path.group(3))) {
+                JsonObject dto = new JsonObject();
+                dto.addProperty("author", version.getAuthor());
+                dto.addProperty("timestamp", version.getTimestamp());
+                result.add(dto);
+            }
+            return new Response(200, result);
+        }));
+
+        routes.add(new Route("GET", groupPath + "/latest", true, request -> getVersion(request, -1)));
+
+        routes.add(new Route("GET", groupPath + "/([0-9]+)", true,
+            request -> getVersion(request, Long.parseLong(request.path.group(4)))));
+    }
+
+    /**
+     * Returns the files of a stored version.
+     *
+     * @param request The request, with course, assignment and group in the path.
+     * @param timestamp The timestamp of the version; negative for the latest.
+     *
+     * @return The response.
+     *
+     * @throws HttpError If there is no such version.
+     */
+    private Response getVersion(Request request, long timestamp) throws HttpError {
+        Version version = submissions.getVersion(request.path.group(1), request.path.group(2), request.path.group(3),
+                timestamp).orElseThrow(() -> new HttpError(404, "Version not found"));
+        return new Response(200, version.getFiles());
+    }
+
+    /**
+     * Checks that a course exists.
+     *
+     * @param courseId The course ID.
+     *
+     * @throws HttpError If the course does not exist.
+     */
+    private void checkCourse(String courseId) throws HttpError {
+        if (!dataset.getCourseId().equals(courseId)) {
+            throw new HttpError(404, "Course not found");
+        }
+    }
+
+    /**
+     * Checks that an assignment exists.
+     *
+     * @param courseId The course ID.
+     * @param assignmentId The assignment ID.
+     *
+     * @return The number of the assignment.
+     *
+     * @throws HttpError If the course or assignment does not exist.
+     */
+    private int checkAssignment(String courseId, String assignmentId) throws HttpError {
+        checkCourse(courseId);
+        return dataset.getAssignmentNumber(assignmentId)
+                .orElseThrow(() -> new HttpError(404, "Assignment not found"));
+    }
+
+    /**
+     * Checks that an assignment exists and is a group assignment.
+     *
+     * @param courseId The course ID.
+     * @param assignmentId The assignment ID.
+     *
+     * @throws HttpError If the course or assignment does not exist or the assignment is not a group assignment.
+     */
+    private void checkGroupAssignment(String courseId, String assignmentId) throws HttpError {
+        if (!StandInDataset.isGroupWork(checkAssignment(courseId, assignmentId))) {
+            throw new HttpError(404, "Not a group assignment");
+        }
+    }
+
+    /**
+     * Creates the course DTO.
+     *
+     * @return The course.
+     */
+    private JsonObject createCourse() {
+        String courseId = dataset.getCourseId();
+        int separator = courseId.lastIndexOf('-');
+        JsonObject course = new JsonObject();
+        course.addProperty("id", courseId);
+        course.addProperty("shortname", separator > 0 ? courseId.substring(0, separator) : courseId);
+        course.addProperty("semester", separator > 0 ? courseId.substring(separator + 1) : "");
+        course.addProperty("title", "Stand-in course " + courseId);
+        course.addProperty("isClosed", false);
+        return course;
+    }
+
+    /**
+     * Creates an assignment DTO.
+     *
+     * @param number The number of the assignment.
+     *
+     * @return The assignment.
+     */
+    private static JsonObject createAssignment(int number) {
+        JsonObject assignment = new JsonObject();
+        assignment.addProperty("id", StandInDataset.getAssignmentId(number));
+        assignment.addProperty("name", StandInDataset.getAssignmentName(number));
+        assignment.addProperty("state", StandInDataset.getAssignmentState(number));
+        assignment.addProperty("type", "HOMEWORK");
+        assignment.addProperty("collaboration", StandInDataset.isGroupWork(number) ? "GROUP" : "SINGLE");
+        assignment.addProperty("points", 10);
+        assignment.addProperty("bonusPoints", 0);
+        return assignment;
+    }
+
+    /**
+     * Creates a participant DTO.
+     *
+     * @param number The number of the user; 0 for the tutor.
+     *
+     * @return The participant.
+     */
+    private static JsonObject createParticipant(int number) {
+        JsonObject participant = new JsonObject();
+        participant.addProperty("userId", StandInDataset.getUserId(number));
+        participant.addProperty("username", StandInDataset.getUsername(number));
+        participant.addProperty("displayName", StandInDataset.getUsername(number));
+        participant.addProperty("role", number == 0 ? "TUTOR" : "STUDENT");
+        return participant;
+    }
+
+    /**
+     * Creates a group DTO.
+     *
+     * @param number The number of the group.
+     *
+     * @return The group, including its members.
+     */
+    private JsonObject createGroup(int number) {
+        JsonObject group = new JsonObject();
+        group.addProperty("id", StandInDataset.getGroupId(number));
+        group.addProperty("name", StandInDataset.getGroupName(number));
+        JsonArray members = new JsonArray();
+        for (int member : dataset.getMembers(number)) {
+            members.add(createParticipant(member));
+        }
+        group.add("members", members);
+        return group;
+    }
+
+    /**
+     * Checks whether an assessment matches a query filter.
+     *
+     * @param assessment The assessment.
+     * @param query The query parameters.
+     * @param property The property to filter by.
+     *
+     * @return Whether the filter is absent or matches.
+     */
+    private static boolean matchesFilter(JsonObject assessment, Map<String, String> query, String property) {
+        String expected = query.get(property);
+        return expected == null || expected.equals(getString(assessment, property));
+    }
+
+    /**
+     * Reads a string property of a JSON object.
+     *
+     * @param object The object.
+     * @param property The name of the property.
+     *
+     * @return The value; <code>null</code> if absent or not a string.
+     */
+    private static String getString(JsonObject object, String property) {
+        JsonElement value = object.get(property);
+        return value != null && value.isJsonPrimitive() ? value.getAsString() : null;
+    }
+
+}
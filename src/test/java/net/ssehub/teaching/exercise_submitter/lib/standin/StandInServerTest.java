@@ -0,0 +1,246 @@
+package net.ssehub.teaching.exercise_submitter.lib.standin;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+public class StandInServerTest {
+
+    private HttpClient client = HttpClient.newHttpClient();
+
+    private StandInServer server;
+
+    @AfterEach
+    public void stopServer() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private HttpResponse<String> send(String method, String path, String token, String body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(server.getUrl() + path))
+                .method(method, body != null ? BodyPublishers.ofString(body) : BodyPublishers.noBody())
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), BodyHandlers.ofString());
+    }
+
+    private String login(String username) throws IOException, InterruptedException {
+        HttpResponse<String> response = send("POST", "/api/v1/authenticate", null,
+                "{\"username\":\"" + username + "\",\"password\":\"123456\"}");
+        assertEquals(200, response.statusCode());
+        return JsonParser.parseString(response.body()).getAsJsonObject()
+                .getAsJsonObject("token").get("token").getAsString();
+    }
+
+    @Nested
+    public class Authentication {
+
+        @Test
+        public void invalidPasswordRejected() throws IOException, InterruptedException {
+            server = new StandInServer().start();
+            HttpResponse<String> response = send("POST", "/api/v1/authenticate", null,
+                    "{\"username\":\"student1\",\"password\":\"wrong\"}");
+
+            assertAll(
+                () -> assertEquals(401, response.statusCode()),
+                () -> assertTrue(response.body().contains("\"message\""))
+            );
+        }
+
+        @Test
+        public void missingTokenRejected() throws IOException, InterruptedException {
+            server = new StandInServer().start();
+
+            assertEquals(401, send("GET", "/courses/java-wise2021", null, null).statusCode());
+        }
+
+        @Test
+        public void whoAmIReturnsLoggedInUser() throws IOException, InterruptedException {
+            server = new StandInServer().start();
+            String token = login("student7");
+
+            JsonObject user = JsonParser.parseString(send("GET", "/auth/whoAmI", token, null).body())
+                    .getAsJsonObject();
+            assertAll(
+                () -> assertEquals("student7", user.get("username").getAsString()),
+                () -> assertEquals("user-7", user.get("id").getAsString())
+            );
+        }
+
+    }
+
+    @Nested
+    public class Management {
+
+        @Test
+        public void assignmentsFollowDataset() throws IOException, InterruptedException {
+            server = new StandInServer().withDataset(new StandInDataset("java-sose2022", 10, 7, 3)).start();
+            String token = login("student1");
+
+            JsonArray assignments = JsonParser.parseString(
+                    send("GET", "/courses/java-sose2022/assignments", token, null).body()).getAsJsonArray();
+            JsonObject first = assignments.get(0).getAsJsonObject();
+            assertAll(
+                () -> assertEquals(7, assignments.size()),
+                () -> assertEquals("Homework01", first.get("name").getAsString()),
+                () -> assertEquals("IN_PROGRESS", first.get("state").getAsString()),
+                () -> assertEquals("GROUP", first.get("collaboration").getAsString())
+            );
+        }
+
+        @Test
+        public void groupOfUserContainsConsecutiveStudents() throws IOException, InterruptedException {
+            server = new StandInServer().withDataset(new StandInDataset("java-wise2021", 10, 1, 3)).start();
+            String token = login("student5");
+
+            JsonObject group = JsonParser.parseString(send("GET",
+                    "/courses/java-wise2021/assignments/assignment-1/registrations/users/user-5", token, null).body())
+                    .getAsJsonObject();
+            assertAll(
+                () -> assertEquals("Group002", group.get("name").getAsString()),
+                () -> assertEquals(3, group.getAsJsonArray("members").size())
+            );
+        }
+
+        @Test
+        public void unknownCourseNotFound() throws IOException, InterruptedException {
+            server = new StandInServer().start();
+            String token = login("student1");
+
+            assertEquals(404, send("GET", "/courses/other-course/assignments", token, null).statusCode());
+        }
+
+        @Test
+        public void createdAssessmentCanBeQueriedAndUpdated() throws IOException, InterruptedException {
+            server = new StandInServer().start();
+            String token = login(StandInDataset.TUTOR);
+            String path = "/courses/java-wise2021/assignments/assignment-2/assessments";
+
+            HttpResponse<String> created = send("POST", path, token, "{\"groupId\":\"group-1\",\"comment\":\"a\"}");
+            String id = JsonParser.parseString(created.body()).getAsJsonObject().get("id").getAsString();
+            send("PATCH", path + "/" + id, token, "{\"comment\":\"b\"}");
+
+            JsonArray found = JsonParser.parseString(send("GET", path + "?groupId=group-1", token, null).body())
+                    .getAsJsonArray();
+            JsonArray other = JsonParser.parseString(send("GET", path + "?groupId=group-2", token, null).body())
+                    .getAsJsonArray();
+            assertAll(
+                () -> assertEquals(201, created.statusCode()),
+                () -> assertEquals(1, found.size()),
+                () -> assertEquals("b", found.get(0).getAsJsonObject().get("comment").getAsString()),
+                () -> assertEquals(0, other.size())
+            );
+        }
+
+    }
+
+    @Nested
+    public class Submission {
+
+        @Test
+        public void submittedVersionCanBeReplayed() throws IOException, InterruptedException {
+            server = new StandInServer().start();
+            String token = login("student1");
+            String path = "/submission/java-wise2021/Homework01/Group001";
+
+            HttpResponse<String> submitted = send("POST", path, token,
+                    "[{\"path\":\"Main.java\",\"content\":\"Y2xhc3M=\"}]");
+            JsonArray versions = JsonParser.parseString(send("GET", path + "/versions", token, null).body())
+                    .getAsJsonArray();
+            long timestamp = versions.get(0).getAsJsonObject().get("timestamp").getAsLong();
+            JsonArray files = JsonParser.parseString(send("GET", path + "/" + timestamp, token, null).body())
+                    .getAsJsonArray();
+
+            assertAll(
+                () -> assertEquals(201, submitted.statusCode()),
+                () -> assertEquals(1, versions.size()),
+                () -> assertEquals("student1", versions.get(0).getAsJsonObject().get("author").getAsString()),
+                () -> assertEquals("Main.java", files.get(0).getAsJsonObject().get("path").getAsString())
+            );
+        }
+
+        @Test
+        public void versionsNewestFirstWithDistinctTimestamps() throws IOException, InterruptedException {
+            server = new StandInServer().start();
+            String token = login("student1");
+            String path = "/submission/java-wise2021/Homework01/Group001";
+
+            send("POST", path, token, "[{\"path\":\"A.java\",\"content\":\"\"}]");
+            send("POST", path, token, "[{\"path\":\"B.java\",\"content\":\"\"}]");
+
+            JsonArray versions = JsonParser.parseString(send("GET", path + "/versions", token, null).body())
+                    .getAsJsonArray();
+            JsonArray latest = JsonParser.parseString(send("GET", path + "/latest", token, null).body())
+                    .getAsJsonArray();
+            assertAll(
+                () -> assertTrue(versions.get(0).getAsJsonObject().get("timestamp").getAsLong()
+                        > versions.get(1).getAsJsonObject().get("timestamp").getAsLong()),
+                () -> assertEquals("B.java", latest.get(0).getAsJsonObject().get("path").getAsString())
+            );
+        }
+
+        @Test
+        public void latestOfEmptyGroupNotFound() throws IOException, InterruptedException {
+            server = new StandInServer().start();
+            String token = login("student1");
+
+            assertEquals(404, send("GET", "/submission/java-wise2021/Homework01/Group001/latest", token, null)
+                    .statusCode());
+        }
+
+    }
+
+    @Nested
+    public class Simulation {
+
+        @Test
+        public void errorRateOneFailsEveryRequest() throws IOException, InterruptedException {
+            server = new StandInServer().withErrorRate(1.0).start();
+
+            HttpResponse<String> response = send("POST", "/api/v1/authenticate", null,
+                    "{\"username\":\"student1\",\"password\":\"123456\"}");
+            assertAll(
+                () -> assertEquals(503, response.statusCode()),
+                () -> assertEquals(1, server.getRequestCount())
+            );
+        }
+
+        @Test
+        public void latencyDelaysResponses() throws IOException, InterruptedException {
+            server = new StandInServer().withLatency(Duration.ofMillis(100), Duration.ZERO).start();
+
+            long start = System.nanoTime();
+            send("GET", "/courses", null, null);
+            assertTrue(System.nanoTime() - start >= Duration.ofMillis(100).toNanos());
+        }
+
+        @Test
+        public void invalidErrorRateRejected() {
+            assertThrows(IllegalArgumentException.class, () -> new StandInServer().withErrorRate(1.5));
+        }
+
+    }
+
+}
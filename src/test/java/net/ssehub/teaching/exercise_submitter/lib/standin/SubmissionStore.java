@@ -0,0 +1,123 @@
+package net.ssehub.teaching.exercise_submitter.lib.standin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.JsonArray;
+
+/**
+ * Thread-safe storage of the submissions received by a {@link StandInServer}.
+ */
+class SubmissionStore {
+
+    /**
+     * A single stored version.
+     */
+    static class Version {
+
+        private String author;
+
+        private long timestamp;
+
+        private JsonArray files;
+
+        /**
+         * Creates a version.
+         *
+         * @param author The username of the author.
+         * @param timestamp The timestamp, in epoch seconds.
+         * @param files The submitted files, as sent by the client.
+         */
+        Version(String author, long timestamp, JsonArray files) {
+            this.author = author;
+            this.timestamp = timestamp;
+            this.files = files;
+        }
+
+        String getAuthor() {
+            return author;
+        }
+
+        long getTimestamp() {
+            return timestamp;
+        }
+
+        JsonArray getFiles() {
+            return files;
+        }
+
+    }
+
+    private Map<String, List<Version>> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a new version. Timestamps are strictly increasing per group, so that versions submitted in the same
+     * second can still be told apart.
+     *
+     * @param course The course ID.
+     * @param assignment The assignment name.
+     * @param group The group name.
+     * @param author The username of the author.
+     * @param files The submitted files.
+     */
+    void add(String course, String assignment, String group, String author, JsonArray files) {
+        List<Version> list = versions.computeIfAbsent(key(course, assignment, group), k -> new ArrayList<>());
+        synchronized (list) {
+            long timestamp = System.currentTimeMillis() / 1000;
+            if (!list.isEmpty()) {
+                timestamp = Math.max(timestamp, list.get(0).getTimestamp() + 1);
+            }
+            list.add(0, new Version(author, timestamp, files));
+        }
+    }
+
+    /**
+     * Returns all versions, newest first.
+     *
+     * @param course The course ID.
+     * @param assignment The assignment name.
+     * @param group The group name.
+     *
+     * @return A copy of the versions.
+     */
+    List<Version> getVersions(String course, String assignment, String group) {
+        List<Version> list = versions.getOrDefault(key(course, assignment, group), Collections.emptyList());
+        synchronized (list) {
+            return new ArrayList<>(list);
+        }
+    }
+
+    /**
+     * Returns a single version.
+     *
+     * @param course The course ID.
+     * @param assignment The assignment name.
+     * @param group The group name.
+     * @param timestamp The timestamp of the version; negative for the latest version.
+     *
+     * @return The version; {@link Optional#empty()} if there is no such version.
+     */
+    Optional<Version> getVersion(String course, String assignment, String group, long timestamp) {
+        return getVersions(course, assignment, group).stream()
+                .filter(version -> timestamp < 0 || version.getTimestamp() == timestamp)
+                .findFirst();
+    }
+
+    /**
+     * Creates the key of a group's versions.
+     *
+     * @param course The course ID.
+     * @param assignment The assignment name.
+     * @param group The group name.
+     *
+     * @return The key.
+     */
+    private static String key(String course, String assignment, String group) {
+        return course + '/' + assignment + '/' + group;
+    }
+
+}
@@ -15,18 +15,33 @@ import java.io.OutputStream;
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.ThrowingConsumer;
 
 import com.google.gson.JsonSyntaxException;
+import com.sun.net.httpserver.HttpServer;
 
 import net.ssehub.studentmgmt.backend_api.model.AssessmentDto;
 import net.ssehub.studentmgmt.backend_api.model.MarkerDto;
@@ -614,4 +629,119 @@ public class ApiConnectionTest {
         
     }
     
+    @Nested
+    public class Coalescing {
+        
+        private HttpServer server;
+        
+        private ExecutorService serverThreads = Executors.newCachedThreadPool();
+        
+        private AtomicInteger requests = new AtomicInteger();
+        
+        private Semaphore received = new Semaphore(0);
+        
+        private CountDownLatch release = new CountDownLatch(1);
+        
+        @BeforeEach
+        public void startServer() throws IOException {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.setExecutor(serverThreads);
+            server.createContext("/", exchange -> {
+                requests.incrementAndGet();
+                received.release();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = "{\"message\": \"not in course\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+                exchange.sendResponseHeaders(403, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            });
+            server.start();
+        }
+        
+        @AfterEach
+        public void stopServer() {
+            release.countDown();
+            server.stop(0);
+            serverThreads.shutdownNow();
+        }
+        
+        private void waitUntil(BooleanSupplier condition, String message) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!condition.getAsBoolean()) {
+                assertTrue(System.nanoTime() < deadline, message);
+                Thread.sleep(1);
+            }
+        }
+        
+        private ApiConnection createConnection() {
+            ApiConnection api = new ApiConnection("http://doesnt.matter.local",
+                    "http://localhost:" + server.getAddress().getPort());
+            fakeLogin(api);
+            return api;
+        }
+        
+        @Test
+        public void concurrentIdenticalCallsShareRequest() throws Exception {
+            ApiConnection api = createConnection();
+            Course course = new Course("Java", "java-wise2021");
+            ExecutorService threads = Executors.newFixedThreadPool(3);
+            try {
+                List<Future<Boolean>> calls = new ArrayList<>();
+                for (int i = 0; i < 3; i++) {
+                    calls.add(threads.submit(() -> api.hasTutorRights(course)));
+                }
+                assertTrue(received.tryAcquire(5, TimeUnit.SECONDS), "no request received");
+                waitUntil(() -> api.getWaitingCallCount() == 2, "callers did not join the call in flight");
+                release.countDown();
+                
+                for (Future<Boolean> call : calls) {
+                    ExecutionException e = assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+                    assertTrue(e.getCause() instanceof UserNotInCourseException);
+                }
+                assertEquals(1, requests.get());
+                
+            } finally {
+                threads.shutdownNow();
+            }
+        }
+        
+        @Test
+        public void differentCallsNotShared() throws Exception {
+            ApiConnection api = createConnection();
+            ExecutorService threads = Executors.newFixedThreadPool(2);
+            try {
+                Future<Course> first = threads.submit(() -> api.getCourse("java-wise2021"));
+                Future<Course> second = threads.submit(() -> api.getCourse("python-wise2021"));
+                assertTrue(received.tryAcquire(2, 5, TimeUnit.SECONDS), "calls were shared");
+                release.countDown();
+                
+                assertAll(
+                    () -> assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS)),
+                    () -> assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS)),
+                    () -> assertEquals(2, requests.get())
+                );
+                
+            } finally {
+                threads.shutdownNow();
+            }
+        }
+        
+        @Test
+        public void sequentialCallsSendEachRequest() {
+            ApiConnection api = createConnection();
+            release.countDown();
+            
+            assertThrows(UserNotInCourseException.class, () -> api.getCourse("java-wise2021"));
+            assertThrows(UserNotInCourseException.class, () -> api.getCourse("java-wise2021"));
+            
+            assertEquals(2, requests.get());
+        }
+        
+    }
+    
 }
@@ -0,0 +1,220 @@
+package net.ssehub.teaching.exercise_submitter.lib.student_management_system;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import net.ssehub.teaching.exercise_submitter.lib.data.Assessment;
+import net.ssehub.teaching.exercise_submitter.lib.data.Assignment;
+import net.ssehub.teaching.exercise_submitter.lib.data.Assignment.State;
+import net.ssehub.teaching.exercise_submitter.lib.data.Course;
+
+public class SyntheticApiConnectionTest {
+
+    private static SyntheticApiConnection login(SyntheticDataset dataset, String username) {
+        SyntheticApiConnection connection = new SyntheticApiConnection(dataset);
+        assertDoesNotThrow(() -> connection.login(username, username));
+        return connection;
+    }
+
+    private static Assignment findAssignment(List<Assignment> assignments, State state, boolean groupWork) {
+        return assignments.stream()
+                .filter(assignment -> assignment.getState() == state && assignment.isGroupWork() == groupWork)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Nested
+    public class Dataset {
+
+        @Test
+        public void sameSeedSameData() {
+            SyntheticDataset first = new SyntheticDataset(42);
+            SyntheticDataset second = new SyntheticDataset(42);
+            Assignment assignment = findAssignment(first.getAssignments(), State.REVIEWED, true);
+            int number = first.getAssignmentNumber(assignment).orElseThrow();
+
+            assertAll(
+                () -> assertEquals(first.getAssignments(), second.getAssignments()),
+                () -> assertEquals(first.createAssessment(number, "Group0001"),
+                        second.createAssessment(number, "Group0001"))
+            );
+        }
+
+        @Test
+        public void differentSeedDifferentData() {
+            assertNotEquals(new SyntheticDataset(1).getAssignments(), new SyntheticDataset(2).getAssignments());
+        }
+
+        @Test
+        public void sizesHonored() {
+            SyntheticDataset dataset = new SyntheticDataset(0).withStudents(2000).withAssignments(3000)
+                    .withGroupSize(3);
+
+            assertAll(
+                () -> assertEquals(3000, dataset.getAssignments().size()),
+                () -> assertEquals(667, dataset.getGroupNames(true).size()),
+                () -> assertEquals(2000, dataset.getGroupNames(false).size())
+            );
+        }
+
+        @Test
+        public void partnersChangeOverSemester() {
+            SyntheticDataset dataset = new SyntheticDataset(0).withStudents(100).withAssignments(10);
+            Set<String> partners = new HashSet<>();
+            for (int assignment = 1; assignment <= 10; assignment++) {
+                String group = dataset.getGroupName(assignment, "student1").orElseThrow();
+                for (int student = 2; student <= 100; student++) {
+                    if (dataset.getGroupName(assignment, "student" + student).orElseThrow().equals(group)) {
+                        partners.add("student" + student);
+                    }
+                }
+            }
+
+            assertTrue(partners.size() > 2, "partners: " + partners);
+        }
+
+        @Test
+        public void groupsFilledEvenly() {
+            SyntheticDataset dataset = new SyntheticDataset(0).withStudents(10).withGroupSize(3);
+            Map<String, Integer> sizes = new HashMap<>();
+            for (int student = 1; student <= 10; student++) {
+                sizes.merge(dataset.getGroupName(1, "student" + student).orElseThrow(), 1, Integer::sum);
+            }
+
+            assertEquals(Map.of("Group0001", 3, "Group0002", 3, "Group0003", 3, "Group0004", 1), sizes);
+        }
+
+        @Test
+        public void invalidSizesRejected() {
+            assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> new SyntheticDataset(0).withStudents(0)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new SyntheticDataset(0).withAssignments(0)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new SyntheticDataset(0).withGroupSize(0))
+            );
+        }
+
+    }
+
+    @Nested
+    public class Student {
+
+        @Test
+        public void passwordMustEqualUsername() {
+            SyntheticApiConnection connection = new SyntheticApiConnection(new SyntheticDataset(0));
+
+            assertAll(
+                () -> assertThrows(AuthenticationException.class, () -> connection.login("student1", "wrong")),
+                () -> assertThrows(AuthenticationException.class, () -> connection.login("student99999",
+                        "student99999"))
+            );
+        }
+
+        @Test
+        public void groupOfStudentIsGenerated() {
+            SyntheticDataset dataset = new SyntheticDataset(0).withStudents(100);
+            SyntheticApiConnection connection = login(dataset, "student5");
+            Course course = assertDoesNotThrow(() -> connection.getCourse("java-wise2021"));
+            Assignment assignment = findAssignment(dataset.getAssignments(), State.SUBMISSION, true);
+
+            String group = assertDoesNotThrow(() -> connection.getGroupName(course, assignment));
+            assertTrue(dataset.getGroupNames(true).contains(group));
+        }
+
+        @Test
+        public void noTutorRights() {
+            SyntheticApiConnection connection = login(new SyntheticDataset(0), "student1");
+            Course course = assertDoesNotThrow(() -> connection.getCourse("java-wise2021"));
+
+            assertAll(
+                () -> assertFalse(connection.hasTutorRights(course)),
+                () -> assertThrows(UserNotInCourseException.class, () -> connection.getAllGroups(course,
+                        connection.getAssignments(course).get(0)))
+            );
+        }
+
+    }
+
+    @Nested
+    public class Tutor {
+
+        @Test
+        public void reviewedAssignmentHasAssessmentWithProblems() {
+            SyntheticDataset dataset = new SyntheticDataset(7).withStudents(50);
+            SyntheticApiConnection connection = login(dataset, "tutor1");
+            Course course = assertDoesNotThrow(() -> connection.getCourse("java-wise2021"));
+            Assignment assignment = findAssignment(dataset.getAssignments(), State.REVIEWED, true);
+
+            long problems = 0;
+            for (String group : assertDoesNotThrow(() -> connection.getAllGroups(course, assignment))) {
+                Assessment assessment = assertDoesNotThrow(() -> connection.getAssessment(course, assignment, group))
+                        .orElseThrow();
+                assertFalse(assessment.isDraft());
+                problems += assessment.getProblems().size();
+            }
+            assertTrue(problems > 0);
+        }
+
+        @Test
+        public void openAssignmentHasNoAssessment() {
+            SyntheticDataset dataset = new SyntheticDataset(0).withStudents(10);
+            SyntheticApiConnection connection = login(dataset, "tutor1");
+            Course course = assertDoesNotThrow(() -> connection.getCourse("java-wise2021"));
+            Assignment assignment = findAssignment(dataset.getAssignments(), State.SUBMISSION, true);
+
+            assertEquals(Optional.empty(),
+                    assertDoesNotThrow(() -> connection.getAssessment(course, assignment, "Group0001")));
+        }
+
+        @Test
+        public void uploadedAssessmentReplacesGenerated() {
+            SyntheticDataset dataset = new SyntheticDataset(0).withStudents(10);
+            SyntheticApiConnection connection = login(dataset, "tutor1");
+            Course course = assertDoesNotThrow(() -> connection.getCourse("java-wise2021"));
+            Assignment assignment = findAssignment(dataset.getAssignments(), State.REVIEWED, false);
+            Assessment assessment = new Assessment();
+            assessment.setPoints(1);
+
+            assertDoesNotThrow(() -> connection.uploadAssessment(course, assignment, "student3", assessment));
+            assertEquals(Optional.of(assessment),
+                    assertDoesNotThrow(() -> connection.getAssessment(course, assignment, "student3")));
+        }
+
+        @Test
+        public void unknownGroupNotFound() {
+            SyntheticDataset dataset = new SyntheticDataset(0).withStudents(10);
+            SyntheticApiConnection connection = login(dataset, "tutor1");
+            Course course = assertDoesNotThrow(() -> connection.getCourse("java-wise2021"));
+            Assignment assignment = findAssignment(dataset.getAssignments(), State.REVIEWED, true);
+
+            assertThrows(GroupNotFoundException.class, () -> connection.getAssessment(course, assignment, "Group9999"));
+        }
+
+    }
+
+    @Test
+    public void latencySimulated() {
+        SyntheticDataset dataset = new SyntheticDataset(0).withLatency(Duration.ofMillis(50), Duration.ZERO);
+        SyntheticApiConnection connection = new SyntheticApiConnection(dataset);
+
+        long start = System.nanoTime();
+        assertDoesNotThrow(() -> connection.login("student1", "student1"));
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(25).toNanos());
+    }
+
+}
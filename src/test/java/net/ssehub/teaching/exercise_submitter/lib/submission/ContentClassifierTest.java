@@ -0,0 +1,128 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class ContentClassifierTest {
+
+    private static final Path TESTDATA = Path.of("src", "test", "resources", "SubmitterTest", "Encoding");
+
+    @Nested
+    public class Extension {
+
+        @Test
+        public void knownExtensions() {
+            assertAll(
+                () -> assertEquals(Boolean.TRUE, ContentClassifier.isTextExtension("Main.java")),
+                () -> assertEquals(Boolean.TRUE, ContentClassifier.isTextExtension(".classpath")),
+                () -> assertEquals(Boolean.FALSE, ContentClassifier.isTextExtension("Main.class")),
+                () -> assertEquals(Boolean.FALSE, ContentClassifier.isTextExtension("image.png"))
+            );
+        }
+
+        @Test
+        public void caseInsensitive() {
+            assertAll(
+                () -> assertEquals(Boolean.TRUE, ContentClassifier.isTextExtension("README.TXT")),
+                () -> assertEquals(Boolean.FALSE, ContentClassifier.isTextExtension("Photo.JPG"))
+            );
+        }
+
+        @Test
+        public void unknownOrNoExtension() {
+            assertAll(
+                () -> assertNull(ContentClassifier.isTextExtension("Makefile")),
+                () -> assertNull(ContentClassifier.isTextExtension("data.xyz"))
+            );
+        }
+
+    }
+
+    @Nested
+    public class Sniff {
+
+        @Test
+        public void plainTextIsText() {
+            assertTrue(ContentClassifier.isText("class Main {}\n".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @Test
+        public void emptyIsText() {
+            assertTrue(ContentClassifier.isText(new byte[0]));
+        }
+
+        @Test
+        public void nulByteIsBinary() {
+            assertFalse(ContentClassifier.isText(new byte[] {'a', 'b', 0, 'c'}));
+        }
+
+        @Test
+        public void magicNumbersAreBinary() {
+            assertAll(
+                () -> assertFalse(ContentClassifier.isText(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n'})),
+                () -> assertFalse(ContentClassifier.isText(new byte[] {'P', 'K', 3, 4, 'x'})),
+                () -> assertFalse(ContentClassifier.isText(
+                        new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE})),
+                () -> assertFalse(ContentClassifier.isText("%PDF-1.7".getBytes(StandardCharsets.US_ASCII)))
+            );
+        }
+
+        @Test
+        public void utf16WithByteOrderMarkIsText() {
+            assertTrue(ContentClassifier.isText("\uFEFFhello".getBytes(StandardCharsets.UTF_16BE)));
+        }
+
+    }
+
+    @Nested
+    public class Classify {
+
+        @Test
+        public void testdataFiles() {
+            assertAll(
+                () -> assertTrue(ContentClassifier.isText(TESTDATA.resolve("utf-8.txt"))),
+                () -> assertTrue(ContentClassifier.isText(TESTDATA.resolve("cp1252.txt"))),
+                () -> assertFalse(ContentClassifier.isText(TESTDATA.resolve("non-text.png")))
+            );
+        }
+
+        @Test
+        public void unknownExtensionIsSniffed() throws IOException {
+            Path dir = Files.createTempDirectory("ContentClassifierTest");
+            Path text = dir.resolve("Makefile");
+            Path binary = dir.resolve("image.data");
+            try {
+                Files.writeString(text, "all:\n\tjavac Main.java\n");
+                Files.copy(TESTDATA.resolve("non-text.png"), binary);
+
+                assertAll(
+                    () -> assertTrue(ContentClassifier.isText(text)),
+                    () -> assertFalse(ContentClassifier.isText(binary))
+                );
+            } finally {
+                Files.deleteIfExists(text);
+                Files.deleteIfExists(binary);
+                Files.delete(dir);
+            }
+        }
+
+        @Test
+        public void unknownExtensionNotExistingThrows() {
+            assertThrows(IOException.class, () -> ContentClassifier.isText(TESTDATA.resolve("doesnt-exist")));
+        }
+
+    }
+
+}
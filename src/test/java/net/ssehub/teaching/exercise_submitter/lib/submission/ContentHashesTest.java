@@ -0,0 +1,39 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+public class ContentHashesTest {
+
+    @Test
+    public void sha256OfContent() {
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                ContentHashes.hash("abc".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    public void differentContentDifferentHash() {
+        assertNotEquals(ContentHashes.hash(new byte[] {1}), ContentHashes.hash(new byte[] {2}));
+    }
+
+    @Test
+    public void fileHashEqualsContentHash() throws IOException {
+        Path file = Files.createTempFile("ContentHashesTest", ".txt");
+        try {
+            Files.writeString(file, "class Main {}\n");
+
+            assertEquals(ContentHashes.hash("class Main {}\n".getBytes(StandardCharsets.UTF_8)),
+                    ContentHashes.hash(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
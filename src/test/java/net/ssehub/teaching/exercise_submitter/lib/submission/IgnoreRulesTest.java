@@ -0,0 +1,179 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class IgnoreRulesTest {
+
+    private static final Path TESTDATA = Path.of("src", "test", "resources", "SubmitterTest");
+
+    @Nested
+    public class Patterns {
+
+        @Test
+        public void unanchoredMatchesAtAnyLevel() {
+            IgnoreRules rules = new IgnoreRules(Arrays.asList("*.log"));
+
+            assertAll(
+                () -> assertTrue(rules.isIgnored(Path.of("a.log"), false)),
+                () -> assertTrue(rules.isIgnored(Path.of("dir", "sub", "a.log"), false)),
+                () -> assertFalse(rules.isIgnored(Path.of("a.log.txt"), false))
+            );
+        }
+
+        @Test
+        public void anchoredMatchesOnlyAtRoot() {
+            IgnoreRules rules = new IgnoreRules(Arrays.asList("/build", "doc/*.html"));
+
+            assertAll(
+                () -> assertTrue(rules.isIgnored(Path.of("build"), true)),
+                () -> assertFalse(rules.isIgnored(Path.of("src", "build"), true)),
+                () -> assertTrue(rules.isIgnored(Path.of("doc", "index.html"), false)),
+                () -> assertFalse(rules.isIgnored(Path.of("doc", "api", "index.html"), false))
+            );
+        }
+
+        @Test
+        public void trailingSlashOnlyMatchesDirectories() {
+            IgnoreRules rules = new IgnoreRules(Arrays.asList("out/"));
+
+            assertAll(
+                () -> assertTrue(rules.isIgnored(Path.of("src", "out"), true)),
+                () -> assertFalse(rules.isIgnored(Path.of("src", "out"), false))
+            );
+        }
+
+        @Test
+        public void doubleStarMatchesDirectories() {
+            IgnoreRules rules = new IgnoreRules(Arrays.asList("src/**/generated"));
+
+            assertAll(
+                () -> assertTrue(rules.isIgnored(Path.of("src", "generated"), true)),
+                () -> assertTrue(rules.isIgnored(Path.of("src", "a", "b", "generated"), true)),
+                () -> assertFalse(rules.isIgnored(Path.of("test", "generated"), true))
+            );
+        }
+
+        @Test
+        public void negationReincludes() {
+            IgnoreRules rules = new IgnoreRules(Arrays.asList("*.txt", "!keep.txt"));
+
+            assertAll(
+                () -> assertTrue(rules.isIgnored(Path.of("other.txt"), false)),
+                () -> assertFalse(rules.isIgnored(Path.of("keep.txt"), false))
+            );
+        }
+
+        @Test
+        public void commentsAndBlankLinesIgnored() {
+            IgnoreRules rules = new IgnoreRules(Arrays.asList("# *.java", "", "  "));
+
+            assertFalse(rules.isIgnored(Path.of("Main.java"), false));
+        }
+
+        @Test
+        public void characterClassAndQuestionMark() {
+            IgnoreRules rules = new IgnoreRules(Arrays.asList("file[0-9].?xt"));
+
+            assertAll(
+                () -> assertTrue(rules.isIgnored(Path.of("file1.txt"), false)),
+                () -> assertFalse(rules.isIgnored(Path.of("fileA.txt"), false))
+            );
+        }
+
+    }
+
+    @Nested
+    public class Defaults {
+
+        @Test
+        public void previousRulesKept() {
+            assertAll(
+                () -> assertFalse(IgnoreRules.DEFAULT.isWanted(Path.of("src", "Main.class"))),
+                () -> assertFalse(IgnoreRules.DEFAULT.isWanted(Path.of(".classpath"))),
+                () -> assertFalse(IgnoreRules.DEFAULT.isWanted(Path.of(".project"))),
+                () -> assertFalse(IgnoreRules.DEFAULT.isWanted(Path.of(".checkstyle"))),
+                () -> assertFalse(IgnoreRules.DEFAULT.isWanted(Path.of(".settings", "org.eclipse.jdt.core.prefs"))),
+                () -> assertTrue(IgnoreRules.DEFAULT.isWanted(Path.of("src", ".classpath"))),
+                () -> assertTrue(IgnoreRules.DEFAULT.isWanted(Path.of("src", "Main.java")))
+            );
+        }
+
+        @Test
+        public void buildOutputAndVcsIgnored() {
+            assertAll(
+                () -> assertFalse(IgnoreRules.DEFAULT.isWanted(Path.of("bin", "resource.txt"))),
+                () -> assertFalse(IgnoreRules.DEFAULT.isWanted(Path.of("target", "classes", "a.properties"))),
+                () -> assertFalse(IgnoreRules.DEFAULT.isWanted(Path.of(".git", "HEAD"))),
+                () -> assertFalse(IgnoreRules.DEFAULT.isWanted(Path.of("sub", ".svn", "entries"))),
+                () -> assertTrue(IgnoreRules.DEFAULT.isWanted(Path.of("src", "bin", "Tool.java")))
+            );
+        }
+
+        @Test
+        public void withPatternsExtendsRules() {
+            IgnoreRules rules = IgnoreRules.DEFAULT.withPatterns("*.log");
+
+            assertAll(
+                () -> assertFalse(rules.isWanted(Path.of("debug.log"))),
+                () -> assertFalse(rules.isWanted(Path.of("Main.class"))),
+                () -> assertTrue(IgnoreRules.DEFAULT.isWanted(Path.of("debug.log")))
+            );
+        }
+
+    }
+
+    @Nested
+    public class Walk {
+
+        private Submitter submitter = new Submitter("http://localhost:0", "course", "assignment", "group", "token");
+
+        @Test
+        public void eclipseStructureOnlySources() {
+            List<Path> files = assertDoesNotThrow(() -> submitter.listFiles(TESTDATA.resolve("EclipseStructure")));
+
+            assertEquals(Set.of(Path.of("src", "test", "Main.java"), Path.of("src", "test", "Test.java")),
+                    new HashSet<>(files));
+        }
+
+        @Test
+        public void excludedDirectoryNotEntered() throws IOException {
+            Path dir = Files.createTempDirectory("IgnoreRulesTest");
+            Path unreadable = dir.resolve("node_modules");
+            try {
+                Files.writeString(dir.resolve("Main.java"), "class Main {}");
+                Files.createDirectory(unreadable);
+                Files.writeString(unreadable.resolve("index.js"), "");
+                unreadable.toFile().setReadable(false);
+
+                List<Path> files = assertDoesNotThrow(() -> submitter
+                        .withIgnoreRules(IgnoreRules.DEFAULT.withPatterns("node_modules/"))
+                        .listFiles(dir));
+
+                assertEquals(List.of(Path.of("Main.java")), files);
+            } finally {
+                unreadable.toFile().setReadable(true);
+                Files.deleteIfExists(unreadable.resolve("index.js"));
+                Files.deleteIfExists(unreadable);
+                Files.deleteIfExists(dir.resolve("Main.java"));
+                Files.deleteIfExists(dir);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,87 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import net.ssehub.teaching.exercise_submitter.lib.submission.Problem.Severity;
+
+public class LazyProblemListTest {
+
+    private static Severity severity(String raw) {
+        return raw.startsWith("E") ? Severity.ERROR : Severity.WARNING;
+    }
+
+    @Test
+    public void countsDoNotCreateProblems() {
+        AtomicInteger conversions = new AtomicInteger();
+        LazyProblemList<String> list = new LazyProblemList<>(Arrays.asList("E1", "W1", "E2"),
+            LazyProblemListTest::severity, raw -> {
+                conversions.incrementAndGet();
+                return new Problem("mock", raw, severity(raw));
+            });
+
+        assertAll(
+            () -> assertEquals(3, list.size()),
+            () -> assertEquals(2, list.getErrorCount()),
+            () -> assertEquals(1, list.getWarningCount()),
+            () -> assertEquals(0, conversions.get())
+        );
+    }
+
+    @Test
+    public void problemCreatedOnceOnAccess() {
+        AtomicInteger conversions = new AtomicInteger();
+        LazyProblemList<String> list = new LazyProblemList<>(Arrays.asList("E1", "W1"),
+            LazyProblemListTest::severity, raw -> {
+                conversions.incrementAndGet();
+                return new Problem("mock", raw, severity(raw));
+            });
+
+        Problem first = list.get(1);
+        assertAll(
+            () -> assertEquals("W1", first.getMessage()),
+            () -> assertSame(first, list.get(1)),
+            () -> assertEquals(1, conversions.get())
+        );
+    }
+
+    @Test
+    public void equalsEagerList() {
+        List<Problem> eager = Arrays.asList(new Problem("mock", "E1", Severity.ERROR),
+                new Problem("mock", "W1", Severity.WARNING));
+        LazyProblemList<String> lazy = new LazyProblemList<>(Arrays.asList("E1", "W1"),
+            LazyProblemListTest::severity, raw -> new Problem("mock", raw, severity(raw)));
+
+        assertAll(
+            () -> assertEquals(eager, lazy),
+            () -> assertEquals(eager.hashCode(), lazy.hashCode())
+        );
+    }
+
+    @Test
+    public void unmodifiable() {
+        LazyProblemList<Problem> list = LazyProblemList.of(Arrays.asList(new Problem("mock", "E1", Severity.ERROR)));
+
+        assertThrows(UnsupportedOperationException.class, () -> list.add(new Problem("mock", "W", Severity.WARNING)));
+    }
+
+    @Test
+    public void countOfEagerList() {
+        List<Problem> eager = Arrays.asList(new Problem("mock", "E1", Severity.ERROR),
+                new Problem("mock", "W1", Severity.WARNING), new Problem("mock", "W2", Severity.WARNING));
+
+        assertAll(
+            () -> assertEquals(1, LazyProblemList.count(eager, Severity.ERROR)),
+            () -> assertEquals(2, LazyProblemList.count(eager, Severity.WARNING))
+        );
+    }
+
+}
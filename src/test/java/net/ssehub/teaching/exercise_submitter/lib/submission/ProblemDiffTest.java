@@ -0,0 +1,122 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.ssehub.teaching.exercise_submitter.lib.submission.Problem.Severity;
+
+public class ProblemDiffTest {
+
+    private static Problem problem(String message, int line) {
+        Problem problem = new Problem("checkstyle", message, Severity.WARNING);
+        problem.setFile(new File("Main.java"));
+        if (line > 0) {
+            problem.setLine(line);
+        }
+        return problem;
+    }
+
+    @Test
+    public void identicalListsUnchanged() {
+        List<Problem> problems = Arrays.asList(problem("a", 1), problem("b", 5), problem("c", 0));
+
+        ProblemDiff diff = new ProblemDiff(problems, problems, 0);
+
+        assertAll(
+            () -> assertFalse(diff.hasChanges()),
+            () -> assertEquals(problems, diff.getUnchanged())
+        );
+    }
+
+    @Test
+    public void addedAndRemoved() {
+        Problem fixed = problem("fixed", 3);
+        Problem kept = problem("kept", 7);
+        Problem added = problem("new", 9);
+
+        ProblemDiff diff = new ProblemDiff(Arrays.asList(fixed, kept), Arrays.asList(kept, added), 0);
+
+        assertAll(
+            () -> assertTrue(diff.hasChanges()),
+            () -> assertEquals(Arrays.asList(added), diff.getAdded()),
+            () -> assertEquals(Arrays.asList(fixed), diff.getRemoved()),
+            () -> assertEquals(Arrays.asList(kept), diff.getUnchanged())
+        );
+    }
+
+    @Test
+    public void movedLineWithinToleranceUnchanged() {
+        Problem before = problem("a", 10);
+        Problem after = problem("a", 12);
+
+        ProblemDiff diff = new ProblemDiff(Arrays.asList(before), Arrays.asList(after), 3);
+
+        assertAll(
+            () -> assertFalse(diff.hasChanges()),
+            () -> assertSame(after, diff.getUnchanged().get(0))
+        );
+    }
+
+    @Test
+    public void movedLineBeyondToleranceChanged() {
+        ProblemDiff diff = new ProblemDiff(Arrays.asList(problem("a", 10)), Arrays.asList(problem("a", 20)), 3);
+
+        assertAll(
+            () -> assertEquals(1, diff.getAdded().size()),
+            () -> assertEquals(1, diff.getRemoved().size())
+        );
+    }
+
+    @Test
+    public void duplicatesMatchedOneToOne() {
+        ProblemDiff diff = new ProblemDiff(Arrays.asList(problem("a", 5), problem("a", 5)),
+                Arrays.asList(problem("a", 5), problem("a", 6), problem("a", 6)), 1);
+
+        assertAll(
+            () -> assertEquals(2, diff.getUnchanged().size()),
+            () -> assertEquals(1, diff.getAdded().size()),
+            () -> assertEquals(Collections.emptyList(), diff.getRemoved())
+        );
+    }
+
+    @Test
+    public void problemWithoutLineNotMatchedByTolerance() {
+        ProblemDiff diff = new ProblemDiff(Arrays.asList(problem("a", 0)), Arrays.asList(problem("a", 1)), 5);
+
+        assertAll(
+            () -> assertEquals(1, diff.getAdded().size()),
+            () -> assertEquals(1, diff.getRemoved().size())
+        );
+    }
+
+    @Test
+    public void betweenSubmissionResults() {
+        SubmissionResult previous = new SubmissionResult(false, Arrays.asList(problem("a", 1), problem("b", 2)));
+        SubmissionResult current = new SubmissionResult(true, Arrays.asList(problem("a", 2)));
+
+        ProblemDiff diff = ProblemDiff.between(previous, current);
+
+        assertAll(
+            () -> assertEquals(Collections.emptyList(), diff.getAdded()),
+            () -> assertEquals(Arrays.asList(problem("b", 2)), diff.getRemoved())
+        );
+    }
+
+    @Test
+    public void negativeToleranceRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new ProblemDiff(Collections.emptyList(), Collections.emptyList(), -1));
+    }
+
+}
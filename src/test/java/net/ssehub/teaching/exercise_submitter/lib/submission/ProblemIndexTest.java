@@ -0,0 +1,105 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import net.ssehub.teaching.exercise_submitter.lib.data.Assessment;
+import net.ssehub.teaching.exercise_submitter.lib.submission.Problem.Severity;
+
+public class ProblemIndexTest {
+
+    private static Problem problem(String check, Severity severity, String file, int line) {
+        Problem problem = new Problem(check, "message", severity);
+        if (file != null) {
+            problem.setFile(new File(file));
+            if (line > 0) {
+                problem.setLine(line);
+            }
+        }
+        return problem;
+    }
+
+    private static final Problem MAIN_10 = problem("javac", Severity.ERROR, "Main.java", 10);
+
+    private static final Problem MAIN_3 = problem("checkstyle", Severity.WARNING, "Main.java", 3);
+
+    private static final Problem MAIN_NO_LINE = problem("checkstyle", Severity.WARNING, "Main.java", 0);
+
+    private static final Problem UTIL_5 = problem("javac", Severity.ERROR, "dir/Util.java", 5);
+
+    private static final Problem NO_FILE = problem("encoding", Severity.ERROR, null, 0);
+
+    private static final List<Problem> PROBLEMS = Arrays.asList(MAIN_10, MAIN_3, NO_FILE, UTIL_5, MAIN_NO_LINE);
+
+    @Test
+    public void byFileKeepsOrder() {
+        ProblemIndex index = new ProblemIndex(PROBLEMS);
+
+        assertAll(
+            () -> assertEquals(Set.of(new File("Main.java"), new File("dir/Util.java")), index.getFiles()),
+            () -> assertEquals(Arrays.asList(MAIN_10, MAIN_3, MAIN_NO_LINE), index.getProblems(new File("Main.java"))),
+            () -> assertEquals(Arrays.asList(UTIL_5), index.getProblems(new File("dir/Util.java"))),
+            () -> assertEquals(Collections.emptyList(), index.getProblems(new File("Other.java"))),
+            () -> assertEquals(Arrays.asList(NO_FILE), index.getProblemsWithoutFile())
+        );
+    }
+
+    @Test
+    public void lineRangeOrderedByLine() {
+        ProblemIndex index = new ProblemIndex(PROBLEMS);
+        File main = new File("Main.java");
+
+        assertAll(
+            () -> assertEquals(Arrays.asList(MAIN_3, MAIN_10), index.getProblems(main, 1, Integer.MAX_VALUE)),
+            () -> assertEquals(Arrays.asList(MAIN_3), index.getProblems(main, 3, 9)),
+            () -> assertEquals(Arrays.asList(MAIN_10), index.getProblems(main, 10, 10)),
+            () -> assertEquals(Collections.emptyList(), index.getProblems(main, 4, 9)),
+            () -> assertThrows(IllegalArgumentException.class, () -> index.getProblems(main, 5, 4))
+        );
+    }
+
+    @Test
+    public void byCheckAndSeverity() {
+        ProblemIndex index = new ProblemIndex(PROBLEMS);
+
+        assertAll(
+            () -> assertEquals(Arrays.asList(MAIN_10, UTIL_5), index.getProblemsByCheck("javac")),
+            () -> assertEquals(Collections.emptyList(), index.getProblemsByCheck("junit")),
+            () -> assertEquals(Arrays.asList(MAIN_10, NO_FILE, UTIL_5), index.getProblems(Severity.ERROR)),
+            () -> assertEquals(Arrays.asList(MAIN_3, MAIN_NO_LINE), index.getProblems(Severity.WARNING))
+        );
+    }
+
+    @Test
+    public void submissionResultIndexCached() {
+        SubmissionResult result = new SubmissionResult(false, PROBLEMS);
+
+        assertSame(result.getProblemIndex(), result.getProblemIndex());
+    }
+
+    @Test
+    public void assessmentIndexRebuiltAfterChange() {
+        Assessment assessment = new Assessment();
+        assessment.setProblems(LazyProblemList.of(Arrays.asList(MAIN_10)));
+        ProblemIndex before = assessment.getProblemIndex();
+
+        assessment.addProblem(UTIL_5);
+
+        assertAll(
+            () -> assertNotSame(before, assessment.getProblemIndex()),
+            () -> assertEquals(2, assessment.getProblemIndex().getFiles().size())
+        );
+    }
+
+}
@@ -0,0 +1,90 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import net.ssehub.teaching.exercise_submitter.lib.submission.Problem.Severity;
+
+public class ProblemTest {
+
+    @Test
+    public void absentPositionIsEmpty() {
+        Problem problem = new Problem("javac", "message", Severity.ERROR);
+
+        assertAll(
+            () -> assertEquals(Optional.empty(), problem.getFile()),
+            () -> assertEquals(Optional.empty(), problem.getLine()),
+            () -> assertEquals(Optional.empty(), problem.getColumn())
+        );
+    }
+
+    @Test
+    public void positionRoundTrips() {
+        Problem problem = new Problem("javac", "message", Severity.ERROR);
+        problem.setFile(new File("dir/Main.java"));
+        problem.setLine(0);
+        problem.setColumn(-1);
+
+        assertAll(
+            () -> assertEquals(Optional.of(new File("dir/Main.java")), problem.getFile()),
+            () -> assertEquals(Optional.of(0), problem.getLine()),
+            () -> assertEquals(Optional.of(-1), problem.getColumn())
+        );
+    }
+
+    @Test
+    public void minValuePositionThrows() {
+        Problem problem = new Problem("javac", "message", Severity.ERROR);
+
+        assertAll(
+            () -> assertThrows(IllegalArgumentException.class, () -> problem.setLine(Integer.MIN_VALUE)),
+            () -> assertThrows(IllegalArgumentException.class, () -> problem.setColumn(Integer.MIN_VALUE))
+        );
+    }
+
+    @Test
+    public void equalProblemsHaveEqualHashCodes() {
+        Problem first = new Problem("checkstyle", "message", Severity.WARNING);
+        first.setFile(new File("Main.java"));
+        first.setLine(3);
+        Problem second = new Problem(new String("checkstyle"), "message", Severity.WARNING);
+        second.setFile(new File(new String("Main.java")));
+        second.setLine(3);
+
+        assertAll(
+            () -> assertEquals(first, second),
+            () -> assertEquals(first.hashCode(), second.hashCode())
+        );
+    }
+
+    @Test
+    public void hashCodeUpdatedBySetters() {
+        Problem first = new Problem("javac", "message", Severity.ERROR);
+        Problem second = new Problem("javac", "message", Severity.ERROR);
+        second.setColumn(5);
+
+        assertNotEquals(first, second);
+        first.setColumn(5);
+        assertAll(
+            () -> assertEquals(first, second),
+            () -> assertEquals(first.hashCode(), second.hashCode())
+        );
+    }
+
+    @Test
+    public void checkNameInterned() {
+        Problem first = new Problem(new String("javac"), "message", Severity.ERROR);
+        Problem second = new Problem(new String("javac"), "other", Severity.ERROR);
+
+        assertSame(first.getCheckName(), second.getCheckName());
+    }
+
+}
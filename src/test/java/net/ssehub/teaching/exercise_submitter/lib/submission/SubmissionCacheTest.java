@@ -0,0 +1,54 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+public class SubmissionCacheTest {
+
+    private static final Map<String, String> MANIFEST = Map.of("Main.java", "abc");
+
+    @Test
+    public void emptyCacheFindsNothing() {
+        assertEquals(Optional.empty(), new SubmissionCache().find(MANIFEST, 0));
+    }
+
+    @Test
+    public void acceptedSubmissionAddsVersion() {
+        SubmissionCache cache = new SubmissionCache();
+        SubmissionResult result = new SubmissionResult(true, Collections.emptyList());
+
+        cache.remember(MANIFEST, 2, result);
+
+        assertAll(
+            () -> assertSame(result, cache.find(MANIFEST, 3).get()),
+            () -> assertEquals(Optional.empty(), cache.find(MANIFEST, 2)),
+            () -> assertEquals(Optional.empty(), cache.find(MANIFEST, 4))
+        );
+    }
+
+    @Test
+    public void rejectedSubmissionAddsNoVersion() {
+        SubmissionCache cache = new SubmissionCache();
+        SubmissionResult result = new SubmissionResult(false, Collections.emptyList());
+
+        cache.remember(MANIFEST, 2, result);
+
+        assertSame(result, cache.find(MANIFEST, 2).get());
+    }
+
+    @Test
+    public void changedContentNotFound() {
+        SubmissionCache cache = new SubmissionCache();
+        cache.remember(MANIFEST, 0, new SubmissionResult(true, Collections.emptyList()));
+
+        assertEquals(Optional.empty(), cache.find(Map.of("Main.java", "changed"), 1));
+    }
+
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.File;
@@ -109,6 +110,14 @@ public class SubmitterIT {
                 "exercise-submitter-checks",
                 "[{\"check\":\"javac\"},{\"check\":\"checkstyle\",\"rules\":\"checkstyle.xml\"}]");
         
+        assignmentids.put("unchangedSubmissionSkipped",
+                docker.createAssignment(courseId, "unchangedSubmissionSkipped",
+                        AssignmentState.SUBMISSION, Collaboration.GROUP));
+        
+        assignmentids.put("unchangedSubmissionUploadedAfterOtherVersion",
+                docker.createAssignment(courseId, "unchangedSubmissionUploadedAfterOtherVersion",
+                        AssignmentState.SUBMISSION, Collaboration.GROUP));
+        
         assignmentids.put("authFailure",
                 docker.createAssignment(courseId, "authFailure",
                         AssignmentState.SUBMISSION, Collaboration.GROUP));
@@ -349,6 +358,76 @@ public class SubmitterIT {
         assertEquals(Set.of("Main.java"), filepaths);
     }
     
+    @Test
+    public void unchangedSubmissionSkipped() throws InterruptedException {
+        // setup
+        String homeworkname = "unchangedSubmissionSkipped";
+        Submitter submitter = new Submitter(docker.getExerciseSubmitterServerUrl(),
+                courseId, homeworkname, "JP001", docker.getAuthToken("student1")).withSkipUnchanged(true);
+        
+        SubmissionResult first = assertDoesNotThrow(() -> submitter.submit(SINGLE_FILE_DIR));
+        Thread.sleep(1000); // wait a second, since server stores versions by second-based timestamp
+        
+        // execute
+        SubmissionResult second = assertDoesNotThrow(() -> submitter.submit(SINGLE_FILE_DIR));
+        
+        // check result
+        assertAll(
+            () -> assertSame(first, second),
+            () -> assertEquals(1, getVersionCount(homeworkname, "JP001"))
+        );
+    }
+    
+    @Test
+    public void unchangedSubmissionSkippedWithSharedCache() throws InterruptedException {
+        // setup
+        String homeworkname = "unchangedSubmissionSkippedWithSharedCache";
+        SubmissionCache cache = new SubmissionCache();
+        Submitter first = new Submitter(docker.getExerciseSubmitterServerUrl(),
+                courseId, homeworkname, "JP001", docker.getAuthToken("student1")).withSubmissionCache(cache);
+        Submitter second = new Submitter(docker.getExerciseSubmitterServerUrl(),
+                courseId, homeworkname, "JP001", docker.getAuthToken("student1")).withSubmissionCache(cache);
+
+        SubmissionResult firstResult = assertDoesNotThrow(() -> first.submit(SINGLE_FILE_DIR));
+        Thread.sleep(1000); // wait a second, since server stores versions by second-based timestamp
+
+        // execute
+        SubmissionResult secondResult = assertDoesNotThrow(() -> second.submit(SINGLE_FILE_DIR));
+
+        // check result
+        assertAll(
+            () -> assertSame(firstResult, secondResult),
+            () -> assertEquals(1, getVersionCount(homeworkname, "JP001"))
+        );
+    }
+
+    @Test
+    public void unchangedSubmissionUploadedAfterOtherVersion() throws InterruptedException {
+        // setup
+        String homeworkname = "unchangedSubmissionUploadedAfterOtherVersion";
+        Submitter submitter = new Submitter(docker.getExerciseSubmitterServerUrl(),
+                courseId, homeworkname, "JP001", docker.getAuthToken("student1")).withSkipUnchanged(true);
+        Submitter groupMember = new Submitter(docker.getExerciseSubmitterServerUrl(),
+                courseId, homeworkname, "JP001", docker.getAuthToken("student3"));
+        
+        assertDoesNotThrow(() -> submitter.submit(SINGLE_FILE_DIR));
+        Thread.sleep(1000); // wait a second, since server stores versions by second-based timestamp
+        assertDoesNotThrow(() -> groupMember.submit(TWO_FILE_DIR));
+        Thread.sleep(1000);
+        
+        // execute
+        assertDoesNotThrow(() -> submitter.submit(SINGLE_FILE_DIR));
+        
+        // check files on server
+        List<FileDto> onServer = getLatestSubmission(homeworkname, "JP001");
+        
+        assertAll(
+            () -> assertEquals(3, getVersionCount(homeworkname, "JP001")),
+            () -> assertEquals(1, onServer.size()),
+            () -> assertEquals("Main.java", onServer.get(0).getPath())
+        );
+    }
+    
     @Test
     public void authFailure() {
         // setup
@@ -366,6 +445,16 @@ public class SubmitterIT {
         );
     }
     
+    private int getVersionCount(String assignment, String group) {
+        ApiClient client = new ApiClient();
+        client.setBasePath(docker.getExerciseSubmitterServerUrl());
+        client.setAccessToken(docker.getAuthToken("adam"));
+        
+        SubmissionApi api = new SubmissionApi(client);
+        
+        return assertDoesNotThrow(() -> api.listVersions(courseId, assignment, group)).size();
+    }
+    
     private List<FileDto> getLatestSubmission(String assignment, String group) {
         ApiClient client = new ApiClient();
         client.setBasePath(docker.getExerciseSubmitterServerUrl());
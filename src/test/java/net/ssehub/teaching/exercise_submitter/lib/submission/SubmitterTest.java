@@ -4,21 +4,40 @@ import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import net.ssehub.teaching.exercise_submitter.lib.ExerciseSubmitterFactory;
 import net.ssehub.teaching.exercise_submitter.lib.ExerciseSubmitterManager;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.InMemoryMetrics;
+import net.ssehub.teaching.exercise_submitter.lib.metrics.MetricNames;
+import net.ssehub.teaching.exercise_submitter.lib.network.RequestExecutor;
+import net.ssehub.teaching.exercise_submitter.lib.network.ResiliencePolicy;
+import net.ssehub.teaching.exercise_submitter.lib.standin.StandInServer;
 import net.ssehub.teaching.exercise_submitter.lib.student_management_system.DummyApiConnection;
 import net.ssehub.teaching.exercise_submitter.lib.submission.Problem.Severity;
 import net.ssehub.teaching.exercise_submitter.server.api.model.CheckMessageDto;
@@ -52,6 +71,166 @@ public class SubmitterTest {
             assertThrows(IllegalArgumentException.class, () -> submitter.submit(new File("main.java")));
         }
         
+        @Test
+        public void interruptedThreadAborts() {
+            Submitter submitter = unreachableSubmitter();
+            
+            Thread.currentThread().interrupt();
+            try {
+                SubmissionException e = assertThrows(SubmissionException.class,
+                    () -> submitter.submit(TESTDATA.resolve("SingleFile").toFile()));
+                assertTrue(e.getCause() instanceof InterruptedIOException);
+            } finally {
+                Thread.interrupted();
+            }
+        }
+        
+    }
+    
+    /**
+     * Creates a submitter for a server that cannot be reached, without retries.
+     */
+    private static Submitter unreachableSubmitter() {
+        return new Submitter("http://localhost:1", "java-wise2021", "exercise01", "Group01", "token",
+                new RequestExecutor(new ResiliencePolicy().withMaxAttempts(1)));
+    }
+    
+    @Nested
+    public class SubmitAsync {
+        
+        @Test
+        public void noDirectoryThrows() {
+            assertThrows(IllegalArgumentException.class,
+                () -> unreachableSubmitter().submitAsync(new File("main.java"), SubmissionProgressListener.NONE));
+        }
+        
+        @Test
+        public void progressReported() throws InterruptedException {
+            List<String> events = new CopyOnWriteArrayList<>();
+            SubmissionProgressListener listener = new SubmissionProgressListener() {
+                
+                @Override
+                public void filesPrepared(int fileCount) {
+                    events.add("prepared " + fileCount);
+                }
+                
+                @Override
+                public void bytesEncoded(int filesEncoded, int fileCount, long bytesEncoded) {
+                    events.add("encoded " + filesEncoded + "/" + fileCount + " " + bytesEncoded);
+                }
+                
+                @Override
+                public void uploadStarted(long totalBytes) {
+                    events.add("upload " + totalBytes);
+                }
+                
+            };
+            
+            Future<SubmissionResult> result = unreachableSubmitter()
+                    .submitAsync(TESTDATA.resolve("TwoFiles").toFile(), listener);
+            
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertAll(
+                () -> assertTrue(e.getCause() instanceof SubmissionException),
+                () -> assertEquals(4, events.size()),
+                () -> assertEquals("prepared 2", events.get(0)),
+                () -> assertTrue(events.get(1).startsWith("encoded 1/2 "), events.get(1)),
+                () -> assertTrue(events.get(2).startsWith("encoded 2/2 "), events.get(2)),
+                () -> assertEquals("upload " + events.get(2).substring("encoded 2/2 ".length()), events.get(3))
+            );
+        }
+        
+        @Test
+        public void runsOnGivenExecutor() {
+            AtomicInteger executed = new AtomicInteger();
+            Submitter submitter = unreachableSubmitter().withAsyncExecutor(task -> {
+                executed.incrementAndGet();
+                task.run();
+            });
+            
+            Future<SubmissionResult> result = submitter.submitAsync(TESTDATA.resolve("TwoFiles").toFile(),
+                    SubmissionProgressListener.NONE);
+            
+            assertAll(
+                () -> assertEquals(1, executed.get()),
+                () -> assertTrue(result.isDone())
+            );
+        }
+        
+        @Test
+        public void cancelledBeforeUpload() throws InterruptedException {
+            CountDownLatch prepared = new CountDownLatch(1);
+            CountDownLatch cancelled = new CountDownLatch(1);
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            List<String> events = new CopyOnWriteArrayList<>();
+            SubmissionProgressListener listener = new SubmissionProgressListener() {
+                
+                @Override
+                public void filesPrepared(int fileCount) {
+                    prepared.countDown();
+                    try {
+                        cancelled.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                
+                @Override
+                public void bytesEncoded(int filesEncoded, int fileCount, long bytesEncoded) {
+                    events.add("encoded");
+                }
+                
+                @Override
+                public void uploadStarted(long totalBytes) {
+                    events.add("upload");
+                }
+                
+            };
+            
+            Future<SubmissionResult> result = unreachableSubmitter().withAsyncExecutor(executor)
+                    .submitAsync(TESTDATA.resolve("TwoFiles").toFile(), listener);
+            assertTrue(prepared.await(10, TimeUnit.SECONDS));
+            result.cancel(true);
+            cancelled.countDown();
+            executor.shutdown();
+            
+            assertAll(
+                () -> assertTrue(result.isCancelled()),
+                () -> assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS)),
+                () -> assertEquals(Collections.emptyList(), events)
+            );
+        }
+        
+        @Test
+        public void cancelledDuringUpload() throws IOException, InterruptedException {
+            CountDownLatch uploadStarted = new CountDownLatch(1);
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            SubmissionProgressListener listener = new SubmissionProgressListener() {
+                
+                @Override
+                public void uploadStarted(long totalBytes) {
+                    uploadStarted.countDown();
+                }
+                
+            };
+            
+            try (StandInServer server = new StandInServer().withLatency(Duration.ofSeconds(10), Duration.ZERO)
+                    .start()) {
+                Future<SubmissionResult> result = new Submitter(server.getUrl(), "java-wise2021", "exercise01",
+                        "Group01", "token", new RequestExecutor(new ResiliencePolicy().withMaxAttempts(1)))
+                        .withAsyncExecutor(executor)
+                        .submitAsync(TESTDATA.resolve("TwoFiles").toFile(), listener);
+                assertTrue(uploadStarted.await(10, TimeUnit.SECONDS));
+                result.cancel(true);
+                executor.shutdown();
+                
+                assertAll(
+                    () -> assertTrue(result.isCancelled()),
+                    () -> assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS))
+                );
+            }
+        }
+        
     }
     
     @Nested
@@ -103,6 +282,22 @@ public class SubmitterTest {
                     + "CiAgICB9Cn0K", result.getContent());
         }
         
+        @Test
+        public void bytesReadAndEncodedRecorded() {
+            Path submissionDir = TESTDATA.resolve("SingleFile");
+            InMemoryMetrics metrics = new InMemoryMetrics();
+            
+            FileDto result = assertDoesNotThrow(
+                () -> Submitter.pathToFileDto(Path.of("Main.java"), submissionDir, metrics));
+            
+            assertAll(
+                () -> assertEquals(Base64.getDecoder().decode(result.getContent()).length,
+                        metrics.getCounter(MetricNames.SUBMISSION_BYTES_READ)),
+                () -> assertEquals(result.getContent().length(),
+                        metrics.getCounter(MetricNames.SUBMISSION_BYTES_ENCODED))
+            );
+        }
+        
         @Test
         public void cp1252TextContentConvertedToUtf8() {
             Path submissionDir = TESTDATA.resolve("Encoding");
@@ -247,6 +442,23 @@ public class SubmitterTest {
             );
         }
         
+        @Test
+        public void errorAndWarningCounts() {
+            SubmissionResultDto dto = new SubmissionResultDto();
+            dto.setAccepted(false);
+            dto.setMessages(Arrays.asList(
+                    new CheckMessageDto().checkName("javac").type(TypeEnum.ERROR).message("Mock Message"),
+                    new CheckMessageDto().checkName("javac").type(TypeEnum.ERROR).message("Other Message"),
+                    new CheckMessageDto().checkName("checkstyle").type(TypeEnum.WARNING).message("Some message")));
+            
+            SubmissionResult sr = Submitter.dtoToSubmissionResult(dto);
+            
+            assertAll(
+                () -> assertEquals(2, sr.getErrorCount()),
+                () -> assertEquals(1, sr.getWarningCount())
+            );
+        }
+        
         @Test
         public void singleMessageFileLineColumn() {
             SubmissionResultDto dto = new SubmissionResultDto();
@@ -269,5 +481,45 @@ public class SubmitterTest {
         }
         
     }
+    
+    @Nested
+    public class ComputeManifest {
+        
+        private FileDto file(String path, String content) {
+            FileDto dto = new FileDto();
+            dto.setPath(path);
+            dto.setContent(Base64.getEncoder().encodeToString(content.getBytes(StandardCharsets.UTF_8)));
+            return dto;
+        }
+        
+        @Test
+        public void independentOfOrder() {
+            assertEquals(
+                Submitter.computeManifest(Arrays.asList(file("A.java", "a"), file("B.java", "b"))),
+                Submitter.computeManifest(Arrays.asList(file("B.java", "b"), file("A.java", "a"))));
+        }
+        
+        @Test
+        public void changedContentDiffers() {
+            assertNotEquals(
+                Submitter.computeManifest(Arrays.asList(file("A.java", "a"))),
+                Submitter.computeManifest(Arrays.asList(file("A.java", "changed"))));
+        }
+        
+        @Test
+        public void renamedFileDiffers() {
+            assertNotEquals(
+                Submitter.computeManifest(Arrays.asList(file("A.java", "a"))),
+                Submitter.computeManifest(Arrays.asList(file("B.java", "a"))));
+        }
+        
+        @Test
+        public void addedFileDiffers() {
+            assertNotEquals(
+                Submitter.computeManifest(Arrays.asList(file("A.java", "a"))),
+                Submitter.computeManifest(Arrays.asList(file("A.java", "a"), file("B.java", "b"))));
+        }
+        
+    }
 
 }
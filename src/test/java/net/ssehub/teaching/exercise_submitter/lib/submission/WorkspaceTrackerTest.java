@@ -0,0 +1,216 @@
+package net.ssehub.teaching.exercise_submitter.lib.submission;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class WorkspaceTrackerTest {
+
+    private static final Path TESTDATA = Path.of("src", "test", "resources", "SubmitterTest");
+
+    private Path dir;
+
+    @BeforeEach
+    public void createDirectory() throws IOException {
+        dir = Files.createTempDirectory("WorkspaceTrackerTest");
+        Files.writeString(dir.resolve("Main.java"), "class Main {}\n");
+        Files.createDirectories(dir.resolve("pkg"));
+        Files.writeString(dir.resolve("pkg/Util.java"), "class Util {}\n");
+        Files.createDirectories(dir.resolve("bin"));
+        Files.writeString(dir.resolve("bin/Main.class"), "compiled");
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Polls the changes of the tracker until the expected changes arrived, as events are delivered asynchronously.
+     */
+    private static Set<Path> awaitChanges(WorkspaceTracker tracker, Set<Path> expected)
+            throws IOException, InterruptedException {
+        Set<Path> changes = new HashSet<>();
+        long deadline = System.currentTimeMillis() + 20_000;
+        while (!changes.containsAll(expected) && System.currentTimeMillis() < deadline) {
+            changes.addAll(tracker.pollChanges());
+            if (!changes.containsAll(expected)) {
+                Thread.sleep(20);
+            }
+        }
+        return changes;
+    }
+
+    @Nested
+    public class InitialScan {
+
+        @Test
+        public void ignoredFilesNotTracked() throws IOException {
+            try (WorkspaceTracker tracker = new WorkspaceTracker(dir)) {
+                assertEquals(Set.of(Path.of("Main.java"), Path.of("pkg", "Util.java")), tracker.getFiles());
+            }
+        }
+
+        @Test
+        public void noInitialChanges() throws IOException {
+            try (WorkspaceTracker tracker = new WorkspaceTracker(dir)) {
+                assertEquals(Set.of(), tracker.pollChanges());
+            }
+        }
+
+        @Test
+        public void manifestEqualsComputedManifest() throws IOException {
+            try (WorkspaceTracker tracker = new WorkspaceTracker(dir)) {
+                Map<Path, String> manifest = tracker.getManifest();
+                assertAll(
+                    () -> assertEquals(manifest, WorkspaceTracker.computeManifest(dir, IgnoreRules.DEFAULT)),
+                    () -> assertEquals(64, manifest.get(Path.of("Main.java")).length())
+                );
+            }
+        }
+
+        @Test
+        public void sameContentSameHash() throws IOException {
+            Files.writeString(dir.resolve("Copy.java"), "class Main {}\n");
+            try (WorkspaceTracker tracker = new WorkspaceTracker(dir)) {
+                Map<Path, String> manifest = tracker.getManifest();
+                assertAll(
+                    () -> assertEquals(manifest.get(Path.of("Main.java")), manifest.get(Path.of("Copy.java"))),
+                    () -> assertNotEquals(manifest.get(Path.of("Main.java")),
+                            manifest.get(Path.of("pkg", "Util.java")))
+                );
+            }
+        }
+
+        @Test
+        public void notExistingDirectoryThrows() {
+            assertThrows(IOException.class, () -> new WorkspaceTracker(dir.resolve("doesnt_exist")));
+        }
+
+        @Test
+        public void computeManifestOfTestdata() throws IOException {
+            Map<Path, String> manifest = WorkspaceTracker.computeManifest(
+                    TESTDATA.resolve("EclipseStructure"), IgnoreRules.DEFAULT);
+            assertAll(
+                () -> assertTrue(manifest.containsKey(Path.of("src", "test", "Main.java"))),
+                () -> assertFalse(manifest.keySet().stream().anyMatch(p -> p.toString().endsWith(".class")))
+            );
+        }
+
+    }
+
+    @Nested
+    public class Changes {
+
+        @Test
+        public void modifiedFileReported() throws IOException, InterruptedException {
+            try (WorkspaceTracker tracker = new WorkspaceTracker(dir)) {
+                String oldHash = tracker.getManifest().get(Path.of("Main.java"));
+
+                Files.writeString(dir.resolve("Main.java"), "class Main { int x; }\n");
+
+                assertEquals(Set.of(Path.of("Main.java")), awaitChanges(tracker, Set.of(Path.of("Main.java"))));
+                assertAll(
+                    () -> assertNotEquals(oldHash, tracker.getManifest().get(Path.of("Main.java"))),
+                    () -> assertEquals(tracker.getManifest(),
+                            WorkspaceTracker.computeManifest(dir, IgnoreRules.DEFAULT))
+                );
+            }
+        }
+
+        @Test
+        public void createdAndDeletedFilesReported() throws IOException, InterruptedException {
+            try (WorkspaceTracker tracker = new WorkspaceTracker(dir)) {
+                Files.writeString(dir.resolve("New.java"), "class New {}\n");
+                Files.delete(dir.resolve("pkg/Util.java"));
+
+                Set<Path> expected = Set.of(Path.of("New.java"), Path.of("pkg", "Util.java"));
+                assertEquals(expected, awaitChanges(tracker, expected));
+                assertEquals(Set.of(Path.of("Main.java"), Path.of("New.java")), tracker.getFiles());
+            }
+        }
+
+        @Test
+        public void newDirectoryTracked() throws IOException, InterruptedException {
+            try (WorkspaceTracker tracker = new WorkspaceTracker(dir)) {
+                Files.createDirectories(dir.resolve("sub/deeper"));
+                Files.writeString(dir.resolve("sub/deeper/A.java"), "class A {}\n");
+
+                Path file = Path.of("sub", "deeper", "A.java");
+                assertTrue(awaitChanges(tracker, Set.of(file)).contains(file));
+
+                Files.writeString(dir.resolve("sub/deeper/A.java"), "class A { int y; }\n");
+                assertTrue(awaitChanges(tracker, Set.of(file)).contains(file));
+            }
+        }
+
+        @Test
+        public void deletedDirectoryRemovesFiles() throws IOException, InterruptedException {
+            try (WorkspaceTracker tracker = new WorkspaceTracker(dir)) {
+                Files.delete(dir.resolve("pkg/Util.java"));
+                Files.delete(dir.resolve("pkg"));
+
+                awaitChanges(tracker, Set.of(Path.of("pkg", "Util.java")));
+                assertEquals(Set.of(Path.of("Main.java")), tracker.getFiles());
+            }
+        }
+
+        @Test
+        public void ignoredFilesNotReported() throws IOException, InterruptedException {
+            try (WorkspaceTracker tracker = new WorkspaceTracker(dir)) {
+                Files.writeString(dir.resolve("bin/Other.class"), "compiled");
+                Files.writeString(dir.resolve("Main.class"), "compiled");
+                Files.writeString(dir.resolve("Marker.java"), "class Marker {}\n");
+
+                assertEquals(Set.of(Path.of("Marker.java")), awaitChanges(tracker, Set.of(Path.of("Marker.java"))));
+            }
+        }
+
+        @Test
+        public void rewriteWithSameContentNotReported() throws IOException, InterruptedException {
+            try (WorkspaceTracker tracker = new WorkspaceTracker(dir)) {
+                tracker.getManifest();
+
+                Files.writeString(dir.resolve("Main.java"), "class Main {}\n");
+                Files.writeString(dir.resolve("Marker.java"), "class Marker {}\n");
+
+                assertEquals(Set.of(Path.of("Marker.java")), awaitChanges(tracker, Set.of(Path.of("Marker.java"))));
+            }
+        }
+
+        @Test
+        public void rescanFindsChanges() throws IOException {
+            try (WorkspaceTracker tracker = new WorkspaceTracker(dir)) {
+                tracker.getManifest();
+                Files.writeString(dir.resolve("Main.java"), "class Main { int changed; }\n");
+
+                tracker.rescan();
+
+                assertEquals(tracker.getManifest(), WorkspaceTracker.computeManifest(dir, IgnoreRules.DEFAULT));
+            }
+        }
+
+    }
+
+}